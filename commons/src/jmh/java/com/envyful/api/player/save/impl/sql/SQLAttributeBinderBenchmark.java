@@ -0,0 +1,114 @@
+package com.envyful.api.player.save.impl.sql;
+
+import com.google.common.collect.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Compares the {@link SQLAttributeBinder} against the reflective {@link Field#get(Object)} /
+ * {@link ResultSet#getObject(String)} path it replaced in the SQLSaveManager.
+ * <br>
+ * Both paths use the same hand-written {@link StubResultSet} and {@link StubPreparedStatement}, which keep the
+ * values as primitives, so the difference between them is the cost of accessing the fields.
+ * Run using <code>./gradlew :commons:jmh</code>
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SQLAttributeBinderBenchmark {
+
+    private static final String QUERY = "query";
+    private static final String[] FIELDS = {"kills", "deaths", "playTime", "balance", "name", "enabled"};
+
+    private final TestAttribute attribute = new TestAttribute();
+
+    private Map<Field, String> reflectiveColumns;
+    private Field[] reflectivePositions;
+    private SQLAttributeBinder binder;
+    private ResultSet resultSet;
+    private PreparedStatement statement;
+
+    @Setup
+    public void setup() throws Exception {
+        this.reflectiveColumns = Maps.newLinkedHashMap();
+        Field[] fields = new Field[FIELDS.length];
+        ColumnAccessor[] accessors = new ColumnAccessor[FIELDS.length];
+
+        for (int i = 0; i < FIELDS.length; i++) {
+            fields[i] = TestAttribute.class.getDeclaredField(FIELDS[i]);
+            fields[i].setAccessible(true);
+            this.reflectiveColumns.put(fields[i], StubResultSet.LABELS[i]);
+            accessors[i] = new ColumnAccessor(fields[i], StubResultSet.LABELS[i], null);
+        }
+
+        Map<String, ColumnAccessor[]> parameters = Maps.newHashMap();
+        parameters.put(QUERY, accessors);
+
+        this.reflectivePositions = fields;
+        this.binder = new SQLAttributeBinder(accessors, parameters);
+        this.resultSet = new StubResultSet();
+        this.statement = new StubPreparedStatement(FIELDS.length);
+    }
+
+    @Benchmark
+    public void reflectiveRead(Blackhole blackhole) throws SQLException, IllegalAccessException {
+        for (Map.Entry<Field, String> entry : this.reflectiveColumns.entrySet()) {
+            entry.getKey().set(this.attribute, this.resultSet.getObject(entry.getValue()));
+        }
+
+        blackhole.consume(this.attribute);
+    }
+
+    @Benchmark
+    public void binderRead(Blackhole blackhole) throws SQLException {
+        this.binder.read(QUERY, this.resultSet, this.attribute);
+        blackhole.consume(this.attribute);
+    }
+
+    @Benchmark
+    public void reflectiveBind(Blackhole blackhole) throws SQLException, IllegalAccessException {
+        for (int i = 0; i < this.reflectivePositions.length; i++) {
+            this.statement.setObject(i + 1, this.reflectivePositions[i].get(this.attribute));
+        }
+
+        blackhole.consume(this.statement);
+    }
+
+    @Benchmark
+    public void binderBind(Blackhole blackhole) throws SQLException {
+        this.binder.bind(QUERY, this.statement, this.attribute);
+        blackhole.consume(this.statement);
+    }
+
+    public static class TestAttribute {
+
+        private int kills;
+        private int deaths;
+        private long playTime;
+        private double balance;
+        private String name;
+        private boolean enabled;
+
+    }
+}
@@ -0,0 +1,23 @@
+package com.envyful.api.cache;
+
+/**
+ *
+ * Loads the value for a key in a {@link LoadingCache}. Run on the cache's executor
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+@FunctionalInterface
+public interface CacheLoader<K, V> {
+
+    /**
+     *
+     * Loads the value for the key
+     *
+     * @param key The key
+     * @return The value, or null if there isn't one (null values aren't cached)
+     * @throws Exception If the load failed
+     */
+    V load(K key) throws Exception;
+
+}
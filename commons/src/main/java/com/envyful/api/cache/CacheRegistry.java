@@ -0,0 +1,75 @@
+package com.envyful.api.cache;
+
+import com.google.common.collect.Maps;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ *
+ * Static registry of the named {@link LoadingCache}s so their metrics can be inspected and they can be
+ * invalidated together (i.e. on a reload).
+ * Caches built with a name are registered automatically
+ *
+ */
+public class CacheRegistry {
+
+    private static final Map<String, LoadingCache<?, ?>> CACHES = Maps.newConcurrentMap();
+
+    private CacheRegistry() {
+        throw new UnsupportedOperationException("Static utility");
+    }
+
+    /**
+     *
+     * Registers the cache under its name, replacing any cache registered with the same name
+     *
+     * @param cache The cache
+     */
+    public static void register(LoadingCache<?, ?> cache) {
+        if (cache.getName() == null) {
+            throw new IllegalArgumentException("Cannot register a cache without a name");
+        }
+
+        CACHES.put(cache.getName(), cache);
+    }
+
+    public static void unregister(String name) {
+        CACHES.remove(name);
+    }
+
+    public static LoadingCache<?, ?> getCache(String name) {
+        return CACHES.get(name);
+    }
+
+    public static Map<String, LoadingCache<?, ?>> getCaches() {
+        return Collections.unmodifiableMap(CACHES);
+    }
+
+    /**
+     *
+     * Takes a snapshot of the metrics of every registered cache
+     *
+     * @return The metrics by cache name
+     */
+    public static Map<String, CacheStats> getStats() {
+        Map<String, CacheStats> stats = Maps.newTreeMap();
+
+        for (Map.Entry<String, LoadingCache<?, ?>> entry : CACHES.entrySet()) {
+            stats.put(entry.getKey(), entry.getValue().getStats());
+        }
+
+        return stats;
+    }
+
+    /**
+     *
+     * Removes all the entries from every registered cache
+     *
+     */
+    public static void invalidateAll() {
+        for (LoadingCache<?, ?> cache : CACHES.values()) {
+            cache.invalidateAll();
+        }
+    }
+}
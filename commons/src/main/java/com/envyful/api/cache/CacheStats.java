@@ -0,0 +1,118 @@
+package com.envyful.api.cache;
+
+/**
+ *
+ * A snapshot of the metrics of a {@link LoadingCache}
+ *
+ */
+public class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long loadSuccesses;
+    private final long loadFailures;
+    private final long totalLoadNanos;
+    private final long refreshes;
+    private final long evictions;
+    private final long expirations;
+    private final int size;
+
+    CacheStats(long hits, long misses, long loadSuccesses, long loadFailures, long totalLoadNanos,
+               long refreshes, long evictions, long expirations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loadSuccesses = loadSuccesses;
+        this.loadFailures = loadFailures;
+        this.totalLoadNanos = totalLoadNanos;
+        this.refreshes = refreshes;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     *
+     * Gets the ratio of requests that were served from the cache
+     *
+     * @return The hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long total = this.hits + this.misses;
+        return total == 0 ? 1.0 : (double) this.hits / total;
+    }
+
+    public long getLoadSuccesses() {
+        return this.loadSuccesses;
+    }
+
+    public long getLoadFailures() {
+        return this.loadFailures;
+    }
+
+    public long getTotalLoadNanos() {
+        return this.totalLoadNanos;
+    }
+
+    /**
+     *
+     * Gets the average time (in nanoseconds) spent loading a value
+     *
+     * @return The average load time
+     */
+    public long getAverageLoadNanos() {
+        long loads = this.loadSuccesses + this.loadFailures;
+        return loads == 0 ? 0 : this.totalLoadNanos / loads;
+    }
+
+    /**
+     *
+     * Gets the number of background reloads started for entries that were due a refresh
+     *
+     * @return The refresh count
+     */
+    public long getRefreshes() {
+        return this.refreshes;
+    }
+
+    /**
+     *
+     * Gets the number of entries removed to keep the cache within its maximum size
+     *
+     * @return The eviction count
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    public long getExpirations() {
+        return this.expirations;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + this.hits +
+                ", misses=" + this.misses +
+                ", hitRate=" + String.format("%.2f", this.getHitRate()) +
+                ", loadSuccesses=" + this.loadSuccesses +
+                ", loadFailures=" + this.loadFailures +
+                ", averageLoadNanos=" + this.getAverageLoadNanos() +
+                ", refreshes=" + this.refreshes +
+                ", evictions=" + this.evictions +
+                ", expirations=" + this.expirations +
+                ", size=" + this.size +
+                '}';
+    }
+}
@@ -0,0 +1,277 @@
+package com.envyful.api.cache;
+
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ *
+ * A thread safe store where entries expire a fixed time after they were written and the least recently used entry
+ * is evicted once the store is full. This is the storage behind {@link LoadingCache} and
+ * {@link com.envyful.api.type.TimeOutHashMap}.
+ * <br>
+ * Expired entries are hidden as soon as they expire and are removed by a sweep, run on writes at most once per
+ * expiry time, or by calling {@link #cleanUp()}
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class ExpiringStore<K, V> {
+
+    private final long expireAfterWriteNanos;
+    private final int maximumSize;
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long lastSweep;
+
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     *
+     * Creates an empty store
+     *
+     * @param expireAfterWriteNanos The time (in nanoseconds) until an entry expires, or 0 for never
+     * @param maximumSize The maximum number of entries, or 0 for no maximum
+     * @param ticker The clock, in nanoseconds
+     */
+    public ExpiringStore(long expireAfterWriteNanos, int maximumSize, LongSupplier ticker) {
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.maximumSize = maximumSize;
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (ExpiringStore.this.maximumSize <= 0 || this.size() <= ExpiringStore.this.maximumSize) {
+                    return false;
+                }
+
+                ExpiringStore.this.evictions.increment();
+                return true;
+            }
+        };
+        this.lastSweep = ticker.getAsLong();
+    }
+
+    public long now() {
+        return this.ticker.getAsLong();
+    }
+
+    /**
+     *
+     * Gets the entry for the key, removing it if it has expired
+     *
+     * @param key The key
+     * @param now The current time from {@link #now()}
+     * @return The entry or null if there's no live entry
+     */
+    @Nullable
+    public Entry<V> getEntry(Object key, long now) {
+        synchronized (this.entries) {
+            Entry<V> entry = this.entries.get(key);
+
+            if (entry == null) {
+                return null;
+            }
+
+            if (this.hasExpired(entry, now)) {
+                this.entries.remove(key);
+                this.expirations.increment();
+                return null;
+            }
+
+            return entry;
+        }
+    }
+
+    @Nullable
+    public V get(Object key) {
+        Entry<V> entry = this.getEntry(key, this.now());
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     *
+     * Stores the value, replacing any existing entry and resetting its expiry
+     *
+     * @param key The key
+     * @param value The value
+     * @return The previous value or null if there wasn't a live one
+     */
+    @Nullable
+    public V put(K key, V value) {
+        long now = this.now();
+        Entry<V> old;
+
+        synchronized (this.entries) {
+            this.sweep(now);
+            old = this.entries.put(key, new Entry<>(now, value));
+        }
+
+        return old == null || this.hasExpired(old, now) ? null : old.value;
+    }
+
+    @Nullable
+    public V remove(Object key) {
+        Entry<V> old;
+
+        synchronized (this.entries) {
+            old = this.entries.remove(key);
+        }
+
+        return old == null || this.hasExpired(old, this.now()) ? null : old.value;
+    }
+
+    /**
+     *
+     * Removes the entry only if it's live and holds the value
+     *
+     * @param key The key
+     * @param value The value expected for the key
+     * @return true if the entry was removed
+     */
+    public boolean remove(Object key, Object value) {
+        long now = this.now();
+
+        synchronized (this.entries) {
+            Entry<V> entry = this.entries.get(key);
+
+            if (entry == null || this.hasExpired(entry, now) || !Objects.equals(value, entry.value)) {
+                return false;
+            }
+
+            this.entries.remove(key);
+            return true;
+        }
+    }
+
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            this.sweep(this.now());
+            return this.entries.size();
+        }
+    }
+
+    public boolean containsValue(Object value) {
+        long now = this.now();
+
+        synchronized (this.entries) {
+            for (Entry<V> entry : this.entries.values()) {
+                if (!this.hasExpired(entry, now) && Objects.equals(value, entry.value)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     *
+     * Takes a snapshot of the live entries, from least to most recently used
+     *
+     * @return The entries
+     */
+    public Map<K, V> snapshot() {
+        Map<K, V> snapshot = Maps.newLinkedHashMap();
+        long now = this.now();
+
+        synchronized (this.entries) {
+            for (Map.Entry<K, Entry<V>> entry : this.entries.entrySet()) {
+                if (!this.hasExpired(entry.getValue(), now)) {
+                    snapshot.put(entry.getKey(), entry.getValue().value);
+                }
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     *
+     * Removes all the expired entries
+     *
+     */
+    public void cleanUp() {
+        synchronized (this.entries) {
+            this.lastSweep = Long.MIN_VALUE;
+            this.sweep(this.now());
+        }
+    }
+
+    private void sweep(long now) {
+        if (this.expireAfterWriteNanos <= 0) {
+            return;
+        }
+
+        if (this.lastSweep != Long.MIN_VALUE && (now - this.lastSweep) < this.expireAfterWriteNanos) {
+            return;
+        }
+
+        this.lastSweep = now;
+        Iterator<Entry<V>> iterator = this.entries.values().iterator();
+
+        while (iterator.hasNext()) {
+            if (this.hasExpired(iterator.next(), now)) {
+                iterator.remove();
+                this.expirations.increment();
+            }
+        }
+    }
+
+    private boolean hasExpired(Entry<V> entry, long now) {
+        return this.expireAfterWriteNanos > 0 && (now - entry.writeTime) >= this.expireAfterWriteNanos;
+    }
+
+    /**
+     *
+     * Gets the number of entries removed to keep the store within its maximum size
+     *
+     * @return The eviction count
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     *
+     * Gets the number of expired entries that have been removed
+     *
+     * @return The expiration count
+     */
+    public long getExpirations() {
+        return this.expirations.sum();
+    }
+
+    public static final class Entry<V> {
+
+        private final long writeTime;
+        private final V value;
+
+        private Entry(long writeTime, V value) {
+            this.writeTime = writeTime;
+            this.value = value;
+        }
+
+        public long getWriteTime() {
+            return this.writeTime;
+        }
+
+        public V getValue() {
+            return this.value;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.envyful.api.cache;
+
+import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ *
+ * A thread safe cache that loads missing values asynchronously with a {@link CacheLoader}.
+ * <br>
+ * Entries are held in an {@link ExpiringStore}, so they expire a fixed time after they were loaded and the least
+ * recently used entry is evicted when the cache is full. Entries older than the refresh time are still returned but
+ * a reload is started in the background, so a frequently used entry is replaced before it expires instead of a
+ * caller having to wait for it to load.
+ * <br>
+ * Only one load runs per key at a time, callers requesting a key that's being loaded share the same future.
+ * Failed loads and null values are never cached
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class LoadingCache<K, V> {
+
+    private final String name;
+    private final CacheLoader<K, V> loader;
+    private final Executor executor;
+    private final long refreshAfterWriteNanos;
+    private final ExpiringStore<K, V> entries;
+    private final ConcurrentMap<K, CompletableFuture<V>> loading = Maps.newConcurrentMap();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    private LoadingCache(String name, CacheLoader<K, V> loader, Executor executor, long expireAfterWriteNanos,
+                         long refreshAfterWriteNanos, int maximumSize, LongSupplier ticker) {
+        this.name = name;
+        this.loader = loader;
+        this.executor = executor;
+        this.refreshAfterWriteNanos = refreshAfterWriteNanos;
+        this.entries = new ExpiringStore<>(expireAfterWriteNanos, maximumSize, ticker);
+    }
+
+    @Nullable
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     *
+     * Gets the value for the key, loading it if it's not cached.
+     * If the cached value is due a refresh it's returned and a reload is started in the background
+     *
+     * @param key The key
+     * @return The future value, which completes exceptionally if the load failed
+     */
+    public CompletableFuture<V> getAsync(K key) {
+        long now = this.entries.now();
+        ExpiringStore.Entry<V> cached = this.entries.getEntry(key, now);
+
+        if (cached == null) {
+            this.misses.increment();
+            return this.load(key, false);
+        }
+
+        this.hits.increment();
+
+        if (this.refreshAfterWriteNanos > 0 && (now - cached.getWriteTime()) >= this.refreshAfterWriteNanos) {
+            this.load(key, true);
+        }
+
+        return CompletableFuture.completedFuture(cached.getValue());
+    }
+
+    /**
+     *
+     * Gets the value for the key, waiting for it to load if it's not cached
+     *
+     * @param key The key
+     * @return The value
+     * @throws java.util.concurrent.CompletionException If the load failed
+     */
+    public V get(K key) {
+        return this.getAsync(key).join();
+    }
+
+    /**
+     *
+     * Gets the cached value for the key without loading it
+     *
+     * @param key The key
+     * @return The value or null if it's not cached
+     */
+    @Nullable
+    public V getIfPresent(K key) {
+        V cached = this.entries.get(key);
+
+        if (cached == null) {
+            this.misses.increment();
+            return null;
+        }
+
+        this.hits.increment();
+        return cached;
+    }
+
+    /**
+     *
+     * Reloads the value for the key in the background, the current value is served until the reload completes
+     *
+     * @param key The key
+     * @return The future reloaded value
+     */
+    public CompletableFuture<V> refresh(K key) {
+        return this.load(key, true);
+    }
+
+    public void put(K key, V value) {
+        this.entries.put(key, value);
+    }
+
+    public void invalidate(K key) {
+        this.entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        this.entries.clear();
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     *
+     * Removes all the expired entries
+     *
+     */
+    public void cleanUp() {
+        this.entries.cleanUp();
+    }
+
+    /**
+     *
+     * Takes a snapshot of the cache's metrics
+     *
+     * @return The metrics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(this.hits.sum(), this.misses.sum(), this.loadSuccesses.sum(), this.loadFailures.sum(),
+                this.totalLoadNanos.sum(), this.refreshes.sum(), this.entries.getEvictions(), this.entries.getExpirations(),
+                this.size());
+    }
+
+    private CompletableFuture<V> load(K key, boolean refresh) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = this.loading.putIfAbsent(key, future);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        if (refresh) {
+            this.refreshes.increment();
+        }
+
+        try {
+            this.executor.execute(() -> this.runLoad(key, future, refresh));
+        } catch (RejectedExecutionException e) {
+            this.loading.remove(key, future);
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    private void runLoad(K key, CompletableFuture<V> future, boolean refresh) {
+        long start = this.entries.now();
+
+        try {
+            V value = this.loader.load(key);
+
+            this.totalLoadNanos.add(this.entries.now() - start);
+            this.loadSuccesses.increment();
+
+            if (value != null) {
+                this.put(key, value);
+            }
+
+            this.loading.remove(key, future);
+            future.complete(value);
+        } catch (Exception e) {
+            this.totalLoadNanos.add(this.entries.now() - start);
+            this.loadFailures.increment();
+            this.loading.remove(key, future);
+            future.completeExceptionally(e);
+
+            if (refresh) {
+                UtilLogger.logger().ifPresent(logger -> logger.error(
+                        "Failed to refresh " + key + " in cache " + this.name, e));
+            }
+        }
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    public static class Builder<K, V> {
+
+        private String name = null;
+        private CacheLoader<K, V> loader;
+        private Executor executor = UtilConcurrency.IO;
+        private long expireAfterWriteNanos = 0;
+        private long refreshAfterWriteNanos = 0;
+        private int maximumSize = 0;
+        private LongSupplier ticker = System::nanoTime;
+
+        Builder() {}
+
+        /**
+         *
+         * Sets the name of the cache, a named cache is registered in the {@link CacheRegistry}
+         *
+         * @param name The name
+         * @return The builder
+         */
+        public Builder<K, V> name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder<K, V> loader(CacheLoader<K, V> loader) {
+            this.loader = loader;
+            return this;
+        }
+
+        /**
+         *
+         * Sets the executor the loader is run on. Defaults to {@link UtilConcurrency#IO}
+         *
+         * @param executor The executor
+         * @return The builder
+         */
+        public Builder<K, V> executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         *
+         * Sets how long after being loaded an entry expires. Entries never expire by default
+         *
+         * @param duration The duration
+         * @param unit The unit of the duration
+         * @return The builder
+         */
+        public Builder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         *
+         * Sets how long after being loaded an entry is reloaded in the background the next time it's requested.
+         * This should be shorter than the expiry so entries in use are replaced before they expire
+         *
+         * @param duration The duration
+         * @param unit The unit of the duration
+         * @return The builder
+         */
+        public Builder<K, V> refreshAfterWrite(long duration, TimeUnit unit) {
+            this.refreshAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         *
+         * Sets the maximum number of entries, the least recently used entry is evicted when it's exceeded.
+         * There's no maximum by default
+         *
+         * @param maximumSize The maximum size
+         * @return The builder
+         */
+        public Builder<K, V> maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public LoadingCache<K, V> build() {
+            if (this.loader == null) {
+                throw new IllegalArgumentException("Loader cannot be null");
+            }
+
+            LoadingCache<K, V> cache = new LoadingCache<>(this.name, this.loader, this.executor,
+                    this.expireAfterWriteNanos, this.refreshAfterWriteNanos, this.maximumSize, this.ticker);
+
+            if (this.name != null) {
+                CacheRegistry.register(cache);
+            }
+
+            return cache;
+        }
+    }
+}
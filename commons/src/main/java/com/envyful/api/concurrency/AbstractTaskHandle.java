@@ -0,0 +1,107 @@
+package com.envyful.api.concurrency;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ * The shared implementation of {@link TaskHandle}, handling pausing, cancelling and the run stats.
+ * Implementations schedule the task and call {@link #execute(long)} each time it's due
+ *
+ */
+public abstract class AbstractTaskHandle implements TaskHandle {
+
+    protected final Object owner;
+    protected final Runnable task;
+
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private volatile boolean paused = false;
+    private volatile long runCount = 0;
+    private volatile long lastDurationNanos = 0;
+    private volatile long lastDriftNanos = 0;
+
+    protected AbstractTaskHandle(Object owner, Runnable task) {
+        this.owner = owner;
+        this.task = task;
+    }
+
+    /**
+     *
+     * Runs the task unless it's paused or cancelled, recording the stats
+     *
+     * @param dueNanos The {@link System#nanoTime()} the run was due at
+     */
+    protected void execute(long dueNanos) {
+        if (this.paused || this.cancelled.get()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        this.lastDriftNanos = Math.max(0, start - dueNanos);
+
+        try {
+            this.task.run();
+        } finally {
+            this.lastDurationNanos = System.nanoTime() - start;
+            this.runCount++;
+        }
+    }
+
+    /**
+     *
+     * Stops the scheduled task
+     *
+     */
+    protected abstract void stop();
+
+    @Override
+    public Object getOwner() {
+        return this.owner;
+    }
+
+    @Override
+    public boolean cancel() {
+        if (!this.cancelled.compareAndSet(false, true)) {
+            return false;
+        }
+
+        this.stop();
+        TaskRegistry.unregister(this);
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.cancelled.get();
+    }
+
+    @Override
+    public void pause() {
+        this.paused = true;
+    }
+
+    @Override
+    public void resume() {
+        this.paused = false;
+    }
+
+    @Override
+    public boolean isPaused() {
+        return this.paused;
+    }
+
+    @Override
+    public long getRunCount() {
+        return this.runCount;
+    }
+
+    @Override
+    public long getLastDurationNanos() {
+        return this.lastDurationNanos;
+    }
+
+    @Override
+    public long getLastDriftNanos() {
+        return this.lastDriftNanos;
+    }
+}
@@ -2,7 +2,6 @@ package com.envyful.api.concurrency;
 
 import javax.annotation.Nullable;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -18,6 +17,7 @@ public class AsyncTaskBuilder {
     protected Runnable task;
     protected Runnable cancelTask = null;
     protected Supplier<Boolean> cancelCondition = null;
+    protected Object owner = null;
 
     /**
      *
@@ -82,26 +82,44 @@ public class AsyncTaskBuilder {
         return this;
     }
 
+    /**
+     *
+     * Sets the owner the task is registered under in the {@link TaskRegistry}
+     * so it can be cancelled with {@link TaskRegistry#cancel(Object)}
+     *
+     * @param owner The owner (i.e. the mod or plugin instance)
+     * @return The builder
+     */
+    public AsyncTaskBuilder owner(@Nullable Object owner) {
+        this.owner = owner;
+        return this;
+    }
+
     /**
      *
      * Runs the task
      *
+     * @return The handle for controlling the task
      */
-    public void start() {
+    public TaskHandle start() {
         if (this.task == null) {
             throw new IllegalArgumentException("Task cannot be null");
         }
 
-        AtomicReference<ScheduledFuture<?>> runningTask =
-                new AtomicReference<>();
-        ScheduledFuture<?> scheduledFuture =
-                UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE
-                        .scheduleAtFixedRate(new CancelableRunnable(
-                task, this.cancelTask, runningTask, cancelCondition
-        ), this.delayMillis, this.intervalMillis, TimeUnit.MILLISECONDS);
-        runningTask.set(scheduledFuture);
+        ScheduledTaskHandle handle = new ScheduledTaskHandle(this.owner, this.task,
+                UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE, this.cancelCondition, this.cancelTask);
+
+        TaskRegistry.register(handle);
+        handle.reschedule(this.delayMillis, this.intervalMillis);
+        return handle;
     }
 
+    /**
+     *
+     * @deprecated Tasks are now run through {@link ScheduledTaskHandle}, use the {@link TaskHandle} returned by
+     * {@link AsyncTaskBuilder#start()} to control them
+     */
+    @Deprecated
     public static class CancelableRunnable implements Runnable {
 
         private final Runnable task;
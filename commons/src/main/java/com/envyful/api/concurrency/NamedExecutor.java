@@ -0,0 +1,245 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * A named thread pool that exposes how busy it is (queue depth and active threads) and can be resized at runtime.
+ * <br>
+ * The number of threads and the queue capacity are read from the system properties
+ * <code>envyapi.executor.&lt;name&gt;.threads</code> and <code>envyapi.executor.&lt;name&gt;.queue</code>
+ * if they're set, otherwise the defaults passed in are used.
+ * When the queue is full the task is rejected with a {@link RejectedExecutionException}, which is logged and
+ * counted by {@link #getRejectedCount()}. Tasks are never run on the submitting thread, as that could be the main
+ * thread and the tasks are often blocking IO.
+ * <br>
+ * A {@link #virtual(String) virtual} executor starts a new virtual thread for every task instead, so it has no
+ * queue and no limit on the number of tasks running at once
+ *
+ */
+public class NamedExecutor implements Executor {
+
+    private static final String PROPERTY_PREFIX = "envyapi.executor.";
+
+    private final String name;
+    private final ExecutorService executor;
+    private final ThreadPoolExecutor pool;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private NamedExecutor(String name, ExecutorService executor) {
+        this.name = name;
+        this.executor = executor;
+        this.pool = executor instanceof ThreadPoolExecutor ? (ThreadPoolExecutor) executor : null;
+    }
+
+    /**
+     *
+     * Creates a fixed size pool with a bounded queue
+     *
+     * @param name The name of the pool, used for the thread names and the system properties
+     * @param defaultThreads The number of threads if the system property isn't set
+     * @param defaultQueueCapacity The maximum number of waiting tasks if the system property isn't set
+     * @return The executor
+     */
+    public static NamedExecutor fixed(String name, int defaultThreads, int defaultQueueCapacity) {
+        int threads = Math.max(1, Integer.getInteger(PROPERTY_PREFIX + name + ".threads", defaultThreads));
+        int queueCapacity = Math.max(1, Integer.getInteger(PROPERTY_PREFIX + name + ".queue", defaultQueueCapacity));
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), createThreadFactory(name));
+        NamedExecutor namedExecutor = new NamedExecutor(name, executor);
+
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(namedExecutor::reject);
+        return namedExecutor;
+    }
+
+    private void reject(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("The " + this.name + " executor has been shut down");
+        }
+
+        long rejected = this.rejected.incrementAndGet();
+        RejectedExecutionException exception = new RejectedExecutionException("The " + this.name +
+                " executor's queue is full (" + executor.getQueue().size() + " waiting), " + rejected +
+                " tasks rejected so far");
+
+        UtilLogger.logger().ifPresent(logger -> logger.error(exception.getMessage()));
+        throw exception;
+    }
+
+    /**
+     *
+     * Creates a scheduling pool. The queue of a scheduling pool is unbounded as it holds the delayed tasks
+     *
+     * @param name The name of the pool, used for the thread names and the system properties
+     * @param defaultThreads The number of threads if the system property isn't set
+     * @param threadNameFormat The format of the thread names
+     * @return The executor
+     */
+    public static NamedExecutor scheduled(String name, int defaultThreads, String threadNameFormat) {
+        int threads = Math.max(1, Integer.getInteger(PROPERTY_PREFIX + name + ".threads", defaultThreads));
+
+        return new NamedExecutor(name, new ScheduledThreadPoolExecutor(threads,
+                createThreadFactory(threadNameFormat)));
+    }
+
+    /**
+     *
+     * Creates an executor that runs every task on a new virtual thread.
+     * Virtual threads are looked up by reflection so this can be called on Java 11, where it returns null
+     *
+     * @param name The name of the executor
+     * @return The executor or null if virtual threads aren't supported by the running JVM
+     */
+    public static NamedExecutor virtual(String name) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return new NamedExecutor(name, (ExecutorService) method.invoke(null));
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Failed to create the virtual thread executor " + name, e));
+            return null;
+        }
+    }
+
+    private static ThreadFactory createThreadFactory(String name) {
+        return new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(name.contains("%d") ? name : "envyware_" + name + "_%d")
+                .setUncaughtExceptionHandler(new DefaultUncaughtExceptionHandler(UtilLogger.getLogger()))
+                .build();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (this.pool != null) {
+            this.executor.execute(command);
+            return;
+        }
+
+        this.executor.execute(() -> {
+            this.active.incrementAndGet();
+
+            try {
+                command.run();
+            } finally {
+                this.active.decrementAndGet();
+                this.completed.incrementAndGet();
+            }
+        });
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     *
+     * Checks if this executor runs each task on a new virtual thread
+     *
+     * @return true if it's a virtual thread executor
+     */
+    public boolean isVirtual() {
+        return this.pool == null;
+    }
+
+    /**
+     *
+     * Gets the number of tasks waiting to be run
+     *
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        return this.pool == null ? 0 : this.pool.getQueue().size();
+    }
+
+    /**
+     *
+     * Gets the (approximate) number of threads currently running a task
+     *
+     * @return The active count
+     */
+    public int getActiveCount() {
+        return this.pool == null ? this.active.get() : this.pool.getActiveCount();
+    }
+
+    /**
+     *
+     * Gets the number of threads in the pool, or -1 for a virtual thread executor as it's unbounded
+     *
+     * @return The number of threads
+     */
+    public int getPoolSize() {
+        return this.pool == null ? -1 : this.pool.getCorePoolSize();
+    }
+
+    /**
+     *
+     * Gets the number of tasks rejected because the queue was full
+     *
+     * @return The rejected count
+     */
+    public long getRejectedCount() {
+        return this.rejected.get();
+    }
+
+    public long getCompletedTaskCount() {
+        return this.pool == null ? this.completed.get() : this.pool.getCompletedTaskCount();
+    }
+
+    /**
+     *
+     * Changes the number of threads in the pool. This does nothing for a virtual thread executor
+     *
+     * @param threads The new number of threads
+     */
+    public void resize(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("An executor needs at least one thread");
+        }
+
+        if (this.pool == null) {
+            return;
+        }
+
+        synchronized (this.pool) {
+            if (this.pool instanceof ScheduledThreadPoolExecutor) {
+                this.pool.setCorePoolSize(threads);
+            } else if (threads > this.pool.getMaximumPoolSize()) {
+                this.pool.setMaximumPoolSize(threads);
+                this.pool.setCorePoolSize(threads);
+            } else {
+                this.pool.setCorePoolSize(threads);
+                this.pool.setMaximumPoolSize(threads);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.name + "[threads=" + this.getPoolSize() + ", active=" + this.getActiveCount()
+                + ", queued=" + this.getQueueDepth() + ", completed=" + this.getCompletedTaskCount()
+                + ", rejected=" + this.getRejectedCount() + "]";
+    }
+}
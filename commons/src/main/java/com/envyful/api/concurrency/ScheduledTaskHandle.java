@@ -0,0 +1,93 @@
+package com.envyful.api.concurrency;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ *
+ * A {@link TaskHandle} for a task repeated at a fixed rate (in milliseconds) by a {@link ScheduledExecutorService}
+ *
+ */
+public class ScheduledTaskHandle extends AbstractTaskHandle {
+
+    private final ScheduledExecutorService executor;
+    private final Supplier<Boolean> cancelCondition;
+    private final Runnable cancelTask;
+
+    private ScheduledFuture<?> future;
+    private long generation = 0;
+    private long nextDueNanos;
+    private long intervalNanos;
+
+    /**
+     *
+     * Creates the handle, the task isn't run until {@link #reschedule(long, long)} is called
+     *
+     * @param owner The owner of the task
+     * @param task The task
+     * @param executor The executor to schedule the task with
+     * @param cancelCondition If this returns true the task is cancelled instead of being run, or null
+     * @param cancelTask Run when the cancel condition cancels the task, or null
+     */
+    public ScheduledTaskHandle(Object owner, Runnable task, ScheduledExecutorService executor,
+                               Supplier<Boolean> cancelCondition, Runnable cancelTask) {
+        super(owner, task);
+        this.executor = executor;
+        this.cancelCondition = cancelCondition;
+        this.cancelTask = cancelTask;
+    }
+
+    @Override
+    public synchronized void reschedule(long delayMillis, long intervalMillis) {
+        if (this.future != null) {
+            this.future.cancel(false);
+        }
+
+        if (this.isCancelled()) {
+            return;
+        }
+
+        long generation = ++this.generation;
+
+        this.nextDueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.future = this.executor.scheduleAtFixedRate(() -> this.run(generation),
+                delayMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(long generation) {
+        long dueNanos;
+
+        synchronized (this) {
+            if (generation != this.generation) {
+                return;
+            }
+
+            dueNanos = this.nextDueNanos;
+            this.nextDueNanos += this.intervalNanos;
+        }
+
+        if (this.cancelCondition != null && this.cancelCondition.get()) {
+            if (this.cancel() && this.cancelTask != null) {
+                this.cancelTask.run();
+            }
+
+            return;
+        }
+
+        try {
+            this.execute(dueNanos);
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing repeating task", e));
+        }
+    }
+
+    @Override
+    protected synchronized void stop() {
+        if (this.future != null) {
+            this.future.cancel(false);
+        }
+    }
+}
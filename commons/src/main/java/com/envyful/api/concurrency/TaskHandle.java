@@ -0,0 +1,76 @@
+package com.envyful.api.concurrency;
+
+/**
+ *
+ * A handle for controlling a repeating task started by {@link AsyncTaskBuilder} or a platform task builder,
+ * and for reading how it's been running.
+ * <br>
+ * The units of {@link #reschedule(long, long)} are the units of the builder that started the task
+ * (milliseconds for {@link AsyncTaskBuilder}, ticks for tick based builders)
+ *
+ */
+public interface TaskHandle {
+
+    /**
+     *
+     * Gets the owner the task was registered with in the {@link TaskRegistry}
+     *
+     * @return The owner or null
+     */
+    Object getOwner();
+
+    /**
+     *
+     * Stops the task from running again and removes it from the {@link TaskRegistry}
+     *
+     * @return true if the task was cancelled, false if it was already cancelled
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    /**
+     *
+     * Skips the runs of the task until {@link #resume()} is called
+     *
+     */
+    void pause();
+
+    void resume();
+
+    boolean isPaused();
+
+    /**
+     *
+     * Changes when the task runs, starting again from now
+     *
+     * @param delay The delay before the next run
+     * @param interval The interval between each run after that
+     */
+    void reschedule(long delay, long interval);
+
+    /**
+     *
+     * Gets the number of times the task has been run
+     *
+     * @return The run count
+     */
+    long getRunCount();
+
+    /**
+     *
+     * Gets how long (in nanoseconds) the last run of the task took
+     *
+     * @return The duration of the last run
+     */
+    long getLastDurationNanos();
+
+    /**
+     *
+     * Gets how late (in nanoseconds) the last run started compared to when it was due
+     *
+     * @return The drift of the last run
+     */
+    long getLastDriftNanos();
+
+}
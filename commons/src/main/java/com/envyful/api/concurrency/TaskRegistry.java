@@ -0,0 +1,122 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * Static registry of the running repeating tasks, grouped by their owner (i.e. the mod or plugin that started them)
+ * so they can all be cancelled when the owner is reloaded or the server shuts down.
+ * Tasks started without an owner are still registered so that {@link #cancelAll()} stops them
+ *
+ */
+public class TaskRegistry {
+
+    private static final Object NO_OWNER = new Object();
+    private static final Map<Object, Set<TaskHandle>> TASKS = Maps.newConcurrentMap();
+
+    private TaskRegistry() {
+        throw new UnsupportedOperationException("Static utility");
+    }
+
+    /**
+     *
+     * Registers the task under its owner
+     *
+     * @param handle The task
+     */
+    public static void register(TaskHandle handle) {
+        TASKS.computeIfAbsent(getKey(handle.getOwner()), ___ -> ConcurrentHashMap.newKeySet()).add(handle);
+
+        if (handle.isCancelled()) {
+            unregister(handle);
+        }
+    }
+
+    static void unregister(TaskHandle handle) {
+        Object key = getKey(handle.getOwner());
+
+        TASKS.computeIfPresent(key, (owner, handles) -> {
+            handles.remove(handle);
+            return handles.isEmpty() ? null : handles;
+        });
+    }
+
+    private static Object getKey(Object owner) {
+        return owner == null ? NO_OWNER : owner;
+    }
+
+    /**
+     *
+     * Gets the running tasks started by the owner
+     *
+     * @param owner The owner
+     * @return The tasks
+     */
+    public static List<TaskHandle> getTasks(Object owner) {
+        Set<TaskHandle> handles = TASKS.get(getKey(owner));
+
+        if (handles == null) {
+            return Collections.emptyList();
+        }
+
+        return Lists.newArrayList(handles);
+    }
+
+    /**
+     *
+     * Gets the number of running tasks
+     *
+     * @return The number of tasks
+     */
+    public static int size() {
+        int size = 0;
+
+        for (Set<TaskHandle> handles : TASKS.values()) {
+            size += handles.size();
+        }
+
+        return size;
+    }
+
+    /**
+     *
+     * Cancels all the tasks started by the owner
+     *
+     * @param owner The owner
+     * @return The number of tasks cancelled
+     */
+    public static int cancel(Object owner) {
+        int cancelled = 0;
+
+        for (TaskHandle handle : getTasks(owner)) {
+            if (handle.cancel()) {
+                cancelled++;
+            }
+        }
+
+        return cancelled;
+    }
+
+    /**
+     *
+     * Cancels every registered task, called when the server shuts down
+     *
+     * @return The number of tasks cancelled
+     */
+    public static int cancelAll() {
+        int cancelled = 0;
+
+        for (Object owner : Lists.newArrayList(TASKS.keySet())) {
+            cancelled += cancel(owner == NO_OWNER ? null : owner);
+        }
+
+        return cancelled;
+    }
+}
@@ -0,0 +1,329 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Attributes the time spent running main thread tasks to the source that submitted them.
+ * <br>
+ * The source of a task is the class that created it (for lambdas, the class the lambda was written in) unless it was
+ * given one using {@link #withSource(Runnable, Object)}. For each source the last 1024 run times are kept to
+ * calculate rolling percentiles.
+ * <br>
+ * Profiling is enabled with {@link #setEnabled(boolean)} or the system property <code>envyapi.tick.profile</code>.
+ * If a per source budget is set then a source that has used its budget in the current tick is throttled, so its
+ * remaining tasks are left for the next tick
+ *
+ */
+public class TickProfiler {
+
+    private static final int SAMPLES = 1024;
+
+    private final Map<String, Source> sources = Maps.newConcurrentMap();
+
+    private volatile boolean enabled = Boolean.getBoolean("envyapi.tick.profile");
+    private volatile long sourceBudgetNanos = 0;
+    private volatile long currentTick = 0;
+
+    /**
+     *
+     * Gets the source a task is attributed to
+     *
+     * @param task The task
+     * @return The name of the source
+     */
+    public static String getSource(Object task) {
+        if (task instanceof SourcedRunnable) {
+            return ((SourcedRunnable) task).source;
+        }
+
+        return getSourceName(task.getClass());
+    }
+
+    private static String getSourceName(Class<?> type) {
+        String name = type.getName();
+        int lambda = name.indexOf("$$Lambda");
+
+        if (lambda != -1) {
+            return name.substring(0, lambda);
+        }
+
+        return name;
+    }
+
+    /**
+     *
+     * Wraps the task so that it's attributed to the given source instead of the class that created it
+     *
+     * @param task The task
+     * @param source The source, either a string, a class or an object whose class is used
+     * @return The wrapped task
+     */
+    public static Runnable withSource(Runnable task, Object source) {
+        if (source == null) {
+            return task;
+        }
+
+        String name;
+
+        if (source instanceof String) {
+            name = (String) source;
+        } else if (source instanceof Class<?>) {
+            name = getSourceName((Class<?>) source);
+        } else {
+            name = getSource(source);
+        }
+
+        return new SourcedRunnable(task, name);
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     *
+     * Sets how long each source's tasks can run for in a single tick before it's throttled
+     *
+     * @param sourceBudgetNanos The budget in nanoseconds, 0 or less to disable throttling
+     */
+    public void setSourceBudget(long sourceBudgetNanos) {
+        this.sourceBudgetNanos = sourceBudgetNanos;
+    }
+
+    public long getSourceBudgetNanos() {
+        return this.sourceBudgetNanos;
+    }
+
+    /**
+     *
+     * Checks if task run times should be recorded, i.e. profiling is enabled or there's a source budget
+     *
+     * @return true if run times should be recorded
+     */
+    public boolean isActive() {
+        return this.enabled || this.sourceBudgetNanos > 0;
+    }
+
+    /**
+     *
+     * Starts a new tick, resetting the time each source has used in the tick
+     *
+     */
+    public void startTick() {
+        this.currentTick++;
+    }
+
+    /**
+     *
+     * Checks if the source has used its budget for the current tick. Each time this returns true it's counted as
+     * a throttled task for the source
+     *
+     * @param source The source
+     * @return true if the source's tasks should wait until the next tick
+     */
+    public boolean isThrottled(String source) {
+        long budget = this.sourceBudgetNanos;
+
+        if (budget <= 0) {
+            return false;
+        }
+
+        Source data = this.sources.get(source);
+
+        if (data == null) {
+            return false;
+        }
+
+        synchronized (data) {
+            if (data.tick != this.currentTick || data.tickNanos < budget) {
+                return false;
+            }
+
+            data.throttled++;
+            return true;
+        }
+    }
+
+    /**
+     *
+     * Records the time a task from the source took to run
+     *
+     * @param source The source
+     * @param nanos The time taken in nanoseconds
+     */
+    public void record(String source, long nanos) {
+        Source data = this.sources.computeIfAbsent(source, Source::new);
+
+        synchronized (data) {
+            if (data.tick != this.currentTick) {
+                data.tick = this.currentTick;
+                data.tickNanos = 0;
+            }
+
+            data.tickNanos += nanos;
+            data.totalNanos += nanos;
+            data.samples[(int) (data.count % SAMPLES)] = nanos;
+            data.count++;
+        }
+    }
+
+    /**
+     *
+     * Gets the stats for each source, ordered by the total time used (highest first)
+     *
+     * @return The stats
+     */
+    public List<Stats> getStats() {
+        List<Stats> stats = Lists.newArrayList();
+
+        for (Source source : this.sources.values()) {
+            stats.add(source.toStats());
+        }
+
+        stats.sort(Comparator.comparingLong(Stats::getTotalNanos).reversed());
+        return stats;
+    }
+
+    /**
+     *
+     * Creates a readable summary of the sources that have used the most time
+     *
+     * @param limit The maximum number of sources to include
+     * @return The lines of the summary
+     */
+    public List<String> dump(int limit) {
+        List<String> lines = Lists.newArrayList();
+        List<Stats> stats = this.getStats();
+
+        lines.add("Tick profile (" + stats.size() + " sources, profiling " + (this.enabled ? "enabled" : "disabled") + ")");
+
+        for (int i = 0; i < Math.min(limit, stats.size()); i++) {
+            Stats stat = stats.get(i);
+
+            lines.add(String.format("%s: %d tasks, total %.2fms, p50 %.3fms, p99 %.3fms, max %.3fms, throttled %d",
+                    stat.getSource(), stat.getCount(), stat.getTotalNanos() / 1_000_000.0,
+                    stat.getP50Nanos() / 1_000_000.0, stat.getP99Nanos() / 1_000_000.0,
+                    stat.getMaxNanos() / 1_000_000.0, stat.getThrottled()));
+        }
+
+        return lines;
+    }
+
+    public void reset() {
+        this.sources.clear();
+    }
+
+    private static final class Source {
+
+        private final String name;
+        private final long[] samples = new long[SAMPLES];
+        private long count = 0;
+        private long totalNanos = 0;
+        private long throttled = 0;
+        private long tick = -1;
+        private long tickNanos = 0;
+
+        private Source(String name) {
+            this.name = name;
+        }
+
+        private synchronized Stats toStats() {
+            long[] sorted = Arrays.copyOf(this.samples, (int) Math.min(this.count, SAMPLES));
+            Arrays.sort(sorted);
+
+            return new Stats(this.name, this.count, this.totalNanos, this.throttled,
+                    percentile(sorted, 0.5), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    /**
+     *
+     * The stats for a single source. The percentiles and max are over the most recent 1024 tasks
+     *
+     */
+    public static final class Stats {
+
+        private final String source;
+        private final long count;
+        private final long totalNanos;
+        private final long throttled;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        private Stats(String source, long count, long totalNanos, long throttled,
+                      long p50Nanos, long p99Nanos, long maxNanos) {
+            this.source = source;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.throttled = throttled;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getSource() {
+            return this.source;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        public long getThrottled() {
+            return this.throttled;
+        }
+
+        public long getP50Nanos() {
+            return this.p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return this.p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+    }
+
+    private static final class SourcedRunnable implements Runnable {
+
+        private final Runnable task;
+        private final String source;
+
+        private SourcedRunnable(Runnable task, String source) {
+            this.task = task;
+            this.source = source;
+        }
+
+        @Override
+        public void run() {
+            this.task.run();
+        }
+    }
+}
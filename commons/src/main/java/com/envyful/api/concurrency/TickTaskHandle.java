@@ -0,0 +1,62 @@
+package com.envyful.api.concurrency;
+
+/**
+ *
+ * A {@link TaskHandle} for a task repeated every interval (in ticks) by a {@link TickWheel}.
+ * Async tasks are handed to {@link UtilConcurrency#runAsync(Runnable)} when they're due, so their drift includes
+ * the time spent waiting for a thread
+ *
+ */
+public class TickTaskHandle extends AbstractTaskHandle {
+
+    private final TickWheel wheel;
+    private final boolean async;
+
+    private TickWheel.Task scheduled;
+
+    /**
+     *
+     * Creates the handle, the task isn't run until {@link #reschedule(long, long)} is called
+     *
+     * @param owner The owner of the task
+     * @param task The task
+     * @param wheel The wheel to schedule the task with
+     * @param async If the task should be run off the ticking thread
+     */
+    public TickTaskHandle(Object owner, Runnable task, TickWheel wheel, boolean async) {
+        super(owner, task);
+        this.wheel = wheel;
+        this.async = async;
+    }
+
+    @Override
+    public synchronized void reschedule(long delayTicks, long intervalTicks) {
+        if (this.scheduled != null) {
+            this.scheduled.cancel();
+        }
+
+        if (this.isCancelled()) {
+            return;
+        }
+
+        this.scheduled = this.wheel.scheduleRepeating(TickProfiler.withSource(this::fire, this.task),
+                delayTicks, intervalTicks);
+    }
+
+    private void fire() {
+        long dueNanos = System.nanoTime();
+
+        if (this.async) {
+            UtilConcurrency.runAsync(() -> this.execute(dueNanos));
+        } else {
+            this.execute(dueNanos);
+        }
+    }
+
+    @Override
+    protected synchronized void stop() {
+        if (this.scheduled != null) {
+            this.scheduled.cancel();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.envyful.api.concurrency;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * A queue of tasks to be run on the main thread, run in the order they were added.
+ * <br>
+ * Tasks can be added from any thread and are run by calling {@link #drain()} once per tick. Each drain only runs the
+ * tasks that were queued when it started and stops once the time budget has been used, leaving the rest for the
+ * next tick so a burst of tasks is spread out instead of causing a long tick.
+ * The budget (in milliseconds) defaults to the system property <code>envyapi.tick.budget</code> or 5ms,
+ * and a budget of 0 or less disables it
+ *
+ */
+public class TickTaskQueue {
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+
+    private final AtomicLong executedTasks = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong overBudgetTicks = new AtomicLong();
+
+    private volatile TickProfiler profiler = null;
+    private volatile long budgetNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("envyapi.tick.budget", 5));
+    private volatile int lastTickTasks = 0;
+    private volatile long lastTickNanos = 0;
+
+    /**
+     *
+     * Sets how long the tasks can run for each tick before the rest are left for the next tick
+     *
+     * @param budget The budget, 0 or less to run every queued task each tick
+     * @param unit The unit of the budget
+     */
+    public void setBudget(long budget, TimeUnit unit) {
+        this.budgetNanos = unit.toNanos(budget);
+    }
+
+    public long getBudgetNanos() {
+        return this.budgetNanos;
+    }
+
+    /**
+     *
+     * Sets the profiler the time taken by each task is recorded with, and which can throttle sources
+     *
+     * @param profiler The profiler or null
+     */
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public void add(Runnable task) {
+        this.backlog.incrementAndGet();
+        this.tasks.add(task);
+    }
+
+    public boolean contains(Runnable task) {
+        return this.tasks.contains(task);
+    }
+
+    /**
+     *
+     * Runs the queued tasks in order until either all the tasks queued before this was called have been run or the
+     * budget has been used. Tasks added while draining, and tasks from sources throttled by the profiler,
+     * are left for the next call
+     *
+     * @return The number of tasks run
+     */
+    public int drain() {
+        int queued = this.backlog.get();
+
+        if (queued == 0) {
+            this.lastTickTasks = 0;
+            this.lastTickNanos = 0;
+            return 0;
+        }
+
+        long budget = this.budgetNanos;
+        TickProfiler profiler = this.profiler;
+        boolean profiling = profiler != null && profiler.isActive();
+        long start = System.nanoTime();
+        long now = start;
+        int processed = 0;
+        int ran = 0;
+
+        while (processed < queued) {
+            if (budget > 0 && ran > 0 && now - start >= budget) {
+                this.overBudgetTicks.incrementAndGet();
+                break;
+            }
+
+            Runnable task = this.tasks.poll();
+
+            if (task == null) {
+                break;
+            }
+
+            this.backlog.decrementAndGet();
+            processed++;
+            String source = profiling ? TickProfiler.getSource(task) : null;
+
+            if (profiling && profiler.isThrottled(source)) {
+                this.add(task);
+                continue;
+            }
+
+            long taskStart = now;
+            ran++;
+
+            try {
+                task.run();
+            } catch (Exception e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing main thread task", e));
+            }
+
+            now = System.nanoTime();
+
+            if (profiling) {
+                profiler.record(source, now - taskStart);
+            }
+        }
+
+        this.executedTasks.addAndGet(ran);
+        this.totalNanos.addAndGet(now - start);
+        this.lastTickTasks = ran;
+        this.lastTickNanos = now - start;
+        return ran;
+    }
+
+    /**
+     *
+     * Gets the number of tasks waiting to be run
+     *
+     * @return The backlog
+     */
+    public int getBacklog() {
+        return this.backlog.get();
+    }
+
+    public long getExecutedTasks() {
+        return this.executedTasks.get();
+    }
+
+    /**
+     *
+     * Gets the total time (in nanoseconds) spent running tasks
+     *
+     * @return The total time
+     */
+    public long getTotalNanos() {
+        return this.totalNanos.get();
+    }
+
+    /**
+     *
+     * Gets the number of ticks that stopped early because the budget was used, leaving tasks for the next tick
+     *
+     * @return The number of ticks
+     */
+    public long getOverBudgetTicks() {
+        return this.overBudgetTicks.get();
+    }
+
+    public int getLastTickTasks() {
+        return this.lastTickTasks;
+    }
+
+    public long getLastTickNanos() {
+        return this.lastTickNanos;
+    }
+}
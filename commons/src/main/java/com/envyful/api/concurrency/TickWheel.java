@@ -0,0 +1,263 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * A hashed timing wheel for running delayed and repeating tasks measured in ticks.
+ * <br>
+ * Tasks are placed in the bucket for the tick they're due on (modulo the size of the wheel) and each call to
+ * {@link #tick()} only visits the bucket for the current tick, so the cost of a tick doesn't depend on how many
+ * tasks are waiting for later ticks. Tasks can be scheduled and cancelled from any thread but {@link #tick()} must
+ * only be called from one thread (i.e. the server thread), which is the thread the tasks are run on
+ *
+ */
+public class TickWheel {
+
+    private final List<Task>[] buckets;
+    private final int mask;
+    private final Queue<Task> pending = new ConcurrentLinkedQueue<>();
+    private final List<Task> rescheduled = Lists.newArrayList();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile TickProfiler profiler = null;
+    private volatile long currentTick = 0;
+
+    /**
+     *
+     * Creates a wheel with 512 buckets
+     *
+     */
+    public TickWheel() {
+        this(512);
+    }
+
+    /**
+     *
+     * Creates a wheel with the given number of buckets, rounded up to a power of two
+     *
+     * @param wheelSize The number of buckets
+     */
+    @SuppressWarnings("unchecked")
+    public TickWheel(int wheelSize) {
+        if (wheelSize < 1) {
+            throw new IllegalArgumentException("The wheel needs at least one bucket");
+        }
+
+        int size = Integer.highestOneBit(wheelSize);
+
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.buckets = new List[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            this.buckets[i] = Lists.newArrayList();
+        }
+    }
+
+    /**
+     *
+     * Runs the task once after the delay
+     *
+     * @param task The task
+     * @param delayTicks The number of ticks until it's run (at least 1)
+     * @return The handle for cancelling the task
+     */
+    public Task schedule(Runnable task, long delayTicks) {
+        return this.add(new Task(task, this.currentTick + Math.max(1, delayTicks), 0));
+    }
+
+    /**
+     *
+     * Runs the task after the delay and then every interval until it's cancelled
+     *
+     * @param task The task
+     * @param delayTicks The number of ticks until it's first run (at least 1)
+     * @param intervalTicks The number of ticks between each run (at least 1)
+     * @return The handle for cancelling the task
+     */
+    public Task scheduleRepeating(Runnable task, long delayTicks, long intervalTicks) {
+        return this.add(new Task(task, this.currentTick + Math.max(1, delayTicks), Math.max(1, intervalTicks)));
+    }
+
+    private Task add(Task task) {
+        this.size.incrementAndGet();
+        this.pending.add(task);
+        return task;
+    }
+
+    /**
+     *
+     * Advances the wheel by one tick, running all the tasks that are due
+     *
+     */
+    public void tick() {
+        long now = this.currentTick + 1;
+        Task added;
+
+        while ((added = this.pending.poll()) != null) {
+            if (added.deadline < now) {
+                added.deadline = now;
+            }
+
+            this.bucket(added.deadline).add(added);
+        }
+
+        List<Task> bucket = this.bucket(now);
+        int kept = 0;
+
+        for (int i = 0; i < bucket.size(); i++) {
+            Task task = bucket.get(i);
+
+            if (task.isCancelled()) {
+                this.size.decrementAndGet();
+                continue;
+            }
+
+            if (task.deadline > now) {
+                bucket.set(kept++, task);
+                continue;
+            }
+
+            if (task.intervalTicks <= 0) {
+                this.size.decrementAndGet();
+
+                if (task.state.compareAndSet(Task.WAITING, Task.DONE)) {
+                    this.run(task);
+                }
+
+                continue;
+            }
+
+            this.run(task);
+
+            if (task.isCancelled()) {
+                this.size.decrementAndGet();
+            } else {
+                task.deadline = now + task.intervalTicks;
+                this.rescheduled.add(task);
+            }
+        }
+
+        bucket.subList(kept, bucket.size()).clear();
+
+        for (Task task : this.rescheduled) {
+            this.bucket(task.deadline).add(task);
+        }
+
+        this.rescheduled.clear();
+        this.currentTick = now;
+    }
+
+    private List<Task> bucket(long tick) {
+        return this.buckets[(int) (tick & this.mask)];
+    }
+
+    private void run(Task task) {
+        TickProfiler profiler = this.profiler;
+        long start = profiler != null && profiler.isActive() ? System.nanoTime() : -1;
+
+        try {
+            task.task.run();
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing scheduled task", e));
+        }
+
+        if (start != -1) {
+            profiler.record(TickProfiler.getSource(task.task), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     *
+     * Sets the profiler the time taken by each task is recorded with
+     *
+     * @param profiler The profiler or null
+     */
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     *
+     * Gets the number of ticks the wheel has been advanced by
+     *
+     * @return The current tick
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     *
+     * Gets the number of tasks waiting to be run (including cancelled tasks that haven't been removed yet)
+     *
+     * @return The number of tasks
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    public int getWheelSize() {
+        return this.buckets.length;
+    }
+
+    /**
+     *
+     * The handle of a task scheduled on a {@link TickWheel}
+     *
+     */
+    public static final class Task {
+
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int DONE = 2;
+
+        private final Runnable task;
+        private final long intervalTicks;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private long deadline;
+
+        private Task(Runnable task, long deadline, long intervalTicks) {
+            this.task = task;
+            this.deadline = deadline;
+            this.intervalTicks = intervalTicks;
+        }
+
+        /**
+         *
+         * Cancels the task so that it won't be run again
+         *
+         * @return true if the task was cancelled, false if it had already finished or been cancelled
+         */
+        public boolean cancel() {
+            return this.state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return this.state.get() == CANCELLED;
+        }
+
+        /**
+         *
+         * Checks if the task has been run (for a one off task) or cancelled
+         *
+         * @return true if the task won't be run again
+         */
+        public boolean isDone() {
+            return this.state.get() != WAITING;
+        }
+
+        public boolean isRepeating() {
+            return this.intervalTicks > 0;
+        }
+    }
+}
@@ -3,18 +3,24 @@ package com.envyful.api.concurrency;
 import com.envyful.api.json.UtilGson;
 import com.google.gson.internal.LinkedTreeMap;
 
-import java.io.IOException;
-import java.io.InputStreamReader;
+import javax.annotation.Nullable;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 
 /**
  *
  * Basic non-platform specific implementation of a GitHub update checker.
- * This will ping the releases on the given repo every 10_000_000 milliseconds to determine if the current version
- * is the latest release.
+ * This will ping the releases on the given repo every 10_000_000 milliseconds (see {@link #interval(long)})
+ * to determine if the current version is the latest release, backing off exponentially when GitHub can't be reached.
  *
  * If it's not the latest release admins will be notified upon joining.
  *
@@ -27,8 +33,19 @@ public class UpdateBuilder<T> {
     private String owner;
     private String repo;
     private String version;
+    private String apiUrl = "https://api.github.com";
+    private long intervalMillis = 10_000_000L;
+    private long initialBackoffMillis = TimeUnit.MINUTES.toMillis(1);
+    private long maxBackoffMillis = TimeUnit.HOURS.toMillis(6);
 
-    protected boolean upToDate = true;
+    protected volatile boolean upToDate = true;
+
+    private HttpClient client;
+    private volatile String etag;
+    private volatile String latestVersion;
+    private volatile int failures = 0;
+    private volatile boolean stopped = false;
+    private ScheduledFuture<?> nextCheck;
 
     protected UpdateBuilder() {}
 
@@ -110,36 +127,190 @@ public class UpdateBuilder<T> {
 
     /**
      *
-     * Starts the update checking thread and registeres required listeners
+     * Sets the time between each check of the latest release. Defaults to 10,000,000 milliseconds
+     *
+     * @param intervalMillis The interval in milliseconds
+     * @return The builder
+     */
+    public UpdateBuilder<T> interval(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     *
+     * Sets the delay after a failed check, which is doubled for each failure in a row up to the maximum delay.
+     * The delay is never shorter than the Retry-After header sent by GitHub
+     *
+     * @param initialMillis The delay after the first failure
+     * @param maxMillis The maximum delay
+     * @return The builder
+     */
+    public UpdateBuilder<T> backoff(long initialMillis, long maxMillis) {
+        this.initialBackoffMillis = initialMillis;
+        this.maxBackoffMillis = maxMillis;
+        return this;
+    }
+
+    /**
+     *
+     * Sets the base URL of the GitHub API (i.e. a local server for testing)
+     *
+     * @param apiUrl The API URL
+     * @return The builder
+     */
+    public UpdateBuilder<T> apiUrl(String apiUrl) {
+        this.apiUrl = apiUrl;
+        return this;
+    }
+
+    public boolean isUpToDate() {
+        return this.upToDate;
+    }
+
+    /**
+     *
+     * Gets the tag of the latest release found by the last successful check
+     *
+     * @return The latest version or null if it hasn't been found yet
+     */
+    @Nullable
+    public String getLatestVersion() {
+        return this.latestVersion;
+    }
+
+    /**
+     *
+     * Gets the number of checks that have failed in a row
+     *
+     * @return The failure count
+     */
+    public int getFailures() {
+        return this.failures;
+    }
+
+    /**
+     *
+     * Starts checking for updates on the {@link UtilConcurrency#SCHEDULER}.
+     * Requests are sent asynchronously so no thread is held while waiting for GitHub
      *
      */
     public void start() {
-        UtilConcurrency.runAsync(() -> {
-            while (true) {
-                try {
-                    this.sendRequest();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        });
+        this.stopped = false;
+        this.scheduleCheck(0);
     }
 
-    private void sendRequest() throws IOException {
-        URL url = new URL("https://api.github.com/repos/" + this.owner + "/" + this.repo + "/releases/latest");
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    /**
+     *
+     * Stops checking for updates
+     *
+     */
+    public synchronized void stop() {
+        this.stopped = true;
 
-        connection.setRequestMethod("GET");
+        if (this.nextCheck != null) {
+            this.nextCheck.cancel(false);
+        }
+    }
 
-        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-            System.out.println("ERROR: " + connection.getResponseCode());
+    private synchronized void scheduleCheck(long delayMillis) {
+        if (this.stopped) {
             return;
         }
 
-        LinkedTreeMap<String, Object> data = UtilGson.GSON.fromJson(new InputStreamReader(connection.getInputStream()), LinkedTreeMap.class);
+        this.nextCheck = UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.schedule(() -> {
+            try {
+                this.check().thenAccept(this::scheduleCheck);
+            } catch (RuntimeException e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error(
+                        "Failed to check for updates for " + this.name, e));
+                this.scheduleCheck(this.onFailure(0));
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     *
+     * Checks the latest release once. The ETag of the last response is sent so an unchanged release costs
+     * a 304 response which doesn't count towards GitHub's rate limit
+     *
+     * @return The delay in milliseconds until the next check should be sent
+     */
+    public CompletableFuture<Long> check() {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(
+                this.apiUrl + "/repos/" + this.owner + "/" + this.repo + "/releases/latest"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/vnd.github+json")
+                .header("User-Agent", this.owner + "/" + this.repo)
+                .GET();
+
+        if (this.etag != null) {
+            request.header("If-None-Match", this.etag);
+        }
+
+        return this.getClient().sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                .handle((response, throwable) -> {
+                    if (throwable != null) {
+                        UtilLogger.logger().ifPresent(logger -> logger.error(
+                                "Failed to check for updates for " + this.name, throwable));
+                        return this.onFailure(0);
+                    }
+
+                    try {
+                        return this.onResponse(response);
+                    } catch (Exception e) {
+                        UtilLogger.logger().ifPresent(logger -> logger.error(
+                                "Failed to read the latest release for " + this.name, e));
+                        return this.onFailure(0);
+                    }
+                });
+    }
+
+    private synchronized HttpClient getClient() {
+        if (this.client == null) {
+            this.client = HttpClient.newBuilder()
+                    .executor(UtilConcurrency.IO.getExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+        }
+
+        return this.client;
+    }
+
+    private long onResponse(HttpResponse<String> response) {
+        if (response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            this.failures = 0;
+            return this.intervalMillis;
+        }
+
+        if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+            UtilLogger.logger().ifPresent(logger -> logger.error(
+                    "Failed to check for updates for " + this.name + ": HTTP " + response.statusCode()));
+            return this.onFailure(response.headers().firstValueAsLong("Retry-After").orElse(0) * 1000L);
+        }
+
+        LinkedTreeMap<?, ?> data = UtilGson.GSON.fromJson(response.body(), LinkedTreeMap.class);
+        Object tag = data == null ? null : data.get("tag_name");
 
-        if (!data.get("tag_name").equals(this.version)) {
-            this.upToDate = false;
+        if (tag == null) {
+            return this.onFailure(0);
         }
+
+        this.etag = response.headers().firstValue("ETag").orElse(null);
+        this.latestVersion = tag.toString();
+        this.upToDate = this.latestVersion.equals(this.version);
+        this.failures = 0;
+        return this.intervalMillis;
+    }
+
+    private long onFailure(long retryAfterMillis) {
+        int failures = Math.min(++this.failures, 30);
+        long backoff = Math.min(this.maxBackoffMillis, this.initialBackoffMillis << (failures - 1));
+
+        if (backoff < 0) {
+            backoff = this.maxBackoffMillis;
+        }
+
+        return Math.max(backoff, retryAfterMillis);
     }
 }
@@ -1,8 +1,10 @@
 package com.envyful.api.concurrency;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -19,22 +21,70 @@ import java.util.function.Supplier;
  */
 public class UtilConcurrency {
 
+    /**
+     *
+     * The pool used for scheduling delayed and repeating tasks, and for {@link #runAsync(Runnable)}.
+     * Blocking work (i.e. database or file access) should use {@link #IO} instead
+     *
+     */
+    public static final NamedExecutor SCHEDULER = NamedExecutor.scheduled("scheduler", 10, "envyware_concurrency_%d");
+
+    /**
+     *
+     * The pool used for blocking persistence work such as database queries and file reads/writes.
+     * If the system property <code>envyapi.executor.virtual</code> is true and the JVM supports virtual threads
+     * (Java 21+) this starts a virtual thread per task instead, and {@link #runAsync(Runnable)} and
+     * {@link #supplyAsync(Supplier)} use it too
+     *
+     */
+    public static final NamedExecutor IO = createIOExecutor();
+
+    /**
+     *
+     * The pool used for CPU bound work, sized to the number of available processors
+     *
+     */
+    public static final NamedExecutor CPU = NamedExecutor.fixed("cpu",
+            Runtime.getRuntime().availableProcessors(), 10_000);
+
     public static final ScheduledExecutorService SCHEDULED_EXECUTOR_SERVICE =
-            Executors.newScheduledThreadPool(10,
-            new ThreadFactoryBuilder()
-                    .setDaemon(true)
-                    .setNameFormat("envyware_concurrency_%d")
-                    .setUncaughtExceptionHandler(
-                            new DefaultUncaughtExceptionHandler(
-                                    UtilLogger.getLogger()
-                            )
-                    )
-                    .build());
+            (ScheduledExecutorService) SCHEDULER.getExecutor();
+
+    private static final List<NamedExecutor> EXECUTORS = Collections.unmodifiableList(Arrays.asList(SCHEDULER, IO, CPU));
+
+    private static NamedExecutor createIOExecutor() {
+        if (Boolean.getBoolean("envyapi.executor.virtual")) {
+            NamedExecutor executor = NamedExecutor.virtual("io");
+
+            if (executor != null) {
+                return executor;
+            }
+
+            UtilLogger.logger().ifPresent(logger -> logger.warn(
+                    "Virtual threads were requested but aren't supported by this JVM, using a thread pool instead"));
+        }
+
+        return NamedExecutor.fixed("io", 8, 10_000);
+    }
+
+    private static Executor getAsyncExecutor() {
+        return IO.isVirtual() ? IO : SCHEDULED_EXECUTOR_SERVICE;
+    }
+
+    /**
+     *
+     * Gets all the named executors so their queue depths and active counts can be monitored
+     *
+     * @return The executors
+     */
+    public static List<NamedExecutor> getExecutors() {
+        return EXECUTORS;
+    }
 
     /**
      *
-     * Takes the runnable and passes it to the {@link UtilConcurrency#SCHEDULED_EXECUTOR_SERVICE} to be executed using one of the
-     * cached threads. (typically minimal [or no set] delay)
+     * Takes the runnable and passes it to the {@link UtilConcurrency#SCHEDULED_EXECUTOR_SERVICE} (or {@link UtilConcurrency#IO}
+     * if virtual threads are enabled) to be executed using one of the cached threads. (typically minimal [or no set] delay)
      * <br>
      * Returning the completable future that will be completed when the t
      * ask is done
@@ -43,7 +93,7 @@ public class UtilConcurrency {
      */
     public static CompletableFuture<Void> runAsync(Runnable runnable) {
         return CompletableFuture.runAsync(runnable,
-                        SCHEDULED_EXECUTOR_SERVICE)
+                        getAsyncExecutor())
                 .exceptionally(throwable -> {
                     UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing async task", throwable));
                     return null;
@@ -52,8 +102,8 @@ public class UtilConcurrency {
 
     /**
      *
-     * Takes the supplier and passes it to the {@link UtilConcurrency#SCHEDULED_EXECUTOR_SERVICE} to be executed using one of the
-     * cached threads. (typically minimal [or no set] delay)
+     * Takes the supplier and passes it to the {@link UtilConcurrency#SCHEDULED_EXECUTOR_SERVICE} (or {@link UtilConcurrency#IO}
+     * if virtual threads are enabled) to be executed using one of the cached threads. (typically minimal [or no set] delay)
      * <br>
      * Returning the completable future that will be completed when
      * the task is done
@@ -64,12 +114,95 @@ public class UtilConcurrency {
      */
     public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
         return CompletableFuture.supplyAsync(supplier,
-                SCHEDULED_EXECUTOR_SERVICE).exceptionally(throwable -> {
+                getAsyncExecutor()).exceptionally(throwable -> {
             UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing async task", throwable));
             return null;
         });
     }
 
+    /**
+     *
+     * Runs the blocking runnable using the {@link UtilConcurrency#IO} executor so that it doesn't hold up the
+     * scheduler threads
+     *
+     * @param runnable The runnable to execute asynchronously
+     * @return The future completed when the task is done, or completed exceptionally if the executor rejected it
+     */
+    public static CompletableFuture<Void> runAsyncIO(Runnable runnable) {
+        try {
+            return CompletableFuture.runAsync(runnable, IO).exceptionally(throwable -> {
+                UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing IO task", throwable));
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
+        }
+    }
+
+    /**
+     *
+     * Runs the blocking supplier using the {@link UtilConcurrency#IO} executor so that it doesn't hold up the
+     * scheduler threads
+     *
+     * @param supplier The supplier
+     * @return The future, completed exceptionally if the executor rejected the task
+     * @param <T> The type to return
+     */
+    public static <T> CompletableFuture<T> supplyAsyncIO(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, IO).exceptionally(throwable -> {
+                UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing IO task", throwable));
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
+        }
+    }
+
+    /**
+     *
+     * Runs the blocking supplier using the {@link UtilConcurrency#IO} executor and completes with the future it
+     * returns. Unlike {@link #supplyAsyncIO(Supplier)} a failure is passed on to the returned future rather than
+     * logged and replaced with null
+     *
+     * @param supplier The supplier of the future
+     * @return The future, completed exceptionally if the executor rejected the task
+     * @param <T> The type to return
+     */
+    public static <T> CompletableFuture<T> composeAsyncIO(Supplier<? extends CompletionStage<T>> supplier) {
+        return composeAsync(supplier, IO);
+    }
+
+    static <T> CompletableFuture<T> composeAsync(Supplier<? extends CompletionStage<T>> supplier, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    supplier.get().whenComplete((value, throwable) -> {
+                        if (throwable != null) {
+                            future.completeExceptionally(throwable);
+                        } else {
+                            future.complete(value);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    private static <T> CompletableFuture<T> rejected(RejectedExecutionException e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
     /**
      *
      * Takes the runnable and passes it to the
@@ -107,15 +240,49 @@ public class UtilConcurrency {
         runnable.run();
     }
 
-    public static void runRepeatingTask(
+    public static ScheduledFuture<?> runRepeatingTask(
             Runnable runnable, long delay, long period) {
-        runRepeatingTask(runnable, delay, period, TimeUnit.MILLISECONDS);
+        return runRepeatingTask(runnable, delay, period, TimeUnit.MILLISECONDS);
     }
 
-    public static void runRepeatingTask(
+    public static ScheduledFuture<?> runRepeatingTask(
             Runnable runnable, long delay, long period, TimeUnit timeUnit) {
-        SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(
+        return SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(
                 runnable, delay, period, timeUnit
         );
     }
+
+    /**
+     *
+     * Repeats the blocking runnable using the {@link UtilConcurrency#IO} executor. The scheduler only hands the task
+     * over, and a run is skipped if the previous one is still going
+     *
+     * @param runnable The runnable to repeat
+     * @param delay The delay (in milliseconds) before the first run
+     * @param period The period (in milliseconds) between runs
+     * @return The future used to cancel the task
+     */
+    public static ScheduledFuture<?> runRepeatingTaskIO(Runnable runnable, long delay, long period) {
+        AtomicBoolean running = new AtomicBoolean(false);
+
+        return runRepeatingTask(() -> {
+            if (!running.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                IO.execute(() -> {
+                    try {
+                        runnable.run();
+                    } catch (Exception e) {
+                        UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing IO task", e));
+                    } finally {
+                        running.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+            }
+        }, delay, period);
+    }
 }
@@ -8,6 +8,8 @@ public  class RedisDatabaseDetails {
     private String ip;
     private int port;
     private String password;
+    private int poolSize = 8;
+    private long poolTimeoutMillis = 5000;
 
     public RedisDatabaseDetails() {
     }
@@ -18,6 +20,12 @@ public  class RedisDatabaseDetails {
         this.password = password;
     }
 
+    public RedisDatabaseDetails(String ip, int port, String password, int poolSize, long poolTimeoutMillis) {
+        this(ip, port, password);
+        this.poolSize = poolSize;
+        this.poolTimeoutMillis = poolTimeoutMillis;
+    }
+
     public String getIp() {
         return this.ip;
     }
@@ -29,4 +37,19 @@ public  class RedisDatabaseDetails {
     public String getPassword() {
         return this.password;
     }
+
+    /**
+     *
+     * Gets the maximum number of dedicated connections used for blocking commands and pipelines,
+     * all other commands share one connection
+     *
+     * @return The pool size
+     */
+    public int getPoolSize() {
+        return this.poolSize;
+    }
+
+    public long getPoolTimeoutMillis() {
+        return this.poolTimeoutMillis;
+    }
 }
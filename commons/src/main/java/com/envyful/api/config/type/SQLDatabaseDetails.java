@@ -1,7 +1,11 @@
 package com.envyful.api.config.type;
 
+import com.google.common.collect.Maps;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
 
+import java.util.Collections;
+import java.util.Map;
+
 @ConfigSerializable
 public  class SQLDatabaseDetails {
 
@@ -17,14 +21,21 @@ public  class SQLDatabaseDetails {
     private String database;
     private int maxPoolSize = 30;
     private String connectionUrl = null;
-    private long maxLifeTimeSeconds = 30;
+    private long maxLifeTimeSeconds = 1800;
     private boolean disableSSL = false;
+    private int minimumIdle = -1;
+    private long idleTimeoutSeconds = 600;
+    private long keepAliveSeconds = 0;
+    private long connectionTimeoutSeconds = 30;
+    private long validationTimeoutSeconds = 5;
+    private long leakDetectionSeconds = 60;
+    private Map<String, String> driverProperties = Maps.newHashMap();
 
     public SQLDatabaseDetails() {
     }
 
     public SQLDatabaseDetails(String poolName, String ip, int port, String username, String password, String database) {
-        this(poolName, ip, port, username, password, database, 30, 30);
+        this(poolName, ip, port, username, password, database, 30, 1800);
     }
 
     public SQLDatabaseDetails(String poolName, String ip, int port, String username, String password, String database, int maxPoolSize, long maxLifeTimeSeconds) {
@@ -77,4 +88,170 @@ public  class SQLDatabaseDetails {
     public boolean isDisableSSL() {
         return this.disableSSL;
     }
+
+    /**
+     *
+     * Gets the minimum number of idle connections kept in the pool, or -1 to keep the pool at its maximum size
+     *
+     * @return The minimum idle connections
+     */
+    public int getMinimumIdle() {
+        return this.minimumIdle;
+    }
+
+    /**
+     *
+     * Gets how long a connection can sit idle before it's closed, when the pool is above the minimum idle
+     *
+     * @return The idle timeout in seconds
+     */
+    public long getIdleTimeoutSeconds() {
+        return this.idleTimeoutSeconds;
+    }
+
+    /**
+     *
+     * Gets how often idle connections are pinged to stop the database or network closing them, 0 to turn it off.
+     * Should be less than the max lifetime and the database's own idle timeout (i.e. MySQL's wait_timeout)
+     *
+     * @return The keep alive interval in seconds
+     */
+    public long getKeepAliveSeconds() {
+        return this.keepAliveSeconds;
+    }
+
+    public long getConnectionTimeoutSeconds() {
+        return this.connectionTimeoutSeconds;
+    }
+
+    public long getValidationTimeoutSeconds() {
+        return this.validationTimeoutSeconds;
+    }
+
+    /**
+     *
+     * Gets how long a connection can be borrowed before it's logged as a possible leak, 0 to turn it off
+     *
+     * @return The leak detection threshold in seconds
+     */
+    public long getLeakDetectionSeconds() {
+        return this.leakDetectionSeconds;
+    }
+
+    /**
+     *
+     * Gets the extra properties passed to the JDBC driver, which override the defaults for MySQL
+     *
+     * @return The driver properties
+     */
+    public Map<String, String> getDriverProperties() {
+        return this.driverProperties == null ? Collections.emptyMap() : this.driverProperties;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final SQLDatabaseDetails details = new SQLDatabaseDetails();
+
+        Builder() {}
+
+        public Builder poolName(String poolName) {
+            this.details.poolName = poolName;
+            return this;
+        }
+
+        public Builder ip(String ip) {
+            this.details.ip = ip;
+            return this;
+        }
+
+        public Builder port(int port) {
+            this.details.port = port;
+            return this;
+        }
+
+        public Builder username(String username) {
+            this.details.username = username;
+            return this;
+        }
+
+        public Builder password(String password) {
+            this.details.password = password;
+            return this;
+        }
+
+        public Builder database(String database) {
+            this.details.database = database;
+            return this;
+        }
+
+        /**
+         *
+         * Sets the JDBC URL, used instead of building a MySQL URL from the ip, port and database
+         *
+         * @param connectionUrl The JDBC URL
+         * @return The builder
+         */
+        public Builder connectionUrl(String connectionUrl) {
+            this.details.connectionUrl = connectionUrl;
+            return this;
+        }
+
+        public Builder disableSSL(boolean disableSSL) {
+            this.details.disableSSL = disableSSL;
+            return this;
+        }
+
+        public Builder maxPoolSize(int maxPoolSize) {
+            this.details.maxPoolSize = maxPoolSize;
+            return this;
+        }
+
+        public Builder minimumIdle(int minimumIdle) {
+            this.details.minimumIdle = minimumIdle;
+            return this;
+        }
+
+        public Builder maxLifeTimeSeconds(long maxLifeTimeSeconds) {
+            this.details.maxLifeTimeSeconds = maxLifeTimeSeconds;
+            return this;
+        }
+
+        public Builder idleTimeoutSeconds(long idleTimeoutSeconds) {
+            this.details.idleTimeoutSeconds = idleTimeoutSeconds;
+            return this;
+        }
+
+        public Builder keepAliveSeconds(long keepAliveSeconds) {
+            this.details.keepAliveSeconds = keepAliveSeconds;
+            return this;
+        }
+
+        public Builder connectionTimeoutSeconds(long connectionTimeoutSeconds) {
+            this.details.connectionTimeoutSeconds = connectionTimeoutSeconds;
+            return this;
+        }
+
+        public Builder validationTimeoutSeconds(long validationTimeoutSeconds) {
+            this.details.validationTimeoutSeconds = validationTimeoutSeconds;
+            return this;
+        }
+
+        public Builder leakDetectionSeconds(long leakDetectionSeconds) {
+            this.details.leakDetectionSeconds = leakDetectionSeconds;
+            return this;
+        }
+
+        public Builder driverProperty(String key, String value) {
+            this.details.driverProperties.put(key, value);
+            return this;
+        }
+
+        public SQLDatabaseDetails build() {
+            return this.details;
+        }
+    }
 }
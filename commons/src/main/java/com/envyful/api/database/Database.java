@@ -1,11 +1,18 @@
 package com.envyful.api.database;
 
+import com.envyful.api.database.impl.redis.MessageChannel;
+import com.envyful.api.database.impl.sql.SQLPoolStats;
 import io.lettuce.core.RedisClient;
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  *
@@ -29,16 +36,46 @@ public interface Database {
 
     /**
      *
-     * Gets the Jedis connection from the database if available
+     * Gets the state of the SQL connection pool and how long connections take to get from it
      *
-     * @return The jedis connection
-     * @throws UnsupportedOperationException If this database isn't redis lol
+     * @return A snapshot of the pool's stats
+     * @throws UnsupportedOperationException If this isn't an SQL database
+     */
+    default SQLPoolStats getPoolStats() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Not an SQL database");
+    }
+
+    /**
+     *
+     * Gets the Redis connection from the database if available.
+     * The connection is shared by every caller, closing it does nothing so existing code that closes it once it's
+     * done keeps working. It can be reopened by the database after it's lost, so call this for each operation
+     * rather than keeping the connection
+     *
+     * @return The shared Lettuce connection
+     * @throws UnsupportedOperationException If this database isn't redis
      */
     default StatefulRedisConnection<String, String> getRedis()
             throws UnsupportedOperationException {
         throw new UnsupportedOperationException("Not a redis database");
     }
 
+    /**
+     *
+     * Sends the commands issued by the function to redis together in one write, on a connection borrowed for the
+     * pipeline, rather than writing each command as it's issued
+     *
+     * @param commands Issues the commands and returns the future of their combined result
+     * @return The future result
+     * @param <T> The result type
+     * @throws UnsupportedOperationException If this database isn't redis
+     */
+    default <T> CompletableFuture<T> pipeline(
+            Function<RedisAsyncCommands<String, String>, ? extends CompletionStage<T>> commands)
+            throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Not a redis database");
+    }
+
     /**
      *
      * Gets the client
@@ -72,6 +109,20 @@ public interface Database {
         throw new UnsupportedOperationException("Not a redis database");
     }
 
+    /**
+     *
+     * Adds a handler for the messages on the channel, which are decoded with the channel's codec
+     *
+     * @param channel The channel
+     * @param handler The handler, given the channel name and the decoded message
+     * @param <T> The message type
+     * @throws UnsupportedOperationException If this database isn't redis
+     */
+    default <T> void subscribe(MessageChannel<T> channel, BiConsumer<String, T> handler)
+            throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Not a redis database");
+    }
+
     /**
      *
      * Publishes a message to the redis over the specified channel
@@ -85,6 +136,19 @@ public interface Database {
         throw new UnsupportedOperationException("Not a redis database");
     }
 
+    /**
+     *
+     * Publishes a message to the channel, encoded with the channel's codec
+     *
+     * @param channel The channel
+     * @param message The message
+     * @param <T> The message type
+     * @throws UnsupportedOperationException If this database isn't redis
+     */
+    default <T> void publish(MessageChannel<T> channel, T message) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Not a redis database");
+    }
+
     /**
      *
      * Closes the connection
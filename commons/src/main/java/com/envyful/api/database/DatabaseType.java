@@ -36,8 +36,10 @@ public enum DatabaseType {
             String ip = node.node("ip").getString();
             int port = node.node("port").getInt();
             String password = node.node("password").getString();
+            int poolSize = node.node("pool-size").getInt(8);
+            long poolTimeout = node.node("pool-timeout").getLong(5000);
 
-            return new SimpleLettuceDatabase(ip, port, password);
+            return new SimpleLettuceDatabase(ip, port, password, poolSize, poolTimeout);
         }
     }
 
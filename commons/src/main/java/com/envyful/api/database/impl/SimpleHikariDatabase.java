@@ -2,11 +2,15 @@ package com.envyful.api.database.impl;
 
 import com.envyful.api.config.type.SQLDatabaseDetails;
 import com.envyful.api.database.Database;
+import com.envyful.api.database.impl.sql.PoolMetrics;
+import com.envyful.api.database.impl.sql.SQLPoolStats;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -17,25 +21,20 @@ import java.util.concurrent.TimeUnit;
 public class SimpleHikariDatabase implements Database {
 
     private final HikariDataSource hikari;
+    private final PoolMetrics metrics = new PoolMetrics();
 
     public SimpleHikariDatabase(SQLDatabaseDetails details) {
-        this(details.getConnectionUrl(),
-                details.getPoolName(),
-                details.getIp(),
-                details.getPort(),
-                details.getUsername(),
-                details.getPassword(),
-                details.getDatabase(),
-                details.getMaxPoolSize(),
-                details.getMaxLifeTimeSeconds(),
-                details.isDisableSSL()
-        );
+        HikariConfig config = createConfig(details);
+
+        config.setMetricsTrackerFactory(this.metrics);
+
+        this.hikari = new HikariDataSource(config);
     }
 
     public SimpleHikariDatabase(String name, String ip,
                                 int port, String username,
                                 String password, String database) {
-        this(null, name, ip, port, username, password, database, 30, 30, false);
+        this(null, name, ip, port, username, password, database, 30, 1800, false);
     }
 
     public SimpleHikariDatabase(String connectionUrl, String name,
@@ -43,42 +42,74 @@ public class SimpleHikariDatabase implements Database {
                                 String password, String database,
                                 int maxConnections, long maxLifeTime,
                                 boolean disableSSL) {
+        this(SQLDatabaseDetails.builder()
+                .connectionUrl(connectionUrl)
+                .poolName(name)
+                .ip(ip)
+                .port(port)
+                .username(username)
+                .password(password)
+                .database(database)
+                .maxPoolSize(maxConnections)
+                .maxLifeTimeSeconds(maxLifeTime)
+                .disableSSL(disableSSL)
+                .build());
+    }
+
+    private static HikariConfig createConfig(SQLDatabaseDetails details) {
         HikariConfig config = new HikariConfig();
+        int maxConnections = Math.max(1, details.getMaxPoolSize());
+
+        config.setMaximumPoolSize(maxConnections);
+        config.setPoolName(details.getPoolName());
+
+        if (details.getMinimumIdle() >= 0) {
+            config.setMinimumIdle(Math.min(details.getMinimumIdle(), maxConnections));
+        }
+
+        String jdbcUrl = details.getConnectionUrl();
+
+        if (jdbcUrl == null) {
+            jdbcUrl = "jdbc:mysql://" + details.getIp() + ":" + details.getPort() + "/" + details.getDatabase() +
+                    "?noAccessToProcedureBodies=true" + (details.isDisableSSL() ? "&useSSL=false" : "");
+        }
 
-        config.setMaximumPoolSize(Math.max(1, maxConnections));
-        config.setPoolName(name);
+        config.setJdbcUrl(jdbcUrl);
 
-        if (connectionUrl == null) {
-            config.setJdbcUrl(
-                    "jdbc:mysql://" + ip + ":" + port + "/" + database + "?noAccessToProcedureBodies=true"+ (disableSSL ? "&useSSL=false" : ""));
+        if (jdbcUrl.startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("serverName", details.getIp());
+            config.addDataSourceProperty("port", details.getPort());
+            config.addDataSourceProperty("databaseName", details.getDatabase());
+            config.addDataSourceProperty("user", details.getUsername());
+            config.addDataSourceProperty("password", details.getPassword());
+            config.addDataSourceProperty("cachePrepStmts", true);
+            config.addDataSourceProperty("prepStmtCacheSize", 250);
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", 2048);
+            config.addDataSourceProperty("useServerPrepStmts", true);
+            config.addDataSourceProperty("cacheCallableStmts", true);
+            config.addDataSourceProperty("alwaysSendSetIsolation", false);
+            config.addDataSourceProperty("cacheServerConfiguration", true);
+            config.addDataSourceProperty("elideSetAutoCommits", true);
+            config.addDataSourceProperty("useLocalSessionState", true);
+            config.addDataSourceProperty("characterEncoding","utf8");
+            config.addDataSourceProperty("useUnicode","true");
         } else {
-            config.setJdbcUrl(connectionUrl);
+            config.addDataSourceProperty("user", details.getUsername());
+            config.addDataSourceProperty("password", details.getPassword());
         }
 
-        config.addDataSourceProperty("serverName", ip);
-        config.addDataSourceProperty("port", port);
-        config.addDataSourceProperty("databaseName", database);
-        config.addDataSourceProperty("user", username);
-        config.addDataSourceProperty("password", password);
-        config.addDataSourceProperty("cachePrepStmts", true);
-        config.addDataSourceProperty("prepStmtCacheSize", 250);
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", 2048);
-        config.addDataSourceProperty("useServerPrepStmts", true);
-        config.addDataSourceProperty("cacheCallableStmts", true);
-        config.addDataSourceProperty("alwaysSendSetIsolation", false);
-        config.addDataSourceProperty("cacheServerConfiguration", true);
-        config.addDataSourceProperty("elideSetAutoCommits", true);
-        config.addDataSourceProperty("useLocalSessionState", true);
-        config.addDataSourceProperty("characterEncoding","utf8");
-        config.addDataSourceProperty("useUnicode","true");
-        config.addDataSourceProperty("maxLifetime",
-                TimeUnit.SECONDS.toMillis(maxLifeTime));
-        config.setMaxLifetime(TimeUnit.SECONDS.toMillis(maxLifeTime));
-        config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(30));
-        config.setLeakDetectionThreshold(TimeUnit.SECONDS.toMillis(60));
-        config.setConnectionTestQuery("/* Ping */ SELECT 1");
+        for (Map.Entry<String, String> property : details.getDriverProperties().entrySet()) {
+            config.addDataSourceProperty(property.getKey(), property.getValue());
+        }
 
-        this.hikari = new HikariDataSource(config);
+        config.setMaxLifetime(TimeUnit.SECONDS.toMillis(details.getMaxLifeTimeSeconds()));
+        config.setIdleTimeout(TimeUnit.SECONDS.toMillis(details.getIdleTimeoutSeconds()));
+        config.setKeepaliveTime(TimeUnit.SECONDS.toMillis(details.getKeepAliveSeconds()));
+        config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(details.getConnectionTimeoutSeconds()));
+        config.setValidationTimeout(TimeUnit.SECONDS.toMillis(details.getValidationTimeoutSeconds()));
+        config.setLeakDetectionThreshold(TimeUnit.SECONDS.toMillis(details.getLeakDetectionSeconds()));
+        config.setConnectionTestQuery("/* Ping */ SELECT 1");
+        return config;
     }
 
     @Override
@@ -86,6 +117,21 @@ public class SimpleHikariDatabase implements Database {
         return this.hikari.getConnection();
     }
 
+    /**
+     *
+     * Gets the pool's MX bean, used to read its connection counts or to suspend it and evict its connections
+     *
+     * @return The MX bean, or null if the pool hasn't started
+     */
+    public HikariPoolMXBean getPoolMXBean() {
+        return this.hikari.getHikariPoolMXBean();
+    }
+
+    @Override
+    public SQLPoolStats getPoolStats() {
+        return this.metrics.snapshot(this.getPoolMXBean());
+    }
+
     @Override
     public void close() {
         this.hikari.close();
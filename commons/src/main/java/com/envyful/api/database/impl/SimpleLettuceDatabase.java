@@ -1,70 +1,170 @@
 package com.envyful.api.database.impl;
 
-import com.envyful.api.concurrency.UtilLogger;
 import com.envyful.api.config.type.RedisDatabaseDetails;
 import com.envyful.api.database.Database;
-import com.envyful.api.database.impl.redis.Subscribe;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import com.envyful.api.database.impl.redis.MessageChannel;
+import com.envyful.api.database.impl.redis.MessageDispatcher;
+import com.envyful.api.database.impl.redis.RedisConnectionPool;
+import com.envyful.api.database.impl.redis.RedisMetrics;
+import com.envyful.api.database.impl.redis.SharedConnection;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.event.command.CommandListener;
 import io.lettuce.core.pubsub.RedisPubSubAdapter;
 import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.BiConsumer;
-
+import java.util.function.Function;
+
+/**
+ *
+ * A Redis {@link Database} backed by Lettuce.
+ * <br>
+ * {@link #getRedis()} returns one shared connection, which is thread safe and pipelines the commands of every
+ * thread using it, so it should be used for almost everything. Closing it does nothing, so callers that close the
+ * connection once they're done (as they had to when each call opened a new one) don't close it for everyone else.
+ * Blocking commands, transactions and pipelines that turn off auto flushing need a connection of their own,
+ * which are borrowed from the bounded {@link #getPool()} (i.e. through {@link #pipeline(Function)})
+ *
+ */
 public class SimpleLettuceDatabase implements Database {
 
-    private final RedisClient pool;
+    private final RedisClient client;
     private final RedisURI uri;
+    private final RedisMetrics metrics = new RedisMetrics();
+    private final RedisConnectionPool pool;
     private final StatefulRedisPubSubConnection<String, String>
             subscribeConnection;
     private final StatefulRedisPubSubConnection<String, String>
             publishConnection;
-    private final Map<String, List<BiConsumer<String, String>>>
-            subscriptions = Maps.newConcurrentMap();
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+
+    private volatile StatefulRedisConnection<String, String> connection = null;
+    private volatile StatefulRedisConnection<String, String> sharedConnection = null;
 
     public SimpleLettuceDatabase(RedisDatabaseDetails details) {
-        this(details.getIp(), details.getPort(), details.getPassword());
+        this(details.getIp(), details.getPort(), details.getPassword(),
+                details.getPoolSize(), details.getPoolTimeoutMillis());
     }
 
     public SimpleLettuceDatabase(String host, int port, String password) {
+        this(host, port, password, 8, 5000);
+    }
+
+    /**
+     *
+     * Connects to the Redis server
+     *
+     * @param host The host
+     * @param port The port
+     * @param password The password
+     * @param poolSize The maximum number of dedicated connections in the pool
+     * @param poolTimeoutMillis The maximum time (in milliseconds) to wait for a connection from the pool
+     */
+    public SimpleLettuceDatabase(String host, int port, String password, int poolSize, long poolTimeoutMillis) {
         this.uri = RedisURI.builder()
                 .withHost(host)
                 .withPort(port)
                 .withPassword(password)
                 .build();
-        this.pool = RedisClient.create(this.uri);
-        this.subscribeConnection = pool.connectPubSub();
-        this.publishConnection = pool.connectPubSub();
+        this.client = RedisClient.create(this.uri);
+        this.client.addListener((RedisConnectionStateListener) this.metrics);
+        this.client.addListener((CommandListener) this.metrics);
+        this.pool = new RedisConnectionPool(this.client::connect, poolSize, poolTimeoutMillis);
+        this.subscribeConnection = this.client.connectPubSub();
+        this.publishConnection = this.client.connectPubSub();
 
         subscribeConnection.addListener(new RedisPubSubAdapter<>() {
             @Override
             public void message(String channel, String message) {
-                for (BiConsumer<String, String> handler :
-                        subscriptions.getOrDefault(channel,
-                                Collections.emptyList())) {
-                    handler.accept(channel, message);
-                }
+                dispatcher.dispatch(channel, message);
             }
         });
     }
 
+    /**
+     *
+     * Gets the shared connection, opening it if it's not open.
+     * It's shared by every caller so it mustn't be blocked or have auto flushing turned off, closing it does nothing
+     *
+     * @return The shared connection
+     */
     @Override
     public StatefulRedisConnection<String, String> getRedis()
             throws UnsupportedOperationException {
-        return this.pool.connect();
+        StatefulRedisConnection<String, String> connection = this.connection;
+        StatefulRedisConnection<String, String> sharedConnection = this.sharedConnection;
+
+        if (connection != null && connection.isOpen() && sharedConnection != null) {
+            return sharedConnection;
+        }
+
+        synchronized (this) {
+            if (this.connection == null || !this.connection.isOpen()) {
+                this.connection = this.client.connect();
+                this.sharedConnection = SharedConnection.unclosable(this.connection);
+            }
+
+            return this.sharedConnection;
+        }
+    }
+
+    /**
+     *
+     * Gets the pool of dedicated connections for blocking commands and transactions
+     *
+     * @return The pool
+     */
+    public RedisConnectionPool getPool() {
+        return this.pool;
+    }
+
+    public RedisMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     *
+     * Gets the dispatcher of the received messages, used to set the executor the handlers run on
+     * and to read the stats of each channel
+     *
+     * @return The dispatcher
+     */
+    public MessageDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> pipeline(
+            Function<RedisAsyncCommands<String, String>, ? extends CompletionStage<T>> commands)
+            throws UnsupportedOperationException {
+        StatefulRedisConnection<String, String> connection = this.pool.borrow();
+        CompletionStage<T> result;
+
+        connection.setAutoFlushCommands(false);
+
+        try {
+            result = commands.apply(connection.async());
+        } catch (RuntimeException e) {
+            connection.flushCommands();
+            this.pool.release(connection);
+            throw e;
+        }
+
+        connection.flushCommands();
+
+        return result.toCompletableFuture().whenComplete((t, throwable) -> this.pool.release(connection));
     }
 
     @Override
     public RedisClient getClient() throws UnsupportedOperationException {
-        return this.pool;
+        return this.client;
     }
 
     @Override
@@ -75,41 +175,43 @@ public class SimpleLettuceDatabase implements Database {
     @Override
     public void publish(String channel, String message)
             throws UnsupportedOperationException {
+        this.dispatcher.published(channel);
         this.publishConnection.async().publish(channel, message);
     }
 
+    @Override
+    public <T> void publish(MessageChannel<T> channel, T message) throws UnsupportedOperationException {
+        this.publish(channel.getName(), channel.getCodec().encode(message));
+    }
+
     @Override
     public void close() {
         this.pool.close();
+
+        synchronized (this) {
+            if (this.connection != null) {
+                this.connection.close();
+            }
+        }
+
+        this.subscribeConnection.close();
+        this.publishConnection.close();
+        this.client.close();
     }
 
     @Override
     public void subscribe(Object o) throws UnsupportedOperationException {
-        for (Method declaredMethod : o.getClass().getDeclaredMethods()) {
-            Subscribe subscribe = declaredMethod.getAnnotation(Subscribe.class);
-
-            if (subscribe == null) {
-                continue;
-            }
+        List<String> channels = this.dispatcher.register(o);
 
-            this.subscribeConnection.async().subscribe(subscribe.value());
-
-            for (String s : subscribe.value()) {
-                this.subscriptions.computeIfAbsent(s,
-                                unused -> Lists.newArrayList())
-                        .add((channel, message) -> {
-                            try {
-                                declaredMethod.invoke(o, channel, message);
-                            } catch (InvocationTargetException |
-                                     IllegalAccessException e) {
-                                UtilLogger.logger().ifPresent(logger -> logger.error(
-                                        "Jedis error in '{}' for '{}'",
-                                        channel, message
-                                ));
-                                e.printStackTrace();
-                            }
-                        });
-            }
+        if (!channels.isEmpty()) {
+            this.subscribeConnection.async().subscribe(channels.toArray(new String[0]));
         }
     }
+
+    @Override
+    public <T> void subscribe(MessageChannel<T> channel, BiConsumer<String, T> handler)
+            throws UnsupportedOperationException {
+        this.dispatcher.register(channel, handler);
+        this.subscribeConnection.async().subscribe(channel.getName());
+    }
 }
@@ -0,0 +1,134 @@
+package com.envyful.api.database.impl.redis;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * Live throughput and latency counters of a pub/sub channel
+ *
+ */
+public class ChannelStats {
+
+    private final String channel;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalHandleNanos = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final AtomicLong maxHandleNanos = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    ChannelStats(String channel) {
+        this.channel = channel;
+    }
+
+    void recordPublished() {
+        this.published.increment();
+    }
+
+    void recordQueued() {
+        this.queued.incrementAndGet();
+    }
+
+    void recordHandled(long queueNanos, long handleNanos) {
+        this.queued.decrementAndGet();
+        this.received.increment();
+        this.totalQueueNanos.add(queueNanos);
+        this.totalHandleNanos.add(handleNanos);
+        this.maxHandleNanos.accumulateAndGet(handleNanos, Math::max);
+    }
+
+    void recordFailure() {
+        this.failures.increment();
+    }
+
+    void recordDropped() {
+        this.dropped.increment();
+    }
+
+    void recordRejected() {
+        this.rejected.increment();
+    }
+
+    public String getChannel() {
+        return this.channel;
+    }
+
+    public long getPublished() {
+        return this.published.sum();
+    }
+
+    public long getReceived() {
+        return this.received.sum();
+    }
+
+    /**
+     *
+     * Gets the number of messages that couldn't be decoded or whose handlers threw an exception
+     *
+     * @return The failures
+     */
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    /**
+     *
+     * Gets the number of received messages dropped because the channel's queue was full
+     *
+     * @return The dropped messages
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    /**
+     *
+     * Gets the number of times the executor rejected the channel's queue, leaving the messages queued
+     *
+     * @return The rejections
+     */
+    public long getRejected() {
+        return this.rejected.sum();
+    }
+
+    /**
+     *
+     * Gets the number of received messages waiting for their handlers to run
+     *
+     * @return The queued messages
+     */
+    public int getQueued() {
+        return this.queued.get();
+    }
+
+    /**
+     *
+     * Gets the average time (in nanoseconds) taken by all the handlers of a message
+     *
+     * @return The average handling time
+     */
+    public long getAverageHandleNanos() {
+        long received = this.received.sum();
+        return received == 0 ? 0 : this.totalHandleNanos.sum() / received;
+    }
+
+    public long getMaxHandleNanos() {
+        return this.maxHandleNanos.get();
+    }
+
+    /**
+     *
+     * Gets the average time (in nanoseconds) a message waited between being received and its handlers running
+     *
+     * @return The average queue time
+     */
+    public long getAverageQueueNanos() {
+        long received = this.received.sum();
+        return received == 0 ? 0 : this.totalQueueNanos.sum() / received;
+    }
+}
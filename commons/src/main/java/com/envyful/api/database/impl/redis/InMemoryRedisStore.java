@@ -0,0 +1,89 @@
+package com.envyful.api.database.impl.redis;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ *
+ * An in-process {@link RedisStore} for tests and single server setups, with the same expiry semantics as Redis
+ *
+ */
+public class InMemoryRedisStore implements RedisStore {
+
+    private final Map<String, Value> values = Maps.newHashMap();
+
+    @Override
+    public synchronized String get(String key) {
+        Value value = this.getLive(key);
+        return value == null ? null : value.value;
+    }
+
+    @Override
+    public synchronized void set(String key, String value, long ttlMillis) {
+        this.values.put(key, new Value(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    @Override
+    public synchronized boolean setIfAbsent(String key, String value, long ttlMillis) {
+        if (this.getLive(key) != null) {
+            return false;
+        }
+
+        this.set(key, value, ttlMillis);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean setIfOwner(String ownerKey, String owner, String key, String value, long ttlMillis) {
+        Value current = this.getLive(ownerKey);
+
+        if (current != null && !Objects.equals(current.value, owner)) {
+            return false;
+        }
+
+        this.set(ownerKey, owner, ttlMillis);
+        this.set(key, value, ttlMillis);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean compareAndDelete(String key, String expected) {
+        Value value = this.getLive(key);
+
+        if (value == null || !Objects.equals(value.value, expected)) {
+            return false;
+        }
+
+        this.values.remove(key);
+        return true;
+    }
+
+    @Override
+    public synchronized void delete(String key) {
+        this.values.remove(key);
+    }
+
+    private Value getLive(String key) {
+        Value value = this.values.get(key);
+
+        if (value != null && System.currentTimeMillis() >= value.expiresAt) {
+            this.values.remove(key);
+            return null;
+        }
+
+        return value;
+    }
+
+    private static final class Value {
+
+        private final String value;
+        private final long expiresAt;
+
+        private Value(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.envyful.api.database.impl.redis;
+
+import com.envyful.api.database.Database;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.util.function.Supplier;
+
+/**
+ *
+ * A {@link RedisStore} using a Lettuce connection from a Redis {@link Database}
+ *
+ */
+public class LettuceRedisStore implements RedisStore {
+
+    private static final String COMPARE_AND_DELETE =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    private static final String SET_IF_OWNER =
+            "local owner = redis.call('get', KEYS[1]) " +
+            "if owner and owner ~= ARGV[1] then return 0 end " +
+            "redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[3]) " +
+            "redis.call('set', KEYS[2], ARGV[2], 'PX', ARGV[3]) " +
+            "return 1";
+
+    private final Supplier<StatefulRedisConnection<String, String>> connection;
+
+    /**
+     *
+     * Creates a store using the database's shared connection, which is looked up for every command so a
+     * connection the database has reopened is picked up
+     *
+     * @param database The Redis database
+     */
+    public LettuceRedisStore(Database database) {
+        this.connection = database::getRedis;
+    }
+
+    public LettuceRedisStore(StatefulRedisConnection<String, String> connection) {
+        this.connection = () -> connection;
+    }
+
+    private RedisCommands<String, String> commands() {
+        return this.connection.get().sync();
+    }
+
+    @Override
+    public String get(String key) {
+        return this.commands().get(key);
+    }
+
+    @Override
+    public void set(String key, String value, long ttlMillis) {
+        this.commands().set(key, value, SetArgs.Builder.px(ttlMillis));
+    }
+
+    @Override
+    public boolean setIfAbsent(String key, String value, long ttlMillis) {
+        return "OK".equals(this.commands().set(key, value, SetArgs.Builder.nx().px(ttlMillis)));
+    }
+
+    @Override
+    public boolean setIfOwner(String ownerKey, String owner, String key, String value, long ttlMillis) {
+        Long set = this.commands().eval(SET_IF_OWNER, ScriptOutputType.INTEGER,
+                new String[] {ownerKey, key}, owner, value, String.valueOf(ttlMillis));
+        return set != null && set > 0;
+    }
+
+    @Override
+    public boolean compareAndDelete(String key, String expected) {
+        Long deleted = this.commands().eval(COMPARE_AND_DELETE, ScriptOutputType.INTEGER,
+                new String[] {key}, expected);
+        return deleted != null && deleted > 0;
+    }
+
+    @Override
+    public void delete(String key) {
+        this.commands().del(key);
+    }
+}
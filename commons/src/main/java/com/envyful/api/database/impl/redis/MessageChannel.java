@@ -0,0 +1,60 @@
+package com.envyful.api.database.impl.redis;
+
+/**
+ *
+ * A redis pub/sub channel that carries messages of one type, encoded with the channel's codec
+ *
+ * @param <T> The message type
+ */
+public class MessageChannel<T> {
+
+    private final String name;
+    private final MessageCodec<T> codec;
+
+    private MessageChannel(String name, MessageCodec<T> codec) {
+        this.name = name;
+        this.codec = codec;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public MessageCodec<T> getCodec() {
+        return this.codec;
+    }
+
+    public static <T> MessageChannel<T> of(String name, MessageCodec<T> codec) {
+        return new MessageChannel<>(name, codec);
+    }
+
+    public static MessageChannel<String> of(String name) {
+        return new MessageChannel<>(name, MessageCodecs.STRING);
+    }
+
+    /**
+     *
+     * Creates a channel whose messages are sent as JSON
+     *
+     * @param name The channel name
+     * @param type The message type
+     * @return The channel
+     * @param <T> The message type
+     */
+    public static <T> MessageChannel<T> json(String name, Class<T> type) {
+        return new MessageChannel<>(name, MessageCodecs.json(type));
+    }
+
+    /**
+     *
+     * Creates a channel whose messages are sent in the compact binary format
+     *
+     * @param name The channel name
+     * @param type The message type
+     * @return The channel
+     * @param <T> The message type
+     */
+    public static <T> MessageChannel<T> binary(String name, Class<T> type) {
+        return new MessageChannel<>(name, MessageCodecs.binary(type));
+    }
+}
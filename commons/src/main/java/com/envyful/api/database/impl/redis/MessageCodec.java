@@ -0,0 +1,23 @@
+package com.envyful.api.database.impl.redis;
+
+/**
+ *
+ * Converts the messages of a {@link MessageChannel} to and from the string sent over redis
+ *
+ * @param <T> The message type
+ */
+public interface MessageCodec<T> {
+
+    String encode(T message);
+
+    /**
+     *
+     * Decodes the message
+     *
+     * @param message The message received from redis
+     * @return The decoded message
+     * @throws RuntimeException If the message couldn't be decoded
+     */
+    T decode(String message);
+
+}
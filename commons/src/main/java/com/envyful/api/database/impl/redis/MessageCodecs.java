@@ -0,0 +1,126 @@
+package com.envyful.api.database.impl.redis;
+
+import com.envyful.api.player.save.impl.codec.AttributeCodecs;
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ *
+ * The built in {@link MessageCodec}s. Codecs are cached by type so handlers of the same type on a channel
+ * share one codec, and a message is only decoded once for all of them
+ *
+ */
+public class MessageCodecs {
+
+    public static final MessageCodec<String> STRING = new MessageCodec<String>() {
+        @Override
+        public String encode(String message) {
+            return message;
+        }
+
+        @Override
+        public String decode(String message) {
+            return message;
+        }
+    };
+
+    private static final Gson GSON = new Gson();
+    private static final Map<Type, MessageCodec<?>> JSON_CODECS = Maps.newConcurrentMap();
+    private static final Map<Type, MessageCodec<?>> BINARY_CODECS = Maps.newConcurrentMap();
+
+    private MessageCodecs() {
+        throw new UnsupportedOperationException("Static utility");
+    }
+
+    /**
+     *
+     * Gets the codec sending messages as JSON
+     *
+     * @param type The message type
+     * @return The codec
+     * @param <T> The message type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MessageCodec<T> json(Type type) {
+        if (type == String.class) {
+            return (MessageCodec<T>) STRING;
+        }
+
+        return (MessageCodec<T>) JSON_CODECS.computeIfAbsent(type, unused -> json(GSON, type));
+    }
+
+    /**
+     *
+     * Creates a codec sending messages as JSON with the given Gson instance, for types that need adapters
+     *
+     * @param gson The Gson instance
+     * @param type The message type
+     * @return The codec
+     * @param <T> The message type
+     */
+    public static <T> MessageCodec<T> json(Gson gson, Type type) {
+        return new MessageCodec<T>() {
+            @Override
+            public String encode(T message) {
+                return gson.toJson(message, type);
+            }
+
+            @Override
+            public T decode(String message) {
+                return gson.fromJson(message, type);
+            }
+        };
+    }
+
+    /**
+     *
+     * Gets the codec sending messages in the binary format of {@link AttributeCodecs#BINARY}, encoded as Base64
+     * as the pub/sub connections send strings. Messages that are mostly numbers are smaller and quicker to decode
+     * than JSON
+     *
+     * @param type The message type
+     * @return The codec
+     * @param <T> The message type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MessageCodec<T> binary(Type type) {
+        return (MessageCodec<T>) BINARY_CODECS.computeIfAbsent(type, unused -> binary(GSON, type));
+    }
+
+    public static <T> MessageCodec<T> binary(Gson gson, Type type) {
+        return new MessageCodec<T>() {
+            @Override
+            public String encode(T message) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+                try {
+                    AttributeCodecs.BINARY.write(gson.toJsonTree(message, type), outputStream);
+                } catch (IOException e) {
+                    throw new JsonParseException("Failed to encode " + type.getTypeName(), e);
+                }
+
+                return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+            }
+
+            @Override
+            public T decode(String message) {
+                try {
+                    JsonElement element = AttributeCodecs.BINARY.read(
+                            new ByteArrayInputStream(Base64.getDecoder().decode(message)));
+                    return gson.fromJson(element, type);
+                } catch (IOException | IllegalArgumentException e) {
+                    throw new JsonParseException("Failed to decode " + type.getTypeName(), e);
+                }
+            }
+        };
+    }
+}
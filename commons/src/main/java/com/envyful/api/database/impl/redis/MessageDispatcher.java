@@ -0,0 +1,306 @@
+package com.envyful.api.database.impl.redis;
+
+import com.envyful.api.concurrency.UtilLogger;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ *
+ * Hands the messages received on pub/sub channels to their handlers.
+ * <br>
+ * Handlers are either registered directly with a {@link MessageChannel} or found on an object by the
+ * {@link Subscribe} annotation. Annotated methods are turned into {@link MethodHandle}s once when they're registered
+ * rather than being invoked by reflection for every message. An annotated method takes the message, or the channel
+ * name and the message, and the message is decoded from JSON if its parameter isn't a {@link String}.
+ * Each message is decoded once for every handler on the channel with the same codec.
+ * <br>
+ * By default handlers run on the thread that received the message, which is the Lettuce event loop.
+ * With an executor set each channel's messages are queued and handled on the executor instead,
+ * still one at a time and in the order they were received, so slow handlers don't hold up the connection.
+ * Each channel queues at most {@link #setMaxPending(int)} messages, further messages are dropped and counted in
+ * {@link ChannelStats#getDropped()}. If the executor rejects the queue (i.e. it's full or shut down) the messages
+ * stay queued until the next message on the channel schedules it again, they're never handled on the receiving
+ * thread
+ *
+ */
+public class MessageDispatcher {
+
+    private static final int MAX_DRAIN = 64;
+    private static final int DEFAULT_MAX_PENDING = 10_000;
+    private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, String.class, Object.class);
+
+    private final Map<String, ChannelDispatch> channels = Maps.newConcurrentMap();
+
+    private volatile Executor executor = null;
+    private volatile int maxPending = DEFAULT_MAX_PENDING;
+
+    /**
+     *
+     * Sets the executor the handlers run on (i.e. a {@link com.envyful.api.concurrency.NamedExecutor#fixed} pool),
+     * or null to run them on the thread receiving the messages
+     *
+     * @param executor The executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     *
+     * Sets the maximum number of messages queued for the executor on each channel. Defaults to 10,000
+     *
+     * @param maxPending The maximum queued messages per channel
+     */
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public ChannelStats getStats(String channel) {
+        return this.getDispatch(channel).stats;
+    }
+
+    public List<ChannelStats> getStats() {
+        List<ChannelStats> stats = Lists.newArrayList();
+
+        for (ChannelDispatch dispatch : this.channels.values()) {
+            stats.add(dispatch.stats);
+        }
+
+        return Collections.unmodifiableList(stats);
+    }
+
+    private ChannelDispatch getDispatch(String channel) {
+        return this.channels.computeIfAbsent(channel, ChannelDispatch::new);
+    }
+
+    /**
+     *
+     * Adds the handler to the channel
+     *
+     * @param channel The channel
+     * @param handler The handler, given the channel name and the decoded message
+     * @param <T> The message type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void register(MessageChannel<T> channel, BiConsumer<String, T> handler) {
+        this.getDispatch(channel.getName()).handlers.add(new Handler(channel.getCodec(),
+                (BiConsumer<String, Object>) handler, handler.getClass().getName()));
+    }
+
+    /**
+     *
+     * Adds the methods of the object annotated with {@link Subscribe} as handlers
+     *
+     * @param listener The object
+     * @return The channels the methods subscribe to
+     * @throws IllegalArgumentException If an annotated method doesn't take a message
+     */
+    public List<String> register(Object listener) throws IllegalArgumentException {
+        List<String> subscribed = Lists.newArrayList();
+
+        for (Method method : listener.getClass().getDeclaredMethods()) {
+            Subscribe subscribe = method.getAnnotation(Subscribe.class);
+
+            if (subscribe == null) {
+                continue;
+            }
+
+            Handler handler = this.compile(listener, method);
+
+            for (String channel : subscribe.value()) {
+                this.getDispatch(channel).handlers.add(handler);
+                subscribed.add(channel);
+            }
+        }
+
+        return subscribed;
+    }
+
+    private Handler compile(Object listener, Method method) throws IllegalArgumentException {
+        Class<?>[] parameters = method.getParameterTypes();
+        Type[] genericParameters = method.getGenericParameterTypes();
+
+        if (parameters.length == 0 || parameters.length > 2 ||
+                (parameters.length == 2 && parameters[0] != String.class)) {
+            throw new IllegalArgumentException("@Subscribe method " + method + " must take (message) or " +
+                    "(String channel, message)");
+        }
+
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(listener);
+            }
+
+            if (parameters.length == 1) {
+                handle = MethodHandles.dropArguments(handle, 0, String.class);
+            }
+
+            MethodHandle invoker = handle.asType(HANDLER_TYPE);
+
+            return new Handler(MessageCodecs.json(genericParameters[genericParameters.length - 1]),
+                    (channel, message) -> {
+                        try {
+                            invoker.invokeExact(channel, message);
+                        } catch (RuntimeException | Error e) {
+                            throw e;
+                        } catch (Throwable e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, method.getDeclaringClass().getName() + "#" + method.getName());
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access @Subscribe method " + method, e);
+        }
+    }
+
+    /**
+     *
+     * Hands the message to the channel's handlers
+     *
+     * @param channel The channel
+     * @param message The message
+     */
+    public void dispatch(String channel, String message) {
+        ChannelDispatch dispatch = this.channels.get(channel);
+
+        if (dispatch == null) {
+            return;
+        }
+
+        Executor executor = this.executor;
+
+        if (executor == null) {
+            dispatch.stats.recordQueued();
+            dispatch.handle(message, System.nanoTime());
+            return;
+        }
+
+        if (dispatch.pendingCount.incrementAndGet() > this.maxPending) {
+            dispatch.pendingCount.decrementAndGet();
+            dispatch.stats.recordDropped();
+        } else {
+            dispatch.stats.recordQueued();
+            dispatch.pending.add(new PendingMessage(message, System.nanoTime()));
+        }
+
+        if (dispatch.draining.compareAndSet(false, true)) {
+            this.schedule(dispatch, executor);
+        }
+    }
+
+    private void schedule(ChannelDispatch dispatch, Executor executor) {
+        try {
+            executor.execute(() -> this.drain(dispatch, executor));
+        } catch (RejectedExecutionException e) {
+            dispatch.stats.recordRejected();
+            dispatch.draining.set(false);
+        }
+    }
+
+    private void drain(ChannelDispatch dispatch, Executor executor) {
+        PendingMessage message;
+        int drained = 0;
+
+        while (drained++ < MAX_DRAIN && (message = dispatch.pending.poll()) != null) {
+            dispatch.pendingCount.decrementAndGet();
+            dispatch.handle(message.message, message.receivedAt);
+        }
+
+        dispatch.draining.set(false);
+
+        if (!dispatch.pending.isEmpty() && dispatch.draining.compareAndSet(false, true)) {
+            this.schedule(dispatch, executor);
+        }
+    }
+
+    /**
+     *
+     * Records a message being published on the channel
+     *
+     * @param channel The channel
+     */
+    public void published(String channel) {
+        this.getDispatch(channel).stats.recordPublished();
+    }
+
+    private static final class ChannelDispatch {
+
+        private final ChannelStats stats;
+        private final List<Handler> handlers = new CopyOnWriteArrayList<>();
+        private final Queue<PendingMessage> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private ChannelDispatch(String channel) {
+            this.stats = new ChannelStats(channel);
+        }
+
+        private void handle(String message, long receivedAt) {
+            long start = System.nanoTime();
+            MessageCodec<?> decodedWith = null;
+            Object decoded = null;
+
+            for (Handler handler : this.handlers) {
+                try {
+                    if (handler.codec != decodedWith) {
+                        decoded = handler.codec.decode(message);
+                        decodedWith = handler.codec;
+                    }
+
+                    handler.consumer.accept(this.stats.getChannel(), decoded);
+                } catch (RuntimeException e) {
+                    this.stats.recordFailure();
+                    UtilLogger.logger().ifPresent(logger -> logger.error(
+                            "Redis handler " + handler.name + " failed on '" + this.stats.getChannel() +
+                                    "' for '" + message + "'", e));
+                }
+            }
+
+            this.stats.recordHandled(start - receivedAt, System.nanoTime() - start);
+        }
+    }
+
+    private static final class Handler {
+
+        private final MessageCodec<?> codec;
+        private final BiConsumer<String, Object> consumer;
+        private final String name;
+
+        private Handler(MessageCodec<?> codec, BiConsumer<String, Object> consumer, String name) {
+            this.codec = codec;
+            this.consumer = consumer;
+            this.name = name;
+        }
+    }
+
+    private static final class PendingMessage {
+
+        private final String message;
+        private final long receivedAt;
+
+        private PendingMessage(String message, long receivedAt) {
+            this.message = message;
+            this.receivedAt = receivedAt;
+        }
+    }
+}
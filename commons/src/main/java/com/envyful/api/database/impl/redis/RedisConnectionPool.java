@@ -0,0 +1,160 @@
+package com.envyful.api.database.impl.redis;
+
+import io.lettuce.core.RedisException;
+import io.lettuce.core.api.StatefulRedisConnection;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ *
+ * A bounded pool of dedicated Redis connections for commands that can't share the multiplexed connection,
+ * i.e. blocking commands (<code>BLPOP</code>), transactions (<code>MULTI</code>/<code>EXEC</code>) and pipelines
+ * with auto flushing turned off.
+ * <br>
+ * Connections are opened when they're first needed and kept open once returned. Borrowing waits up to the timeout
+ * when every connection is in use
+ *
+ */
+public class RedisConnectionPool implements AutoCloseable {
+
+    private final Supplier<StatefulRedisConnection<String, String>> factory;
+    private final int maxSize;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+    private final BlockingQueue<StatefulRedisConnection<String, String>> idle = new LinkedBlockingQueue<>();
+
+    private volatile boolean closed = false;
+
+    /**
+     *
+     * Creates the pool
+     *
+     * @param factory Opens a new connection
+     * @param maxSize The maximum number of connections
+     * @param timeoutMillis The maximum time (in milliseconds) to wait for a connection
+     */
+    public RedisConnectionPool(Supplier<StatefulRedisConnection<String, String>> factory, int maxSize,
+                               long timeoutMillis) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     *
+     * Gets the number of connections currently borrowed
+     *
+     * @return The active connections
+     */
+    public int getActive() {
+        return this.maxSize - this.permits.availablePermits();
+    }
+
+    public int getIdle() {
+        return this.idle.size();
+    }
+
+    /**
+     *
+     * Gets the number of threads waiting to borrow a connection
+     *
+     * @return The waiting threads
+     */
+    public int getWaiting() {
+        return this.permits.getQueueLength();
+    }
+
+    /**
+     *
+     * Borrows a connection, which must be given back with {@link #release(StatefulRedisConnection)}
+     *
+     * @return The connection
+     * @throws RedisException If the pool is closed or no connection was free before the timeout
+     */
+    public StatefulRedisConnection<String, String> borrow() throws RedisException {
+        if (this.closed) {
+            throw new RedisException("The connection pool is closed");
+        }
+
+        try {
+            if (!this.permits.tryAcquire(this.timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RedisException("Timed out after " + this.timeoutMillis + "ms waiting for a connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisException("Interrupted waiting for a connection", e);
+        }
+
+        try {
+            StatefulRedisConnection<String, String> connection;
+
+            while ((connection = this.idle.poll()) != null) {
+                if (connection.isOpen()) {
+                    return connection;
+                }
+            }
+
+            return this.factory.get();
+        } catch (RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * Gives a borrowed connection back to the pool
+     *
+     * @param connection The connection
+     */
+    public void release(StatefulRedisConnection<String, String> connection) {
+        if (this.closed || !connection.isOpen()) {
+            connection.close();
+        } else {
+            connection.setAutoFlushCommands(true);
+            this.idle.offer(connection);
+        }
+
+        this.permits.release();
+    }
+
+    /**
+     *
+     * Runs the function with a borrowed connection, giving it back afterwards
+     *
+     * @param function The function
+     * @return The result of the function
+     * @param <T> The result type
+     * @throws RedisException If no connection could be borrowed
+     */
+    public <T> T execute(Function<StatefulRedisConnection<String, String>, T> function) throws RedisException {
+        StatefulRedisConnection<String, String> connection = this.borrow();
+
+        try {
+            return function.apply(connection);
+        } finally {
+            this.release(connection);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+
+        StatefulRedisConnection<String, String> connection;
+
+        while ((connection = this.idle.poll()) != null) {
+            connection.close();
+        }
+    }
+}
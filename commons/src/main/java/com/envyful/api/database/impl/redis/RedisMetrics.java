@@ -0,0 +1,129 @@
+package com.envyful.api.database.impl.redis;
+
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.event.command.CommandFailedEvent;
+import io.lettuce.core.event.command.CommandListener;
+import io.lettuce.core.event.command.CommandStartedEvent;
+import io.lettuce.core.event.command.CommandSucceededEvent;
+
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * Live connection and command latency counters of a Redis client, collected by registering it as a listener
+ * on the client
+ *
+ */
+public class RedisMetrics implements CommandListener, RedisConnectionStateListener {
+
+    private static final String START_KEY = "envy-start";
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    @Override
+    public void onRedisConnected(RedisChannelHandler<?, ?> connection, SocketAddress socketAddress) {
+        this.openConnections.incrementAndGet();
+        this.connectionsOpened.increment();
+    }
+
+    @Override
+    public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+        this.openConnections.decrementAndGet();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        event.getContext().put(START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        this.record(event.getContext().get(START_KEY));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        this.failures.increment();
+        this.record(event.getContext().get(START_KEY));
+    }
+
+    private void record(Object start) {
+        if (!(start instanceof Long)) {
+            return;
+        }
+
+        long latency = System.nanoTime() - (Long) start;
+
+        this.commands.increment();
+        this.totalLatencyNanos.add(latency);
+        this.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     *
+     * Gets the number of connections that are currently connected, including pub/sub connections
+     *
+     * @return The open connections
+     */
+    public int getOpenConnections() {
+        return this.openConnections.get();
+    }
+
+    /**
+     *
+     * Gets the number of times a connection has been established, including reconnects
+     *
+     * @return The total connections opened
+     */
+    public long getConnectionsOpened() {
+        return this.connectionsOpened.sum();
+    }
+
+    public long getCommands() {
+        return this.commands.sum();
+    }
+
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    public long getTotalLatencyNanos() {
+        return this.totalLatencyNanos.sum();
+    }
+
+    /**
+     *
+     * Gets the average time (in nanoseconds) from a command being sent to its reply
+     *
+     * @return The average latency
+     */
+    public long getAverageLatencyNanos() {
+        long commands = this.commands.sum();
+        return commands == 0 ? 0 : this.totalLatencyNanos.sum() / commands;
+    }
+
+    public long getMaxLatencyNanos() {
+        return this.maxLatencyNanos.get();
+    }
+
+    /**
+     *
+     * Resets the command counters, leaving the connection counts
+     *
+     */
+    public void reset() {
+        this.commands.reset();
+        this.failures.reset();
+        this.totalLatencyNanos.reset();
+        this.maxLatencyNanos.set(0);
+    }
+}
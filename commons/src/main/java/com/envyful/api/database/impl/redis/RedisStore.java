@@ -0,0 +1,67 @@
+package com.envyful.api.database.impl.redis;
+
+/**
+ *
+ * The small set of Redis key/value operations needed to use Redis as a cache in front of another store,
+ * so code using it can be run against {@link InMemoryRedisStore} without a Redis server
+ *
+ */
+public interface RedisStore {
+
+    /**
+     *
+     * Gets the value of the key
+     *
+     * @param key The key
+     * @return The value or null if it's not set
+     */
+    String get(String key);
+
+    /**
+     *
+     * Sets the value of the key, expiring after the TTL
+     *
+     * @param key The key
+     * @param value The value
+     * @param ttlMillis The time to live in milliseconds
+     */
+    void set(String key, String value, long ttlMillis);
+
+    /**
+     *
+     * Sets the value of the key only if it's not already set (<code>SET NX PX</code>)
+     *
+     * @param key The key
+     * @param value The value
+     * @param ttlMillis The time to live in milliseconds
+     * @return true if the value was set
+     */
+    boolean setIfAbsent(String key, String value, long ttlMillis);
+
+    /**
+     *
+     * Sets the value of the key only if the owner key holds the owner, or isn't set, atomically.
+     * The owner key is set to the owner with the same TTL so the owner keeps it while it's still writing
+     *
+     * @param ownerKey The key naming the current owner
+     * @param owner The owner doing the write
+     * @param key The key
+     * @param value The value
+     * @param ttlMillis The time to live in milliseconds, of both keys
+     * @return true if the value was set, false if the owner key is held by someone else
+     */
+    boolean setIfOwner(String ownerKey, String owner, String key, String value, long ttlMillis);
+
+    /**
+     *
+     * Deletes the key only if its value is the expected value, atomically
+     *
+     * @param key The key
+     * @param expected The expected value
+     * @return true if the key was deleted
+     */
+    boolean compareAndDelete(String key, String expected);
+
+    void delete(String key);
+
+}
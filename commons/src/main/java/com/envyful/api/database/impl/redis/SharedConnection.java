@@ -0,0 +1,54 @@
+package com.envyful.api.database.impl.redis;
+
+import io.lettuce.core.api.StatefulRedisConnection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ *
+ * Static utility class for handing out a shared Redis connection.
+ * <br>
+ * Callers written for connections of their own close them when they're done (i.e. with try-with-resources),
+ * so the shared connection is handed out behind a view where <code>close()</code> and <code>closeAsync()</code>
+ * do nothing. Every other method is passed to the real connection
+ *
+ */
+public class SharedConnection {
+
+    private SharedConnection() {
+        throw new UnsupportedOperationException("Static utility");
+    }
+
+    /**
+     *
+     * Wraps the connection so that closing it does nothing
+     *
+     * @param connection The shared connection
+     * @return The view of the connection
+     */
+    @SuppressWarnings("unchecked")
+    public static StatefulRedisConnection<String, String> unclosable(
+            StatefulRedisConnection<String, String> connection) {
+        return (StatefulRedisConnection<String, String>) Proxy.newProxyInstance(
+                SharedConnection.class.getClassLoader(), new Class<?>[] {StatefulRedisConnection.class},
+                (proxy, method, args) -> {
+                    if (method.getParameterCount() == 0) {
+                        if (method.getName().equals("close")) {
+                            return null;
+                        }
+
+                        if (method.getName().equals("closeAsync")) {
+                            return CompletableFuture.completedFuture(null);
+                        }
+                    }
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,92 @@
+package com.envyful.api.database.impl.sql;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * Records how long threads wait to get a connection from a Hikari pool, as a histogram,
+ * along with how long connections are held and how many requests timed out.
+ * Registered on the pool as its {@link MetricsTrackerFactory}
+ *
+ */
+public class PoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+
+    static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 5000, Long.MAX_VALUE};
+
+    private final AtomicLongArray acquireHistogram = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length);
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalAcquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder totalUsageMillis = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        this.connectionsCreated.increment();
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos);
+        int bucket = 0;
+
+        while (millis >= BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+
+        this.acquireHistogram.incrementAndGet(bucket);
+        this.acquisitions.increment();
+        this.totalAcquireNanos.add(elapsedAcquiredNanos);
+        this.maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        this.usages.increment();
+        this.totalUsageMillis.add(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        this.timeouts.increment();
+    }
+
+    /**
+     *
+     * Takes a snapshot of the metrics along with the current state of the pool
+     *
+     * @param pool The pool, or null if it hasn't started
+     * @return The snapshot
+     */
+    public SQLPoolStats snapshot(HikariPoolMXBean pool) {
+        long[] histogram = new long[BUCKET_BOUNDS_MILLIS.length];
+
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = this.acquireHistogram.get(i);
+        }
+
+        return new SQLPoolStats(
+                pool == null ? 0 : pool.getActiveConnections(),
+                pool == null ? 0 : pool.getIdleConnections(),
+                pool == null ? 0 : pool.getTotalConnections(),
+                pool == null ? 0 : pool.getThreadsAwaitingConnection(),
+                this.acquisitions.sum(), this.totalAcquireNanos.sum(), this.maxAcquireNanos.get(),
+                this.timeouts.sum(), this.connectionsCreated.sum(), this.usages.sum(), this.totalUsageMillis.sum(),
+                histogram);
+    }
+}
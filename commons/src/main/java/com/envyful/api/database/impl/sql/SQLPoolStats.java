@@ -0,0 +1,163 @@
+package com.envyful.api.database.impl.sql;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * A snapshot of the state of an SQL connection pool and the time spent waiting for its connections
+ *
+ */
+public class SQLPoolStats {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int threadsAwaitingConnection;
+    private final long acquisitions;
+    private final long totalAcquireNanos;
+    private final long maxAcquireNanos;
+    private final long timeouts;
+    private final long connectionsCreated;
+    private final long usages;
+    private final long totalUsageMillis;
+    private final long[] acquireHistogram;
+
+    SQLPoolStats(int activeConnections, int idleConnections, int totalConnections, int threadsAwaitingConnection,
+                 long acquisitions, long totalAcquireNanos, long maxAcquireNanos, long timeouts,
+                 long connectionsCreated, long usages, long totalUsageMillis, long[] acquireHistogram) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        this.acquisitions = acquisitions;
+        this.totalAcquireNanos = totalAcquireNanos;
+        this.maxAcquireNanos = maxAcquireNanos;
+        this.timeouts = timeouts;
+        this.connectionsCreated = connectionsCreated;
+        this.usages = usages;
+        this.totalUsageMillis = totalUsageMillis;
+        this.acquireHistogram = acquireHistogram;
+    }
+
+    public int getActiveConnections() {
+        return this.activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return this.idleConnections;
+    }
+
+    public int getTotalConnections() {
+        return this.totalConnections;
+    }
+
+    /**
+     *
+     * Gets the number of threads waiting for a connection when the snapshot was taken
+     *
+     * @return The waiting threads
+     */
+    public int getThreadsAwaitingConnection() {
+        return this.threadsAwaitingConnection;
+    }
+
+    public long getAcquisitions() {
+        return this.acquisitions;
+    }
+
+    /**
+     *
+     * Gets the average time (in nanoseconds) taken to get a connection from the pool
+     *
+     * @return The average acquisition time
+     */
+    public long getAverageAcquireNanos() {
+        return this.acquisitions == 0 ? 0 : this.totalAcquireNanos / this.acquisitions;
+    }
+
+    public long getMaxAcquireNanos() {
+        return this.maxAcquireNanos;
+    }
+
+    /**
+     *
+     * Gets the number of requests for a connection that timed out
+     *
+     * @return The timeouts
+     */
+    public long getTimeouts() {
+        return this.timeouts;
+    }
+
+    public long getConnectionsCreated() {
+        return this.connectionsCreated;
+    }
+
+    /**
+     *
+     * Gets the average time (in milliseconds) a connection is held before it's returned to the pool
+     *
+     * @return The average usage time
+     */
+    public long getAverageUsageMillis() {
+        return this.usages == 0 ? 0 : this.totalUsageMillis / this.usages;
+    }
+
+    /**
+     *
+     * Gets the upper bounds (exclusive, in milliseconds) of the buckets of {@link #getAcquireHistogram()}.
+     * The last bucket is unbounded
+     *
+     * @return The bucket bounds
+     */
+    public static long[] getHistogramBounds() {
+        return PoolMetrics.BUCKET_BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     *
+     * Gets the number of acquisitions in each bucket of {@link #getHistogramBounds()}
+     *
+     * @return The histogram
+     */
+    public long[] getAcquireHistogram() {
+        return this.acquireHistogram.clone();
+    }
+
+    /**
+     *
+     * Gets an upper bound on the given percentile of acquisition times, the bound of the histogram bucket
+     * the percentile falls in
+     *
+     * @param percentile The percentile between 0 and 1 (i.e. 0.99)
+     * @return The acquisition time in milliseconds, {@link Long#MAX_VALUE} if it's in the last bucket
+     *         or 0 if there haven't been any acquisitions
+     */
+    public long getAcquirePercentileMillis(double percentile) {
+        if (this.acquisitions == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(this.acquisitions * percentile);
+        long seen = 0;
+
+        for (int i = 0; i < this.acquireHistogram.length; i++) {
+            seen += this.acquireHistogram[i];
+
+            if (seen >= target) {
+                return PoolMetrics.BUCKET_BOUNDS_MILLIS[i];
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SQLPoolStats{active=" + this.activeConnections + ", idle=" + this.idleConnections +
+                ", total=" + this.totalConnections + ", waiting=" + this.threadsAwaitingConnection +
+                ", averageAcquireMillis=" + TimeUnit.NANOSECONDS.toMillis(this.getAverageAcquireNanos()) +
+                ", p99AcquireMillis=" + this.getAcquirePercentileMillis(0.99) +
+                ", timeouts=" + this.timeouts + "}";
+    }
+}
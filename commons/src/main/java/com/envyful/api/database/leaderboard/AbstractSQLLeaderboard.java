@@ -0,0 +1,263 @@
+package com.envyful.api.database.leaderboard;
+
+import com.envyful.api.cache.LoadingCache;
+import com.envyful.api.database.Database;
+import com.envyful.api.leaderboard.PagedLeaderboard;
+import com.envyful.api.type.TimeOutHashMap;
+import com.google.common.collect.Lists;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The paging and caching shared by the leaderboards read a page at a time from the database with a
+ * {@link LeaderboardQuery}.
+ * <br>
+ * Pages and the row count are cached for the cache duration and reloaded in the background once they're three
+ * quarters of the way to expiring. The last row of each page is kept for the same duration so that, when the query
+ * can seek, the next page is found from it rather than with an offset
+ *
+ * @param <A> The type of the formatted entries
+ */
+public abstract class AbstractSQLLeaderboard<A> implements PagedLeaderboard<A> {
+
+    private static final String COUNT_KEY = "count";
+
+    private final Database database;
+    private final LeaderboardQuery query;
+    private final int perPage;
+    private final SQLBiFunction<ResultSet, Integer, A> formatter;
+    private final LoadingCache<Integer, List<A>> cachedEntries;
+    private final LoadingCache<String, Long> cachedCount;
+    private final TimeOutHashMap<Integer, Object[]> pageBoundaries;
+
+    protected AbstractSQLLeaderboard(Database database, LeaderboardQuery query, int perPage, long cacheDuration,
+                                     SQLBiFunction<ResultSet, Integer, A> formatter) {
+        this.database = database;
+        this.query = query;
+        this.perPage = perPage;
+        this.formatter = formatter;
+        this.cachedEntries = LoadingCache.<Integer, List<A>>builder()
+                .loader(this::queryPage)
+                .expireAfterWrite(Math.max(1, cacheDuration), TimeUnit.MILLISECONDS)
+                .refreshAfterWrite(Math.max(1, cacheDuration * 3 / 4), TimeUnit.MILLISECONDS)
+                .build();
+        this.cachedCount = LoadingCache.<String, Long>builder()
+                .loader(ignored -> this.queryCount())
+                .expireAfterWrite(Math.max(1, cacheDuration), TimeUnit.MILLISECONDS)
+                .refreshAfterWrite(Math.max(1, cacheDuration * 3 / 4), TimeUnit.MILLISECONDS)
+                .build();
+        this.pageBoundaries = new TimeOutHashMap<>(Math.max(1, cacheDuration));
+    }
+
+    /**
+     *
+     * Gets the page, waiting for it to load if it isn't cached.
+     * Pages are reloaded in the background once they're three quarters of the way to expiring
+     *
+     * @param page The page
+     * @return The formatted entries on the page
+     */
+    @Override
+    public List<A> getPage(int page) {
+        try {
+            return this.cachedEntries.get(page);
+        } catch (CompletionException e) {
+            e.getCause().printStackTrace();
+        }
+
+        return Collections.emptyList();
+    }
+
+    @Override
+    public CompletableFuture<List<A>> getPageAsync(int page) {
+        return this.cachedEntries.getAsync(page);
+    }
+
+    public List<A> loadPage(int page) {
+        try {
+            List<A> data = this.queryPage(page);
+
+            this.cachedEntries.put(page, data);
+            return data;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     *
+     * Gets the number of rows on the leaderboard, which is cached for the same duration as the pages
+     *
+     * @return The number of rows, or 0 if it couldn't be counted
+     */
+    @Override
+    public long getTotalCount() {
+        try {
+            return this.cachedCount.get(COUNT_KEY);
+        } catch (CompletionException e) {
+            e.getCause().printStackTrace();
+        }
+
+        return 0;
+    }
+
+    public CompletableFuture<Long> getTotalCountAsync() {
+        return this.cachedCount.getAsync(COUNT_KEY);
+    }
+
+    @Override
+    public int getPageCount() {
+        return (int) ((this.getTotalCount() + this.perPage - 1) / this.perPage);
+    }
+
+    private List<A> queryPage(int page) throws SQLException {
+        Object[] boundary = (page > 0 && this.query.canSeek()) ? this.pageBoundaries.get(page - 1) : null;
+
+        try (Connection connection = this.database.getConnection();
+             PreparedStatement preparedStatement = boundary == null ?
+                     this.query.preparePage(connection, page, this.perPage) :
+                     this.query.prepareSeek(connection, boundary, this.perPage);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            List<A> data = Lists.newArrayList();
+            Object[] lastRow = null;
+            int counter = page * this.perPage;
+
+            while (resultSet.next()) {
+                data.add(this.formatter.apply(resultSet, counter++));
+
+                if (this.query.canSeek()) {
+                    lastRow = this.query.readBoundary(resultSet);
+                }
+            }
+
+            if (lastRow != null) {
+                this.pageBoundaries.put(page, lastRow);
+            }
+
+            return data;
+        }
+    }
+
+    private long queryCount() throws SQLException {
+        try (Connection connection = this.database.getConnection();
+             PreparedStatement preparedStatement = this.query.prepareCount(connection);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     *
+     * The options shared by the builders of the SQL leaderboards, each builder adds its own formatter and build method
+     *
+     * @param <B> The type of the builder, returned by each option
+     */
+    public abstract static class Builder<B extends Builder<B>> {
+
+        protected Database database;
+        protected String table;
+        protected String columns = null;
+        protected Order order;
+        protected String orderColumn;
+        protected String keyColumn = null;
+        protected int perPage;
+        protected long cacheDuration;
+        protected String extraClauses;
+        protected Object[] parameters = new Object[0];
+
+        protected Builder() {}
+
+        protected abstract B self();
+
+        public B database(Database database) {
+            this.database = database;
+            return this.self();
+        }
+
+        public B table(String table) {
+            this.table = table;
+            return this.self();
+        }
+
+        /**
+         *
+         * Sets the columns selected for each row instead of <code>*</code>
+         *
+         * @param columns The columns
+         * @return The builder
+         */
+        public B columns(String... columns) {
+            this.columns = String.join(", ", columns);
+            return this.self();
+        }
+
+        public B order(Order order) {
+            this.order = order;
+            return this.self();
+        }
+
+        public B column(String column) {
+            this.orderColumn = column;
+            return this.self();
+        }
+
+        /**
+         *
+         * Sets a unique column (i.e. the player's UUID) used to break ties in the order.
+         * When it's set, and the previous page is cached, the next page is found by seeking from the last row of the
+         * previous page rather than with an offset
+         *
+         * @param keyColumn The unique column
+         * @return The builder
+         */
+        public B keyColumn(String keyColumn) {
+            this.keyColumn = keyColumn;
+            return this.self();
+        }
+
+        public B pageSize(int perPage) {
+            this.perPage = perPage;
+            return this.self();
+        }
+
+        public B cacheDuration(long cacheDuration) {
+            this.cacheDuration = cacheDuration;
+            return this.self();
+        }
+
+        public B extraClauses(String extraClauses) {
+            this.extraClauses = extraClauses;
+            return this.self();
+        }
+
+        /**
+         *
+         * Sets the conditions of the WHERE clause, with <code>?</code> placeholders for the parameters
+         *
+         * @param extraClauses The conditions
+         * @param parameters The values bound to the placeholders
+         * @return The builder
+         */
+        public B extraClauses(String extraClauses, Object... parameters) {
+            this.extraClauses = extraClauses;
+            this.parameters = parameters;
+            return this.self();
+        }
+
+        protected LeaderboardQuery buildQuery() {
+            return new LeaderboardQuery(this.table, this.columns, this.order, this.orderColumn, this.keyColumn,
+                    this.extraClauses, this.parameters);
+        }
+    }
+}
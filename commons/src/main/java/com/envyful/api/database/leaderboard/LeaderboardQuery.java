@@ -0,0 +1,187 @@
+package com.envyful.api.database.leaderboard;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ *
+ * Builds the queries for a page of a leaderboard so the paging is done by the database.
+ * <br>
+ * Pages are normally found with <code>LIMIT ? OFFSET ?</code>, but the database still has to walk every row before
+ * the offset. When a unique key column is set the page after a known row can be found with a keyset "seek"
+ * instead (<code>WHERE (order, key) &lt; (?, ?) LIMIT ?</code>), which costs the same for every page
+ * when the order and key columns are indexed.
+ * <br>
+ * The extra clauses are bound as prepared parameters rather than being concatenated into the query
+ *
+ */
+public class LeaderboardQuery {
+
+    private final String table;
+    private final String columns;
+    private final Order order;
+    private final String orderColumn;
+    private final String keyColumn;
+    private final String extraClauses;
+    private final Object[] parameters;
+
+    /**
+     *
+     * Creates the query
+     *
+     * @param table The table
+     * @param columns The selected columns, or null for all of them. Must include the order and key columns for seeking
+     * @param order The order of the leaderboard
+     * @param orderColumn The column the leaderboard is ordered by
+     * @param keyColumn A unique column used to break ties and to seek, or null to only use offsets
+     * @param extraClauses The conditions added to the WHERE clause, or null
+     * @param parameters The parameters for the extra clauses
+     */
+    public LeaderboardQuery(String table, String columns, Order order, String orderColumn, String keyColumn,
+                            String extraClauses, Object... parameters) {
+        this.table = table;
+        this.columns = (columns == null || columns.isEmpty()) ? "*" : columns;
+        this.order = order;
+        this.orderColumn = orderColumn;
+        this.keyColumn = keyColumn;
+        this.extraClauses = (extraClauses == null || extraClauses.isEmpty()) ? null : extraClauses;
+        this.parameters = parameters == null ? new Object[0] : parameters;
+    }
+
+    public boolean canSeek() {
+        return this.keyColumn != null;
+    }
+
+    public String getPageSQL() {
+        return "SELECT " + this.columns + " FROM `" + this.table + "`" + this.getWhere(null)
+                + this.getOrderBy() + " LIMIT ? OFFSET ?;";
+    }
+
+    public String getSeekSQL() {
+        if (!this.canSeek()) {
+            throw new IllegalStateException("Cannot seek without a key column");
+        }
+
+        return "SELECT " + this.columns + " FROM `" + this.table + "`"
+                + this.getWhere("(" + this.orderColumn + ", " + this.keyColumn + ") "
+                + this.order.getSeekComparator() + " (?, ?)")
+                + this.getOrderBy() + " LIMIT ?;";
+    }
+
+    public String getAllSQL() {
+        return "SELECT " + this.columns + " FROM `" + this.table + "`" + this.getWhere(null) + ";";
+    }
+
+    public String getCountSQL() {
+        return "SELECT COUNT(*) FROM `" + this.table + "`" + this.getWhere(null) + ";";
+    }
+
+    private String getWhere(String condition) {
+        if (this.extraClauses == null) {
+            return condition == null ? "" : " WHERE " + condition;
+        }
+
+        if (condition == null) {
+            return " WHERE " + this.extraClauses;
+        }
+
+        return " WHERE (" + this.extraClauses + ") AND " + condition;
+    }
+
+    private String getOrderBy() {
+        if (this.keyColumn == null) {
+            return this.order.getSqlText(this.orderColumn);
+        }
+
+        return this.order.getSqlText(this.orderColumn, this.keyColumn);
+    }
+
+    /**
+     *
+     * Prepares the query for the page using an offset
+     *
+     * @param connection The connection
+     * @param page The page (starting at 0)
+     * @param perPage The number of rows on a page
+     * @return The statement
+     * @throws SQLException If the statement couldn't be prepared
+     */
+    public PreparedStatement preparePage(Connection connection, int page, int perPage) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(this.getPageSQL());
+        int index = this.bindParameters(statement);
+
+        statement.setInt(index++, perPage);
+        statement.setLong(index, (long) page * perPage);
+        return statement;
+    }
+
+    /**
+     *
+     * Prepares the query for the page after the given boundary, read from the last row of the previous page
+     * with {@link #readBoundary(ResultSet)}
+     *
+     * @param connection The connection
+     * @param boundary The order and key values of the last row of the previous page
+     * @param perPage The number of rows on a page
+     * @return The statement
+     * @throws SQLException If the statement couldn't be prepared
+     */
+    public PreparedStatement prepareSeek(Connection connection, Object[] boundary, int perPage) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(this.getSeekSQL());
+        int index = this.bindParameters(statement);
+
+        statement.setObject(index++, boundary[0]);
+        statement.setObject(index++, boundary[1]);
+        statement.setInt(index, perPage);
+        return statement;
+    }
+
+    /**
+     *
+     * Prepares the query for every row matching the extra clauses, unordered
+     *
+     * @param connection The connection
+     * @return The statement
+     * @throws SQLException If the statement couldn't be prepared
+     */
+    public PreparedStatement prepareAll(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(this.getAllSQL());
+
+        this.bindParameters(statement);
+        return statement;
+    }
+
+    public PreparedStatement prepareCount(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(this.getCountSQL());
+
+        this.bindParameters(statement);
+        return statement;
+    }
+
+    private int bindParameters(PreparedStatement statement) throws SQLException {
+        int index = 1;
+
+        for (Object parameter : this.parameters) {
+            statement.setObject(index++, parameter);
+        }
+
+        return index;
+    }
+
+    /**
+     *
+     * Reads the order and key values of the current row, used to seek to the next page
+     *
+     * @param resultSet The result set
+     * @return The boundary
+     * @throws SQLException If the columns aren't in the result set
+     */
+    public Object[] readBoundary(ResultSet resultSet) throws SQLException {
+        return new Object[] {
+                resultSet.getObject(this.orderColumn),
+                resultSet.getObject(this.keyColumn)
+        };
+    }
+}
@@ -2,18 +2,34 @@ package com.envyful.api.database.leaderboard;
 
 public enum Order {
 
-    ASCENDING("ASC"),
-    DESCENDING("DESC"),
+    ASCENDING("ASC", ">"),
+    DESCENDING("DESC", "<"),
 
     ;
 
     private final String sqlText;
+    private final String seekComparator;
 
-    Order(String sqlText) {
+    Order(String sqlText, String seekComparator) {
         this.sqlText = sqlText;
+        this.seekComparator = seekComparator;
     }
 
     public String getSqlText(String column) {
         return " ORDER BY " + column +  " " + this.sqlText;
     }
+
+    public String getSqlText(String column, String tieBreaker) {
+        return this.getSqlText(column) + ", " + tieBreaker + " " + this.sqlText;
+    }
+
+    /**
+     *
+     * Gets the comparison operator that finds the rows after a row in this order
+     *
+     * @return The operator
+     */
+    public String getSeekComparator() {
+        return this.seekComparator;
+    }
 }
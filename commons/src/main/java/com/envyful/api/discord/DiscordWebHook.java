@@ -1,5 +1,6 @@
 package com.envyful.api.discord;
 
+import com.envyful.api.concurrency.UtilConcurrency;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -13,6 +14,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  *
@@ -151,6 +154,31 @@ public class DiscordWebHook {
         connection.disconnect();
     }
 
+    /**
+     *
+     * Executes the message using the {@link UtilConcurrency#IO} executor so the request doesn't block the caller
+     *
+     * @return The future completed once the message has been sent
+     */
+    public CompletableFuture<Void> executeAsync() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        try {
+            UtilConcurrency.IO.execute(() -> {
+                try {
+                    this.execute();
+                    future.complete(null);
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
     public JsonObject toJson() {
         JsonObject json = new JsonObject();
 
@@ -33,6 +33,7 @@ public class JsonUsernameCache {
                 .delay(20 * 60 * 30L)
                 .interval(20 * 60 * 30L)
                 .task(this::save)
+                .owner(this)
                 .start();
     }
 
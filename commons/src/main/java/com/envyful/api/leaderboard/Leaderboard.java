@@ -2,77 +2,16 @@ package com.envyful.api.leaderboard;
 
 import com.envyful.api.database.Database;
 import com.envyful.api.database.SQLFunction;
-import com.envyful.api.database.leaderboard.Order;
-import com.envyful.api.type.TimeOutHashMap;
-import com.google.common.collect.Lists;
+import com.envyful.api.database.leaderboard.AbstractSQLLeaderboard;
+import com.envyful.api.database.leaderboard.LeaderboardQuery;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
 
-public class Leaderboard<A> {
+public class Leaderboard<A> extends AbstractSQLLeaderboard<A> {
 
-    private final Database database;
-    private final String table;
-    private final Order order;
-    private final String orderColumn;
-    private final int perPage;
-    private final String extraClauses;
-    private final SQLFunction<ResultSet, A> formatter;
-    private final Map<Integer, List<A>> cachedEntries;
-
-    private Leaderboard(Database database, String table, Order order, String orderColumn,
-                        int perPage, long cacheDuration, String extraClauses, SQLFunction<ResultSet, A> formatter) {
-        this.database = database;
-        this.table = table;
-        this.order = order;
-        this.orderColumn = orderColumn;
-        this.perPage = perPage;
-        this.extraClauses = extraClauses;
-        this.formatter = formatter;
-        this.cachedEntries = new TimeOutHashMap<>(cacheDuration);
-    }
-
-    public List<A> getPage(int page) {
-        List<A> cachedPage = this.cachedEntries.get(page);
-
-        if (cachedPage != null) {
-            return cachedPage;
-        }
-
-        return this.loadPage(page);
-    }
-
-    public List<A> loadPage(int page) {
-        try (Connection connection = this.database.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(this.getSQL())) {
-            ResultSet resultSet = preparedStatement.executeQuery();
-            int counter = 0;
-            List<A> data = Lists.newArrayList();
-
-            while (resultSet.next()) {
-                if ((counter / perPage) == page) {
-                    data.add(this.formatter.apply(resultSet));
-                }
-
-                ++counter;
-            }
-
-            this.cachedEntries.put(page, data);
-            return data;
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return Collections.emptyList();
-    }
-
-    private String getSQL() {
-        return "SELECT * FROM `" + this.table + "` " + ((this.extraClauses == null || this.extraClauses.isEmpty()) ? "" : "WHERE " + this.extraClauses) + this.order.getSqlText(this.orderColumn) + ";";
+    private Leaderboard(Database database, LeaderboardQuery query, int perPage, long cacheDuration,
+                        SQLFunction<ResultSet, A> formatter) {
+        super(database, query, perPage, cacheDuration, (resultSet, position) -> formatter.apply(resultSet));
     }
 
     @SuppressWarnings("unused")
@@ -80,41 +19,14 @@ public class Leaderboard<A> {
         return new Builder<>();
     }
 
-    public static class Builder<A> {
+    public static class Builder<A> extends AbstractSQLLeaderboard.Builder<Builder<A>> {
 
-        private Database database;
-        private String table;
-        private Order order;
-        private String orderColumn;
-        private int perPage;
-        private long cacheDuration;
-        private String extraClauses;
         private SQLFunction<ResultSet, A> formatter;
 
         Builder() {}
 
-        public Builder<A> database(Database database) {
-            this.database = database;
-            return this;
-        }
-
-        public Builder<A> table(String table) {
-            this.table = table;
-            return this;
-        }
-
-        public Builder<A> order(Order order) {
-            this.order = order;
-            return this;
-        }
-
-        public Builder<A> column(String column) {
-            this.orderColumn = column;
-            return this;
-        }
-
-        public Builder<A> pageSize(int perPage) {
-            this.perPage = perPage;
+        @Override
+        protected Builder<A> self() {
             return this;
         }
 
@@ -123,19 +35,9 @@ public class Leaderboard<A> {
             return this;
         }
 
-        public Builder<A> cacheDuration(long cacheDuration) {
-            this.cacheDuration = cacheDuration;
-            return this;
-        }
-
-        public Builder<A> extraClauses(String extraClauses) {
-            this.extraClauses = extraClauses;
-            return this;
-        }
-
         public Leaderboard<A> build() {
-            return new Leaderboard<>(this.database, this.table, this.order, this.orderColumn, this.perPage,
-                    this.cacheDuration, extraClauses, this.formatter);
+            return new Leaderboard<>(this.database, this.buildQuery(), this.perPage, this.cacheDuration,
+                    this.formatter);
         }
     }
 }
@@ -0,0 +1,40 @@
+package com.envyful.api.leaderboard;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ *
+ * A leaderboard that's read a page at a time, implemented by each leaderboard backend
+ * so the backend can be chosen by config
+ * <br>
+ * Every backend passes its formatter the position of the entry starting at 0, so the first entry on the
+ * leaderboard is position 0 and the first entry of page <code>n</code> is position <code>n * pageSize</code>.
+ * Add 1 to show it as a rank
+ *
+ * @param <A> The type of the formatted entries
+ */
+public interface PagedLeaderboard<A> {
+
+    /**
+     *
+     * Gets the page, waiting for it to load if needed
+     *
+     * @param page The page, starting at 0
+     * @return The formatted entries on the page, or an empty list if it couldn't be loaded
+     */
+    List<A> getPage(int page);
+
+    CompletableFuture<List<A>> getPageAsync(int page);
+
+    /**
+     *
+     * Gets the number of entries on the leaderboard
+     *
+     * @return The number of entries
+     */
+    long getTotalCount();
+
+    int getPageCount();
+
+}
@@ -0,0 +1,355 @@
+package com.envyful.api.leaderboard;
+
+import com.envyful.api.database.leaderboard.Order;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *
+ * A thread safe in memory index of scores that can find the rank of a key, and the keys at a rank,
+ * in O(log n) time.
+ * <br>
+ * Backed by an indexable skip list where every link stores the number of entries it skips over,
+ * so the rank of a node is the sum of the spans followed to reach it. Equal scores are ordered by the key
+ *
+ * @param <K> The key type
+ */
+public class RankedIndex<K> {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Order order;
+    private final Comparator<? super K> keyComparator;
+    private final Map<K, Double> scores = Maps.newHashMap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node<K> head = new Node<>(null, 0, MAX_LEVEL);
+    private int level = 1;
+
+    /**
+     *
+     * Creates an empty index
+     *
+     * @param order The order of the scores, {@link Order#DESCENDING} puts the highest score at rank 1
+     * @param keyComparator The comparator used to order keys with the same score
+     */
+    public RankedIndex(Order order, Comparator<? super K> keyComparator) {
+        this.order = order;
+        this.keyComparator = keyComparator;
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+
+        try {
+            return this.scores.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Sets the score of the key, adding it if it's not in the index
+     *
+     * @param key The key
+     * @param score The score
+     */
+    public void update(K key, double score) {
+        this.lock.writeLock().lock();
+
+        try {
+            Double old = this.scores.put(key, score);
+
+            if (old != null) {
+                if (Double.compare(old, score) == 0) {
+                    return;
+                }
+
+                this.delete(key, old);
+            }
+
+            this.insert(key, score);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Removes the key from the index
+     *
+     * @param key The key
+     * @return true if the key was in the index
+     */
+    public boolean remove(K key) {
+        this.lock.writeLock().lock();
+
+        try {
+            Double old = this.scores.remove(key);
+
+            if (old == null) {
+                return false;
+            }
+
+            this.delete(key, old);
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Gets the score of the key
+     *
+     * @param key The key
+     * @return The score or null if the key isn't in the index
+     */
+    public Double getScore(K key) {
+        this.lock.readLock().lock();
+
+        try {
+            return this.scores.get(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Gets the rank of the key, starting from 1
+     *
+     * @param key The key
+     * @return The rank or -1 if the key isn't in the index
+     */
+    public int getRank(K key) {
+        this.lock.readLock().lock();
+
+        try {
+            Double score = this.scores.get(key);
+
+            if (score == null) {
+                return -1;
+            }
+
+            Node<K> node = this.head;
+            int rank = 0;
+
+            for (int i = this.level - 1; i >= 0; i--) {
+                while (node.next[i] != null && this.compare(node.next[i], score, key) <= 0) {
+                    rank += node.span[i];
+                    node = node.next[i];
+                }
+
+                if (node != this.head && this.keyComparator.compare(node.key, key) == 0) {
+                    return rank;
+                }
+            }
+
+            return -1;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Gets the entries from the rank (starting at 1) onwards
+     *
+     * @param rank The rank of the first entry
+     * @param count The maximum number of entries
+     * @return The entries in order
+     */
+    public List<Entry<K>> getRange(int rank, int count) {
+        this.lock.readLock().lock();
+
+        try {
+            if (rank < 1 || rank > this.scores.size() || count <= 0) {
+                return Collections.emptyList();
+            }
+
+            Node<K> node = this.head;
+            int traversed = 0;
+
+            for (int i = this.level - 1; i >= 0; i--) {
+                while (node.next[i] != null && (traversed + node.span[i]) <= rank) {
+                    traversed += node.span[i];
+                    node = node.next[i];
+                }
+            }
+
+            List<Entry<K>> entries = Lists.newArrayListWithCapacity(Math.min(count, this.scores.size() - rank + 1));
+
+            while (node != null && entries.size() < count) {
+                entries.add(new Entry<>(node.key, node.score, rank++));
+                node = node.next[0];
+            }
+
+            return entries;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Gets a page of entries
+     *
+     * @param page The page, starting at 0
+     * @param perPage The number of entries per page
+     * @return The entries on the page
+     */
+    public List<Entry<K>> getPage(int page, int perPage) {
+        return this.getRange(page * perPage + 1, perPage);
+    }
+
+    private int compare(Node<K> node, double score, K key) {
+        int result = this.order == Order.DESCENDING ?
+                Double.compare(score, node.score) : Double.compare(node.score, score);
+
+        if (result != 0) {
+            return result;
+        }
+
+        return this.keyComparator.compare(node.key, key);
+    }
+
+    private void insert(K key, double score) {
+        @SuppressWarnings("unchecked")
+        Node<K>[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node<K> node = this.head;
+
+        for (int i = this.level - 1; i >= 0; i--) {
+            rank[i] = i == (this.level - 1) ? 0 : rank[i + 1];
+
+            while (node.next[i] != null && this.compare(node.next[i], score, key) < 0) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+
+            update[i] = node;
+        }
+
+        int level = this.randomLevel();
+        int size = this.scores.size() - 1;
+
+        if (level > this.level) {
+            for (int i = this.level; i < level; i++) {
+                rank[i] = 0;
+                update[i] = this.head;
+                update[i].span[i] = size;
+            }
+
+            this.level = level;
+        }
+
+        Node<K> inserted = new Node<>(key, score, level);
+
+        for (int i = 0; i < level; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        for (int i = level; i < this.level; i++) {
+            update[i].span[i]++;
+        }
+    }
+
+    private void delete(K key, double score) {
+        @SuppressWarnings("unchecked")
+        Node<K>[] update = new Node[MAX_LEVEL];
+        Node<K> node = this.head;
+
+        for (int i = this.level - 1; i >= 0; i--) {
+            while (node.next[i] != null && this.compare(node.next[i], score, key) < 0) {
+                node = node.next[i];
+            }
+
+            update[i] = node;
+        }
+
+        Node<K> deleted = node.next[0];
+
+        for (int i = 0; i < this.level; i++) {
+            if (update[i].next[i] == deleted) {
+                update[i].span[i] += deleted.span[i] - 1;
+                update[i].next[i] = deleted.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+
+        while (this.level > 1 && this.head.next[this.level - 1] == null) {
+            this.level--;
+        }
+    }
+
+    private int randomLevel() {
+        int level = 1;
+
+        while (level < MAX_LEVEL && ThreadLocalRandom.current().nextDouble() < LEVEL_PROBABILITY) {
+            level++;
+        }
+
+        return level;
+    }
+
+    private static final class Node<K> {
+
+        private final K key;
+        private final double score;
+        private final Node<K>[] next;
+        private final int[] span;
+
+        @SuppressWarnings("unchecked")
+        private Node(K key, double score, int level) {
+            this.key = key;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    /**
+     *
+     * A key with its score and rank when it was read from the index
+     *
+     * @param <K> The key type
+     */
+    public static class Entry<K> {
+
+        private final K key;
+        private final double score;
+        private final int rank;
+
+        private Entry(K key, double score, int rank) {
+            this.key = key;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        public K getKey() {
+            return this.key;
+        }
+
+        public double getScore() {
+            return this.score;
+        }
+
+        public int getRank() {
+            return this.rank;
+        }
+    }
+}
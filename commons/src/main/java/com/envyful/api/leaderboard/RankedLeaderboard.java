@@ -0,0 +1,359 @@
+package com.envyful.api.leaderboard;
+
+import com.envyful.api.concurrency.AsyncTaskBuilder;
+import com.envyful.api.concurrency.TaskHandle;
+import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.database.Database;
+import com.envyful.api.database.SQLFunction;
+import com.envyful.api.database.leaderboard.LeaderboardQuery;
+import com.envyful.api.database.leaderboard.Order;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ * A leaderboard held in memory by a {@link RankedIndex}, for leaderboards that change too often to re-query.
+ * <br>
+ * The index is loaded from the database once and then kept up to date with {@link #update(Object, double)}
+ * as the scores are saved, so the rank of a player and any page are found in O(log n) time.
+ * {@link #reconcile()} reloads the index from the database to pick up changes made elsewhere,
+ * updates made while it's loading are replayed onto the reloaded index so they aren't lost
+ *
+ * @param <K> The key type (i.e. the player's UUID)
+ * @param <A> The type of the formatted entries
+ */
+public class RankedLeaderboard<K, A> implements PagedLeaderboard<A> {
+
+    private static final double REMOVED = Double.NaN;
+
+    private final Database database;
+    private final LeaderboardQuery query;
+    private final String scoreColumn;
+    private final SQLFunction<ResultSet, K> keyReader;
+    private final Order order;
+    private final Comparator<? super K> keyComparator;
+    private final int perPage;
+    private final Formatter<K, A> formatter;
+    private final AtomicBoolean reconciling = new AtomicBoolean(false);
+
+    private volatile RankedIndex<K> index;
+    private Map<K, Double> pendingUpdates = null;
+
+    private RankedLeaderboard(Database database, LeaderboardQuery query, String scoreColumn,
+                              SQLFunction<ResultSet, K> keyReader, Order order, Comparator<? super K> keyComparator,
+                              int perPage, Formatter<K, A> formatter) {
+        this.database = database;
+        this.query = query;
+        this.scoreColumn = scoreColumn;
+        this.keyReader = keyReader;
+        this.order = order;
+        this.keyComparator = keyComparator;
+        this.perPage = perPage;
+        this.formatter = formatter;
+        this.index = new RankedIndex<>(order, keyComparator);
+    }
+
+    /**
+     *
+     * Sets the score of the key
+     *
+     * @param key The key
+     * @param score The new score
+     */
+    public void update(K key, double score) {
+        synchronized (this) {
+            if (this.pendingUpdates != null) {
+                this.pendingUpdates.put(key, score);
+            }
+
+            this.index.update(key, score);
+        }
+    }
+
+    public void remove(K key) {
+        synchronized (this) {
+            if (this.pendingUpdates != null) {
+                this.pendingUpdates.put(key, REMOVED);
+            }
+
+            this.index.remove(key);
+        }
+    }
+
+    /**
+     *
+     * Gets the rank of the key, starting at 1
+     *
+     * @param key The key
+     * @return The rank or -1 if the key isn't on the leaderboard
+     */
+    public int getRank(K key) {
+        return this.index.getRank(key);
+    }
+
+    public Double getScore(K key) {
+        return this.index.getScore(key);
+    }
+
+    /**
+     *
+     * Gets the page, starting at 0. The index is held in memory so this never waits
+     *
+     * @param page The page
+     * @return The formatted entries on the page
+     */
+    @Override
+    public List<A> getPage(int page) {
+        List<RankedIndex.Entry<K>> entries = this.index.getPage(page, this.perPage);
+        List<A> data = Lists.newArrayListWithCapacity(entries.size());
+
+        for (RankedIndex.Entry<K> entry : entries) {
+            data.add(this.formatter.format(entry.getKey(), entry.getScore(), entry.getRank() - 1));
+        }
+
+        return data;
+    }
+
+    @Override
+    public CompletableFuture<List<A>> getPageAsync(int page) {
+        return CompletableFuture.completedFuture(this.getPage(page));
+    }
+
+    public int size() {
+        return this.index.size();
+    }
+
+    @Override
+    public long getTotalCount() {
+        return this.size();
+    }
+
+    @Override
+    public int getPageCount() {
+        return (this.size() + this.perPage - 1) / this.perPage;
+    }
+
+    /**
+     *
+     * Reloads the leaderboard from the database, replacing the current index once it's loaded.
+     * If another reload is already running this returns straight away without reloading
+     *
+     * @return true if the leaderboard was reloaded, false if another reload was already running
+     * @throws SQLException If the leaderboard couldn't be loaded
+     */
+    public boolean reconcile() throws SQLException {
+        if (!this.reconciling.compareAndSet(false, true)) {
+            return false;
+        }
+
+        try {
+            this.reload();
+            return true;
+        } finally {
+            this.reconciling.set(false);
+        }
+    }
+
+    private void reload() throws SQLException {
+        synchronized (this) {
+            this.pendingUpdates = Maps.newHashMap();
+        }
+
+        RankedIndex<K> loaded = new RankedIndex<>(this.order, this.keyComparator);
+
+        try (Connection connection = this.database.getConnection();
+             PreparedStatement preparedStatement = this.query.prepareAll(connection);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                loaded.update(this.keyReader.apply(resultSet), resultSet.getDouble(this.scoreColumn));
+            }
+        } catch (SQLException e) {
+            synchronized (this) {
+                this.pendingUpdates = null;
+            }
+
+            throw e;
+        }
+
+        synchronized (this) {
+            for (Map.Entry<K, Double> entry : this.pendingUpdates.entrySet()) {
+                if (Double.isNaN(entry.getValue())) {
+                    loaded.remove(entry.getKey());
+                } else {
+                    loaded.update(entry.getKey(), entry.getValue());
+                }
+            }
+
+            this.pendingUpdates = null;
+            this.index = loaded;
+        }
+    }
+
+    /**
+     *
+     * Reloads the leaderboard on the {@link UtilConcurrency#IO} executor, skipping it if a reload is already running
+     *
+     * @return The future completed when the reload is done
+     */
+    public CompletableFuture<Void> reconcileAsync() {
+        if (this.reconciling.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return UtilConcurrency.runAsyncIO(() -> {
+            try {
+                this.reconcile();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     *
+     * Starts reloading the leaderboard from the database every interval
+     *
+     * @param intervalMillis The milliseconds between each reload
+     * @param owner The owner the task is registered under, or null
+     * @return The handle of the reload task
+     */
+    public TaskHandle startReconciling(long intervalMillis, Object owner) {
+        return new AsyncTaskBuilder()
+                .delay(intervalMillis)
+                .interval(intervalMillis)
+                .task(this::reconcileAsync)
+                .owner(owner)
+                .start();
+    }
+
+    @SuppressWarnings("unused")
+    public static <K, A> Builder<K, A> builder(Class<K> ignoredKeyType, Class<A> ignoredType) {
+        return new Builder<>();
+    }
+
+    /**
+     *
+     * Formats an entry of the leaderboard
+     *
+     * @param <K> The key type
+     * @param <A> The type of the formatted entry
+     */
+    @FunctionalInterface
+    public interface Formatter<K, A> {
+
+        /**
+         *
+         * Formats the entry
+         *
+         * @param key The key
+         * @param score The key's score
+         * @param position The position of the entry, starting at 0 as described in {@link PagedLeaderboard}
+         * @return The formatted entry
+         */
+        A format(K key, double score, int position);
+
+    }
+
+    public static class Builder<K, A> {
+
+        private Database database;
+        private String table;
+        private Order order;
+        private String scoreColumn;
+        private String keyColumn;
+        private SQLFunction<ResultSet, K> keyReader;
+        private Comparator<? super K> keyComparator = null;
+        private int perPage;
+        private Formatter<K, A> formatter;
+        private String extraClauses;
+        private Object[] parameters = new Object[0];
+
+        Builder() {}
+
+        public Builder<K, A> database(Database database) {
+            this.database = database;
+            return this;
+        }
+
+        public Builder<K, A> table(String table) {
+            this.table = table;
+            return this;
+        }
+
+        public Builder<K, A> order(Order order) {
+            this.order = order;
+            return this;
+        }
+
+        public Builder<K, A> column(String column) {
+            this.scoreColumn = column;
+            return this;
+        }
+
+        /**
+         *
+         * Sets the unique column identifying each row and how the key is read from it
+         *
+         * @param keyColumn The key column
+         * @param keyReader Reads the key from the current row
+         * @return The builder
+         */
+        public Builder<K, A> key(String keyColumn, SQLFunction<ResultSet, K> keyReader) {
+            this.keyColumn = keyColumn;
+            this.keyReader = keyReader;
+            return this;
+        }
+
+        /**
+         *
+         * Sets the order of keys with the same score. Defaults to the natural order of the keys
+         *
+         * @param keyComparator The comparator
+         * @return The builder
+         */
+        public Builder<K, A> keyComparator(Comparator<? super K> keyComparator) {
+            this.keyComparator = keyComparator;
+            return this;
+        }
+
+        public Builder<K, A> pageSize(int perPage) {
+            this.perPage = perPage;
+            return this;
+        }
+
+        public Builder<K, A> formatter(Formatter<K, A> formatter) {
+            this.formatter = formatter;
+            return this;
+        }
+
+        public Builder<K, A> extraClauses(String extraClauses, Object... parameters) {
+            this.extraClauses = extraClauses;
+            this.parameters = parameters;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public RankedLeaderboard<K, A> build() {
+            Comparator<? super K> keyComparator = this.keyComparator;
+
+            if (keyComparator == null) {
+                keyComparator = (Comparator<K>) Comparator.naturalOrder();
+            }
+
+            return new RankedLeaderboard<>(this.database, new LeaderboardQuery(this.table,
+                    this.keyColumn + ", " + this.scoreColumn, this.order, this.scoreColumn, this.keyColumn,
+                    this.extraClauses, this.parameters), this.scoreColumn, this.keyReader,
+                    this.order, keyComparator, this.perPage, this.formatter);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.envyful.api.leaderboard;
+
+import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.database.Database;
+import com.envyful.api.database.leaderboard.Order;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import io.lettuce.core.ScoredValue;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ * A leaderboard stored in a Redis sorted set, so every server on a network shares the same live ranking.
+ * <br>
+ * Updating a score and finding a rank are O(log n) in Redis, and a page is O(log n + page size).
+ * Score updates are coalesced for a short delay and then written with a single multi-member <code>ZADD</code>,
+ * other commands are sent asynchronously and pipelined on the database's shared connection.
+ * <br>
+ * Commands that write a member ({@link #flush()}, {@link #increment(String, double)} and {@link #remove(String)})
+ * are sent while holding the leaderboard's lock, and a pending update of the member is sent before them, so Redis
+ * applies the writes in the order they were made
+ *
+ * @param <A> The type of the formatted entries
+ */
+public class RedisLeaderboard<A> implements PagedLeaderboard<A> {
+
+    private static final int MAX_BATCH_SIZE = 512;
+
+    private final Database database;
+    private final String key;
+    private final Order order;
+    private final int perPage;
+    private final long flushDelayMillis;
+    private final Formatter<A> formatter;
+
+    private final Map<String, Double> pendingScores = Maps.newHashMap();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private RedisLeaderboard(Database database, String key, Order order, int perPage, long flushDelayMillis,
+                             Formatter<A> formatter) {
+        this.database = database;
+        this.key = key;
+        this.order = order;
+        this.perPage = perPage;
+        this.flushDelayMillis = flushDelayMillis;
+        this.formatter = formatter;
+    }
+
+    private RedisAsyncCommands<String, String> commands() {
+        return this.database.getRedis().async();
+    }
+
+    @Override
+    public List<A> getPage(int page) {
+        try {
+            return this.getPageAsync(page).join();
+        } catch (CompletionException e) {
+            e.getCause().printStackTrace();
+        }
+
+        return Collections.emptyList();
+    }
+
+    @Override
+    public CompletableFuture<List<A>> getPageAsync(int page) {
+        long start = (long) page * this.perPage;
+        long stop = start + this.perPage - 1;
+
+        return (this.order == Order.DESCENDING ?
+                this.commands().zrevrangeWithScores(this.key, start, stop) :
+                this.commands().zrangeWithScores(this.key, start, stop))
+                .toCompletableFuture()
+                .thenApply(values -> {
+                    List<A> data = Lists.newArrayListWithCapacity(values.size());
+                    int position = (int) start;
+
+                    for (ScoredValue<String> value : values) {
+                        data.add(this.formatter.format(value.getValue(), value.getScore(), position++));
+                    }
+
+                    return data;
+                });
+    }
+
+    @Override
+    public long getTotalCount() {
+        try {
+            return this.getTotalCountAsync().join();
+        } catch (CompletionException e) {
+            e.getCause().printStackTrace();
+        }
+
+        return 0;
+    }
+
+    public CompletableFuture<Long> getTotalCountAsync() {
+        return this.commands().zcard(this.key).toCompletableFuture()
+                .thenApply(count -> count == null ? 0L : count);
+    }
+
+    @Override
+    public int getPageCount() {
+        return (int) ((this.getTotalCount() + this.perPage - 1) / this.perPage);
+    }
+
+    /**
+     *
+     * Gets the rank of the member, starting at 1
+     *
+     * @param member The member
+     * @return The future rank, or -1 if the member isn't on the leaderboard
+     */
+    public CompletableFuture<Integer> getRank(String member) {
+        return (this.order == Order.DESCENDING ?
+                this.commands().zrevrank(this.key, member) :
+                this.commands().zrank(this.key, member))
+                .toCompletableFuture()
+                .thenApply(rank -> rank == null ? -1 : rank.intValue() + 1);
+    }
+
+    public CompletableFuture<Double> getScore(String member) {
+        return this.commands().zscore(this.key, member).toCompletableFuture();
+    }
+
+    /**
+     *
+     * Sets the score of the member. The write is delayed by the flush delay so that updates made together
+     * are sent as one command, only the latest score for each member is sent
+     *
+     * @param member The member
+     * @param score The score
+     */
+    public void update(String member, double score) {
+        synchronized (this) {
+            this.pendingScores.put(member, score);
+        }
+
+        if (this.flushScheduled.compareAndSet(false, true)) {
+            UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.schedule(this::flush,
+                    this.flushDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     *
+     * Adds to the score of the member, sent straight away as it can't be coalesced.
+     * If the member has a pending update it's written first so the increment is applied on top of it
+     *
+     * @param member The member
+     * @param amount The amount to add
+     * @return The future new score
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Double> increment(String member, double amount) {
+        synchronized (this) {
+            RedisAsyncCommands<String, String> commands = this.commands();
+            Double pending = this.pendingScores.remove(member);
+
+            if (pending != null) {
+                commands.zadd(this.key, ScoredValue.just(pending, member));
+            }
+
+            return commands.zincrby(this.key, amount, member).toCompletableFuture();
+        }
+    }
+
+    /**
+     *
+     * Removes the member, dropping any pending update of it
+     *
+     * @param member The member
+     * @return The future number of members removed
+     */
+    public CompletableFuture<Long> remove(String member) {
+        synchronized (this) {
+            this.pendingScores.remove(member);
+            return this.commands().zrem(this.key, member).toCompletableFuture();
+        }
+    }
+
+    /**
+     *
+     * Writes the pending score updates
+     *
+     * @return The future completed when every batch has been written
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Void> flush() {
+        this.flushScheduled.set(false);
+
+        List<ScoredValue<String>> batch = Lists.newArrayList();
+        List<CompletableFuture<Long>> writes = Lists.newArrayList();
+
+        synchronized (this) {
+            RedisAsyncCommands<String, String> commands = this.commands();
+
+            for (Map.Entry<String, Double> entry : this.pendingScores.entrySet()) {
+                batch.add(ScoredValue.just(entry.getValue(), entry.getKey()));
+
+                if (batch.size() >= MAX_BATCH_SIZE) {
+                    writes.add(commands.zadd(this.key, batch.toArray(new ScoredValue[0])).toCompletableFuture());
+                    batch.clear();
+                }
+            }
+
+            this.pendingScores.clear();
+
+            if (!batch.isEmpty()) {
+                writes.add(commands.zadd(this.key, batch.toArray(new ScoredValue[0])).toCompletableFuture());
+            }
+        }
+
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).exceptionally(throwable -> {
+            UtilLogger.logger().ifPresent(logger -> logger.error(
+                    "Failed to write the scores of leaderboard " + this.key, throwable));
+            return null;
+        });
+    }
+
+    /**
+     *
+     * Writes the pending updates, the connection is shared so it's left open
+     *
+     */
+    public void close() {
+        this.flush().join();
+    }
+
+    public static <A> Builder<A> builder(Class<A> ignoredType) {
+        return new Builder<>();
+    }
+
+    /**
+     *
+     * Formats an entry of the sorted set
+     *
+     * @param <A> The type of the formatted entry
+     */
+    @FunctionalInterface
+    public interface Formatter<A> {
+
+        /**
+         *
+         * Formats the entry
+         *
+         * @param member The member
+         * @param score The member's score
+         * @param position The position of the entry, starting at 0 as described in {@link PagedLeaderboard}
+         * @return The formatted entry
+         */
+        A format(String member, double score, int position);
+
+    }
+
+    public static class Builder<A> {
+
+        private Database database;
+        private String key;
+        private Order order = Order.DESCENDING;
+        private int perPage;
+        private long flushDelayMillis = 50;
+        private Formatter<A> formatter;
+
+        Builder() {}
+
+        /**
+         *
+         * Sets the Redis database, the leaderboard uses its shared connection
+         *
+         * @param database The database
+         * @return The builder
+         */
+        public Builder<A> database(Database database) {
+            this.database = database;
+            return this;
+        }
+
+        /**
+         *
+         * Sets the key of the sorted set
+         *
+         * @param key The key
+         * @return The builder
+         */
+        public Builder<A> key(String key) {
+            this.key = key;
+            return this;
+        }
+
+        public Builder<A> order(Order order) {
+            this.order = order;
+            return this;
+        }
+
+        public Builder<A> pageSize(int perPage) {
+            this.perPage = perPage;
+            return this;
+        }
+
+        /**
+         *
+         * Sets how long score updates are held so they can be written together. Defaults to 50 milliseconds
+         *
+         * @param flushDelayMillis The delay in milliseconds
+         * @return The builder
+         */
+        public Builder<A> flushDelay(long flushDelayMillis) {
+            this.flushDelayMillis = flushDelayMillis;
+            return this;
+        }
+
+        public Builder<A> formatter(Formatter<A> formatter) {
+            this.formatter = formatter;
+            return this;
+        }
+
+        public RedisLeaderboard<A> build() {
+            return new RedisLeaderboard<>(this.database, this.key, this.order, this.perPage, this.flushDelayMillis,
+                    this.formatter);
+        }
+    }
+}
@@ -25,6 +25,32 @@ public interface Attribute<A> {
         return true;
     }
 
+    /**
+     *
+     * Checks if the attribute has changed since it was last loaded or saved.
+     * Attributes that do not track changes are always dirty
+     *
+     * @return If the attribute needs saving
+     */
+    default boolean isDirty() {
+        return true;
+    }
+
+    /**
+     *
+     * Marks the attribute as changed so that it will be saved next time
+     *
+     */
+    default void markDirty() {}
+
+    /**
+     *
+     * Marks the attribute as matching the stored data.
+     * Called by the save managers after loading and when beginning to save the attribute
+     *
+     */
+    default void markClean() {}
+
     default void loadWithGenericId(Object object) throws ClassCastException {
         this.load((A) object);
     }
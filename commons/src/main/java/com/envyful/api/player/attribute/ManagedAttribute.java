@@ -1,5 +1,8 @@
 package com.envyful.api.player.attribute;
 
+import com.envyful.api.player.save.attribute.TrackChanges;
+import com.google.gson.JsonElement;
+
 import java.io.Serializable;
 
 /**
@@ -17,10 +20,38 @@ public abstract class ManagedAttribute<A, B>
 
     protected transient A id;
 
+    protected transient boolean dirty = true;
+    protected transient JsonElement snapshot;
+
     protected ManagedAttribute(B manager) {
         this.manager = manager;
     }
 
+    @Override
+    public boolean isDirty() {
+        TrackChanges.Mode mode = UtilDirtyTracking.getMode(this.getClass());
+
+        if (mode == null || this.dirty) {
+            return true;
+        }
+
+        return mode == TrackChanges.Mode.SNAPSHOT && !UtilDirtyTracking.snapshot(this).equals(this.snapshot);
+    }
+
+    @Override
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    @Override
+    public void markClean() {
+        this.dirty = false;
+
+        if (UtilDirtyTracking.getMode(this.getClass()) == TrackChanges.Mode.SNAPSHOT) {
+            this.snapshot = UtilDirtyTracking.snapshot(this);
+        }
+    }
+
     protected abstract void load();
 
     protected abstract void save();
@@ -0,0 +1,90 @@
+package com.envyful.api.player.attribute;
+
+import com.envyful.api.player.save.attribute.TrackChanges;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ *
+ * Static utility class for the {@link TrackChanges} dirty tracking of attributes
+ *
+ */
+public class UtilDirtyTracking {
+
+    private static final Map<Class<?>, Optional<TrackChanges.Mode>> MODES = Maps.newConcurrentMap();
+    private static final Map<Class<?>, Field[]> SNAPSHOT_FIELDS = Maps.newConcurrentMap();
+    private static final Gson GSON = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+    private static final Set<Class<?>> BASE_CLASSES = ImmutableSet.of(
+            Object.class, ManagedAttribute.class, PlayerAttribute.class, SharedAttribute.class
+    );
+
+    /**
+     *
+     * Gets the dirty tracking mode of the class
+     *
+     * @param attributeClass The attribute class
+     * @return The mode, or null if the class does not track changes
+     */
+    public static TrackChanges.Mode getMode(Class<?> attributeClass) {
+        return MODES.computeIfAbsent(attributeClass, clazz -> {
+            TrackChanges trackChanges = clazz.getAnnotation(TrackChanges.class);
+            return Optional.ofNullable(trackChanges == null ? null : trackChanges.value());
+        }).orElse(null);
+    }
+
+    /**
+     *
+     * Copies all the non-transient, non-static fields of the object into a JSON tree so that it can be compared
+     * with {@link Object#equals(Object)} against a later snapshot. Because the values are copied, changes inside
+     * mutable fields (i.e. lists and maps) are detected as well.
+     * Fields declared by the API's base attribute classes are ignored
+     *
+     * @param o The object
+     * @return The copy of the fields
+     */
+    public static JsonElement snapshot(Object o) {
+        Field[] fields = SNAPSHOT_FIELDS.computeIfAbsent(o.getClass(), UtilDirtyTracking::getSnapshotFields);
+        JsonArray values = new JsonArray(fields.length);
+
+        try {
+            for (Field field : fields) {
+                Object value = field.get(o);
+                values.add(value == null ? JsonNull.INSTANCE : GSON.toJsonTree(value));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read fields of " + o.getClass().getSimpleName(), e);
+        }
+
+        return values;
+    }
+
+    private static Field[] getSnapshotFields(Class<?> clazz) {
+        List<Field> fields = Lists.newArrayList();
+
+        for (Class<?> current = clazz; current != null && !BASE_CLASSES.contains(current); current = current.getSuperclass()) {
+            for (Field declaredField : current.getDeclaredFields()) {
+                if (Modifier.isTransient(declaredField.getModifiers()) || Modifier.isStatic(declaredField.getModifiers())) {
+                    continue;
+                }
+
+                declaredField.setAccessible(true);
+                fields.add(declaredField);
+            }
+        }
+
+        return fields.toArray(new Field[0]);
+    }
+}
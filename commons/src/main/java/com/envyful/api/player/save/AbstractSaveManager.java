@@ -1,12 +1,19 @@
 package com.envyful.api.player.save;
 
+import com.envyful.api.concurrency.UtilConcurrency;
 import com.envyful.api.player.PlayerManager;
 import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.type.Pair;
 import com.google.common.collect.Maps;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 @SuppressWarnings("unchecked")
@@ -14,11 +21,17 @@ public abstract class AbstractSaveManager<T> implements SaveManager<T> {
 
     protected final Map<Class<? extends Attribute<?>>, AttributeData<?, ?>>
             registeredAttributes = Maps.newConcurrentMap();
-    protected final Map<Class<? extends Attribute<?>>, Map<Object, Attribute<?>>> sharedAttributes
-            = Maps.newConcurrentMap();
+    protected final SharedAttributeCache sharedAttributeCache = new SharedAttributeCache(this::saveSharedAttribute);
+    private final Map<Pair<Class<?>, Object>, CompletableFuture<Attribute<?>>> sharedLoads = Maps.newConcurrentMap();
 
     protected final PlayerManager<?, ?> playerManager;
 
+    private final AtomicLong skippedSaves = new AtomicLong();
+    private final AtomicLong writtenSaves = new AtomicLong();
+    private final Object evictionLock = new Object();
+    private ScheduledFuture<?> evictionTask;
+    private boolean closed = false;
+
     protected AbstractSaveManager(PlayerManager<?, ?> playerManager) {
         this.playerManager = playerManager;
     }
@@ -53,12 +66,230 @@ public abstract class AbstractSaveManager<T> implements SaveManager<T> {
         return null;
     }
 
+    /**
+     *
+     * Checks if the attribute has changed and so needs to be written, marking it clean if it does.
+     * If the write then fails {@link Attribute#markDirty()} should be called so that it is retried on the next save
+     *
+     * @param attribute The attribute being saved
+     * @return true if the attribute should be written
+     */
+    protected boolean prepareSave(Attribute<?> attribute) {
+        if (!attribute.isDirty()) {
+            this.skippedSaves.incrementAndGet();
+            return false;
+        }
+
+        attribute.markClean();
+        this.writtenSaves.incrementAndGet();
+        return true;
+    }
+
+    /**
+     *
+     * Gets the number of saves skipped because the attribute had not changed
+     *
+     * @return The number of skipped saves
+     */
+    public long getSkippedSaves() {
+        return this.skippedSaves.get();
+    }
+
+    /**
+     *
+     * Gets the number of saves that were written
+     *
+     * @return The number of written saves
+     */
+    public long getWrittenSaves() {
+        return this.writtenSaves.get();
+    }
+
+    public SharedAttributeCache getSharedAttributeCache() {
+        return this.sharedAttributeCache;
+    }
+
     protected <A> Attribute<A> getSharedAttribute(Class<? extends Attribute<?>> attributeClass, Object o) {
-        return (Attribute<A>) this.sharedAttributes.computeIfAbsent(attributeClass, ___ -> Maps.newHashMap()).get(o);
+        return this.getSharedAttribute(attributeClass, o, null);
+    }
+
+    /**
+     *
+     * Gets the cached shared attribute, recording the player as using it if they're online
+     *
+     * @param attributeClass The attribute class
+     * @param o The id of the shared attribute
+     * @param player The player the attribute is being loaded for
+     * @return The cached attribute or null
+     * @param <A> The id type
+     */
+    protected <A> Attribute<A> getSharedAttribute(Class<? extends Attribute<?>> attributeClass, Object o, UUID player) {
+        return (Attribute<A>) this.sharedAttributeCache.get(attributeClass, o, this.getHolder(player));
     }
 
     protected void addSharedAttribute(Object key, Attribute<?> attribute) {
-        this.sharedAttributes.computeIfAbsent((Class<? extends Attribute<?>>) attribute.getClass(), ___ -> Maps.newHashMap()).put(key, attribute);
+        this.addSharedAttribute(key, attribute, null);
+    }
+
+    /**
+     *
+     * Caches the shared attribute unless one is already cached with the key,
+     * recording the player as using it if they're online
+     *
+     * @param key The id of the shared attribute
+     * @param attribute The attribute
+     * @param player The player the attribute was loaded for
+     * @return The cached attribute, which should be used instead of the one passed in
+     */
+    protected Attribute<?> addSharedAttribute(Object key, Attribute<?> attribute, UUID player) {
+        this.startEviction();
+        return this.sharedAttributeCache.put(key, attribute, this.getHolder(player));
+    }
+
+    /**
+     *
+     * Starts evicting unused shared attributes once the first one is cached, so save managers that never cache
+     * a shared attribute (i.e. the default one replaced by {@link PlayerManager#setSaveManager(SaveManager)})
+     * don't leave a repeating task behind
+     *
+     */
+    private void startEviction() {
+        synchronized (this.evictionLock) {
+            if (this.evictionTask != null || this.closed) {
+                return;
+            }
+
+            this.evictionTask = UtilConcurrency.runRepeatingTaskIO(this.sharedAttributeCache::evict,
+                    TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(1));
+        }
+    }
+
+    /**
+     *
+     * Checks if the repeating task evicting unused shared attributes is running
+     *
+     * @return true if the eviction task has been started and not stopped
+     */
+    public boolean isEvicting() {
+        synchronized (this.evictionLock) {
+            return this.evictionTask != null && !this.evictionTask.isDone();
+        }
+    }
+
+    /**
+     *
+     * Gets the cached shared attribute or loads it using the loader. If the same attribute is already being loaded
+     * by another thread this waits for that load instead of loading it again, so concurrent logins of
+     * players sharing an attribute only read it once
+     *
+     * @param attributeClass The attribute class
+     * @param id The id of the shared attribute
+     * @param player The player the attribute is being loaded for, or null
+     * @param loader Reads the attribute from storage
+     * @return The cached attribute
+     */
+    protected Attribute<?> loadSharedAttribute(Class<? extends Attribute<?>> attributeClass, Object id, UUID player,
+                                               Supplier<Attribute<?>> loader) {
+        Attribute<?> cached = this.getSharedAttribute(attributeClass, id, player);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        Pair<Class<?>, Object> key = Pair.of(attributeClass, id);
+        CompletableFuture<Attribute<?>> load = new CompletableFuture<>();
+        CompletableFuture<Attribute<?>> existing = this.sharedLoads.putIfAbsent(key, load);
+
+        if (existing != null) {
+            return this.addSharedAttribute(id, existing.join(), player);
+        }
+
+        try {
+            cached = this.getSharedAttribute(attributeClass, id, player);
+
+            if (cached == null) {
+                cached = this.addSharedAttribute(id, loader.get(), player);
+            }
+
+            load.complete(cached);
+            return cached;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.sharedLoads.remove(key, load);
+        }
+    }
+
+    private UUID getHolder(UUID player) {
+        if (player == null || this.playerManager.getPlayer(player) == null) {
+            return null;
+        }
+
+        return player;
+    }
+
+    /**
+     *
+     * Gets the id a shared attribute is cached with, falling back to {@link Attribute#getId()}
+     *
+     * @param attribute The shared attribute
+     * @return The id
+     */
+    protected Object getSharedAttributeId(Attribute<?> attribute) {
+        Object id = this.sharedAttributeCache.getId(attribute);
+
+        if (id == null) {
+            id = attribute.getId().getNow(null);
+        }
+
+        return id;
+    }
+
+    /**
+     *
+     * Saves a shared attribute that isn't being used by any players, i.e. before it's evicted from the cache.
+     * By default, this uses {@link #saveData(UUID, Attribute)} with a null UUID so implementations must get the id
+     * of shared attributes from {@link #getSharedAttributeId(Attribute)}
+     *
+     * @param id The id of the shared attribute
+     * @param attribute The attribute
+     */
+    protected void saveSharedAttribute(Object id, Attribute<?> attribute) {
+        this.saveData((UUID) null, attribute);
+    }
+
+    @Override
+    public void release(UUID uuid) {
+        this.sharedAttributeCache.release(uuid);
+    }
+
+    /**
+     *
+     * Saves all the cached shared attributes
+     *
+     */
+    @Override
+    public void flush() {
+        this.sharedAttributeCache.forEach(this::saveSharedAttribute);
+    }
+
+    /**
+     *
+     * Stops evicting unused shared attributes and saves the ones still cached
+     *
+     */
+    @Override
+    public void close() {
+        synchronized (this.evictionLock) {
+            this.closed = true;
+
+            if (this.evictionTask != null) {
+                this.evictionTask.cancel(false);
+            }
+        }
+
+        this.flush();
     }
 
     public static class AttributeData<A, B extends Attribute<A>> {
@@ -4,6 +4,7 @@ import com.envyful.api.player.EnvyPlayer;
 import com.envyful.api.player.attribute.Attribute;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -46,6 +47,51 @@ public interface SaveManager<T> {
      */
     void saveData(UUID uuid, Attribute<?> attribute);
 
+    /**
+     *
+     * Saves all the given attributes, grouped by the UUID of the player they belong to.
+     * Implementations may override this to write the attributes together (i.e. in a single transaction), in which
+     * case a failed write must be thrown rather than only logged so callers such as
+     * {@link com.envyful.api.player.save.impl.WriteBehindSaveManager} can retry it
+     *
+     * @param attributes The attributes being saved
+     * @throws RuntimeException If the attributes couldn't be written
+     */
+    default void saveData(Map<UUID, List<Attribute<?>>> attributes) {
+        for (Map.Entry<UUID, List<Attribute<?>>> entry : attributes.entrySet()) {
+            for (Attribute<?> attribute : entry.getValue()) {
+                this.saveData(entry.getKey(), attribute);
+            }
+        }
+    }
+
+    /**
+     *
+     * Writes any saves that have been queued but not yet written.
+     * This is called when the server is shutting down and will block until all the data has been written
+     *
+     */
+    default void flush() {}
+
+    /**
+     *
+     * Writes anything queued using {@link #flush()} and stops any repeating tasks the save manager started.
+     * The save manager shouldn't be used after this is called
+     *
+     */
+    default void close() {
+        this.flush();
+    }
+
+    /**
+     *
+     * Called once the player has logged out and their data has been saved,
+     * so that any shared attributes they were using can be evicted
+     *
+     * @param uuid The player's UUID
+     */
+    default void release(UUID uuid) {}
+
     /**
      *
      * Load the player's data for all registered {@link Attribute} using
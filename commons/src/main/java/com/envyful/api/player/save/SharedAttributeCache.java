@@ -0,0 +1,266 @@
+package com.envyful.api.player.save;
+
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.player.attribute.Attribute;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ *
+ * The cache of shared attributes (i.e. a faction or island) held by a {@link SaveManager}.
+ * <br>
+ * Each entry keeps track of the online players using it. Once no players are using an entry it becomes eligible
+ * for eviction, and is evicted by {@link #evict()} when it has been idle for longer than the idle timeout or when the
+ * cache is over its maximum size (least recently used first). Entries are saved before they are evicted, and
+ * anything looking the entry up while it's being saved waits for the save to finish and then loads it again
+ *
+ */
+public class SharedAttributeCache {
+
+    private final Map<Class<?>, Map<Object, Entry>> entries = Maps.newConcurrentMap();
+    private final Map<Attribute<?>, Object> ids = Maps.newConcurrentMap();
+    private final Map<UUID, Set<Entry>> holders = Maps.newConcurrentMap();
+    private final BiConsumer<Object, Attribute<?>> saver;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong accessCounter = new AtomicLong();
+
+    private volatile long idleTimeoutMillis = TimeUnit.MINUTES.toMillis(10);
+    private volatile int maximumSize = 10_000;
+
+    /**
+     *
+     * Creates the cache
+     *
+     * @param saver Saves an attribute (with its id) before it's evicted
+     */
+    public SharedAttributeCache(BiConsumer<Object, Attribute<?>> saver) {
+        this.saver = saver;
+    }
+
+    public void setIdleTimeout(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     *
+     * Gets the cached attribute, adding the player as a holder of it if they're not null
+     *
+     * @param attributeClass The attribute class
+     * @param id The id of the shared attribute
+     * @param holder The player using the attribute, or null
+     * @return The cached attribute or null if it's not cached
+     */
+    public Attribute<?> get(Class<?> attributeClass, Object id, UUID holder) {
+        Entry entry = this.entries.computeIfAbsent(attributeClass, ___ -> Maps.newConcurrentMap()).get(id);
+
+        if (entry == null || !this.acquire(entry, holder)) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+
+        this.hits.incrementAndGet();
+        return entry.attribute;
+    }
+
+    /**
+     *
+     * Adds the attribute to the cache unless there's already an attribute cached for the id
+     *
+     * @param id The id of the shared attribute
+     * @param attribute The attribute
+     * @param holder The player using the attribute, or null
+     * @return The attribute now in the cache (which may not be the one passed in)
+     */
+    public Attribute<?> put(Object id, Attribute<?> attribute, UUID holder) {
+        Map<Object, Entry> attributes = this.entries.computeIfAbsent(attribute.getClass(), ___ -> Maps.newConcurrentMap());
+
+        while (true) {
+            Entry entry = attributes.computeIfAbsent(id, ___ -> new Entry(attribute.getClass(), id, attribute));
+
+            if (this.acquire(entry, holder)) {
+                this.ids.put(entry.attribute, id);
+                return entry.attribute;
+            }
+
+            attributes.remove(id, entry);
+        }
+    }
+
+    private boolean acquire(Entry entry, UUID holder) {
+        synchronized (entry) {
+            if (entry.evicted) {
+                return false;
+            }
+
+            this.touch(entry);
+
+            if (holder != null && this.holders.computeIfAbsent(holder, ___ -> ConcurrentHashMap.newKeySet()).add(entry)) {
+                entry.references++;
+            }
+
+            return true;
+        }
+    }
+
+    private void touch(Entry entry) {
+        entry.lastAccess = System.currentTimeMillis();
+        entry.accessOrder = this.accessCounter.incrementAndGet();
+    }
+
+    /**
+     *
+     * Gets the id an attribute was cached with
+     *
+     * @param attribute The attribute
+     * @return The id or null if the attribute isn't cached
+     */
+    public Object getId(Attribute<?> attribute) {
+        return this.ids.get(attribute);
+    }
+
+    /**
+     *
+     * Removes the player as a holder of all the attributes they're using
+     *
+     * @param holder The player
+     */
+    public void release(UUID holder) {
+        Set<Entry> held = this.holders.remove(holder);
+
+        if (held == null) {
+            return;
+        }
+
+        for (Entry entry : held) {
+            synchronized (entry) {
+                entry.references--;
+                this.touch(entry);
+            }
+        }
+    }
+
+    /**
+     *
+     * Evicts (after saving) all the entries that have no holders and have been idle for longer than the idle timeout,
+     * and then the least recently used entries without holders until the cache is within its maximum size
+     *
+     */
+    public void evict() {
+        long idleBefore = System.currentTimeMillis() - this.idleTimeoutMillis;
+        List<Entry> unused = Lists.newArrayList();
+
+        for (Map<Object, Entry> attributes : this.entries.values()) {
+            for (Entry entry : attributes.values()) {
+                if (entry.references <= 0) {
+                    unused.add(entry);
+                }
+            }
+        }
+
+        int excess = this.size() - this.maximumSize;
+        unused.sort(Comparator.comparingLong(entry -> entry.accessOrder));
+
+        for (Entry entry : unused) {
+            if (entry.lastAccess >= idleBefore && excess <= 0) {
+                break;
+            }
+
+            if (this.evict(entry)) {
+                excess--;
+            }
+        }
+    }
+
+    private boolean evict(Entry entry) {
+        synchronized (entry) {
+            if (entry.references > 0 || entry.evicted) {
+                return false;
+            }
+
+            entry.evicted = true;
+
+            try {
+                this.saver.accept(entry.id, entry.attribute);
+            } catch (Exception e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error(
+                        "Error saving evicted shared attribute " + entry.id, e));
+            }
+
+            this.entries.get(entry.attributeClass).remove(entry.id, entry);
+            this.ids.remove(entry.attribute);
+        }
+
+        this.evictions.incrementAndGet();
+        return true;
+    }
+
+    /**
+     *
+     * Calls the consumer for every cached attribute and its id
+     *
+     * @param consumer The consumer
+     */
+    public void forEach(BiConsumer<Object, Attribute<?>> consumer) {
+        for (Map<Object, Entry> attributes : this.entries.values()) {
+            for (Entry entry : attributes.values()) {
+                consumer.accept(entry.id, entry.attribute);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+
+        for (Map<Object, Entry> attributes : this.entries.values()) {
+            size += attributes.size();
+        }
+
+        return size;
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    private static final class Entry {
+
+        private final Class<?> attributeClass;
+        private final Object id;
+        private final Attribute<?> attribute;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private volatile long accessOrder = 0;
+        private volatile int references = 0;
+        private boolean evicted = false;
+
+        private Entry(Class<?> attributeClass, Object id, Attribute<?> attribute) {
+            this.attributeClass = attributeClass;
+            this.id = id;
+            this.attribute = attribute;
+        }
+    }
+}
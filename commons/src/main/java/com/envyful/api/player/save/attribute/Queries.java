@@ -20,4 +20,23 @@ public @interface Queries {
 
     String loadQuery();
 
+    /**
+     *
+     * Optional query used to load many ids at once when the save manager is coalescing logins.
+     * The %s will be replaced with the correct number of parameters i.e.
+     * <code>SELECT * FROM players WHERE uuid IN (%s)</code>.
+     * Only <code>%s</code> is replaced, any other <code>%</code> (i.e. in a <code>LIKE</code> pattern) is left as it is
+     *
+     * @return The batch load query
+     */
+    String batchLoadQuery() default "";
+
+    /**
+     *
+     * The column used to match rows from the {@link #batchLoadQuery()} back to the id they were loaded for
+     *
+     * @return The id column
+     */
+    String idColumn() default "uuid";
+
 }
@@ -0,0 +1,35 @@
+package com.envyful.api.player.save.attribute;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ *
+ * Opts a {@link com.envyful.api.player.attribute.ManagedAttribute} into dirty tracking so that the save managers
+ * skip saving it when nothing has changed since it was last loaded or saved
+ *
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TrackChanges {
+
+    Mode value() default Mode.EXPLICIT;
+
+    enum Mode {
+
+        /**
+         * The attribute is only saved after {@link com.envyful.api.player.attribute.Attribute#markDirty()} is called
+         */
+        EXPLICIT,
+
+        /**
+         * The attribute is saved when any of its non-transient fields differ from the copy taken when it was last
+         * saved, or {@link com.envyful.api.player.attribute.Attribute#markDirty()} is called.
+         * Fields are copied with Gson so they must be serializable by it
+         */
+        SNAPSHOT,
+
+    }
+}
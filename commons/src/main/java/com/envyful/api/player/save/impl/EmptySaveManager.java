@@ -37,17 +37,14 @@ public class EmptySaveManager<T> extends AbstractSaveManager<T> {
                 }
 
                 if (attribute.isShared()) {
-                    Attribute<?> sharedAttribute = this.getSharedAttribute((Class<? extends Attribute<?>>) attribute.getClass(),  o);
-
-                    if (sharedAttribute == null) {
-                        sharedAttribute = attribute;
+                    return this.loadSharedAttribute(entry.getKey(), o, uuid, () -> {
                         attribute.loadWithGenericId(o);
-                        this.addSharedAttribute(o, sharedAttribute);
-                    }
-
-                    return sharedAttribute;
+                        attribute.markClean();
+                        return attribute;
+                    });
                 } else {
                     attribute.loadWithGenericId(o);
+                    attribute.markClean();
                     return attribute;
                 }
             }).whenComplete((loaded, throwable) -> {
@@ -73,24 +70,34 @@ public class EmptySaveManager<T> extends AbstractSaveManager<T> {
             A attribute = attributeData.getConstructor().get();
 
             if (attribute.isShared()) {
-                A sharedAttribute = (A) this.getSharedAttribute(attributeClass, id);
-
-                if (sharedAttribute == null) {
-                    sharedAttribute = attribute;
+                return (A) this.loadSharedAttribute((Class<? extends Attribute<?>>) attributeClass, id, null, () -> {
                     attribute.loadWithGenericId(id);
-                    this.addSharedAttribute(id, sharedAttribute);
-                }
-
-                return sharedAttribute;
+                    attribute.markClean();
+                    return attribute;
+                });
             } else {
                 attribute.loadWithGenericId(id);
+                attribute.markClean();
                 return attribute;
             }
-        }, UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE);
+        }, UtilConcurrency.IO);
     }
 
     @Override
     public void saveData(UUID uuid, Attribute<?> attribute) {
+        if (!this.prepareSave(attribute)) {
+            return;
+        }
+
         attribute.getId(uuid).whenComplete((o, throwable) -> attribute.saveWithGenericId(o));
     }
+
+    @Override
+    protected void saveSharedAttribute(Object id, Attribute<?> attribute) {
+        if (!this.prepareSave(attribute)) {
+            return;
+        }
+
+        attribute.saveWithGenericId(id);
+    }
 }
@@ -8,18 +8,18 @@ import com.envyful.api.player.attribute.PlayerAttribute;
 import com.envyful.api.player.save.AbstractSaveManager;
 import com.envyful.api.player.save.attribute.DataDirectory;
 import com.envyful.api.player.save.attribute.TypeAdapter;
+import com.envyful.api.player.save.impl.codec.AttributeCodec;
+import com.envyful.api.player.save.impl.codec.AttributeCodecs;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
@@ -34,10 +34,35 @@ public class JsonSaveManager<T> extends AbstractSaveManager<T> {
 
     private static Gson gson = null;
 
-    protected final Map<Class<? extends Attribute<?>>, String> attributeDirectories = Maps.newHashMap();
+    private static final String JSON_EXTENSION = ".json";
+    private static final String CODEC_EXTENSION = ".dat";
 
+    protected final Map<Class<? extends Attribute<?>>, String> attributeDirectories = Maps.newHashMap();
+    protected final AttributeCodec codec;
+
+    /**
+     *
+     * Creates a save manager that reads and writes each attribute as a pretty printed <code>.json</code> file
+     *
+     * @param playerManager The player manager
+     */
     public JsonSaveManager(PlayerManager<?, ?> playerManager) {
         super(playerManager);
+        this.codec = null;
+    }
+
+    /**
+     *
+     * Creates a save manager that writes attribute files using the given codec (i.e. {@link AttributeCodecs#BINARY})
+     * with the <code>.dat</code> extension. Files written by any of the registered codecs can be read, and
+     * <code>.json</code> files are migrated, being rewritten with this codec and deleted the next time they're saved
+     *
+     * @param playerManager The player manager
+     * @param codec The codec used to write the files
+     */
+    public JsonSaveManager(PlayerManager<?, ?> playerManager, AttributeCodec codec) {
+        super(playerManager);
+        this.codec = codec;
     }
 
     public static Gson getGson() {
@@ -67,14 +92,8 @@ public class JsonSaveManager<T> extends AbstractSaveManager<T> {
                 }
 
                 if (attribute.isShared()) {
-                    Attribute<?> sharedAttribute = this.getSharedAttribute((Class<? extends Attribute<?>>) attribute.getClass(), o);
-
-                    if (sharedAttribute == null) {
-                        sharedAttribute = this.readData(entry.getKey(), attribute, o);
-                        this.addSharedAttribute(o, sharedAttribute);
-                    }
-
-                    return sharedAttribute;
+                    return this.loadSharedAttribute(entry.getKey(), o, uuid,
+                            () -> this.readData(entry.getKey(), attribute, o));
                 } else {
                     Attribute<?> loaded = this.readData(entry.getKey(), attribute, o);
 
@@ -102,22 +121,41 @@ public class JsonSaveManager<T> extends AbstractSaveManager<T> {
             Object key
     ) {
         String dataDirectory = this.attributeDirectories.get(attributeClass);
-        File file = Paths.get(dataDirectory, key.toString() + ".json").toFile();
-
-        if (!file.exists()) {
-            try {
-                file.getParentFile().mkdirs();
-                Files.createFile(file.toPath());
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+        String extension = this.codec == null ? JSON_EXTENSION : CODEC_EXTENSION;
+        Path path = Paths.get(dataDirectory, key.toString() + extension);
+        boolean legacy = false;
+
+        if (this.codec != null && !Files.exists(path)) {
+            path = Paths.get(dataDirectory, key.toString() + JSON_EXTENSION);
+            legacy = true;
+        }
+
+        if (!Files.exists(path)) {
             return original;
         }
 
-        try (FileReader fileWriter = new FileReader(file)) {
-            return getGson().fromJson(new JsonReader(fileWriter), attributeClass);
-        } catch (IOException e) {
-            e.printStackTrace();
+        try {
+            JsonElement element = AttributeCodecs.read(path);
+
+            if (element == null) {
+                return original;
+            }
+
+            Attribute<?> loaded = getGson().fromJson(element, attributeClass);
+
+            if (loaded == null) {
+                return original;
+            }
+
+            if (legacy) {
+                loaded.markDirty();
+            } else {
+                loaded.markClean();
+            }
+
+            return loaded;
+        } catch (IOException | JsonParseException e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("There was an error reading the file " + key, e));
         }
 
         return original;
@@ -134,37 +172,39 @@ public class JsonSaveManager<T> extends AbstractSaveManager<T> {
             A attribute = attributeData.getConstructor().get();
 
             if (attribute.isShared()) {
-                A sharedAttribute = (A) this.getSharedAttribute(attributeClass, id);
-
-                if (sharedAttribute == null) {
-                    sharedAttribute = (A) this.readData(attributeClass, attribute, id);
-                    this.addSharedAttribute(id, sharedAttribute);
-                }
-
-                return sharedAttribute;
+                return (A) this.loadSharedAttribute((Class<? extends Attribute<?>>) attributeClass, id, null,
+                        () -> this.readData(attributeClass, attribute, id));
             } else {
                 return (A) this.readData(attributeClass, attribute, id);
             }
-        }, UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE);
+        }, UtilConcurrency.IO);
     }
 
     @Override
     public void saveData(UUID uuid, Attribute<?> attribute) {
-        String dataDirectory = this.attributeDirectories.get(attribute.getClass());
-        File file = Paths.get(dataDirectory, uuid.toString() + ".json").toFile();
-
-        if (!file.exists()) {
-            try {
-                file.getParentFile().mkdirs();
-                Files.createFile(file.toPath());
-            } catch (IOException e) {
-                UtilLogger.logger().ifPresent(logger -> logger.error("There was an error creating the file", e));
-            }
+        if (!this.prepareSave(attribute)) {
+            return;
         }
 
-        try (FileWriter fileWriter = new FileWriter(file)) {
-            getGson().toJson(attribute, attribute.getClass(), new JsonWriter(fileWriter));
+        Object key = attribute.isShared() ? this.getSharedAttributeId(attribute) : null;
+
+        if (key == null) {
+            key = uuid;
+        }
+
+        String dataDirectory = this.attributeDirectories.get(attribute.getClass());
+
+        try {
+            JsonElement element = getGson().toJsonTree(attribute, attribute.getClass());
+
+            if (this.codec == null) {
+                AttributeCodecs.writeJson(Paths.get(dataDirectory, key + JSON_EXTENSION), getGson(), element);
+            } else {
+                AttributeCodecs.write(Paths.get(dataDirectory, key + CODEC_EXTENSION), this.codec, element);
+                Files.deleteIfExists(Paths.get(dataDirectory, key + JSON_EXTENSION));
+            }
         } catch (IOException e) {
+            attribute.markDirty();
             UtilLogger.logger().ifPresent(logger -> logger.error("There was an error writing to the file", e));
         }
     }
@@ -177,19 +217,25 @@ public class JsonSaveManager<T> extends AbstractSaveManager<T> {
             return;
         }
 
+        registerTypeAdapter(attribute);
+        this.attributeDirectories.put(attribute, dataDirectory.value());
+        super.registerAttribute(attribute);
+    }
+
+    static void registerTypeAdapter(Class<? extends Attribute<?>> attribute) {
         TypeAdapter typeAdapter = attribute.getAnnotation(TypeAdapter.class);
 
-        if (typeAdapter != null) {
-            try {
-                GSON_BUILDER.registerTypeAdapter(attribute, typeAdapter.value().newInstance());
-            } catch (InstantiationException | IllegalAccessException e) {
-                UtilLogger.logger()
-                        .ifPresent(logger -> logger.error(
-                                "Error registering type adapter for: " + attribute.getSimpleName(), e));
-            }
+        if (typeAdapter == null) {
+            return;
         }
 
-        this.attributeDirectories.put(attribute, dataDirectory.value());
-        super.registerAttribute(attribute);
+        try {
+            GSON_BUILDER.registerTypeAdapter(attribute, typeAdapter.value().newInstance());
+            gson = null;
+        } catch (InstantiationException | IllegalAccessException e) {
+            UtilLogger.logger()
+                    .ifPresent(logger -> logger.error(
+                            "Error registering type adapter for: " + attribute.getSimpleName(), e));
+        }
     }
 }
@@ -0,0 +1,293 @@
+package com.envyful.api.player.save.impl;
+
+import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.player.PlayerManager;
+import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.player.attribute.PlayerAttribute;
+import com.envyful.api.player.save.AbstractSaveManager;
+import com.envyful.api.player.save.attribute.DataDirectory;
+import com.envyful.api.player.save.impl.codec.AttributeCodec;
+import com.envyful.api.player.save.impl.codec.AttributeCodecs;
+import com.envyful.api.player.save.impl.log.AttributeLog;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ * A {@link com.envyful.api.player.save.SaveManager} that stores every attribute in a single local
+ * {@link AttributeLog} file, so no database is needed and there's no file per player to create or list.
+ * <br>
+ * Attributes are keyed by their {@link DataDirectory} value if they have one (otherwise their class name) and
+ * their id. Single saves are forced to disk together every second, while {@link #saveData(Map)} and
+ * {@link #flush()} force the log before returning. The log is compacted in the background once at least half
+ * of it is overwritten records. {@link #close()} stops the background tasks and closes the log
+ *
+ * @param <T> The player type
+ */
+public class LogSaveManager<T> extends AbstractSaveManager<T> {
+
+    private static final double COMPACTION_RATIO = 0.5;
+    private static final long COMPACTION_MINIMUM_SIZE = 1024 * 1024;
+    private static final long SYNC_INTERVAL_MILLIS = 1000;
+
+    protected final Map<Class<? extends Attribute<?>>, String> attributeNames = Maps.newConcurrentMap();
+    protected final AttributeLog log;
+    protected final AttributeCodec codec;
+
+    private final AtomicBoolean unsynced = new AtomicBoolean(false);
+    private final ScheduledFuture<?> compactionTask;
+    private final ScheduledFuture<?> syncTask;
+
+    public LogSaveManager(PlayerManager<?, ?> playerManager, Path file) {
+        this(playerManager, file, AttributeCodecs.BINARY, TimeUnit.MINUTES.toMillis(10));
+    }
+
+    /**
+     *
+     * Creates a save manager backed by the given log file, creating the file if it doesn't exist
+     *
+     * @param playerManager The player manager
+     * @param file The log file
+     * @param codec The codec used to encode the attributes
+     * @param compactionIntervalMillis How often (in milliseconds) to check if the log needs compacting
+     */
+    public LogSaveManager(PlayerManager<?, ?> playerManager, Path file, AttributeCodec codec,
+                          long compactionIntervalMillis) {
+        super(playerManager);
+        this.codec = codec;
+
+        try {
+            this.log = new AttributeLog(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the attribute log " + file, e);
+        }
+
+        this.compactionTask = UtilConcurrency.runRepeatingTaskIO(this::compact,
+                compactionIntervalMillis, compactionIntervalMillis);
+        this.syncTask = UtilConcurrency.runRepeatingTaskIO(() -> {
+            if (this.unsynced.get()) {
+                this.sync();
+            }
+        }, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS);
+    }
+
+    public AttributeLog getLog() {
+        return this.log;
+    }
+
+    private void compact() {
+        try {
+            this.log.compactIfNeeded(COMPACTION_RATIO, COMPACTION_MINIMUM_SIZE);
+        } catch (IOException e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("There was an error compacting the attribute log", e));
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
+        if (this.registeredAttributes.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        List<Attribute<?>> attributes = Collections.synchronizedList(Lists.newArrayList());
+        List<CompletableFuture<Attribute<?>>> loadTasks = Lists.newArrayList();
+
+        for (Map.Entry<Class<? extends Attribute<?>>, AttributeData<?, ?>> entry : this.registeredAttributes.entrySet()) {
+            AttributeData<?, ?> value = entry.getValue();
+            Attribute<?> attribute = value.getConstructor().get();
+
+            loadTasks.add(attribute.getId(uuid).thenApply(o -> {
+                if (o == null) {
+                    return null;
+                }
+
+                if (attribute.isShared()) {
+                    return this.loadSharedAttribute(entry.getKey(), o, uuid,
+                            () -> this.readData(entry.getKey(), attribute, o));
+                } else {
+                    Attribute<?> loaded = this.readData(entry.getKey(), attribute, o);
+
+                    if (loaded instanceof PlayerAttribute) {
+                        ((PlayerAttribute) loaded).setParent(this.playerManager.getPlayer(uuid));
+                    }
+
+                    return loaded;
+                }
+            }).whenComplete((loaded, throwable) -> {
+                if (loaded != null) {
+                    attributes.add(loaded);
+                } else if (throwable != null) {
+                    throwable.printStackTrace();
+                }
+            }));
+        }
+
+        return CompletableFuture.allOf(loadTasks.toArray(new CompletableFuture[0])).thenApply(unused -> attributes);
+    }
+
+    protected Attribute<?> readData(
+            Class<? extends Attribute<?>> attributeClass,
+            Attribute<?> original,
+            Object key
+    ) {
+        try {
+            JsonElement element = this.log.get(this.attributeNames.get(attributeClass), key.toString());
+
+            if (element == null) {
+                return original;
+            }
+
+            Attribute<?> loaded = JsonSaveManager.getGson().fromJson(element, attributeClass);
+
+            if (loaded == null) {
+                return original;
+            }
+
+            loaded.markClean();
+            return loaded;
+        } catch (IOException | JsonParseException e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error(
+                    "There was an error reading " + attributeClass.getSimpleName() + " for " + key, e));
+        }
+
+        return original;
+    }
+
+    @Override
+    public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass, B id) {
+        if (id == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            AttributeData<?, A> attributeData = (AttributeData<?, A>) this.registeredAttributes.get(attributeClass);
+            A attribute = attributeData.getConstructor().get();
+
+            if (attribute.isShared()) {
+                return (A) this.loadSharedAttribute((Class<? extends Attribute<?>>) attributeClass, id, null,
+                        () -> this.readData(attributeClass, attribute, id));
+            } else {
+                return (A) this.readData(attributeClass, attribute, id);
+            }
+        }, UtilConcurrency.IO);
+    }
+
+    @Override
+    public void saveData(UUID uuid, Attribute<?> attribute) {
+        if (this.writeData(uuid, attribute)) {
+            this.unsynced.set(true);
+        }
+    }
+
+    /**
+     *
+     * Appends all the attributes to the log and then forces it to disk once
+     *
+     * @param attributes The attributes being saved
+     */
+    @Override
+    public void saveData(Map<UUID, List<Attribute<?>>> attributes) {
+        boolean written = false;
+        IOException failure = null;
+
+        for (Map.Entry<UUID, List<Attribute<?>>> entry : attributes.entrySet()) {
+            for (Attribute<?> attribute : entry.getValue()) {
+                try {
+                    written |= this.appendData(entry.getKey(), attribute);
+                } catch (IOException e) {
+                    attribute.markDirty();
+                    failure = e;
+                }
+            }
+        }
+
+        if (written) {
+            this.sync();
+        }
+
+        if (failure != null) {
+            throw new UncheckedIOException("Failed to write attributes to the attribute log", failure);
+        }
+    }
+
+    private boolean writeData(UUID uuid, Attribute<?> attribute) {
+        try {
+            return this.appendData(uuid, attribute);
+        } catch (IOException e) {
+            attribute.markDirty();
+            UtilLogger.logger().ifPresent(logger -> logger.error("There was an error writing to the attribute log", e));
+            return false;
+        }
+    }
+
+    private boolean appendData(UUID uuid, Attribute<?> attribute) throws IOException {
+        String name = this.attributeNames.get(attribute.getClass());
+
+        if (name == null || !this.prepareSave(attribute)) {
+            return false;
+        }
+
+        Object key = attribute.isShared() ? this.getSharedAttributeId(attribute) : null;
+
+        if (key == null) {
+            key = uuid;
+        }
+
+        this.log.put(name, key.toString(), this.codec,
+                JsonSaveManager.getGson().toJsonTree(attribute, attribute.getClass()));
+        return true;
+    }
+
+    @Override
+    public void flush() {
+        super.flush();
+        this.sync();
+    }
+
+    @Override
+    public void close() {
+        this.compactionTask.cancel(false);
+        this.syncTask.cancel(false);
+        super.close();
+
+        try {
+            this.log.close();
+        } catch (IOException e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("There was an error closing the attribute log", e));
+        }
+    }
+
+    private void sync() {
+        this.unsynced.set(false);
+
+        try {
+            this.log.sync();
+        } catch (IOException e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("There was an error syncing the attribute log", e));
+        }
+    }
+
+    @Override
+    public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+        DataDirectory dataDirectory = attribute.getAnnotation(DataDirectory.class);
+
+        JsonSaveManager.registerTypeAdapter(attribute);
+        this.attributeNames.put(attribute, dataDirectory == null ? attribute.getName() : dataDirectory.value());
+        super.registerAttribute(attribute);
+    }
+}
@@ -1,6 +1,7 @@
 package com.envyful.api.player.save.impl;
 
 import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
 import com.envyful.api.database.Database;
 import com.envyful.api.player.PlayerManager;
 import com.envyful.api.player.attribute.Attribute;
@@ -10,7 +11,10 @@ import com.envyful.api.player.save.VariableSaveHandler;
 import com.envyful.api.player.save.attribute.ColumnData;
 import com.envyful.api.player.save.attribute.Queries;
 import com.envyful.api.player.save.attribute.SaveHandler;
-import com.google.common.collect.ImmutableMap;
+import com.envyful.api.player.save.impl.sql.ColumnAccessor;
+import com.envyful.api.player.save.impl.sql.SQLAttributeBinder;
+import com.envyful.api.player.save.impl.sql.SQLTemplate;
+import com.envyful.api.type.Pair;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -22,18 +26,39 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.CompletionException;
 
 public class SQLSaveManager<T> extends AbstractSaveManager<T> {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final Database database;
+    private final LoadBatcher loadBatcher;
     protected final Map<Class<? extends Attribute<?>>, SQLAttributeData> registeredSqlAttributeData = Maps.newConcurrentMap();
 
     public SQLSaveManager(PlayerManager<?, ?> playerManager, Database database) {
+        this(playerManager, database, 0L);
+    }
+
+    /**
+     *
+     * Creates a save manager which coalesces logins that arrive within the given window into a single
+     * {@link Queries#batchLoadQuery()} per attribute. Attributes without a batch load query are still loaded
+     * using their {@link Queries#loadQuery()}
+     *
+     * @param playerManager The player manager
+     * @param database The database
+     * @param batchWindowMillis The window (in milliseconds) logins are coalesced over. 0 disables coalescing
+     */
+    public SQLSaveManager(PlayerManager<?, ?> playerManager, Database database, long batchWindowMillis) {
         super(playerManager);
         this.database = database;
+        this.loadBatcher = batchWindowMillis > 0 ? new LoadBatcher(batchWindowMillis) : null;
     }
 
     @Override
@@ -42,76 +67,144 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
-        List<Attribute<?>> attributes = Lists.newArrayList();
-        List<CompletableFuture<Attribute<?>>> loadTasks = Lists.newArrayList();
+        List<PendingLoad> loads = Lists.newArrayList();
+        List<CompletableFuture<?>> idTasks = Lists.newArrayList();
 
         for (Map.Entry<Class<? extends Attribute<?>>, AttributeData<?, ?>> entry : this.registeredAttributes.entrySet()) {
             AttributeData<?, ?> value = entry.getValue();
             Attribute<?> attribute = value.getConstructor().get();
+            PendingLoad load = new PendingLoad(uuid, entry.getKey(), attribute);
 
-            loadTasks.add(attribute.getId(uuid).thenApply(o -> {
-                if (o == null) {
+            loads.add(load);
+            idTasks.add(attribute.getId(uuid).handle((o, throwable) -> {
+                if (throwable != null) {
+                    throwable.printStackTrace();
                     return null;
                 }
 
-                if (attribute.isShared()) {
-                    Attribute<?> sharedAttribute = this.getSharedAttribute((Class<? extends Attribute<?>>) attribute.getClass(), o);
+                load.id = o;
+                return o;
+            }));
+        }
 
-                    if (sharedAttribute == null) {
-                        sharedAttribute = this.readData(attribute,
-                                this.registeredSqlAttributeData.get(entry.getKey()));
-                        this.addSharedAttribute(o, sharedAttribute);
+        return CompletableFuture.allOf(idTasks.toArray(new CompletableFuture[0]))
+                .thenCompose(unused -> UtilConcurrency.composeAsyncIO(() -> this.loadAll(loads)));
+    }
+
+    private CompletableFuture<List<Attribute<?>>> loadAll(List<PendingLoad> loads) {
+        List<Attribute<?>> attributes = Collections.synchronizedList(Lists.newArrayList());
+        List<PendingLoad> directLoads = Lists.newArrayList();
+        List<CompletableFuture<Attribute<?>>> batchedLoads = Lists.newArrayList();
+
+        for (PendingLoad load : loads) {
+            if (load.id == null) {
+                continue;
+            }
+
+            SQLAttributeData sqlAttributeData = this.registeredSqlAttributeData.get(load.attributeClass);
+
+            if (this.loadBatcher != null && !load.attribute.isShared() && sqlAttributeData.supportsBatchLoad()) {
+                batchedLoads.add(this.loadBatcher.enqueue(load).thenApply(loaded -> {
+                    if (loaded != null) {
+                        attributes.add(loaded);
                     }
 
-                    return sharedAttribute;
-                } else {
-                    return this.readData(attribute,
-                            this.registeredSqlAttributeData.get(entry.getKey()));
-                }
-            }).whenComplete((loaded, throwable) -> {
-                if (loaded != null) {
-                    attributes.add(loaded);
-                } else if (throwable != null) {
-                    throwable.printStackTrace();
+                    return loaded;
+                }));
+            } else {
+                directLoads.add(load);
+            }
+        }
+
+        if (!directLoads.isEmpty()) {
+            try (Connection connection = this.database.getConnection()) {
+                for (PendingLoad load : directLoads) {
+                    attributes.add(this.readData(connection, load));
                 }
-            }));
+            } catch (SQLException e) {
+                return CompletableFuture.failedFuture(e);
+            }
         }
 
-        return CompletableFuture.allOf(loadTasks.toArray(new CompletableFuture[0])).thenApply(unused -> attributes);
+        return CompletableFuture.allOf(batchedLoads.toArray(new CompletableFuture[0])).thenApply(unused -> attributes);
+    }
+
+    private Attribute<?> readData(Connection connection, PendingLoad load) throws SQLException {
+        SQLAttributeData sqlAttributeData = this.registeredSqlAttributeData.get(load.attributeClass);
+
+        if (!load.attribute.isShared()) {
+            return this.readData(connection, load.attribute, sqlAttributeData, load.id);
+        }
+
+        try {
+            return this.loadSharedAttribute(load.attributeClass, load.id, load.player, () -> {
+                try {
+                    return this.readData(connection, load.attribute, sqlAttributeData, load.id);
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+
+            throw e;
+        }
     }
 
     protected Attribute<?> readData(
             Attribute<?> original,
             SQLAttributeData sqlAttributeData
     ) {
-        try (Connection connection = this.database.getConnection();
-             PreparedStatement preparedStatement =
-                     connection.prepareStatement(sqlAttributeData.getQueries().loadQuery())) {
-            Field[] fields = sqlAttributeData.getFieldsPositions().get(sqlAttributeData.getQueries().loadQuery());
+        return this.readData(original, sqlAttributeData, original.getId().getNow(null));
+    }
 
-            for (int i = 0; i < fields.length; i++) {
-                preparedStatement.setObject(i, fields[i].get(original));
-            }
+    protected Attribute<?> readData(
+            Attribute<?> original,
+            SQLAttributeData sqlAttributeData,
+            Object id
+    ) {
+        try (Connection connection = this.database.getConnection()) {
+            return this.readData(connection, original, sqlAttributeData, id);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
 
-            ResultSet resultSet = preparedStatement.executeQuery();
+        return original;
+    }
 
-            if (!resultSet.next()) {
-                return original;
-            }
+    /**
+     *
+     * Reads the data for the attribute using the given connection.
+     * The connection is not closed by this method so that it can be reused for other attributes
+     *
+     * @param connection The connection to use
+     * @param original The attribute being loaded into
+     * @param sqlAttributeData The SQL data for the attribute
+     * @param id The id being loaded
+     * @return The loaded attribute
+     * @throws SQLException If there's an error getting a statement from the connection
+     */
+    protected Attribute<?> readData(
+            Connection connection,
+            Attribute<?> original,
+            SQLAttributeData sqlAttributeData,
+            Object id
+    ) throws SQLException {
+        String loadQuery = sqlAttributeData.getQueries().loadQuery();
 
-            for (Map.Entry<Field, FieldData> fieldData : sqlAttributeData.getFieldData().entrySet()) {
-                FieldData data = fieldData.getValue();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlAttributeData.getSql(loadQuery))) {
+            sqlAttributeData.getBinder().bind(loadQuery, preparedStatement, original, id);
 
-                if (data.getSaveHandler() != null) {
-                    fieldData.getKey().set(original,
-                            data.getSaveHandler().invert(
-                                    resultSet.getString(fieldData.getValue().getName())));
-                } else {
-                    fieldData.getKey().set(original, resultSet.getObject(fieldData.getValue().getName()));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return original;
                 }
+
+                sqlAttributeData.getBinder().read(loadQuery, resultSet, original);
+                original.markClean();
             }
-        } catch (SQLException | IllegalAccessException e) {
-            e.printStackTrace();
         }
 
         return original;
@@ -128,50 +221,115 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
             A attribute = attributeData.getConstructor().get();
 
             if (attribute.isShared()) {
-                A sharedAttribute = (A) this.getSharedAttribute(attributeClass, id);
-
-                if (sharedAttribute == null) {
-                    sharedAttribute = (A) this.readData(attribute,
-                            this.registeredSqlAttributeData.get(attributeClass));
-                    this.addSharedAttribute(id, sharedAttribute);
-                }
-
-                return sharedAttribute;
+                return (A) this.loadSharedAttribute((Class<? extends Attribute<?>>) attributeClass, id, null,
+                        () -> this.readData(attribute, this.registeredSqlAttributeData.get(attributeClass), id));
             } else {
                 return (A) this.readData(attribute,
-                        this.registeredSqlAttributeData.get(attributeClass));
+                        this.registeredSqlAttributeData.get(attributeClass), id);
             }
-        }, UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE);
+        }, UtilConcurrency.IO);
     }
 
     @Override
     public void saveData(UUID player, Attribute<?> attribute) {
         SQLAttributeData sqlAttributeData = this.registeredSqlAttributeData.get(attribute.getClass());
 
+        if (!this.prepareSave(attribute)) {
+            return;
+        }
+
+        String updateQuery = sqlAttributeData.getQueries().updateQuery();
+
         try (Connection connection = this.database.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sqlAttributeData.getQueries().updateQuery())) {
-            Field[] fieldPositions = sqlAttributeData.getFieldsPositions().get(sqlAttributeData.getQueries().updateQuery());
+             PreparedStatement preparedStatement = connection.prepareStatement(sqlAttributeData.getSql(updateQuery))) {
+            sqlAttributeData.getBinder().bind(updateQuery, preparedStatement, attribute, this.getSaveId(player, attribute));
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            attribute.markDirty();
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     *
+     * Saves all the attributes as JDBC batches (one per attribute class) inside a single transaction.
+     * If any of the updates fail the whole transaction is rolled back, the attributes are marked dirty and the
+     * failure is thrown so the caller can retry the batch
+     *
+     * @param attributes The attributes being saved
+     * @throws IllegalStateException If the batch couldn't be written
+     */
+    @Override
+    public void saveData(Map<UUID, List<Attribute<?>>> attributes) {
+        Map<Class<?>, List<Pair<Object, Attribute<?>>>> byClass = Maps.newHashMap();
+
+        for (Map.Entry<UUID, List<Attribute<?>>> entry : attributes.entrySet()) {
+            for (Attribute<?> attribute : entry.getValue()) {
+                if (this.registeredSqlAttributeData.containsKey(attribute.getClass()) && this.prepareSave(attribute)) {
+                    byClass.computeIfAbsent(attribute.getClass(), ___ -> Lists.newArrayList())
+                            .add(Pair.of(this.getSaveId(entry.getKey(), attribute), attribute));
+                }
+            }
+        }
 
-            for (int i = 0; i < fieldPositions.length; i++) {
-                Field fieldPosition = fieldPositions[i];
+        if (byClass.isEmpty()) {
+            return;
+        }
 
-                FieldData fieldData = sqlAttributeData.getFieldData().get(fieldPosition);
+        try (Connection connection = this.database.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
 
-                if (fieldData.getSaveHandler() != null) {
-                    preparedStatement.setString(i, fieldData.getSaveHandler().convert(fieldPosition.get(attribute)));
-                } else {
-                    preparedStatement.setObject(i, fieldPosition.get(attribute));
+            try {
+                for (Map.Entry<Class<?>, List<Pair<Object, Attribute<?>>>> entry : byClass.entrySet()) {
+                    SQLAttributeData sqlAttributeData = this.registeredSqlAttributeData.get(entry.getKey());
+                    String updateQuery = sqlAttributeData.getQueries().updateQuery();
+
+                    try (PreparedStatement preparedStatement =
+                                 connection.prepareStatement(sqlAttributeData.getSql(updateQuery))) {
+                        for (Pair<Object, Attribute<?>> save : entry.getValue()) {
+                            sqlAttributeData.getBinder().bind(updateQuery, preparedStatement, save.getY(), save.getX());
+                            preparedStatement.addBatch();
+                        }
+
+                        preparedStatement.executeBatch();
+                    }
                 }
+
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
+        } catch (SQLException e) {
+            byClass.values().forEach(failed -> failed.forEach(save -> save.getY().markDirty()));
+            throw new IllegalStateException("Failed to save batch of attributes", e);
+        }
+    }
 
-            preparedStatement.executeUpdate();
-        } catch (SQLException | IllegalAccessException e) {
-            e.printStackTrace();
+    private Object getSaveId(UUID player, Attribute<?> attribute) {
+        if (attribute.isShared()) {
+            return this.getSharedAttributeId(attribute);
         }
+
+        return player;
     }
 
+    /**
+     *
+     * Registers the attribute and parses its {@link Queries}. Each query can use either named placeholders
+     * (<code>:kills</code> for the field or column <code>kills</code>, and <code>:id</code> for the id of the attribute)
+     * or positional <code>?</code> parameters for which the column is inferred from the query.
+     * <br>
+     * If any parameter cannot be matched to a field the attribute is not registered
+     *
+     * @param attribute The attribute class
+     * @throws IllegalArgumentException If a parameter of the queries cannot be matched to a field
+     */
     @Override
-    public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+    public void registerAttribute(Class<? extends Attribute<?>> attribute) throws IllegalArgumentException {
         Map<Field, FieldData> fieldData = this.getFieldData(attribute);
         Queries queries = attribute.getAnnotation(Queries.class);
 
@@ -179,20 +337,99 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
             return;
         }
 
-        Map<String, Field[]> fieldsPositions = ImmutableMap.of(
-                queries.loadQuery(), this.getFieldPositions(queries.loadQuery(), fieldData),
-                queries.updateQuery(), this.getFieldPositions(queries.updateQuery(), fieldData)
-        );
+        Map<String, SQLTemplate> templates = Maps.newHashMap();
+        templates.put(queries.loadQuery(), SQLTemplate.parse(queries.loadQuery()));
+        templates.put(queries.updateQuery(), SQLTemplate.parse(queries.updateQuery()));
+
+        Map<String, Field[]> fieldsPositions = Maps.newHashMap();
+        SQLAttributeBinder binder;
+
+        try {
+            binder = this.createBinder(queries, fieldData, templates, fieldsPositions);
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cannot register the SQL attribute " + attribute.getSimpleName(), e);
+        }
 
         super.registerAttribute(attribute);
-        this.registeredSqlAttributeData.put(attribute, new SQLAttributeData(queries, fieldData, fieldsPositions));
+        this.registeredSqlAttributeData.put(attribute,
+                new SQLAttributeData(queries, fieldData, fieldsPositions, templates, binder));
+    }
+
+    private SQLAttributeBinder createBinder(Queries queries, Map<Field, FieldData> fieldData,
+                                            Map<String, SQLTemplate> templates,
+                                            Map<String, Field[]> fieldsPositions) throws IllegalAccessException {
+        Map<Field, ColumnAccessor> accessors = Maps.newHashMap();
+        Map<String, FieldData> columns = Maps.newHashMap();
+        Map<String, FieldData> fields = Maps.newHashMap();
+
+        for (FieldData data : fieldData.values()) {
+            accessors.put(data.getField(), new ColumnAccessor(data.getField(), data.getName(), data.getSaveHandler()));
+            columns.put(data.getName().toLowerCase(Locale.ROOT), data);
+            fields.put(data.getField().getName(), data);
+        }
+
+        Map<String, ColumnAccessor[]> parameters = Maps.newHashMap();
+
+        for (SQLTemplate template : templates.values()) {
+            List<SQLTemplate.Parameter> templateParameters = template.getParameters();
+            ColumnAccessor[] positions = new ColumnAccessor[templateParameters.size()];
+            Field[] positionFields = new Field[templateParameters.size()];
+
+            for (int i = 0; i < positions.length; i++) {
+                FieldData data = this.resolveParameter(queries, template, i, columns, fields);
+
+                if (data != null) {
+                    positions[i] = accessors.get(data.getField());
+                    positionFields[i] = data.getField();
+                }
+            }
+
+            parameters.put(template.getQuery(), positions);
+            fieldsPositions.put(template.getQuery(), positionFields);
+        }
+
+        return new SQLAttributeBinder(accessors.values().toArray(new ColumnAccessor[0]), parameters);
+    }
+
+    private FieldData resolveParameter(Queries queries, SQLTemplate template, int index,
+                                       Map<String, FieldData> columns, Map<String, FieldData> fields) {
+        SQLTemplate.Parameter parameter = template.getParameters().get(index);
+
+        if (parameter.isNamed()) {
+            FieldData data = fields.get(parameter.getName());
+
+            if (data == null) {
+                data = columns.get(parameter.getName().toLowerCase(Locale.ROOT));
+            }
+
+            if (data == null && !parameter.getName().equals("id")) {
+                throw new IllegalArgumentException("No field or column named '" + parameter.getName() +
+                        "' for parameter " + (index + 1) + " in query: " + template.getQuery());
+            }
+
+            return data;
+        }
+
+        if (parameter.getColumn() == null) {
+            throw new IllegalArgumentException("Cannot infer the column of parameter " + (index + 1) +
+                    " in query: " + template.getQuery() + ". Use a named placeholder instead i.e. :column");
+        }
+
+        FieldData data = columns.get(parameter.getColumn().toLowerCase(Locale.ROOT));
+
+        if (data == null && !parameter.getColumn().equalsIgnoreCase(queries.idColumn())) {
+            throw new IllegalArgumentException("No field for column '" + parameter.getColumn() +
+                    "' of parameter " + (index + 1) + " in query: " + template.getQuery());
+        }
+
+        return data;
     }
 
     private Map<Field, FieldData> getFieldData(Class<? extends Attribute<?>> attribute) {
         Map<Field, FieldData> fieldData = Maps.newHashMap();
 
         for (Field declaredField : attribute.getDeclaredFields()) {
-            if (Modifier.isTransient(declaredField.getModifiers())) {
+            if (Modifier.isTransient(declaredField.getModifiers()) || Modifier.isStatic(declaredField.getModifiers())) {
                 continue;
             }
 
@@ -217,22 +454,6 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
         return fieldData;
     }
 
-    private Field[] getFieldPositions(String query, Map<Field, FieldData> fieldData) {
-        List<Field> indexes = Lists.newArrayList();
-
-        for (String s : query.split(" ")) {
-            for (Map.Entry<Field, FieldData> fieldStringEntry : fieldData.entrySet()) {
-                FieldData parameter = fieldStringEntry.getValue();
-
-                if (s.equals(parameter.getName()) || s.startsWith(parameter.getName()) || s.endsWith(parameter.getName()) || s.contains(parameter.getName())) {
-                    indexes.add(fieldStringEntry.getKey());
-                }
-            }
-        }
-
-        return indexes.toArray(new Field[0]);
-    }
-
     private String calculateColumnName(Field field) {
         String name = field.getName();
         StringBuilder newName = new StringBuilder();
@@ -255,11 +476,16 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
         private final Queries queries;
         private final Map<Field, FieldData> fieldData;
         private final Map<String, Field[]> fieldsPositions;
+        private final Map<String, SQLTemplate> templates;
+        private final SQLAttributeBinder binder;
 
-        public SQLAttributeData(Queries queries, Map<Field, FieldData> fieldData, Map<String, Field[]> fieldsPositions) {
+        public SQLAttributeData(Queries queries, Map<Field, FieldData> fieldData, Map<String, Field[]> fieldsPositions,
+                                Map<String, SQLTemplate> templates, SQLAttributeBinder binder) {
             this.queries = queries;
             this.fieldData = fieldData;
             this.fieldsPositions = fieldsPositions;
+            this.templates = templates;
+            this.binder = binder;
         }
 
         public Queries getQueries() {
@@ -270,9 +496,34 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
             return this.fieldData;
         }
 
+        /**
+         *
+         * Gets the JDBC SQL for one of the attribute's queries with the named placeholders replaced
+         *
+         * @param query The query from the {@link Queries} annotation
+         * @return The SQL to prepare
+         */
+        public String getSql(String query) {
+            return this.templates.get(query).getSql();
+        }
+
+        /**
+         *
+         * Gets the fields bound to each parameter of the query. A null entry is bound to the id of the attribute
+         *
+         * @return The fields for each query's parameters
+         */
         public Map<String, Field[]> getFieldsPositions() {
             return this.fieldsPositions;
         }
+
+        public SQLAttributeBinder getBinder() {
+            return this.binder;
+        }
+
+        public boolean supportsBatchLoad() {
+            return !this.queries.batchLoadQuery().isEmpty();
+        }
     }
 
     public static class FieldData {
@@ -299,4 +550,146 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
             return this.saveHandler;
         }
     }
+
+    private static final class PendingLoad {
+
+        private final UUID player;
+        private final Class<? extends Attribute<?>> attributeClass;
+        private final Attribute<?> attribute;
+        private final CompletableFuture<Attribute<?>> future = new CompletableFuture<>();
+        private Object id;
+
+        private PendingLoad(UUID player, Class<? extends Attribute<?>> attributeClass, Attribute<?> attribute) {
+            this.player = player;
+            this.attributeClass = attributeClass;
+            this.attribute = attribute;
+        }
+    }
+
+    /**
+     *
+     * Collects the loads requested within the batch window and runs a single
+     * {@link Queries#batchLoadQuery()} per attribute class for all of them
+     *
+     */
+    private final class LoadBatcher {
+
+        private final long windowMillis;
+        private List<PendingLoad> pending = Lists.newArrayList();
+        private boolean scheduled = false;
+
+        private LoadBatcher(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+
+        private CompletableFuture<Attribute<?>> enqueue(PendingLoad load) {
+            synchronized (this) {
+                this.pending.add(load);
+
+                if (!this.scheduled) {
+                    this.scheduled = true;
+                    UtilConcurrency.runLater(this::submitFlush, this.windowMillis);
+                }
+            }
+
+            return load.future;
+        }
+
+        private void submitFlush() {
+            try {
+                UtilConcurrency.IO.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                this.fail(this.takePending(), e);
+            }
+        }
+
+        private synchronized List<PendingLoad> takePending() {
+            List<PendingLoad> loads = this.pending;
+            this.pending = Lists.newArrayList();
+            this.scheduled = false;
+            return loads;
+        }
+
+        private void flush() {
+            List<PendingLoad> loads = this.takePending();
+
+            Map<Class<? extends Attribute<?>>, List<PendingLoad>> byClass = Maps.newHashMap();
+
+            for (PendingLoad load : loads) {
+                byClass.computeIfAbsent(load.attributeClass, ___ -> Lists.newArrayList()).add(load);
+            }
+
+            try (Connection connection = SQLSaveManager.this.database.getConnection()) {
+                for (Map.Entry<Class<? extends Attribute<?>>, List<PendingLoad>> entry : byClass.entrySet()) {
+                    SQLAttributeData sqlAttributeData = SQLSaveManager.this.registeredSqlAttributeData.get(entry.getKey());
+
+                    try {
+                        for (List<PendingLoad> partition : Lists.partition(entry.getValue(), MAX_BATCH_SIZE)) {
+                            this.load(connection, sqlAttributeData, partition);
+                        }
+                    } catch (SQLException | RuntimeException e) {
+                        this.fail(entry.getValue(), e);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                this.fail(loads, e);
+            }
+
+            for (PendingLoad load : loads) {
+                load.future.complete(load.attribute);
+            }
+        }
+
+        /**
+         *
+         * Fails the loads rather than completing them with the default values, which are dirty and would
+         * be saved over the player's data
+         *
+         * @param loads The loads that failed
+         * @param cause The cause
+         */
+        private void fail(List<PendingLoad> loads, Exception cause) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Failed to load a batch of attributes", cause));
+
+            for (PendingLoad load : loads) {
+                load.future.completeExceptionally(cause);
+            }
+        }
+
+        private void load(Connection connection, SQLAttributeData sqlAttributeData,
+                          List<PendingLoad> loads) throws SQLException {
+            Map<String, List<PendingLoad>> byId = Maps.newHashMap();
+
+            for (PendingLoad load : loads) {
+                byId.computeIfAbsent(String.valueOf(load.id), ___ -> Lists.newArrayList()).add(load);
+            }
+
+            String parameters = String.join(", ", Collections.nCopies(byId.size(), "?"));
+            String query = sqlAttributeData.getQueries().batchLoadQuery().replace("%s", parameters);
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                int index = 1;
+
+                for (String id : byId.keySet()) {
+                    preparedStatement.setString(index++, id);
+                }
+
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        List<PendingLoad> matching = byId.get(resultSet.getString(sqlAttributeData.getQueries().idColumn()));
+
+                        if (matching == null) {
+                            continue;
+                        }
+
+                        for (PendingLoad load : matching) {
+                            sqlAttributeData.getBinder().read(
+                                    sqlAttributeData.getQueries().batchLoadQuery(), resultSet, load.attribute);
+                            load.attribute.markClean();
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,314 @@
+package com.envyful.api.player.save.impl;
+
+import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.database.impl.redis.RedisStore;
+import com.envyful.api.player.EnvyPlayer;
+import com.envyful.api.player.PlayerManager;
+import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.player.attribute.PlayerAttribute;
+import com.envyful.api.player.save.SaveManager;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * A {@link SaveManager} that keeps a hot copy of each player's attributes in Redis in front of a durable
+ * save manager (i.e. {@link SQLSaveManager}), so a player moving between servers is loaded from Redis instead of
+ * racing the previous server's logout save to the database.
+ * <br>
+ * Saves are written to Redis straight away and handed to the durable save manager asynchronously.
+ * Loads read Redis first and only fall back to the durable save manager for attributes that aren't cached.
+ * <br>
+ * Each player has an ownership token in Redis naming the server that holds them. A server logging a player in waits
+ * (up to the handoff timeout) for the previous server to release the token after its logout save, so the load
+ * always sees that save. A server that has lost the token (i.e. it was taken over after the timeout) skips its
+ * saves, as the new owner's data is newer. Every key expires after the TTL so a crashed server can't hold a player
+ * forever.
+ * Shared attributes aren't cached in Redis and are always loaded from the durable save manager
+ *
+ * @param <T> The player type
+ */
+public class TieredSaveManager<T> implements SaveManager<T> {
+
+    private static final long HANDOFF_POLL_MILLIS = 50;
+
+    private final PlayerManager<?, ?> playerManager;
+    private final SaveManager<T> delegate;
+    private final RedisStore store;
+    private final String prefix;
+    private final long ttlMillis;
+    private final long handoffTimeoutMillis;
+    private final String token = UUID.randomUUID().toString();
+
+    private final Set<Class<? extends Attribute<?>>> registeredAttributes = ConcurrentHashMap.newKeySet();
+    private final Set<CompletableFuture<Void>> pendingWrites = ConcurrentHashMap.newKeySet();
+
+    public TieredSaveManager(PlayerManager<?, ?> playerManager, SaveManager<T> delegate, RedisStore store,
+                             String prefix) {
+        this(playerManager, delegate, store, prefix, TimeUnit.MINUTES.toMillis(30), TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     *
+     * Creates the save manager
+     *
+     * @param playerManager The player manager
+     * @param delegate The durable save manager
+     * @param store The Redis store
+     * @param prefix The prefix of the Redis keys, shared by every server on the network
+     * @param ttlMillis The time (in milliseconds) the cached attributes and ownership tokens live for
+     * @param handoffTimeoutMillis The maximum time (in milliseconds) to wait for another server to release a player
+     */
+    public TieredSaveManager(PlayerManager<?, ?> playerManager, SaveManager<T> delegate, RedisStore store,
+                             String prefix, long ttlMillis, long handoffTimeoutMillis) {
+        this.playerManager = playerManager;
+        this.delegate = delegate;
+        this.store = store;
+        this.prefix = prefix;
+        this.ttlMillis = ttlMillis;
+        this.handoffTimeoutMillis = handoffTimeoutMillis;
+    }
+
+    public SaveManager<T> getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     *
+     * Gets the number of saves that have been cached in Redis but not yet written by the durable save manager
+     *
+     * @return The number of pending writes
+     */
+    public int getPendingWrites() {
+        return this.pendingWrites.size();
+    }
+
+    @Override
+    public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+        JsonSaveManager.registerTypeAdapter(attribute);
+        this.registeredAttributes.add(attribute);
+        this.delegate.registerAttribute(attribute);
+    }
+
+    @Override
+    public void saveData(UUID uuid, Attribute<?> attribute) {
+        if (!attribute.isShared() && !this.cache(uuid, attribute)) {
+            UtilLogger.logger().ifPresent(logger -> logger.warn("Skipping save of " +
+                    attribute.getClass().getSimpleName() + " for " + uuid + " as another server now owns them"));
+            return;
+        }
+
+        CompletableFuture<Void> write = UtilConcurrency.runAsyncIO(() -> this.delegate.saveData(uuid, attribute));
+
+        this.pendingWrites.add(write);
+        write.whenComplete((unused, throwable) -> this.pendingWrites.remove(write));
+    }
+
+    /**
+     *
+     * Writes the attribute to Redis if this server still owns the player
+     *
+     * @param uuid The player's UUID
+     * @param attribute The attribute
+     * @return false if another server owns the player, true otherwise (including when Redis couldn't be reached)
+     */
+    private boolean cache(UUID uuid, Attribute<?> attribute) {
+        String ownerKey = this.getOwnerKey(uuid);
+
+        try {
+            if (!attribute.isDirty()) {
+                String owner = this.store.get(ownerKey);
+                return owner == null || this.token.equals(owner);
+            }
+
+            return this.store.setIfOwner(ownerKey, this.token, this.getAttributeKey(uuid, attribute.getClass()),
+                    JsonSaveManager.getGson().toJson(attribute, attribute.getClass()), this.ttlMillis);
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error(
+                    "Failed to cache " + attribute.getClass().getSimpleName() + " for " + uuid, e));
+            return true;
+        }
+    }
+
+    /**
+     *
+     * Loads the player as they log in, first taking their ownership token (waiting for the previous server to
+     * release it) so the load sees the previous server's logout save
+     *
+     * @param player The player logging in
+     * @return The future attributes
+     */
+    @Override
+    public CompletableFuture<List<Attribute<?>>> loadData(EnvyPlayer<T> player) {
+        CompletableFuture<Void> acquired = new CompletableFuture<>();
+
+        this.acquire(player.getUuid(), System.currentTimeMillis() + this.handoffTimeoutMillis, acquired);
+        return this.load(player.getUuid(), acquired);
+    }
+
+    /**
+     *
+     * Loads the player's attributes without taking their ownership token, for offline lookups of players that
+     * may be online on another server. The owner key isn't read or written
+     *
+     * @param uuid The player's UUID
+     * @return The future attributes
+     */
+    @Override
+    public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
+        return this.load(uuid, CompletableFuture.completedFuture(null));
+    }
+
+    private CompletableFuture<List<Attribute<?>>> load(UUID uuid, CompletableFuture<Void> ready) {
+        return ready.thenCompose(unused -> UtilConcurrency.composeAsyncIO(
+                () -> CompletableFuture.completedFuture(this.readCached(uuid)))).thenCompose(cached -> {
+            if (cached.size() == this.registeredAttributes.size()) {
+                return CompletableFuture.completedFuture(Lists.newArrayList(cached.values()));
+            }
+
+            return this.delegate.loadData(uuid).thenApply(loaded -> {
+                List<Attribute<?>> attributes = Lists.newArrayList();
+
+                for (Attribute<?> attribute : loaded) {
+                    Attribute<?> newer = cached.remove(attribute.getClass());
+                    attributes.add(newer == null ? attribute : newer);
+                }
+
+                attributes.addAll(cached.values());
+                return attributes;
+            });
+        });
+    }
+
+    /**
+     *
+     * Tries to take the player's ownership token on the {@link UtilConcurrency#IO} executor. While another server
+     * holds it the attempt is retried later through the {@link UtilConcurrency#SCHEDULER}, so no thread is held
+     * while waiting, until the deadline passes and the token is taken over
+     *
+     * @param uuid The player's UUID
+     * @param deadline The time (in epoch milliseconds) to take the token over at
+     * @param acquired The future completed once this server owns the player
+     */
+    private void acquire(UUID uuid, long deadline, CompletableFuture<Void> acquired) {
+        try {
+            UtilConcurrency.IO.execute(() -> {
+                if (this.tryAcquire(uuid, deadline)) {
+                    acquired.complete(null);
+                } else {
+                    UtilConcurrency.runLater(() -> this.acquire(uuid, deadline, acquired), HANDOFF_POLL_MILLIS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            acquired.completeExceptionally(e);
+        }
+    }
+
+    private boolean tryAcquire(UUID uuid, long deadline) {
+        String ownerKey = this.getOwnerKey(uuid);
+
+        try {
+            if (this.store.setIfAbsent(ownerKey, this.token, this.ttlMillis)
+                    || this.token.equals(this.store.get(ownerKey))) {
+                return true;
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                UtilLogger.logger().ifPresent(logger -> logger.warn(
+                        "Timed out waiting for another server to release " + uuid + ", taking ownership"));
+                this.store.set(ownerKey, this.token, this.ttlMillis);
+                return true;
+            }
+
+            return false;
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Failed to take ownership of " + uuid, e));
+            return true;
+        }
+    }
+
+    private Map<Class<?>, Attribute<?>> readCached(UUID uuid) {
+        Map<Class<?>, Attribute<?>> cached = Maps.newHashMap();
+
+        for (Class<? extends Attribute<?>> attributeClass : this.registeredAttributes) {
+            try {
+                String json = this.store.get(this.getAttributeKey(uuid, attributeClass));
+
+                if (json == null) {
+                    continue;
+                }
+
+                Attribute<?> attribute = JsonSaveManager.getGson().fromJson(json, attributeClass);
+
+                if (attribute == null) {
+                    continue;
+                }
+
+                attribute.markClean();
+
+                if (attribute instanceof PlayerAttribute && this.playerManager != null) {
+                    ((PlayerAttribute) attribute).setParent(this.playerManager.getPlayer(uuid));
+                }
+
+                cached.put(attributeClass, attribute);
+            } catch (Exception e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error(
+                        "Failed to read cached " + attributeClass.getSimpleName() + " for " + uuid, e));
+            }
+        }
+
+        return cached;
+    }
+
+    @Override
+    public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass, B id) {
+        return this.delegate.loadAttribute(attributeClass, id);
+    }
+
+    /**
+     *
+     * Releases the player's ownership token so the next server can load them, called after their logout save
+     *
+     * @param uuid The player's UUID
+     */
+    @Override
+    public void release(UUID uuid) {
+        try {
+            this.store.compareAndDelete(this.getOwnerKey(uuid), this.token);
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Failed to release ownership of " + uuid, e));
+        }
+
+        this.delegate.release(uuid);
+    }
+
+    @Override
+    public void flush() {
+        CompletableFuture.allOf(this.pendingWrites.toArray(new CompletableFuture[0])).join();
+        this.delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        CompletableFuture.allOf(this.pendingWrites.toArray(new CompletableFuture[0])).join();
+        this.delegate.close();
+    }
+
+    private String getOwnerKey(UUID uuid) {
+        return this.prefix + ":" + uuid + ":owner";
+    }
+
+    private String getAttributeKey(UUID uuid, Class<?> attributeClass) {
+        return this.prefix + ":" + uuid + ":" + attributeClass.getName();
+    }
+}
@@ -0,0 +1,172 @@
+package com.envyful.api.player.save.impl;
+
+import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.player.save.SaveManager;
+import com.envyful.api.type.Pair;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ *
+ * A {@link SaveManager} that wraps another save manager and delays writes so that repeated saves of the same
+ * attribute are coalesced into one. Queued saves are handed to {@link SaveManager#saveData(Map)} of the wrapped
+ * save manager together every flush interval.
+ * <br>
+ * If the queue reaches the maximum size the thread queueing the save will flush the queue itself, and
+ * {@link #close()} should be called on shutdown to make sure nothing queued is lost.
+ * If the wrapped save manager fails to write a flush the attributes are marked dirty and queued again
+ *
+ * @param <T> The player type
+ */
+public class WriteBehindSaveManager<T> implements SaveManager<T> {
+
+    private final SaveManager<T> delegate;
+    private final int maxPendingSaves;
+    private final Map<Object, Pair<UUID, Attribute<?>>> pendingSaves = Maps.newConcurrentMap();
+    private final Object flushLock = new Object();
+    private final ScheduledFuture<?> flushTask;
+
+    public WriteBehindSaveManager(SaveManager<T> delegate) {
+        this(delegate, TimeUnit.SECONDS.toMillis(30), 5000);
+    }
+
+    public WriteBehindSaveManager(SaveManager<T> delegate, long flushIntervalMillis, int maxPendingSaves) {
+        this.delegate = delegate;
+        this.maxPendingSaves = maxPendingSaves;
+
+        this.flushTask = UtilConcurrency.runRepeatingTaskIO(() -> this.flush(uuid -> true),
+                flushIntervalMillis, flushIntervalMillis);
+    }
+
+    public SaveManager<T> getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     *
+     * Gets the number of saves waiting to be written
+     *
+     * @return The number of queued saves
+     */
+    public int getPendingSaves() {
+        return this.pendingSaves.size();
+    }
+
+    @Override
+    public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+        this.delegate.registerAttribute(attribute);
+    }
+
+    @Override
+    public void saveData(UUID uuid, Attribute<?> attribute) {
+        this.pendingSaves.put(this.getKey(uuid, attribute), Pair.of(uuid, attribute));
+
+        if (this.pendingSaves.size() >= this.maxPendingSaves) {
+            this.flush(other -> true);
+        }
+    }
+
+    private Object getKey(UUID uuid, Attribute<?> attribute) {
+        if (attribute.isShared()) {
+            return attribute;
+        }
+
+        return Pair.of(uuid, attribute.getClass());
+    }
+
+    @Override
+    public void saveData(Map<UUID, List<Attribute<?>>> attributes) {
+        for (Map.Entry<UUID, List<Attribute<?>>> entry : attributes.entrySet()) {
+            for (Attribute<?> attribute : entry.getValue()) {
+                this.saveData(entry.getKey(), attribute);
+            }
+        }
+    }
+
+    @Override
+    public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass, B id) {
+        if (id instanceof UUID) {
+            this.flush((UUID) id);
+        }
+
+        return this.delegate.loadAttribute(attributeClass, id);
+    }
+
+    @Override
+    public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
+        this.flush(uuid);
+        return this.delegate.loadData(uuid);
+    }
+
+    @Override
+    public void flush() {
+        this.flush(uuid -> true);
+        this.delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        this.flush(uuid -> true);
+        this.flushTask.cancel(false);
+        this.delegate.close();
+    }
+
+    @Override
+    public void release(UUID uuid) {
+        this.delegate.release(uuid);
+    }
+
+    private void flush(UUID uuid) {
+        this.flush(other -> Objects.equals(uuid, other));
+    }
+
+    private void flush(Predicate<UUID> filter) {
+        synchronized (this.flushLock) {
+            Map<UUID, List<Attribute<?>>> batch = Maps.newHashMap();
+
+            for (Map.Entry<Object, Pair<UUID, Attribute<?>>> entry : this.pendingSaves.entrySet()) {
+                if (!filter.test(entry.getValue().getX())) {
+                    continue;
+                }
+
+                Pair<UUID, Attribute<?>> save = this.pendingSaves.remove(entry.getKey());
+
+                if (save != null) {
+                    batch.computeIfAbsent(save.getX(), ___ -> Lists.newArrayList()).add(save.getY());
+                }
+            }
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                this.delegate.saveData(batch);
+            } catch (Exception e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error("Error writing queued saves", e));
+                this.requeue(batch);
+            }
+        }
+    }
+
+    private void requeue(Map<UUID, List<Attribute<?>>> failed) {
+        for (Map.Entry<UUID, List<Attribute<?>>> entry : failed.entrySet()) {
+            for (Attribute<?> attribute : entry.getValue()) {
+                attribute.markDirty();
+                this.pendingSaves.putIfAbsent(this.getKey(entry.getKey(), attribute),
+                        Pair.of(entry.getKey(), attribute));
+            }
+        }
+    }
+}
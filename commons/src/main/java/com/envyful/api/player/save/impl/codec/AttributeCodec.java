@@ -0,0 +1,29 @@
+package com.envyful.api.player.save.impl.codec;
+
+import com.google.gson.JsonElement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ *
+ * Converts the JSON tree of an attribute to and from the bytes stored on disk.
+ * The stream passed to a codec is positioned after the file header and must not be closed by the codec
+ *
+ */
+public interface AttributeCodec {
+
+    /**
+     *
+     * The unique id of this codec that is written in the header of every file it writes
+     *
+     * @return The codec id
+     */
+    byte getId();
+
+    void write(JsonElement element, OutputStream outputStream) throws IOException;
+
+    JsonElement read(InputStream inputStream) throws IOException;
+
+}
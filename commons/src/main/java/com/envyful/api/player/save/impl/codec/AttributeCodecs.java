@@ -0,0 +1,203 @@
+package com.envyful.api.player.save.impl.codec;
+
+import com.google.common.collect.Maps;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ *
+ * The built-in {@link AttributeCodec}s and the methods for reading and writing attribute files.
+ * <br>
+ * Every file starts with a header of the {@link #MAGIC} bytes, the format version, and the id of the codec that
+ * wrote it, so files can be read whichever codec is currently configured. Files without the header are read as
+ * plain JSON so that the original <code>.json</code> files can still be loaded
+ *
+ */
+public class AttributeCodecs {
+
+    public static final int MAGIC = 0x454E5659;
+    public static final byte FORMAT_VERSION = 1;
+
+    public static final AttributeCodec JSON = new JsonAttributeCodec();
+    public static final AttributeCodec GZIP_JSON = new GzipAttributeCodec();
+    public static final AttributeCodec BINARY = new BinaryAttributeCodec();
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final Map<Byte, AttributeCodec> CODECS = Maps.newConcurrentMap();
+
+    static {
+        register(JSON);
+        register(GZIP_JSON);
+        register(BINARY);
+    }
+
+    private AttributeCodecs() {
+        throw new UnsupportedOperationException("Static utility");
+    }
+
+    /**
+     *
+     * Registers a codec so that files written by it can be read
+     *
+     * @param codec The codec
+     */
+    public static void register(AttributeCodec codec) {
+        CODECS.put(codec.getId(), codec);
+    }
+
+    public static AttributeCodec getCodec(byte id) {
+        return CODECS.get(id);
+    }
+
+    /**
+     *
+     * Writes the element to a temporary file next to the path, forces it to disk, and then atomically moves it
+     * over the path, so a crash part way through a write never leaves a partially written file
+     *
+     * @param path The path to write to
+     * @param codec The codec to write with
+     * @param element The element being written
+     * @throws IOException If there was an error writing the file
+     */
+    public static void write(Path path, AttributeCodec codec, JsonElement element) throws IOException {
+        writeAtomically(path, outputStream -> {
+            DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+
+            dataOutputStream.writeInt(MAGIC);
+            dataOutputStream.writeByte(FORMAT_VERSION);
+            dataOutputStream.writeByte(codec.getId());
+            codec.write(element, dataOutputStream);
+            dataOutputStream.flush();
+        });
+    }
+
+    /**
+     *
+     * Writes the element as plain JSON without a header, in the same atomic way as
+     * {@link #write(Path, AttributeCodec, JsonElement)}
+     *
+     * @param path The path to write to
+     * @param gson The Gson instance used to format the JSON
+     * @param element The element being written
+     * @throws IOException If there was an error writing the file
+     */
+    public static void writeJson(Path path, Gson gson, JsonElement element) throws IOException {
+        writeAtomically(path, outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            gson.toJson(element, writer);
+            writer.flush();
+        });
+    }
+
+    private static void writeAtomically(Path path, StreamWriter streamWriter) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+
+                streamWriter.write(outputStream);
+                outputStream.flush();
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     *
+     * Reads the element from the file using the codec named in its header
+     *
+     * @param path The path to read
+     * @return The element, or null if the file is empty
+     * @throws IOException If there was an error reading the file, or it was written by an unknown codec
+     */
+    public static JsonElement read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            InputStream inputStream = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+            inputStream.mark(6);
+
+            DataInputStream dataInputStream = new DataInputStream(inputStream);
+            byte[] header = new byte[6];
+            int read = 0;
+
+            while (read < header.length) {
+                int next = dataInputStream.read(header, read, header.length - read);
+
+                if (next == -1) {
+                    break;
+                }
+
+                read += next;
+            }
+
+            if (read < header.length || readInt(header) != MAGIC) {
+                inputStream.reset();
+                return readLegacy(inputStream);
+            }
+
+            if (header[4] > FORMAT_VERSION) {
+                throw new IOException("Unsupported attribute file version " + header[4] + " in " + path);
+            }
+
+            AttributeCodec codec = getCodec(header[5]);
+
+            if (codec == null) {
+                throw new IOException("Unknown attribute codec " + header[5] + " in " + path);
+            }
+
+            return codec.read(dataInputStream);
+        }
+    }
+
+    private static JsonElement readLegacy(InputStream inputStream) {
+        JsonElement element = JsonParser.parseReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+
+        return element;
+    }
+
+    private static int readInt(byte[] bytes) {
+        return ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+    }
+
+    private interface StreamWriter {
+
+        void write(OutputStream outputStream) throws IOException;
+
+    }
+}
@@ -0,0 +1,207 @@
+package com.envyful.api.player.save.impl.codec;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ *
+ * Stores the JSON tree of an attribute as tagged binary values. Numbers are stored in their binary form
+ * (variable length for integers) and strings are length prefixed so nothing needs to be quoted or escaped
+ *
+ */
+public class BinaryAttributeCodec implements AttributeCodec {
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int DECIMAL = 6;
+    private static final int STRING = 7;
+    private static final int ARRAY = 8;
+    private static final int OBJECT = 9;
+
+    @Override
+    public byte getId() {
+        return 3;
+    }
+
+    @Override
+    public void write(JsonElement element, OutputStream outputStream) throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        this.writeElement(element, dataOutputStream);
+        dataOutputStream.flush();
+    }
+
+    private void writeElement(JsonElement element, DataOutputStream out) throws IOException {
+        if (element == null || element.isJsonNull()) {
+            out.writeByte(NULL);
+        } else if (element.isJsonObject()) {
+            out.writeByte(OBJECT);
+            this.writeVarInt(element.getAsJsonObject().size(), out);
+
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                this.writeString(entry.getKey(), out);
+                this.writeElement(entry.getValue(), out);
+            }
+        } else if (element.isJsonArray()) {
+            out.writeByte(ARRAY);
+            this.writeVarInt(element.getAsJsonArray().size(), out);
+
+            for (JsonElement child : element.getAsJsonArray()) {
+                this.writeElement(child, out);
+            }
+        } else {
+            this.writePrimitive(element.getAsJsonPrimitive(), out);
+        }
+    }
+
+    private void writePrimitive(JsonPrimitive primitive, DataOutputStream out) throws IOException {
+        if (primitive.isBoolean()) {
+            out.writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+        } else if (primitive.isString()) {
+            out.writeByte(STRING);
+            this.writeString(primitive.getAsString(), out);
+        } else {
+            Number number = primitive.getAsNumber();
+
+            if (number instanceof Integer || number instanceof Short || number instanceof Byte) {
+                out.writeByte(INT);
+                this.writeVarLong(number.intValue(), out);
+            } else if (number instanceof Long) {
+                out.writeByte(LONG);
+                this.writeVarLong(number.longValue(), out);
+            } else if (number instanceof Double || number instanceof Float) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(number.doubleValue());
+            } else {
+                out.writeByte(DECIMAL);
+                this.writeString(number.toString(), out);
+            }
+        }
+    }
+
+    private void writeString(String value, DataOutputStream out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeVarInt(bytes.length, out);
+        out.write(bytes);
+    }
+
+    private void writeVarInt(int value, DataOutputStream out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte(value);
+    }
+
+    private void writeVarLong(long value, DataOutputStream out) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+
+        out.writeByte((int) zigZag);
+    }
+
+    @Override
+    public JsonElement read(InputStream inputStream) throws IOException {
+        return this.readElement(new DataInputStream(inputStream));
+    }
+
+    private JsonElement readElement(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+
+        switch (tag) {
+            case NULL:
+                return JsonNull.INSTANCE;
+            case TRUE:
+                return new JsonPrimitive(true);
+            case FALSE:
+                return new JsonPrimitive(false);
+            case INT:
+                return new JsonPrimitive((int) this.readVarLong(in));
+            case LONG:
+                return new JsonPrimitive(this.readVarLong(in));
+            case DOUBLE:
+                return new JsonPrimitive(in.readDouble());
+            case DECIMAL:
+                return new JsonPrimitive(new BigDecimal(this.readString(in)));
+            case STRING:
+                return new JsonPrimitive(this.readString(in));
+            case ARRAY:
+                int length = this.readVarInt(in);
+                JsonArray array = new JsonArray(length);
+
+                for (int i = 0; i < length; i++) {
+                    array.add(this.readElement(in));
+                }
+
+                return array;
+            case OBJECT:
+                int size = this.readVarInt(in);
+                JsonObject object = new JsonObject();
+
+                for (int i = 0; i < size; i++) {
+                    String key = this.readString(in);
+                    object.add(key, this.readElement(in));
+                }
+
+                return object;
+            default:
+                throw new IOException("Unknown binary tag " + tag);
+        }
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[this.readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("VarInt is too long");
+    }
+
+    private long readVarLong(DataInputStream in) throws IOException {
+        long zigZag = 0;
+
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+
+        throw new IOException("VarLong is too long");
+    }
+}
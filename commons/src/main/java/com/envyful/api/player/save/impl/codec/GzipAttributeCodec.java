@@ -0,0 +1,36 @@
+package com.envyful.api.player.save.impl.codec;
+
+import com.google.gson.JsonElement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ *
+ * Stores attributes as gzip compressed compact JSON
+ *
+ */
+public class GzipAttributeCodec implements AttributeCodec {
+
+    private final JsonAttributeCodec json = new JsonAttributeCodec();
+
+    @Override
+    public byte getId() {
+        return 2;
+    }
+
+    @Override
+    public void write(JsonElement element, OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+        this.json.write(element, gzipOutputStream);
+        gzipOutputStream.finish();
+    }
+
+    @Override
+    public JsonElement read(InputStream inputStream) throws IOException {
+        return this.json.read(new GZIPInputStream(inputStream, 8192));
+    }
+}
@@ -0,0 +1,40 @@
+package com.envyful.api.player.save.impl.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * Stores attributes as compact (not pretty printed) UTF-8 JSON
+ *
+ */
+public class JsonAttributeCodec implements AttributeCodec {
+
+    private static final Gson COMPACT_GSON = new Gson();
+
+    @Override
+    public byte getId() {
+        return 1;
+    }
+
+    @Override
+    public void write(JsonElement element, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        COMPACT_GSON.toJson(element, writer);
+        writer.flush();
+    }
+
+    @Override
+    public JsonElement read(InputStream inputStream) throws IOException {
+        return JsonParser.parseReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,606 @@
+package com.envyful.api.player.save.impl.log;
+
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.player.save.impl.codec.AttributeCodec;
+import com.envyful.api.player.save.impl.codec.AttributeCodecs;
+import com.google.common.collect.Maps;
+import com.google.gson.JsonElement;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ *
+ * A single file, append only, key value store for attribute data.
+ * <br>
+ * Every write appends a record of <code>[length][crc32][body]</code> to the end of the file and updates an in-memory
+ * index of where the latest record for each (attribute, id) key is. Reads go through a memory mapping of the file.
+ * When the file is opened the records are scanned to rebuild the index, and anything after the last record
+ * with a valid checksum (i.e. a write interrupted by a crash) is truncated. Before truncating, the whole file is
+ * copied to <code>&lt;file&gt;.corrupt-&lt;time&gt;</code> and a warning is logged, so records after a corrupt
+ * one can still be recovered by hand.
+ * <br>
+ * Overwritten and deleted records are left in the file until {@link #compact()} rewrites it with only the latest
+ * record of each key
+ *
+ */
+public class AttributeLog implements Closeable {
+
+    private static final int MAGIC = 0x454E564C;
+    private static final byte VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 5;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int REMAP_THRESHOLD = 4 * 1024 * 1024;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+        }
+
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Path path;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private Map<Key, Location> index = Maps.newHashMap();
+    private volatile long writePosition;
+    private long liveBytes;
+
+    public AttributeLog(Path path) throws IOException {
+        this.path = path;
+        this.open();
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(this.path.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        if (this.channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).put(VERSION);
+            header.flip();
+            this.channel.write(header, 0);
+        }
+
+        this.recover();
+        this.remap();
+    }
+
+    private void recover() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        this.channel.read(header, 0);
+        header.flip();
+
+        if (header.remaining() < FILE_HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException(this.path + " is not an attribute log");
+        }
+
+        if (header.get() > VERSION) {
+            throw new IOException("Unsupported attribute log version in " + this.path);
+        }
+
+        Map<Key, Location> index = Maps.newHashMap();
+        long position = FILE_HEADER_SIZE;
+        long size = this.channel.size();
+        long liveBytes = 0;
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+
+        while (position + RECORD_HEADER_SIZE <= size) {
+            recordHeader.clear();
+            this.readFully(recordHeader, position);
+            recordHeader.flip();
+
+            int length = recordHeader.getInt();
+            int crc = recordHeader.getInt();
+
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            this.readFully(body, position + RECORD_HEADER_SIZE);
+
+            if (this.checksum(body.array()) != crc) {
+                break;
+            }
+
+            Record record = Record.decode(body.array());
+            Location previous;
+
+            if (record.type == PUT) {
+                previous = index.put(record.key, new Location(position, length));
+                liveBytes += RECORD_HEADER_SIZE + length;
+            } else {
+                previous = index.remove(record.key);
+            }
+
+            if (previous != null) {
+                liveBytes -= RECORD_HEADER_SIZE + previous.length;
+            }
+
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            Path backup = this.path.resolveSibling(this.path.getFileName() + ".corrupt-" + System.currentTimeMillis());
+            long validBytes = position;
+
+            Files.copy(this.path, backup, StandardCopyOption.REPLACE_EXISTING);
+            UtilLogger.logger().ifPresent(logger -> logger.warn("Truncated " + (size - validBytes)
+                    + " bytes after the last valid record of " + this.path + ", the original was copied to " + backup));
+            this.channel.truncate(position);
+        }
+
+        this.index = index;
+        this.liveBytes = liveBytes;
+        this.writePosition = position;
+    }
+
+    private void remap() throws IOException {
+        MappedByteBuffer previous = this.mapped;
+
+        if (this.writePosition > Integer.MAX_VALUE) {
+            this.mapped = null;
+        } else {
+            this.mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.writePosition);
+        }
+
+        unmap(previous);
+    }
+
+    /**
+     *
+     * Gets the latest value written for the key
+     *
+     * @param attribute The attribute the value is for
+     * @param id The id the value is for
+     * @return The value, or null if there is none
+     * @throws IOException If the record could not be read or failed its checksum
+     */
+    public JsonElement get(String attribute, String id) throws IOException {
+        this.lock.readLock().lock();
+
+        try {
+            Location location = this.index.get(new Key(attribute, id));
+
+            if (location == null) {
+                return null;
+            }
+
+            byte[] body = this.readBody(location);
+            Record record = Record.decode(body);
+            AttributeCodec codec = AttributeCodecs.getCodec(record.codec);
+
+            if (codec == null) {
+                throw new IOException("Unknown attribute codec " + record.codec + " for " + attribute + " " + id);
+            }
+
+            return codec.read(new ByteArrayInputStream(body, record.valueOffset, body.length - record.valueOffset));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private byte[] readBody(Location location) throws IOException {
+        byte[] body = new byte[location.length];
+        long bodyPosition = location.position + RECORD_HEADER_SIZE;
+        MappedByteBuffer mapped = this.mapped;
+        int crc;
+
+        if (mapped != null && bodyPosition + location.length <= mapped.limit()) {
+            ByteBuffer view = mapped.duplicate();
+            view.position((int) location.position + 4);
+            crc = view.getInt();
+            view.get(body);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            this.readFully(header, location.position);
+            header.flip();
+            header.getInt();
+            crc = header.getInt();
+            this.readFully(ByteBuffer.wrap(body), bodyPosition);
+        }
+
+        if (this.checksum(body) != crc) {
+            throw new IOException("Checksum mismatch for record at " + location.position + " in " + this.path);
+        }
+
+        return body;
+    }
+
+    /**
+     *
+     * Appends the value for the key. The write is not forced to disk until {@link #sync()} is called
+     *
+     * @param attribute The attribute the value is for
+     * @param id The id the value is for
+     * @param codec The codec used to encode the value
+     * @param element The value
+     * @throws IOException If the record could not be written
+     */
+    public void put(String attribute, String id, AttributeCodec codec, JsonElement element) throws IOException {
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        codec.write(element, value);
+        this.append(new Record(PUT, codec.getId(), new Key(attribute, id)), value.toByteArray());
+    }
+
+    /**
+     *
+     * Removes the value for the key
+     *
+     * @param attribute The attribute the value is for
+     * @param id The id the value is for
+     * @throws IOException If the record could not be written
+     */
+    public void delete(String attribute, String id) throws IOException {
+        this.append(new Record(DELETE, (byte) 0, new Key(attribute, id)), new byte[0]);
+    }
+
+    private void append(Record record, byte[] value) throws IOException {
+        byte[] body = record.encode(value);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + body.length);
+
+        buffer.putInt(body.length).putInt(this.checksum(body)).put(body);
+        buffer.flip();
+
+        this.lock.writeLock().lock();
+
+        try {
+            long position = this.writePosition;
+
+            while (buffer.hasRemaining()) {
+                position += this.channel.write(buffer, position);
+            }
+
+            Location previous;
+
+            if (record.type == PUT) {
+                previous = this.index.put(record.key, new Location(this.writePosition, body.length));
+                this.liveBytes += RECORD_HEADER_SIZE + body.length;
+            } else {
+                previous = this.index.remove(record.key);
+            }
+
+            if (previous != null) {
+                this.liveBytes -= RECORD_HEADER_SIZE + previous.length;
+            }
+
+            this.writePosition = position;
+
+            if (this.mapped == null || this.writePosition - this.mapped.limit() > REMAP_THRESHOLD) {
+                this.remap();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Forces all written records to disk
+     *
+     * @throws IOException If the channel could not be forced
+     */
+    public void sync() throws IOException {
+        this.lock.readLock().lock();
+
+        try {
+            this.channel.force(false);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Gets the fraction of the file taken up by records that have been overwritten or deleted
+     *
+     * @return The fraction of the file that is garbage
+     */
+    public double getGarbageRatio() {
+        this.lock.readLock().lock();
+
+        try {
+            long records = this.writePosition - FILE_HEADER_SIZE;
+            return records == 0 ? 0 : (double) (records - this.liveBytes) / records;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public long getSize() {
+        return this.writePosition;
+    }
+
+    public int getKeyCount() {
+        this.lock.readLock().lock();
+
+        try {
+            return this.index.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Compacts the file if the garbage is more than the given fraction of it and the file is at least
+     * the given size
+     *
+     * @param garbageRatio The minimum fraction of the file that must be garbage
+     * @param minimumSize The minimum size (in bytes) of the file
+     * @return true if the file was compacted
+     * @throws IOException If there was an error compacting the file
+     */
+    public boolean compactIfNeeded(double garbageRatio, long minimumSize) throws IOException {
+        if (this.getSize() < minimumSize || this.getGarbageRatio() < garbageRatio) {
+            return false;
+        }
+
+        return this.compact();
+    }
+
+    /**
+     *
+     * Rewrites the file with only the latest record for each key.
+     * The new file is written next to the log, forced to disk, and checked by opening it before it's moved over
+     * the log. The log is only replaced once its memory mapping has been released, and if the new file can't
+     * be moved into place the original is opened again so the log can still be used
+     *
+     * @return true if the file was compacted, false if the log is closed or its mapping couldn't be released
+     * @throws IOException If there was an error compacting the file
+     */
+    public boolean compact() throws IOException {
+        this.lock.writeLock().lock();
+
+        try {
+            if (!this.channel.isOpen()) {
+                return false;
+            }
+
+            Path compacted = this.path.resolveSibling(this.path.getFileName() + ".compact");
+
+            try {
+                this.writeCompacted(compacted);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(compacted);
+                throw e;
+            }
+
+            if (!unmap(this.mapped)) {
+                Files.deleteIfExists(compacted);
+                return false;
+            }
+
+            this.mapped = null;
+            this.channel.close();
+
+            try {
+                try {
+                    Files.move(compacted, this.path, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(compacted, this.path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException | RuntimeException e) {
+                try {
+                    this.open();
+                    Files.deleteIfExists(compacted);
+                } catch (IOException reopenException) {
+                    e.addSuppressed(reopenException);
+                }
+
+                throw e;
+            }
+
+            this.open();
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void writeCompacted(Path compacted) throws IOException {
+        try (FileChannel output = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).put(VERSION);
+            header.flip();
+            output.write(header);
+
+            for (Location location : this.index.values()) {
+                ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + location.length);
+                this.readFully(record, location.position);
+                record.flip();
+
+                while (record.hasRemaining()) {
+                    output.write(record);
+                }
+            }
+
+            output.force(true);
+        }
+
+        try (AttributeLog check = new AttributeLog(compacted)) {
+            if (check.getKeyCount() != this.index.size()) {
+                throw new IOException("Compacted log " + compacted + " has " + check.getKeyCount() +
+                        " keys instead of " + this.index.size());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+
+        try {
+            if (!this.channel.isOpen()) {
+                return;
+            }
+
+            this.channel.force(true);
+            this.channel.close();
+            unmap(this.mapped);
+            this.mapped = null;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * Releases the memory mapping now rather than when the buffer is garbage collected, as a mapped file can't
+     * be replaced on some platforms. Callers must hold the write lock so no reads are using the buffer
+     *
+     * @param buffer The mapped buffer
+     * @return true if the mapping was released (or there was none)
+     */
+    private static boolean unmap(MappedByteBuffer buffer) {
+        if (buffer == null) {
+            return true;
+        }
+
+        if (INVOKE_CLEANER == null) {
+            return false;
+        }
+
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            return true;
+        } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = this.channel.read(buffer, position);
+
+            if (read == -1) {
+                throw new IOException("Unexpected end of " + this.path);
+            }
+
+            position += read;
+        }
+    }
+
+    private int checksum(byte[] body) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(body, 0, body.length);
+        return (int) crc32.getValue();
+    }
+
+    private static final class Key {
+
+        private final String attribute;
+        private final String id;
+
+        private Key(String attribute, String id) {
+            this.attribute = attribute;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return this.attribute.equals(key.attribute) && this.id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.attribute, this.id);
+        }
+    }
+
+    private static final class Location {
+
+        private final long position;
+        private final int length;
+
+        private Location(long position, int length) {
+            this.position = position;
+            this.length = length;
+        }
+    }
+
+    private static final class Record {
+
+        private final byte type;
+        private final byte codec;
+        private final Key key;
+        private int valueOffset;
+
+        private Record(byte type, byte codec, Key key) {
+            this.type = type;
+            this.codec = codec;
+            this.key = key;
+        }
+
+        private byte[] encode(byte[] value) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length + 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeByte(this.type);
+            out.writeByte(this.codec);
+            out.writeUTF(this.key.attribute);
+            out.writeUTF(this.key.id);
+            out.write(value);
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private static Record decode(byte[] body) throws IOException {
+            ByteArrayInputStream bytes = new ByteArrayInputStream(body);
+            DataInputStream in = new DataInputStream(bytes);
+            Record record = new Record(in.readByte(), in.readByte(), new Key(in.readUTF(), in.readUTF()));
+
+            record.valueOffset = body.length - bytes.available();
+            return record;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.envyful.api.player.save.impl.sql;
+
+import com.envyful.api.player.save.VariableSaveHandler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ *
+ * Reads and writes a single field of an attribute to and from JDBC.
+ * The field is accessed using {@link MethodHandle}s typed to the field so that primitive fields
+ * use the primitive JDBC methods (i.e. {@link ResultSet#getInt(int)}) and are never boxed
+ *
+ */
+public class ColumnAccessor {
+
+    private final String name;
+    private final Kind kind;
+    private final VariableSaveHandler<?> saveHandler;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    public ColumnAccessor(Field field, String name, VariableSaveHandler<?> saveHandler) throws IllegalAccessException {
+        field.setAccessible(true);
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        this.name = name;
+        this.saveHandler = saveHandler;
+        this.kind = saveHandler == null ? Kind.of(field.getType()) : Kind.HANDLER;
+        this.getter = lookup.unreflectGetter(field)
+                .asType(MethodType.methodType(this.kind.handleType, Object.class));
+        this.setter = lookup.unreflectSetter(field)
+                .asType(MethodType.methodType(void.class, Object.class, this.kind.handleType));
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     *
+     * Sets the parameter at the given index to the value of the field in the attribute
+     *
+     * @param statement The statement
+     * @param index The parameter index (starting at 1)
+     * @param attribute The attribute
+     * @throws SQLException If the parameter cannot be set
+     */
+    public void bind(PreparedStatement statement, int index, Object attribute) throws SQLException {
+        try {
+            switch (this.kind) {
+                case INT:
+                    statement.setInt(index, (int) this.getter.invokeExact(attribute));
+                    break;
+                case LONG:
+                    statement.setLong(index, (long) this.getter.invokeExact(attribute));
+                    break;
+                case DOUBLE:
+                    statement.setDouble(index, (double) this.getter.invokeExact(attribute));
+                    break;
+                case FLOAT:
+                    statement.setFloat(index, (float) this.getter.invokeExact(attribute));
+                    break;
+                case BOOLEAN:
+                    statement.setBoolean(index, (boolean) this.getter.invokeExact(attribute));
+                    break;
+                case SHORT:
+                    statement.setShort(index, (short) this.getter.invokeExact(attribute));
+                    break;
+                case BYTE:
+                    statement.setByte(index, (byte) this.getter.invokeExact(attribute));
+                    break;
+                case STRING:
+                    statement.setString(index, (String) (Object) this.getter.invokeExact(attribute));
+                    break;
+                case UUID:
+                    Object uuid = (Object) this.getter.invokeExact(attribute);
+
+                    if (uuid == null) {
+                        statement.setNull(index, Types.VARCHAR);
+                    } else {
+                        statement.setString(index, uuid.toString());
+                    }
+                    break;
+                case HANDLER:
+                    statement.setString(index, this.saveHandler.convert((Object) this.getter.invokeExact(attribute)));
+                    break;
+                default:
+                    statement.setObject(index, (Object) this.getter.invokeExact(attribute));
+                    break;
+            }
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new SQLException("Failed to bind column " + this.name, throwable);
+        }
+    }
+
+    /**
+     *
+     * Sets the field in the attribute to the value of the given column in the current row
+     *
+     * @param resultSet The result set
+     * @param column The column index (starting at 1)
+     * @param attribute The attribute
+     * @throws SQLException If the column cannot be read
+     */
+    public void read(ResultSet resultSet, int column, Object attribute) throws SQLException {
+        try {
+            switch (this.kind) {
+                case INT:
+                    this.setter.invokeExact(attribute, resultSet.getInt(column));
+                    break;
+                case LONG:
+                    this.setter.invokeExact(attribute, resultSet.getLong(column));
+                    break;
+                case DOUBLE:
+                    this.setter.invokeExact(attribute, resultSet.getDouble(column));
+                    break;
+                case FLOAT:
+                    this.setter.invokeExact(attribute, resultSet.getFloat(column));
+                    break;
+                case BOOLEAN:
+                    this.setter.invokeExact(attribute, resultSet.getBoolean(column));
+                    break;
+                case SHORT:
+                    this.setter.invokeExact(attribute, resultSet.getShort(column));
+                    break;
+                case BYTE:
+                    this.setter.invokeExact(attribute, resultSet.getByte(column));
+                    break;
+                case STRING:
+                    this.setter.invokeExact(attribute, (Object) resultSet.getString(column));
+                    break;
+                case UUID:
+                    String uuid = resultSet.getString(column);
+                    this.setter.invokeExact(attribute, (Object) (uuid == null ? null : java.util.UUID.fromString(uuid)));
+                    break;
+                case HANDLER:
+                    this.setter.invokeExact(attribute, (Object) this.saveHandler.invert(resultSet.getString(column)));
+                    break;
+                default:
+                    this.setter.invokeExact(attribute, resultSet.getObject(column));
+                    break;
+            }
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new SQLException("Failed to read column " + this.name, throwable);
+        }
+    }
+
+    private enum Kind {
+
+        INT(int.class),
+        LONG(long.class),
+        DOUBLE(double.class),
+        FLOAT(float.class),
+        BOOLEAN(boolean.class),
+        SHORT(short.class),
+        BYTE(byte.class),
+        STRING(Object.class),
+        UUID(Object.class),
+        HANDLER(Object.class),
+        OBJECT(Object.class),
+
+        ;
+
+        private final Class<?> handleType;
+
+        Kind(Class<?> handleType) {
+            this.handleType = handleType;
+        }
+
+        private static Kind of(Class<?> type) {
+            if (type == String.class) {
+                return STRING;
+            }
+
+            if (type == java.util.UUID.class) {
+                return UUID;
+            }
+
+            if (type.isPrimitive()) {
+                for (Kind value : values()) {
+                    if (value.handleType == type) {
+                        return value;
+                    }
+                }
+            }
+
+            return OBJECT;
+        }
+    }
+}
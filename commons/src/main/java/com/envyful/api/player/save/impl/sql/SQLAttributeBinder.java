@@ -0,0 +1,113 @@
+package com.envyful.api.player.save.impl.sql;
+
+import com.google.common.collect.Maps;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ *
+ * Binds an attribute class to and from JDBC using the {@link ColumnAccessor}s created when the attribute
+ * is registered. The result set column of each field is resolved the first time a query is read and then
+ * cached for that query
+ *
+ */
+public class SQLAttributeBinder {
+
+    private final ColumnAccessor[] columns;
+    private final Map<String, ColumnAccessor[]> parameters;
+    private final Map<String, int[]> resultColumns = Maps.newConcurrentMap();
+
+    public SQLAttributeBinder(ColumnAccessor[] columns, Map<String, ColumnAccessor[]> parameters) {
+        this.columns = columns;
+        this.parameters = parameters;
+    }
+
+    /**
+     *
+     * Sets the parameters of the statement for the given query from the attribute
+     *
+     * @param query The query the statement was prepared from
+     * @param statement The statement
+     * @param attribute The attribute
+     * @throws SQLException If a parameter cannot be set
+     */
+    public void bind(String query, PreparedStatement statement, Object attribute) throws SQLException {
+        this.bind(query, statement, attribute, null);
+    }
+
+    /**
+     *
+     * Sets the parameters of the statement for the given query from the attribute.
+     * Parameters without an accessor (i.e. <code>:id</code>) are set to the id of the attribute
+     *
+     * @param query The query the statement was prepared from
+     * @param statement The statement
+     * @param attribute The attribute
+     * @param id The id of the attribute
+     * @throws SQLException If a parameter cannot be set
+     */
+    public void bind(String query, PreparedStatement statement, Object attribute, Object id) throws SQLException {
+        ColumnAccessor[] accessors = this.parameters.get(query);
+
+        for (int i = 0; i < accessors.length; i++) {
+            if (accessors[i] != null) {
+                accessors[i].bind(statement, i + 1, attribute);
+            } else if (id == null) {
+                statement.setNull(i + 1, Types.VARCHAR);
+            } else if (id instanceof UUID) {
+                statement.setString(i + 1, id.toString());
+            } else {
+                statement.setObject(i + 1, id);
+            }
+        }
+    }
+
+    /**
+     *
+     * Reads the current row of the result set into the attribute.
+     * Fields without a matching column are left unchanged
+     *
+     * @param query The query the result set is from
+     * @param resultSet The result set
+     * @param attribute The attribute
+     * @throws SQLException If a column cannot be read
+     */
+    public void read(String query, ResultSet resultSet, Object attribute) throws SQLException {
+        int[] indices = this.resultColumns.get(query);
+
+        if (indices == null) {
+            indices = this.resolveColumns(resultSet);
+            this.resultColumns.put(query, indices);
+        }
+
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] != -1) {
+                this.columns[i].read(resultSet, indices[i], attribute);
+            }
+        }
+    }
+
+    private int[] resolveColumns(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        Map<String, Integer> columnsByName = Maps.newHashMap();
+
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columnsByName.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+
+        int[] indices = new int[this.columns.length];
+
+        for (int i = 0; i < this.columns.length; i++) {
+            indices[i] = columnsByName.getOrDefault(this.columns[i].getName().toLowerCase(Locale.ROOT), -1);
+        }
+
+        return indices;
+    }
+}
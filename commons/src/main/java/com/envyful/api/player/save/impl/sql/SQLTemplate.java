@@ -0,0 +1,324 @@
+package com.envyful.api.player.save.impl.sql;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ *
+ * A parsed SQL query where named placeholders (i.e. <code>:kills</code>) have been replaced by JDBC's positional
+ * <code>?</code> parameters.
+ * <br>
+ * For existing positional <code>?</code> parameters the column they are bound to is inferred from the query where
+ * possible: either the column in a comparison or assignment (<code>kills = ?</code>) or the matching column in the
+ * column list of an <code>INSERT INTO table (a, b) VALUES (?, ?)</code>
+ *
+ */
+public class SQLTemplate {
+
+    private static final Set<String> KEYWORDS = ImmutableSet.of(
+            "SELECT", "FROM", "WHERE", "AND", "OR", "NOT", "SET", "UPDATE", "INSERT", "INTO", "VALUES", "ON",
+            "DUPLICATE", "KEY", "REPLACE", "DELETE", "LIKE", "IS", "NULL", "IN", "LIMIT", "OFFSET", "ORDER", "BY",
+            "GROUP", "HAVING", "AS", "IGNORE", "CONFLICT", "DO", "DISTINCT", "JOIN", "USING"
+    );
+
+    private final String query;
+    private final String sql;
+    private final List<Parameter> parameters;
+
+    private SQLTemplate(String query, String sql, List<Parameter> parameters) {
+        this.query = query;
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     *
+     * Gets the query as it was written
+     *
+     * @return The original query
+     */
+    public String getQuery() {
+        return this.query;
+    }
+
+    /**
+     *
+     * Gets the query with all named placeholders replaced by <code>?</code> ready to be prepared
+     *
+     * @return The JDBC SQL
+     */
+    public String getSql() {
+        return this.sql;
+    }
+
+    /**
+     *
+     * Gets the parameters in the order they appear in the query.
+     * The parameter at index 0 is JDBC parameter 1
+     *
+     * @return The parameters
+     */
+    public List<Parameter> getParameters() {
+        return this.parameters;
+    }
+
+    /**
+     *
+     * Parses the query. Placeholders inside string literals, quoted identifiers, and comments are ignored,
+     * as are PostgreSQL style <code>::type</code> casts
+     *
+     * @param query The query
+     * @return The parsed template
+     */
+    public static SQLTemplate parse(String query) {
+        return new Parser(query).parse();
+    }
+
+    public static class Parameter {
+
+        private final String name;
+        private final String column;
+
+        private Parameter(String name, String column) {
+            this.name = name;
+            this.column = column;
+        }
+
+        /**
+         *
+         * Gets the name of the placeholder
+         *
+         * @return The name, or null if this was a positional parameter
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         *
+         * Gets the column inferred for a positional parameter
+         *
+         * @return The column, or null if it could not be inferred or this is a named parameter
+         */
+        public String getColumn() {
+            return this.column;
+        }
+
+        public boolean isNamed() {
+            return this.name != null;
+        }
+    }
+
+    private static final class Parser {
+
+        private final String query;
+        private final StringBuilder sql = new StringBuilder();
+        private final List<Parameter> parameters = Lists.newArrayList();
+
+        private int position = 0;
+        private int depth = 0;
+
+        private String lastIdentifier = null;
+        private boolean afterOperator = false;
+
+        private boolean afterInto = false;
+        private boolean awaitingColumns = false;
+        private boolean readingColumns = false;
+        private List<String> insertColumns = null;
+        private boolean expectingValues = false;
+        private int valuesDepth = 0;
+        private int valuesIndex = 0;
+
+        private Parser(String query) {
+            this.query = query;
+        }
+
+        private SQLTemplate parse() {
+            while (this.position < this.query.length()) {
+                char c = this.query.charAt(this.position);
+
+                if (c == '\'' || c == '"') {
+                    this.copyQuoted(c);
+                } else if (c == '`') {
+                    int start = this.position + 1;
+                    this.copyQuoted(c);
+                    this.onWord(this.query.substring(start, Math.max(start, this.position - 1)), true);
+                } else if ((c == '-' && this.peek(1) == '-') || c == '#') {
+                    this.copyUntil("\n");
+                } else if (c == '/' && this.peek(1) == '*') {
+                    this.copyUntil("*/");
+                } else if (c == '?') {
+                    this.sql.append('?');
+                    this.position++;
+                    this.onParameter(null);
+                } else if (c == ':' && this.peek(1) == ':') {
+                    this.sql.append("::");
+                    this.position += 2;
+                } else if (c == ':' && Character.isJavaIdentifierStart(this.peek(1))) {
+                    int start = ++this.position;
+
+                    while (this.position < this.query.length()
+                            && Character.isJavaIdentifierPart(this.query.charAt(this.position))) {
+                        this.position++;
+                    }
+
+                    this.sql.append('?');
+                    this.onParameter(this.query.substring(start, this.position));
+                } else if (Character.isJavaIdentifierPart(c)) {
+                    int start = this.position;
+
+                    while (this.position < this.query.length()
+                            && (Character.isJavaIdentifierPart(this.query.charAt(this.position))
+                            || this.query.charAt(this.position) == '.')) {
+                        this.position++;
+                    }
+
+                    String word = this.query.substring(start, this.position);
+                    this.sql.append(word);
+                    this.onWord(word, false);
+                } else {
+                    this.sql.append(c);
+                    this.position++;
+                    this.onSymbol(c);
+                }
+            }
+
+            return new SQLTemplate(this.query, this.sql.toString(), this.parameters);
+        }
+
+        private char peek(int offset) {
+            int index = this.position + offset;
+            return index < this.query.length() ? this.query.charAt(index) : '\0';
+        }
+
+        private void copyQuoted(char quote) {
+            this.sql.append(quote);
+            this.position++;
+
+            while (this.position < this.query.length()) {
+                char c = this.query.charAt(this.position++);
+                this.sql.append(c);
+
+                if (c == '\\' && quote != '`' && this.position < this.query.length()) {
+                    this.sql.append(this.query.charAt(this.position++));
+                } else if (c == quote) {
+                    if (this.peek(0) != quote) {
+                        return;
+                    }
+
+                    this.sql.append(this.query.charAt(this.position++));
+                }
+            }
+        }
+
+        private void copyUntil(String end) {
+            int index = this.query.indexOf(end, this.position + 1);
+            int stop = index == -1 ? this.query.length() : index + end.length();
+
+            this.sql.append(this.query, this.position, stop);
+            this.position = stop;
+        }
+
+        private void onWord(String word, boolean quoted) {
+            String upper = word.toUpperCase(Locale.ROOT);
+            boolean keyword = !quoted && KEYWORDS.contains(upper);
+
+            if (this.readingColumns) {
+                this.insertColumns.add(this.stripTable(word));
+                return;
+            }
+
+            this.awaitingColumns = false;
+            this.expectingValues = keyword && upper.equals("VALUES") && this.insertColumns != null;
+
+            if (keyword && upper.equals("INTO")) {
+                this.afterInto = true;
+                this.insertColumns = null;
+            } else if (this.afterInto && !keyword) {
+                this.afterInto = false;
+                this.awaitingColumns = true;
+            }
+
+            if (keyword && upper.equals("LIKE")) {
+                this.afterOperator = true;
+            } else {
+                this.afterOperator = false;
+                this.lastIdentifier = keyword ? null : this.stripTable(word);
+            }
+        }
+
+        private void onSymbol(char c) {
+            if (Character.isWhitespace(c)) {
+                return;
+            }
+
+            if (c == '=' || c == '<' || c == '>' || c == '!') {
+                this.afterOperator = true;
+                return;
+            }
+
+            this.afterOperator = false;
+            this.lastIdentifier = null;
+
+            if (c == '(') {
+                this.depth++;
+
+                if (this.awaitingColumns) {
+                    this.awaitingColumns = false;
+                    this.readingColumns = true;
+                    this.insertColumns = Lists.newArrayList();
+                } else if (this.expectingValues) {
+                    this.expectingValues = false;
+                    this.valuesDepth = this.depth;
+                    this.valuesIndex = 0;
+                }
+            } else if (c == ')') {
+                if (this.readingColumns) {
+                    this.readingColumns = false;
+                } else if (this.valuesDepth == this.depth) {
+                    this.valuesDepth = 0;
+                    this.expectingValues = true;
+                }
+
+                this.depth--;
+            } else if (c == ',') {
+                if (this.valuesDepth != 0 && this.valuesDepth == this.depth) {
+                    this.valuesIndex++;
+                }
+            } else {
+                this.awaitingColumns = false;
+                this.expectingValues = false;
+            }
+        }
+
+        private void onParameter(String name) {
+            String column = null;
+
+            if (name == null) {
+                if (this.valuesDepth != 0 && this.valuesDepth == this.depth) {
+                    if (this.valuesIndex < this.insertColumns.size()) {
+                        column = this.insertColumns.get(this.valuesIndex);
+                    }
+                } else if (this.afterOperator) {
+                    column = this.lastIdentifier;
+                }
+            }
+
+            this.parameters.add(new Parameter(name, column));
+            this.afterOperator = false;
+            this.lastIdentifier = null;
+            this.awaitingColumns = false;
+            this.expectingValues = false;
+        }
+
+        private String stripTable(String word) {
+            int index = word.lastIndexOf('.');
+            return index == -1 ? word : word.substring(index + 1);
+        }
+    }
+}
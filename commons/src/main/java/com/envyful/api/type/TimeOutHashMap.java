@@ -1,68 +1,176 @@
 package com.envyful.api.type;
 
-import com.google.common.collect.Lists;
+import com.envyful.api.cache.ExpiringStore;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 
-import java.util.*;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
+/**
+ *
+ * A thread safe {@link Map} where entries expire a fixed duration (in milliseconds) after they were written.
+ * <br>
+ * Expired entries are hidden as soon as they expire and are removed by a sweep, run on writes at most once per
+ * cache duration, or by calling {@link #cleanUp()}.
+ * When a maximum size is given the least recently used entry is evicted to make room for new entries.
+ * The entries are held in an {@link ExpiringStore}, the same store used by {@link com.envyful.api.cache.LoadingCache}.
+ * <br>
+ * {@link #computeIfAbsent(Object, Function)} only runs one loader per key at a time, other threads requesting the
+ * same key wait for that load instead of starting their own.
+ * <br>
+ * {@link #keySet()}, {@link #values()} and {@link #entrySet()} are views of the map, removing through them removes
+ * from the map. Like {@link java.util.concurrent.ConcurrentHashMap} their iterators are weakly consistent, they
+ * iterate the entries that were live when the iterator was created and never throw
+ * {@link java.util.ConcurrentModificationException}
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
 public class TimeOutHashMap<K, V> implements Map<K, V> {
 
-    private final long cacheDuration;
+    private final ExpiringStore<K, V> store;
+    private final ConcurrentMap<K, Load<V>> loading = Maps.newConcurrentMap();
 
-    private final Map<K, Pair<Long, V>> backingMap = Maps.newHashMap();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
 
     public TimeOutHashMap(long cacheDuration) {
-        this.cacheDuration = cacheDuration;
+        this(cacheDuration, 0);
+    }
+
+    /**
+     *
+     * Creates a map with a maximum size
+     *
+     * @param cacheDuration The time (in milliseconds) until an entry expires
+     * @param maximumSize The maximum number of entries, or 0 for no maximum
+     */
+    public TimeOutHashMap(long cacheDuration, int maximumSize) {
+        this(cacheDuration, maximumSize, System::nanoTime);
+    }
+
+    TimeOutHashMap(long cacheDuration, int maximumSize, LongSupplier clock) {
+        this.store = new ExpiringStore<>(TimeUnit.MILLISECONDS.toNanos(cacheDuration), maximumSize, clock);
     }
 
     @Override
     public int size() {
-        return this.backingMap.size();
+        return this.store.size();
     }
 
     @Override
     public boolean isEmpty() {
-        return this.backingMap.isEmpty();
+        return this.size() == 0;
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return this.get(key) != null;
+        return this.store.getEntry(key, this.store.now()) != null;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        for (Pair<Long, V> longVPair : this.backingMap.values()) {
-            if (!this.hasTimedOut(longVPair.getX()) && Objects.equals(value, longVPair.getY())) {
-                return true;
-            }
-        }
-
-        return false;
+        return this.store.containsValue(value);
     }
 
     @Override
     public V get(Object key) {
-        Pair<Long, V> entry = this.backingMap.get(key);
+        V value = this.store.get(key);
 
-        if (entry == null || this.hasTimedOut(entry.getX())) {
+        if (value == null) {
+            this.misses.increment();
             return null;
         }
 
-        return entry.getY();
+        this.hits.increment();
+        return value;
     }
 
     @Override
     public V put(K key, V value) {
-        Pair<Long, V> old =  this.backingMap.put(key, Pair.of(System.currentTimeMillis(), value));
-        return old == null ? null : old.getY();
+        return this.store.put(key, value);
+    }
+
+    /**
+     *
+     * Gets the value for the key, or loads it with the loader if it's missing or expired.
+     * If another thread is already loading the key this waits for its result.
+     * A null result isn't stored
+     * <br>
+     * The loader runs without holding any lock, so it may read and write other keys of the map, but it must not
+     * load the same key again as that would wait on itself
+     *
+     * @param key The key
+     * @param loader The loader
+     * @return The value
+     * @throws IllegalStateException If the loader tries to load the key it's loading
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V value = this.get(key);
+
+        if (value != null) {
+            return value;
+        }
+
+        Load<V> load = new Load<>();
+        Load<V> existing = this.loading.putIfAbsent(key, load);
+
+        if (existing != null) {
+            if (existing.thread == Thread.currentThread()) {
+                throw new IllegalStateException("Recursive load of " + key);
+            }
+
+            try {
+                return existing.future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+
+                throw e;
+            }
+        }
+
+        try {
+            V loaded = this.store.get(key);
+
+            value = loaded != null ? loaded : loader.apply(key);
+
+            if (value != null && loaded == null) {
+                this.put(key, value);
+            }
+
+            load.future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(key, load);
+        }
     }
 
     @Override
     public V remove(Object key) {
-        Pair<Long, V> old = this.backingMap.remove(key);
-        return old == null ? null : old.getY();
+        return this.store.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        return this.store.remove(key, value);
     }
 
     @Override
@@ -74,41 +182,262 @@ public class TimeOutHashMap<K, V> implements Map<K, V> {
 
     @Override
     public void clear() {
-        this.backingMap.clear();
+        this.store.clear();
     }
 
     @Override
     public Set<K> keySet() {
-        return this.backingMap.keySet();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new EntryIterator<>(TimeOutHashMap.this.new Entries().iterator(), Entry::getKey);
+            }
+
+            @Override
+            public int size() {
+                return TimeOutHashMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return TimeOutHashMap.this.containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return TimeOutHashMap.this.remove(o) != null;
+            }
+
+            @Override
+            public void clear() {
+                TimeOutHashMap.this.clear();
+            }
+        };
     }
 
     @Override
     public Collection<V> values() {
-        List<V> values = Lists.newArrayList();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new EntryIterator<>(TimeOutHashMap.this.new Entries().iterator(), Entry::getValue);
+            }
 
-        for (Pair<Long, V> value : this.backingMap.values()) {
-            if (!this.hasTimedOut(value.getX())) {
-                values.add(value.getY());
+            @Override
+            public int size() {
+                return TimeOutHashMap.this.size();
             }
-        }
 
-        return values;
+            @Override
+            public boolean contains(Object o) {
+                return TimeOutHashMap.this.containsValue(o);
+            }
+
+            @Override
+            public void clear() {
+                TimeOutHashMap.this.clear();
+            }
+        };
     }
 
     @Override
     public Set<Entry<K, V>> entrySet() {
-        Set<Entry<K, V>> values = Sets.newHashSet();
+        return new Entries();
+    }
 
-        for (Entry<K, Pair<Long, V>> value : this.backingMap.entrySet()) {
-            if (!this.hasTimedOut(value.getValue().getX())) {
-                values.add(Pair.of(value.getKey(), value.getValue().getValue()));
+    /**
+     *
+     * Removes all the expired entries
+     *
+     */
+    public void cleanUp() {
+        this.store.cleanUp();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     *
+     * Gets the number of entries removed to keep the map within its maximum size
+     *
+     * @return The eviction count
+     */
+    public long getEvictions() {
+        return this.store.getEvictions();
+    }
+
+    /**
+     *
+     * Gets the number of expired entries that have been removed
+     *
+     * @return The expiration count
+     */
+    public long getExpirations() {
+        return this.store.getExpirations();
+    }
+
+    /**
+     *
+     * Gets the ratio of {@link #get(Object)} calls that found a value
+     *
+     * @return The hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long hits = this.getHits();
+        long total = hits + this.getMisses();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    private static final class Load<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final Thread thread = Thread.currentThread();
+
+    }
+
+    private final class Entries extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            Iterator<Entry<K, V>> entries = TimeOutHashMap.this.store.snapshot().entrySet().iterator();
+
+            return new Iterator<>() {
+                private MapEntry current;
+
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    Entry<K, V> next = entries.next();
+                    this.current = new MapEntry(next.getKey(), next.getValue());
+                    return this.current;
+                }
+
+                @Override
+                public void remove() {
+                    if (this.current == null) {
+                        throw new IllegalStateException();
+                    }
+
+                    TimeOutHashMap.this.store.remove(this.current.getKey());
+                    this.current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return TimeOutHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
             }
+
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            V value = TimeOutHashMap.this.store.get(entry.getKey());
+            return value != null && Objects.equals(value, entry.getValue());
         }
 
-        return values;
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return TimeOutHashMap.this.store.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            TimeOutHashMap.this.clear();
+        }
     }
 
-    private boolean hasTimedOut(long time) {
-        return (System.currentTimeMillis() - time) >= this.cacheDuration;
+    private final class MapEntry implements Entry<K, V> {
+
+        private final K key;
+        private V value;
+
+        private MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            return this.value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.value;
+            this.value = value;
+            TimeOutHashMap.this.put(this.key, value);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return Objects.equals(this.key, entry.getKey()) && Objects.equals(this.value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+        }
+
+        @Override
+        public String toString() {
+            return this.key + "=" + this.value;
+        }
+    }
+
+    private static final class EntryIterator<K, V, T> implements Iterator<T> {
+
+        private final Iterator<Entry<K, V>> entries;
+        private final Function<Entry<K, V>, T> mapper;
+
+        private EntryIterator(Iterator<Entry<K, V>> entries, Function<Entry<K, V>, T> mapper) {
+            this.entries = entries;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.entries.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return this.mapper.apply(this.entries.next());
+        }
+
+        @Override
+        public void remove() {
+            this.entries.remove();
+        }
     }
 }
@@ -0,0 +1,95 @@
+package com.envyful.api.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoadingCacheTests {
+
+    @Test
+    void testRefreshAheadServesStaleValue() {
+        AtomicLong now = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        LoadingCache<String, Integer> cache = LoadingCache.<String, Integer>builder()
+                .loader(key -> loads.incrementAndGet())
+                .executor(Runnable::run)
+                .expireAfterWrite(100, TimeUnit.NANOSECONDS)
+                .refreshAfterWrite(50, TimeUnit.NANOSECONDS)
+                .ticker(now::get)
+                .build();
+
+        assert cache.get("a") == 1;
+        now.set(60);
+        assert cache.get("a") == 1;
+        assert cache.getIfPresent("a") == 2;
+        now.set(200);
+        assert cache.get("a") == 3;
+
+        CacheStats stats = cache.getStats();
+
+        assert stats.getRefreshes() == 1;
+        assert stats.getLoadSuccesses() == 3;
+        assert stats.getExpirations() == 1;
+    }
+
+    @Test
+    void testSingleFlightAndFailures() {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<Runnable> pending = new CompletableFuture<>();
+        LoadingCache<String, Integer> cache = LoadingCache.<String, Integer>builder()
+                .loader(key -> {
+                    if (loads.incrementAndGet() == 1) {
+                        throw new IllegalStateException("First load fails");
+                    }
+
+                    return 5;
+                })
+                .executor(pending::complete)
+                .build();
+
+        CompletableFuture<Integer> first = cache.getAsync("a");
+        CompletableFuture<Integer> second = cache.getAsync("a");
+
+        assert first == second;
+        pending.join().run();
+
+        try {
+            first.join();
+            assert false;
+        } catch (CompletionException e) {
+            assert e.getCause() instanceof IllegalStateException;
+        }
+
+        assert cache.size() == 0;
+        assert cache.getStats().getLoadFailures() == 1;
+    }
+
+    @Test
+    void testMaximumSizeAndRegistry() {
+        LoadingCache<Integer, Integer> cache = LoadingCache.<Integer, Integer>builder()
+                .name("test-cache")
+                .loader(key -> key * 2)
+                .executor(Runnable::run)
+                .maximumSize(2)
+                .build();
+
+        cache.get(1);
+        cache.get(2);
+        cache.get(1);
+        cache.get(3);
+
+        assert cache.getIfPresent(1) == 2;
+        assert cache.getIfPresent(2) == null;
+        assert CacheRegistry.getCache("test-cache") == cache;
+        assert CacheRegistry.getStats().get("test-cache").getEvictions() == 1;
+
+        CacheRegistry.invalidateAll();
+        CacheRegistry.unregister("test-cache");
+
+        assert cache.size() == 0;
+    }
+}
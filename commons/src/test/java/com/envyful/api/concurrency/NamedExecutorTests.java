@@ -0,0 +1,106 @@
+package com.envyful.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class NamedExecutorTests {
+
+    @Test
+    void testQueueDepthAndActiveCount() throws InterruptedException {
+        NamedExecutor executor = NamedExecutor.fixed("test_metrics", 1, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            started.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        executor.execute(() -> {});
+
+        assert started.await(5, TimeUnit.SECONDS);
+        assert executor.getActiveCount() == 1;
+        assert executor.getQueueDepth() == 1;
+
+        release.countDown();
+        executor.getExecutor().shutdown();
+
+        assert executor.getExecutor().awaitTermination(5, TimeUnit.SECONDS);
+        assert executor.getCompletedTaskCount() == 2;
+    }
+
+    @Test
+    void testSystemPropertyAndResize() {
+        System.setProperty("envyapi.executor.test_resize.threads", "3");
+        NamedExecutor executor = NamedExecutor.fixed("test_resize", 1, 10);
+
+        assert executor.getPoolSize() == 3;
+
+        executor.resize(6);
+        assert executor.getPoolSize() == 6;
+        assert ((ThreadPoolExecutor) executor.getExecutor()).getMaximumPoolSize() == 6;
+
+        executor.resize(2);
+        assert executor.getPoolSize() == 2;
+        assert ((ThreadPoolExecutor) executor.getExecutor()).getMaximumPoolSize() == 2;
+
+        executor.getExecutor().shutdown();
+    }
+
+    @Test
+    void testFullQueueRejects() throws InterruptedException {
+        NamedExecutor executor = NamedExecutor.fixed("test_full", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        boolean[] ran = new boolean[1];
+
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        executor.execute(() -> {});
+
+        try {
+            executor.execute(() -> ran[0] = true);
+            assert false;
+        } catch (RejectedExecutionException e) {
+            assert e.getMessage().contains("test_full");
+        }
+
+        assert !ran[0];
+        assert executor.getRejectedCount() == 1;
+
+        release.countDown();
+        executor.getExecutor().shutdown();
+        assert executor.getExecutor().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testVirtualExecutor() throws InterruptedException {
+        NamedExecutor executor = NamedExecutor.virtual("test_virtual");
+
+        if (executor == null) {
+            assert Runtime.version().feature() < 21;
+            return;
+        }
+
+        CountDownLatch finished = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            executor.execute(finished::countDown);
+        }
+
+        assert finished.await(5, TimeUnit.SECONDS);
+        assert executor.isVirtual();
+        assert executor.getQueueDepth() == 0;
+        assert executor.getPoolSize() == -1;
+    }
+}
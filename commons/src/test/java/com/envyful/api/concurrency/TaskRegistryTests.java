@@ -0,0 +1,78 @@
+package com.envyful.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TaskRegistryTests {
+
+    @Test
+    void testHandleStats() {
+        TickWheel wheel = new TickWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        TickTaskHandle handle = new TickTaskHandle(null, runs::incrementAndGet, wheel, false);
+
+        handle.reschedule(1, 2);
+
+        for (int i = 0; i < 5; i++) {
+            wheel.tick();
+        }
+
+        assert runs.get() == 3;
+        assert handle.getRunCount() == 3;
+        assert handle.getLastDurationNanos() >= 0;
+        assert handle.getLastDriftNanos() >= 0;
+    }
+
+    @Test
+    void testPauseAndReschedule() {
+        TickWheel wheel = new TickWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        TickTaskHandle handle = new TickTaskHandle(null, runs::incrementAndGet, wheel, false);
+
+        handle.reschedule(1, 1);
+        wheel.tick();
+        handle.pause();
+        wheel.tick();
+        wheel.tick();
+
+        assert runs.get() == 1;
+        assert handle.isPaused();
+
+        handle.resume();
+        handle.reschedule(3, 10);
+
+        for (int i = 0; i < 3; i++) {
+            wheel.tick();
+        }
+
+        assert runs.get() == 2;
+        assert wheel.size() == 1;
+    }
+
+    @Test
+    void testCancelByOwner() {
+        Object owner = new Object();
+        TickWheel wheel = new TickWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+        TickTaskHandle first = new TickTaskHandle(owner, runs::incrementAndGet, wheel, false);
+        TickTaskHandle second = new TickTaskHandle(owner, runs::incrementAndGet, wheel, false);
+
+        TaskRegistry.register(first);
+        TaskRegistry.register(second);
+        first.reschedule(1, 1);
+        second.reschedule(1, 1);
+
+        assert TaskRegistry.getTasks(owner).size() == 2;
+        assert TaskRegistry.cancel(owner) == 2;
+        assert TaskRegistry.getTasks(owner).isEmpty();
+        assert first.isCancelled() && !first.cancel();
+
+        for (int i = 0; i < 3; i++) {
+            wheel.tick();
+        }
+
+        assert runs.get() == 0;
+        assert wheel.size() == 0;
+    }
+}
@@ -0,0 +1,75 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TickProfilerTests {
+
+    @Test
+    void testLambdaSourceIsDeclaringClass() {
+        Runnable task = () -> {};
+
+        assert TickProfiler.getSource(task).equals(TickProfilerTests.class.getName());
+        assert TickProfiler.getSource(TickProfiler.withSource(task, "custom")).equals("custom");
+        assert TickProfiler.getSource(TickProfiler.withSource(task, String.class)).equals("java.lang.String");
+    }
+
+    @Test
+    void testPercentiles() {
+        TickProfiler profiler = new TickProfiler();
+
+        for (int i = 1; i <= 100; i++) {
+            profiler.record("source", i);
+        }
+
+        profiler.record("other", 1);
+
+        List<TickProfiler.Stats> stats = profiler.getStats();
+
+        assert stats.size() == 2;
+        assert stats.get(0).getSource().equals("source");
+        assert stats.get(0).getCount() == 100;
+        assert stats.get(0).getTotalNanos() == 5050;
+        assert stats.get(0).getP50Nanos() == 50;
+        assert stats.get(0).getP99Nanos() == 99;
+        assert stats.get(0).getMaxNanos() == 100;
+        assert profiler.dump(1).size() == 2;
+    }
+
+    @Test
+    void testThrottledSourceWaitsForNextTick() {
+        TickProfiler profiler = new TickProfiler();
+        TickTaskQueue queue = new TickTaskQueue();
+        List<String> ran = Lists.newArrayList();
+
+        profiler.setSourceBudget(TimeUnit.MILLISECONDS.toNanos(1));
+        queue.setProfiler(profiler);
+        queue.setBudget(0, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 3; i++) {
+            queue.add(TickProfiler.withSource(() -> {
+                ran.add("slow");
+
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException ignored) {
+                }
+            }, "slow"));
+        }
+
+        queue.add(TickProfiler.withSource(() -> ran.add("fast"), "fast"));
+
+        profiler.startTick();
+        assert queue.drain() == 2;
+        assert ran.equals(Lists.newArrayList("slow", "fast"));
+        assert queue.getBacklog() == 2;
+
+        profiler.startTick();
+        assert queue.drain() == 1;
+        assert queue.getBacklog() == 1;
+        assert profiler.getStats().get(0).getThrottled() == 3;
+    }
+}
@@ -0,0 +1,93 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TickTaskQueueTests {
+
+    @Test
+    void testTasksRunInOrder() {
+        TickTaskQueue queue = new TickTaskQueue();
+        List<Integer> ran = Lists.newArrayList();
+        Runnable duplicate = () -> ran.add(-1);
+
+        queue.setBudget(0, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            queue.add(() -> ran.add(value));
+        }
+
+        queue.add(duplicate);
+        queue.add(duplicate);
+
+        assert queue.drain() == 102;
+        assert ran.size() == 102;
+
+        for (int i = 0; i < 100; i++) {
+            assert ran.get(i) == i;
+        }
+
+        assert queue.getBacklog() == 0;
+        assert queue.getExecutedTasks() == 102;
+    }
+
+    @Test
+    void testTasksAddedWhileDrainingRunNextTick() {
+        TickTaskQueue queue = new TickTaskQueue();
+        List<String> ran = Lists.newArrayList();
+
+        queue.setBudget(0, TimeUnit.MILLISECONDS);
+        queue.add(() -> {
+            ran.add("first");
+            queue.add(() -> ran.add("second"));
+        });
+
+        assert queue.drain() == 1;
+        assert ran.size() == 1;
+        assert queue.getBacklog() == 1;
+
+        assert queue.drain() == 1;
+        assert ran.get(1).equals("second");
+    }
+
+    @Test
+    void testBudgetSpillsOver() {
+        TickTaskQueue queue = new TickTaskQueue();
+
+        queue.setBudget(1, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 10; i++) {
+            queue.add(() -> {
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException ignored) {
+                }
+            });
+        }
+
+        assert queue.drain() == 1;
+        assert queue.getBacklog() == 9;
+        assert queue.getOverBudgetTicks() == 1;
+        assert queue.getLastTickNanos() >= TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Test
+    void testFailingTaskDoesNotStopTheQueue() {
+        TickTaskQueue queue = new TickTaskQueue();
+        List<String> ran = Lists.newArrayList();
+
+        queue.setBudget(0, TimeUnit.MILLISECONDS);
+
+        queue.add(() -> {
+            throw new IllegalStateException("failed");
+        });
+        queue.add(() -> ran.add("ran"));
+
+        assert queue.drain() == 2;
+        assert ran.size() == 1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TickWheelTests {
+
+    @Test
+    void testDelayedTaskRunsOnDueTick() {
+        TickWheel wheel = new TickWheel(8);
+        List<Long> ranOn = Lists.newArrayList();
+
+        wheel.schedule(() -> ranOn.add(wheel.getCurrentTick() + 1), 3);
+        wheel.schedule(() -> ranOn.add(wheel.getCurrentTick() + 1), 20);
+
+        for (int i = 0; i < 25; i++) {
+            wheel.tick();
+        }
+
+        assert ranOn.size() == 2;
+        assert ranOn.get(0) == 3;
+        assert ranOn.get(1) == 20;
+        assert wheel.size() == 0;
+    }
+
+    @Test
+    void testRepeatingTask() {
+        TickWheel wheel = new TickWheel(4);
+        AtomicInteger runs = new AtomicInteger();
+        TickWheel.Task task = wheel.scheduleRepeating(runs::incrementAndGet, 2, 5);
+
+        for (int i = 0; i < 22; i++) {
+            wheel.tick();
+        }
+
+        assert runs.get() == 5;
+        assert task.isRepeating();
+        assert !task.isDone();
+        assert task.cancel();
+
+        for (int i = 0; i < 10; i++) {
+            wheel.tick();
+        }
+
+        assert runs.get() == 5;
+        assert task.isDone();
+        assert wheel.size() == 0;
+    }
+
+    @Test
+    void testCancelledTaskDoesNotRun() {
+        TickWheel wheel = new TickWheel();
+        AtomicInteger runs = new AtomicInteger();
+        TickWheel.Task task = wheel.schedule(runs::incrementAndGet, 1);
+
+        assert task.cancel();
+        assert !task.cancel();
+
+        wheel.tick();
+        wheel.tick();
+
+        assert runs.get() == 0;
+        assert task.isCancelled();
+        assert wheel.size() == 0;
+    }
+
+    @Test
+    void testTaskScheduledWhileTickingRunsNextTick() {
+        TickWheel wheel = new TickWheel(16);
+        List<Long> ranOn = Lists.newArrayList();
+
+        wheel.schedule(() -> wheel.schedule(() -> ranOn.add(wheel.getCurrentTick() + 1), 1), 1);
+
+        wheel.tick();
+        assert ranOn.isEmpty();
+
+        wheel.tick();
+        assert ranOn.size() == 1;
+        assert ranOn.get(0) == 2;
+    }
+
+    @Test
+    void testFailingTaskDoesNotStopTheTick() {
+        TickWheel wheel = new TickWheel(16);
+        AtomicInteger runs = new AtomicInteger();
+
+        wheel.schedule(() -> {
+            throw new IllegalStateException("failed");
+        }, 1);
+        wheel.schedule(runs::incrementAndGet, 1);
+
+        wheel.tick();
+
+        assert runs.get() == 1;
+    }
+}
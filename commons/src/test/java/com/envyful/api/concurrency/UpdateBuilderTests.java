@@ -0,0 +1,104 @@
+package com.envyful.api.concurrency;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class UpdateBuilderTests {
+
+    @Test
+    void testConditionalRequests() throws IOException {
+        AtomicInteger notModified = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+        server.createContext("/repos/Envyful/EnvyAPI/releases/latest", exchange -> {
+            if ("\"v2\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+
+            byte[] body = "{\"tag_name\": \"2.0.0\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v2\"");
+            exchange.sendResponseHeaders(200, body.length);
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        try {
+            UpdateBuilder<Object> builder = this.create(server).version("1.0.0").interval(5000);
+
+            assert builder.check().join() == 5000;
+            assert !builder.isUpToDate();
+            assert "2.0.0".equals(builder.getLatestVersion());
+
+            assert builder.check().join() == 5000;
+            assert notModified.get() == 1;
+            assert !builder.isUpToDate();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testBackoff() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+
+        try {
+            UpdateBuilder<Object> builder = this.create(server).backoff(100, 350);
+
+            assert builder.check().join() == 100;
+            assert builder.check().join() == 200;
+            assert builder.check().join() == 350;
+            assert builder.getFailures() == 3;
+            assert builder.isUpToDate();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testFailedRequestIsRetried() throws InterruptedException {
+        UpdateBuilder<Object> builder = new UpdateBuilder<>()
+                .name("EnvyAPI")
+                .owner("Envyful")
+                .repo("EnvyAPI")
+                .apiUrl("http://not a host")
+                .backoff(10, 10);
+
+        builder.start();
+
+        try {
+            for (int i = 0; i < 500 && builder.getFailures() < 3; i++) {
+                Thread.sleep(10);
+            }
+
+            assert builder.getFailures() >= 3;
+        } finally {
+            builder.stop();
+        }
+    }
+
+    private UpdateBuilder<Object> create(HttpServer server) {
+        return new UpdateBuilder<>()
+                .name("EnvyAPI")
+                .owner("Envyful")
+                .repo("EnvyAPI")
+                .apiUrl("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+}
@@ -0,0 +1,46 @@
+package com.envyful.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class UtilConcurrencyTests {
+
+    @Test
+    void testRejectedComposeCompletesExceptionally() {
+        CompletableFuture<Integer> future = UtilConcurrency.composeAsync(() -> CompletableFuture.completedFuture(1),
+                runnable -> {
+                    throw new RejectedExecutionException("full");
+                });
+
+        assert future.isCompletedExceptionally();
+
+        try {
+            future.join();
+            assert false;
+        } catch (CompletionException e) {
+            assert e.getCause() instanceof RejectedExecutionException;
+        }
+    }
+
+    @Test
+    void testComposePassesOnTheResultAndFailure() throws Exception {
+        CompletableFuture<Integer> loaded = UtilConcurrency.composeAsync(
+                () -> CompletableFuture.completedFuture(1), Runnable::run);
+        CompletableFuture<Integer> failed = UtilConcurrency.composeAsync(() -> {
+            throw new IllegalStateException("load failed");
+        }, Runnable::run);
+
+        assert loaded.get(5, TimeUnit.SECONDS) == 1;
+
+        try {
+            failed.join();
+            assert false;
+        } catch (CompletionException e) {
+            assert e.getCause() instanceof IllegalStateException;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.envyful.api.database.impl.redis;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class MessageDispatcherTests {
+
+    @Test
+    void testAnnotatedHandlers() {
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        TestListener listener = new TestListener();
+
+        List<String> channels = dispatcher.register(listener);
+
+        assert channels.size() == 2;
+
+        dispatcher.dispatch("chat", "hello");
+        dispatcher.dispatch("balance", "{\"player\":\"bob\",\"amount\":5.5}");
+        dispatcher.dispatch("balance", "not json");
+        dispatcher.dispatch("unknown", "ignored");
+
+        assert listener.chat.equals(Collections.singletonList("chat:hello"));
+        assert listener.balances.size() == 1;
+        assert listener.balances.get(0).player.equals("bob");
+        assert listener.balances.get(0).amount == 5.5;
+        assert dispatcher.getStats("balance").getReceived() == 2;
+        assert dispatcher.getStats("balance").getFailures() == 1;
+    }
+
+    @Test
+    void testTypedChannel() {
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        MessageChannel<Balance> channel = MessageChannel.binary("balance", Balance.class);
+        List<Balance> received = Lists.newArrayList();
+        Balance balance = new Balance();
+
+        balance.player = "alice";
+        balance.amount = 12.25;
+
+        dispatcher.register(channel, (name, message) -> received.add(message));
+        dispatcher.dispatch("balance", channel.getCodec().encode(balance));
+
+        assert received.size() == 1;
+        assert received.get(0).player.equals("alice");
+        assert received.get(0).amount == 12.25;
+    }
+
+    @Test
+    void testExecutorKeepsOrder() throws InterruptedException {
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Integer> received = Collections.synchronizedList(Lists.newArrayList());
+
+        dispatcher.setExecutor(executor);
+        dispatcher.register(MessageChannel.json("numbers", Integer.class), (name, message) -> received.add(message));
+
+        for (int i = 0; i < 1000; i++) {
+            dispatcher.dispatch("numbers", String.valueOf(i));
+        }
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+
+        while (received.size() < 1000 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        executor.shutdown();
+
+        assert received.size() == 1000;
+
+        for (int i = 0; i < 1000; i++) {
+            assert received.get(i) == i;
+        }
+    }
+
+    @Test
+    void testRejectedMessagesStayQueuedAndOverflowIsDropped() {
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        List<Runnable> tasks = Lists.newArrayList();
+        boolean[] reject = {true};
+        List<Integer> received = Lists.newArrayList();
+
+        dispatcher.setMaxPending(3);
+        dispatcher.setExecutor(task -> {
+            if (reject[0]) {
+                throw new RejectedExecutionException("full");
+            }
+
+            tasks.add(task);
+        });
+        dispatcher.register(MessageChannel.json("numbers", Integer.class), (name, message) -> received.add(message));
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch("numbers", String.valueOf(i));
+        }
+
+        ChannelStats stats = dispatcher.getStats("numbers");
+
+        assert received.isEmpty();
+        assert stats.getQueued() == 3;
+        assert stats.getDropped() == 2;
+        assert stats.getRejected() == 5;
+
+        reject[0] = false;
+        dispatcher.dispatch("numbers", "5");
+
+        assert tasks.size() == 1;
+
+        tasks.get(0).run();
+
+        assert received.equals(Lists.newArrayList(0, 1, 2));
+        assert stats.getQueued() == 0;
+        assert stats.getDropped() == 3;
+    }
+
+    public static class Balance {
+
+        private String player;
+        private double amount;
+
+    }
+
+    public static class TestListener {
+
+        private final List<String> chat = Lists.newArrayList();
+        private final List<Balance> balances = Lists.newArrayList();
+
+        @Subscribe("chat")
+        private void onChat(String channel, String message) {
+            this.chat.add(channel + ":" + message);
+        }
+
+        @Subscribe("balance")
+        private void onBalance(Balance balance) {
+            this.balances.add(balance);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.envyful.api.database.impl.redis;
+
+import io.lettuce.core.RedisException;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RedisConnectionPoolTests {
+
+    @Test
+    void testConnectionsAreReused() {
+        AtomicInteger opened = new AtomicInteger();
+        RedisConnectionPool pool = new RedisConnectionPool(() -> {
+            opened.incrementAndGet();
+            return connection(new AtomicBoolean(true));
+        }, 2, 100);
+
+        StatefulRedisConnection<String, String> first = pool.borrow();
+        pool.release(first);
+
+        assert pool.borrow() == first;
+        assert opened.get() == 1;
+        assert pool.getActive() == 1;
+        assert pool.getIdle() == 0;
+    }
+
+    @Test
+    void testBorrowTimesOutWhenExhausted() {
+        RedisConnectionPool pool = new RedisConnectionPool(() -> connection(new AtomicBoolean(true)), 1, 50);
+
+        pool.borrow();
+
+        try {
+            pool.borrow();
+            assert false;
+        } catch (RedisException e) {
+            assert pool.getActive() == 1;
+        }
+    }
+
+    @Test
+    void testClosedConnectionsAreReplaced() {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicBoolean open = new AtomicBoolean(true);
+        RedisConnectionPool pool = new RedisConnectionPool(() -> {
+            opened.incrementAndGet();
+            return connection(open);
+        }, 1, 100);
+
+        pool.release(pool.borrow());
+        open.set(false);
+
+        assert pool.execute(connection -> opened.get()) == 2;
+        assert pool.getActive() == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StatefulRedisConnection<String, String> connection(AtomicBoolean open) {
+        return (StatefulRedisConnection<String, String>) Proxy.newProxyInstance(
+                RedisConnectionPoolTests.class.getClassLoader(),
+                new Class<?>[] {StatefulRedisConnection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isOpen":
+                            return open.get();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
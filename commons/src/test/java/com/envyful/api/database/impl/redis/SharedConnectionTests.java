@@ -0,0 +1,45 @@
+package com.envyful.api.database.impl.redis;
+
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SharedConnectionTests {
+
+    @Test
+    void testClosingTheSharedConnectionDoesNothing() {
+        AtomicInteger closes = new AtomicInteger();
+        AtomicInteger flushes = new AtomicInteger();
+        StatefulRedisConnection<String, String> connection = connection(closes, flushes);
+
+        try (StatefulRedisConnection<String, String> shared = SharedConnection.unclosable(connection)) {
+            shared.flushCommands();
+            assert shared.isOpen();
+        }
+
+        assert closes.get() == 0;
+        assert flushes.get() == 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StatefulRedisConnection<String, String> connection(AtomicInteger closes, AtomicInteger flushes) {
+        return (StatefulRedisConnection<String, String>) Proxy.newProxyInstance(
+                SharedConnectionTests.class.getClassLoader(), new Class<?>[] {StatefulRedisConnection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            closes.incrementAndGet();
+                            return null;
+                        case "flushCommands":
+                            flushes.incrementAndGet();
+                            return null;
+                        case "isOpen":
+                            return closes.get() == 0;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
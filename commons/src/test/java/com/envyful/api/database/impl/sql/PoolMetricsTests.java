@@ -0,0 +1,44 @@
+package com.envyful.api.database.impl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class PoolMetricsTests {
+
+    @Test
+    void testAcquireHistogram() {
+        PoolMetrics metrics = new PoolMetrics();
+
+        for (int i = 0; i < 98; i++) {
+            metrics.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(200));
+        }
+
+        metrics.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(30));
+        metrics.recordConnectionAcquiredNanos(TimeUnit.SECONDS.toNanos(10));
+        metrics.recordConnectionTimeout();
+
+        SQLPoolStats stats = metrics.snapshot(null);
+        long[] histogram = stats.getAcquireHistogram();
+
+        assert stats.getAcquisitions() == 100;
+        assert histogram[0] == 98;
+        assert histogram[5] == 1;
+        assert histogram[histogram.length - 1] == 1;
+        assert stats.getAcquirePercentileMillis(0.5) == 1;
+        assert stats.getAcquirePercentileMillis(0.99) == 50;
+        assert stats.getAcquirePercentileMillis(1) == Long.MAX_VALUE;
+        assert stats.getMaxAcquireNanos() == TimeUnit.SECONDS.toNanos(10);
+        assert stats.getTimeouts() == 1;
+        assert stats.getActiveConnections() == 0;
+    }
+
+    @Test
+    void testEmptyStats() {
+        SQLPoolStats stats = new PoolMetrics().snapshot(null);
+
+        assert stats.getAverageAcquireNanos() == 0;
+        assert stats.getAcquirePercentileMillis(0.99) == 0;
+        assert stats.getAverageUsageMillis() == 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.envyful.api.database.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+public class LeaderboardQueryTests {
+
+    @Test
+    void testOffsetQuery() {
+        LeaderboardQuery query = new LeaderboardQuery("stats", null, Order.DESCENDING, "wins", null,
+                "season = ?", 3);
+
+        assert query.getPageSQL().equals("SELECT * FROM `stats` WHERE season = ? ORDER BY wins DESC LIMIT ? OFFSET ?;");
+        assert query.getCountSQL().equals("SELECT COUNT(*) FROM `stats` WHERE season = ?;");
+        assert !query.canSeek();
+    }
+
+    @Test
+    void testSeekQuery() {
+        LeaderboardQuery query = new LeaderboardQuery("stats", "uuid, wins", Order.ASCENDING, "wins", "uuid",
+                null);
+
+        assert query.canSeek();
+        assert query.getPageSQL().equals("SELECT uuid, wins FROM `stats` ORDER BY wins ASC, uuid ASC LIMIT ? OFFSET ?;");
+        assert query.getSeekSQL().equals(
+                "SELECT uuid, wins FROM `stats` WHERE (wins, uuid) > (?, ?) ORDER BY wins ASC, uuid ASC LIMIT ?;");
+    }
+}
@@ -0,0 +1,157 @@
+package com.envyful.api.database.leaderboard;
+
+import com.envyful.api.database.Database;
+import com.envyful.api.leaderboard.Leaderboard;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class SQLLeaderboardTests {
+
+    private static final String[] KEYS = {"e", "d", "c", "b", "a"};
+
+    @Test
+    void testPagesAreFormattedWithPositions() {
+        TestDatabase database = new TestDatabase();
+        SQLLeaderboard leaderboard = SQLLeaderboard.builder()
+                .database(database)
+                .table("stats")
+                .order(Order.DESCENDING)
+                .column("kills")
+                .pageSize(2)
+                .cacheDuration(60_000)
+                .formatter((resultSet, position) -> position + ":" + resultSet.getString("uuid"))
+                .build();
+
+        assert leaderboard.getPage(0).equals(List.of("0:e", "1:d"));
+        assert leaderboard.getPage(2).equals(List.of("4:a"));
+        assert leaderboard.getTotalCount() == 5;
+        assert leaderboard.getPageCount() == 3;
+        assert database.queries.stream().noneMatch(sql -> sql.contains("(?, ?)"));
+    }
+
+    @Test
+    void testNextPageSeeksFromThePreviousPage() {
+        TestDatabase database = new TestDatabase();
+        Leaderboard<String> leaderboard = Leaderboard.builder(String.class)
+                .database(database)
+                .table("stats")
+                .columns("uuid", "kills")
+                .order(Order.DESCENDING)
+                .column("kills")
+                .keyColumn("uuid")
+                .pageSize(2)
+                .cacheDuration(60_000)
+                .formatter(resultSet -> resultSet.getString("uuid"))
+                .build();
+
+        assert leaderboard.getPage(0).equals(List.of("e", "d"));
+        assert leaderboard.getPage(1).equals(List.of("c", "b"));
+        assert database.queries.size() == 2;
+        assert database.queries.get(0).contains("OFFSET");
+        assert database.queries.get(1).contains("(kills, uuid) < (?, ?)");
+    }
+
+    /**
+     *
+     * A database holding the rows <code>e, d, c, b, a</code> with 5 to 1 kills, in descending order
+     *
+     */
+    private static class TestDatabase implements Database {
+
+        private final List<String> queries = Lists.newArrayList();
+
+        @Override
+        public Connection getConnection() {
+            return proxy(Connection.class, (method, args) -> method.equals("prepareStatement") ?
+                    this.prepare((String) args[0]) : null);
+        }
+
+        private PreparedStatement prepare(String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+
+            this.queries.add(sql);
+            return proxy(PreparedStatement.class, (method, args) -> {
+                switch (method) {
+                    case "setInt":
+                    case "setLong":
+                    case "setObject":
+                        parameters.put((Integer) args[0], args[1]);
+                        return null;
+                    case "executeQuery":
+                        return this.query(sql, Lists.newArrayList(parameters.values()));
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private ResultSet query(String sql, List<Object> parameters) {
+            if (sql.startsWith("SELECT COUNT(*)")) {
+                return rows(List.of(KEYS.length));
+            }
+
+            int start;
+            int limit;
+
+            if (sql.contains("OFFSET")) {
+                limit = ((Number) parameters.get(0)).intValue();
+                start = ((Number) parameters.get(1)).intValue();
+            } else {
+                start = List.of(KEYS).indexOf((String) parameters.get(1)) + 1;
+                limit = ((Number) parameters.get(2)).intValue();
+            }
+
+            List<Object> keys = Lists.newArrayList();
+
+            for (int i = start; i < Math.min(KEYS.length, start + limit); i++) {
+                keys.add(KEYS[i]);
+            }
+
+            return rows(keys);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static ResultSet rows(List<Object> rows) {
+        int[] index = {-1};
+
+        return proxy(ResultSet.class, (method, args) -> {
+            switch (method) {
+                case "next":
+                    return ++index[0] < rows.size();
+                case "getLong":
+                    return ((Number) rows.get(index[0])).longValue();
+                case "getString":
+                    return rows.get(index[0]);
+                case "getObject":
+                    String key = (String) rows.get(index[0]);
+                    return args[0].equals("uuid") ? key : KEYS.length - List.of(KEYS).indexOf(key);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> A proxy(Class<A> type, Handler handler) {
+        return (A) Proxy.newProxyInstance(SQLLeaderboardTests.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.handle(method.getName(), args));
+    }
+
+    private interface Handler {
+
+        Object handle(String method, Object[] args) throws Throwable;
+
+    }
+}
@@ -0,0 +1,74 @@
+package com.envyful.api.leaderboard;
+
+import com.envyful.api.database.leaderboard.Order;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class RankedIndexTests {
+
+    @Test
+    void testRanksMatchSortedOrder() {
+        RankedIndex<Integer> index = new RankedIndex<>(Order.DESCENDING, Comparator.naturalOrder());
+        double[] scores = new double[500];
+        Random random = new Random(42);
+
+        Arrays.fill(scores, -1);
+
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(scores.length);
+
+            if (random.nextInt(10) == 0) {
+                index.remove(key);
+                scores[key] = -1;
+            } else {
+                scores[key] = random.nextInt(100);
+                index.update(key, scores[key]);
+            }
+        }
+
+        List<Integer> expected = Lists.newArrayList();
+
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] >= 0) {
+                expected.add(i);
+            }
+        }
+
+        expected.sort((a, b) -> scores[a] == scores[b] ? Integer.compare(a, b) : Double.compare(scores[b], scores[a]));
+
+        assert index.size() == expected.size();
+
+        for (int i = 0; i < expected.size(); i++) {
+            assert index.getRank(expected.get(i)) == i + 1;
+        }
+
+        List<RankedIndex.Entry<Integer>> page = index.getPage(3, 10);
+
+        for (int i = 0; i < page.size(); i++) {
+            assert page.get(i).getKey().equals(expected.get(30 + i));
+            assert page.get(i).getRank() == 31 + i;
+        }
+    }
+
+    @Test
+    void testAscendingOrder() {
+        RankedIndex<String> index = new RankedIndex<>(Order.ASCENDING, Comparator.naturalOrder());
+
+        index.update("b", 5);
+        index.update("a", 10);
+        index.update("c", 1);
+        index.update("c", 20);
+
+        assert index.getRank("b") == 1;
+        assert index.getRank("a") == 2;
+        assert index.getRank("c") == 3;
+        assert index.getRank("d") == -1;
+        assert index.getRange(3, 5).size() == 1;
+        assert index.getRange(4, 5).isEmpty();
+    }
+}
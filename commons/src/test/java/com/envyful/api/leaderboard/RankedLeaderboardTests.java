@@ -0,0 +1,138 @@
+package com.envyful.api.leaderboard;
+
+import com.envyful.api.database.Database;
+import com.envyful.api.database.leaderboard.Order;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RankedLeaderboardTests {
+
+    @Test
+    void testPagesAreFormattedWithPositions() {
+        RankedLeaderboard<String, String> leaderboard = RankedLeaderboard.builder(String.class, String.class)
+                .table("stats")
+                .order(Order.DESCENDING)
+                .column("kills")
+                .key("uuid", resultSet -> resultSet.getString("uuid"))
+                .pageSize(2)
+                .formatter((key, score, position) -> position + ":" + key + ":" + (int) score)
+                .build();
+
+        leaderboard.update("a", 5);
+        leaderboard.update("b", 9);
+        leaderboard.update("c", 1);
+
+        List<String> first = leaderboard.getPage(0);
+        List<String> second = leaderboard.getPageAsync(1).join();
+
+        assert first.size() == 2;
+        assert first.get(0).equals("0:b:9");
+        assert first.get(1).equals("1:a:5");
+        assert second.size() == 1;
+        assert second.get(0).equals("2:c:1");
+        assert leaderboard.getTotalCount() == 3;
+        assert leaderboard.getPageCount() == 2;
+    }
+
+    @Test
+    void testOverlappingReconcileIsSkipped() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RankedLeaderboard<String, String> leaderboard = RankedLeaderboard.builder(String.class, String.class)
+                .database(new BlockingDatabase(loading, release))
+                .table("stats")
+                .order(Order.DESCENDING)
+                .column("kills")
+                .key("uuid", resultSet -> resultSet.getString("uuid"))
+                .pageSize(10)
+                .formatter((key, score, position) -> key)
+                .build();
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return leaderboard.reconcile();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assert loading.await(5, TimeUnit.SECONDS);
+        assert !leaderboard.reconcile();
+
+        leaderboard.update("b", 3);
+        release.countDown();
+
+        assert first.get(5, TimeUnit.SECONDS);
+        assert leaderboard.getScore("a") == 7;
+        assert leaderboard.getScore("b") == 3;
+        assert leaderboard.getRank("b") == 2;
+    }
+
+    /**
+     *
+     * A database returning a single row <code>(a, 7)</code>, blocking the first query until it's released
+     *
+     */
+    private static class BlockingDatabase implements Database {
+
+        private final CountDownLatch loading;
+        private final CountDownLatch release;
+
+        private BlockingDatabase(CountDownLatch loading, CountDownLatch release) {
+            this.loading = loading;
+            this.release = release;
+        }
+
+        @Override
+        public Connection getConnection() {
+            return proxy(Connection.class, (method, args) -> method.equals("prepareStatement") ?
+                    proxy(PreparedStatement.class, (statementMethod, statementArgs) ->
+                            statementMethod.equals("executeQuery") ? this.query() : null) : null);
+        }
+
+        private ResultSet query() throws InterruptedException {
+            this.loading.countDown();
+            this.release.await(5, TimeUnit.SECONDS);
+            boolean[] read = new boolean[1];
+
+            return proxy(ResultSet.class, (method, args) -> {
+                switch (method) {
+                    case "next":
+                        boolean next = !read[0];
+                        read[0] = true;
+                        return next;
+                    case "getString":
+                        return "a";
+                    case "getDouble":
+                        return 7.0;
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> A proxy(Class<A> type, Handler handler) {
+        return (A) Proxy.newProxyInstance(RankedLeaderboardTests.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.handle(method.getName(), args));
+    }
+
+    private interface Handler {
+
+        Object handle(String method, Object[] args) throws Throwable;
+
+    }
+}
@@ -0,0 +1,138 @@
+package com.envyful.api.leaderboard;
+
+import com.envyful.api.database.Database;
+import com.google.common.collect.Lists;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScoredValue;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class RedisLeaderboardTests {
+
+    @Test
+    void testUpdatesAreSentTogether() {
+        RecordingDatabase database = new RecordingDatabase();
+        RedisLeaderboard<String> leaderboard = create(database);
+
+        leaderboard.update("a", 1);
+        leaderboard.update("b", 2);
+        leaderboard.update("a", 3);
+        leaderboard.flush().join();
+
+        assert database.commands.size() == 1;
+        assert database.commands.get(0).startsWith("zadd ");
+        assert database.commands.get(0).contains("a=3.0");
+        assert database.commands.get(0).contains("b=2.0");
+    }
+
+    @Test
+    void testIncrementSendsThePendingUpdateFirst() {
+        RecordingDatabase database = new RecordingDatabase();
+        RedisLeaderboard<String> leaderboard = create(database);
+
+        leaderboard.update("a", 5);
+        leaderboard.increment("a", 2).join();
+        leaderboard.flush().join();
+
+        assert database.commands.equals(Lists.newArrayList("zadd a=5.0", "zincrby a 2.0"));
+    }
+
+    @Test
+    void testRemoveDropsThePendingUpdate() {
+        RecordingDatabase database = new RecordingDatabase();
+        RedisLeaderboard<String> leaderboard = create(database);
+
+        leaderboard.update("a", 5);
+        leaderboard.update("b", 1);
+        leaderboard.remove("a").join();
+        leaderboard.flush().join();
+
+        assert database.commands.equals(Lists.newArrayList("zrem a", "zadd b=1.0"));
+    }
+
+    private static RedisLeaderboard<String> create(Database database) {
+        return RedisLeaderboard.builder(String.class)
+                .database(database)
+                .key("kills")
+                .pageSize(10)
+                .flushDelay(TimeUnit.HOURS.toMillis(1))
+                .formatter((member, score, position) -> member)
+                .build();
+    }
+
+    /**
+     *
+     * A Redis database recording the sorted set commands sent to it, in order
+     *
+     */
+    private static class RecordingDatabase implements Database {
+
+        private final List<String> commands = Collections.synchronizedList(Lists.newArrayList());
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public StatefulRedisConnection<String, String> getRedis() {
+            RedisAsyncCommands<String, String> commands = proxy(RedisAsyncCommands.class, (method, args) -> {
+                switch (method) {
+                    case "zadd":
+                        List<String> members = Lists.newArrayList();
+
+                        for (ScoredValue<String> value : (ScoredValue<String>[]) args[1]) {
+                            members.add(value.getValue() + "=" + value.getScore());
+                        }
+
+                        this.commands.add("zadd " + String.join(" ", members));
+                        return future(Long.valueOf(members.size()));
+                    case "zincrby":
+                        this.commands.add("zincrby " + args[2] + " " + args[1]);
+                        return future(args[1]);
+                    case "zrem":
+                        this.commands.add("zrem " + String.join(" ", (String[]) args[1]));
+                        return future(1L);
+                    default:
+                        throw new UnsupportedOperationException(method);
+                }
+            });
+
+            return proxy(StatefulRedisConnection.class, (method, args) -> method.equals("async") ? commands : null);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> RedisFuture<V> future(V value) {
+        CompletableFuture<V> future = CompletableFuture.completedFuture(value);
+
+        return (RedisFuture<V>) Proxy.newProxyInstance(RedisLeaderboardTests.class.getClassLoader(),
+                new Class<?>[] {RedisFuture.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(future, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> A proxy(Class<?> type, Handler handler) {
+        return (A) Proxy.newProxyInstance(RedisLeaderboardTests.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.handle(method.getName(), args));
+    }
+
+    private interface Handler {
+
+        Object handle(String method, Object[] args) throws Throwable;
+
+    }
+}
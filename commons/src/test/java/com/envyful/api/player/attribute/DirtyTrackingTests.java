@@ -0,0 +1,133 @@
+package com.envyful.api.player.attribute;
+
+import com.envyful.api.player.save.attribute.TrackChanges;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public class DirtyTrackingTests {
+
+    @Test
+    void testUntrackedAttributeIsAlwaysDirty() {
+        UntrackedAttribute attribute = new UntrackedAttribute();
+
+        attribute.markClean();
+
+        assert UtilDirtyTracking.getMode(UntrackedAttribute.class) == null;
+        assert attribute.isDirty();
+    }
+
+    @Test
+    void testExplicitAttributeWaitsForMarkDirty() {
+        ExplicitAttribute attribute = new ExplicitAttribute();
+
+        assert attribute.isDirty();
+
+        attribute.markClean();
+        attribute.kills = 10;
+
+        assert !attribute.isDirty();
+
+        attribute.markDirty();
+
+        assert attribute.isDirty();
+    }
+
+    @Test
+    void testSnapshotAttributeDetectsChangedFields() {
+        SnapshotAttribute attribute = new SnapshotAttribute();
+
+        attribute.markClean();
+
+        assert !attribute.isDirty();
+
+        attribute.cache = 5;
+
+        assert !attribute.isDirty();
+
+        attribute.kills = 10;
+
+        assert attribute.isDirty();
+
+        attribute.markClean();
+        attribute.homes.add("spawn");
+
+        assert attribute.isDirty();
+
+        attribute.markClean();
+
+        assert !attribute.isDirty();
+
+        attribute.markDirty();
+
+        assert attribute.isDirty();
+    }
+
+    @Test
+    void testSnapshotAttributeDetectsChangesWithTheSameHash() {
+        SnapshotAttribute attribute = new SnapshotAttribute();
+
+        attribute.deaths = 31;
+        attribute.markClean();
+        attribute.kills = 1;
+        attribute.deaths = 0;
+
+        assert attribute.isDirty();
+    }
+
+    private static class UntrackedAttribute extends TestAttribute {
+    }
+
+    @TrackChanges
+    private static class ExplicitAttribute extends TestAttribute {
+
+        private int kills;
+
+    }
+
+    @TrackChanges(TrackChanges.Mode.SNAPSHOT)
+    private static class SnapshotAttribute extends TestAttribute {
+
+        private int kills;
+        private int deaths;
+        private final List<String> homes = Lists.newArrayList();
+        private transient int cache;
+
+    }
+
+    private abstract static class TestAttribute extends ManagedAttribute<UUID, Object> {
+
+        private TestAttribute() {
+            super(null);
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId(UUID playerUuid) {
+            return CompletableFuture.completedFuture(playerUuid);
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId() {
+            return CompletableFuture.completedFuture(this.id);
+        }
+
+        @Override
+        public void load(UUID id) {
+        }
+
+        @Override
+        public void save(UUID id) {
+        }
+
+        @Override
+        protected void load() {
+        }
+
+        @Override
+        protected void save() {
+        }
+    }
+}
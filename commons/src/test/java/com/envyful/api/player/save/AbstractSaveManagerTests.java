@@ -0,0 +1,128 @@
+package com.envyful.api.player.save;
+
+import com.envyful.api.player.attribute.Attribute;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AbstractSaveManagerTests {
+
+    @Test
+    void testConcurrentSharedLoadsReadOnce() throws InterruptedException {
+        TestSaveManager saveManager = new TestSaveManager();
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = Lists.newArrayList();
+        List<Attribute<?>> loaded = Lists.newCopyOnWriteArrayList();
+
+        for (int i = 0; i < 20; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                loaded.add(saveManager.loadSharedAttribute(SharedAttributeCacheTests.TestAttribute.class, "clan", null,
+                        () -> {
+                            reads.incrementAndGet();
+
+                            try {
+                                Thread.sleep(50);
+                            } catch (InterruptedException ignored) {
+                            }
+
+                            return new SharedAttributeCacheTests.TestAttribute();
+                        }));
+            });
+
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        assert loaded.size() == 20;
+        assert reads.get() == 1;
+
+        for (Attribute<?> attribute : loaded) {
+            assert attribute == loaded.get(0);
+        }
+    }
+
+    @Test
+    void testFailedSharedLoadIsNotCached() {
+        TestSaveManager saveManager = new TestSaveManager();
+
+        try {
+            saveManager.loadSharedAttribute(SharedAttributeCacheTests.TestAttribute.class, "clan", null, () -> {
+                throw new IllegalStateException("read failed");
+            });
+            assert false;
+        } catch (IllegalStateException ignored) {
+        }
+
+        Attribute<?> attribute = new SharedAttributeCacheTests.TestAttribute();
+
+        assert saveManager.loadSharedAttribute(SharedAttributeCacheTests.TestAttribute.class, "clan", null,
+                () -> attribute) == attribute;
+    }
+
+    @Test
+    void testEvictionStartsWithTheFirstSharedAttribute() {
+        TestSaveManager saveManager = new TestSaveManager();
+
+        assert !saveManager.isEvicting();
+
+        saveManager.loadSharedAttribute(SharedAttributeCacheTests.TestAttribute.class, "clan", null,
+                SharedAttributeCacheTests.TestAttribute::new);
+
+        assert saveManager.isEvicting();
+
+        saveManager.close();
+
+        assert !saveManager.isEvicting();
+    }
+
+    @Test
+    void testClosedSaveManagerDoesNotStartEviction() {
+        TestSaveManager saveManager = new TestSaveManager();
+
+        saveManager.close();
+        saveManager.loadSharedAttribute(SharedAttributeCacheTests.TestAttribute.class, "clan", null,
+                SharedAttributeCacheTests.TestAttribute::new);
+
+        assert !saveManager.isEvicting();
+    }
+
+    private static class TestSaveManager extends AbstractSaveManager<Object> {
+
+        private TestSaveManager() {
+            super(null);
+        }
+
+        @Override
+        public void saveData(UUID uuid, Attribute<?> attribute) {
+        }
+
+        @Override
+        public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass, B id) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.envyful.api.player.save;
+
+import com.envyful.api.player.attribute.Attribute;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public class SharedAttributeCacheTests {
+
+    @Test
+    void testHeldEntriesAreNotEvicted() {
+        List<Object> saved = Lists.newArrayList();
+        SharedAttributeCache cache = new SharedAttributeCache((id, attribute) -> saved.add(id));
+        UUID player = UUID.randomUUID();
+        TestAttribute attribute = new TestAttribute();
+
+        cache.setIdleTimeout(-1);
+        assert cache.put("faction", attribute, player) == attribute;
+        assert cache.put("faction", new TestAttribute(), null) == attribute;
+        assert cache.getId(attribute).equals("faction");
+
+        cache.evict();
+
+        assert cache.size() == 1;
+        assert saved.isEmpty();
+
+        cache.release(player);
+        cache.evict();
+
+        assert cache.size() == 0;
+        assert saved.size() == 1;
+        assert cache.getEvictions() == 1;
+        assert cache.get(TestAttribute.class, "faction", null) == null;
+        assert cache.getMisses() == 1;
+    }
+
+    @Test
+    void testMaximumSize() {
+        SharedAttributeCache cache = new SharedAttributeCache((id, attribute) -> {});
+        UUID player = UUID.randomUUID();
+
+        cache.setMaximumSize(2);
+        cache.put("held", new TestAttribute(), player);
+
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, new TestAttribute(), null);
+        }
+
+        cache.get(TestAttribute.class, 0, null);
+        cache.evict();
+
+        assert cache.size() == 2;
+        assert cache.get(TestAttribute.class, "held", null) != null;
+        assert cache.get(TestAttribute.class, 0, null) != null;
+        assert cache.getHits() == 3;
+    }
+
+    public static class TestAttribute implements Attribute<Object> {
+
+        @Override
+        public CompletableFuture<Object> getId(UUID playerUuid) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Object> getId() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public boolean isShared() {
+            return true;
+        }
+
+        @Override
+        public void load(Object id) {
+        }
+
+        @Override
+        public void save(Object id) {
+        }
+    }
+}
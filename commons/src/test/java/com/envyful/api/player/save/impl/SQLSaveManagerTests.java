@@ -0,0 +1,445 @@
+package com.envyful.api.player.save.impl;
+
+import com.envyful.api.database.Database;
+import com.envyful.api.player.EnvyPlayer;
+import com.envyful.api.player.PlayerManager;
+import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.player.attribute.PlayerAttribute;
+import com.envyful.api.player.save.SaveManager;
+import com.envyful.api.player.save.attribute.Queries;
+import com.envyful.api.player.save.attribute.TrackChanges;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SQLSaveManagerTests {
+
+    @Test
+    void testLoginsAreBatched() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        TestDatabase database = new TestDatabase();
+        SQLSaveManager<Object> saveManager = new SQLSaveManager<>(new TestPlayerManager(), database, 200);
+
+        database.rows.put(first.toString(), 5);
+        database.rows.put(second.toString(), 9);
+        saveManager.registerAttribute(TestAttribute.class);
+
+        CompletableFuture<List<Attribute<?>>> firstLoad = saveManager.loadData(first);
+        CompletableFuture<List<Attribute<?>>> secondLoad = saveManager.loadData(second);
+
+        TestAttribute firstAttribute = (TestAttribute) firstLoad.join().get(0);
+        TestAttribute secondAttribute = (TestAttribute) secondLoad.join().get(0);
+
+        assert firstAttribute.kills == 5;
+        assert secondAttribute.kills == 9;
+        assert !firstAttribute.isDirty();
+        assert database.queries.size() == 1;
+        assert database.queries.get(0).startsWith("SELECT uuid, kills FROM stats WHERE uuid IN (?, ?)");
+    }
+
+    @Test
+    void testBatchQueryKeepsPercentSigns() {
+        UUID uuid = UUID.randomUUID();
+        TestDatabase database = new TestDatabase();
+        SQLSaveManager<Object> saveManager = new SQLSaveManager<>(new TestPlayerManager(), database, 10);
+
+        database.rows.put(uuid.toString(), 4);
+        saveManager.registerAttribute(PatternAttribute.class);
+
+        assert saveManager.loadData(uuid).join().size() == 1;
+        assert database.queries.get(0)
+                .equals("SELECT uuid, kills FROM stats WHERE uuid IN (?) AND name NOT LIKE '%bot%';");
+    }
+
+    @Test
+    void testFailedBatchFailsTheLogin() {
+        TestDatabase database = new TestDatabase();
+        SQLSaveManager<Object> saveManager = new SQLSaveManager<>(new TestPlayerManager(), database, 10);
+
+        database.fail = true;
+        saveManager.registerAttribute(TestAttribute.class);
+
+        try {
+            saveManager.loadData(UUID.randomUUID()).join();
+            assert false;
+        } catch (CompletionException e) {
+            assert e.getCause() instanceof SQLException;
+        }
+    }
+
+    @Test
+    void testFailedDirectLoadFailsTheLogin() {
+        TestDatabase database = new TestDatabase();
+        SQLSaveManager<Object> saveManager = new SQLSaveManager<>(new TestPlayerManager(), database, 0);
+
+        database.fail = true;
+        saveManager.registerAttribute(TestAttribute.class);
+
+        try {
+            saveManager.loadData(UUID.randomUUID()).join();
+            assert false;
+        } catch (CompletionException e) {
+            assert e.getCause() instanceof SQLException;
+        }
+    }
+
+    @Test
+    void testUnchangedAttributeIsNotSaved() {
+        UUID uuid = UUID.randomUUID();
+        TestDatabase database = new TestDatabase();
+        SQLSaveManager<Object> saveManager = new SQLSaveManager<>(new TestPlayerManager(), database, 0);
+        TrackedAttribute attribute = new TrackedAttribute(new TestPlayerManager());
+
+        saveManager.registerAttribute(TrackedAttribute.class);
+        attribute.markClean();
+        saveManager.saveData(uuid, attribute);
+
+        assert database.updates.get() == 0;
+        assert saveManager.getSkippedSaves() == 1;
+
+        attribute.kills = 3;
+        attribute.markDirty();
+        saveManager.saveData(uuid, attribute);
+
+        assert database.updates.get() == 1;
+        assert saveManager.getWrittenSaves() == 1;
+        assert !attribute.isDirty();
+    }
+
+    @Test
+    void testFailedSaveMarksTheAttributeDirty() {
+        UUID uuid = UUID.randomUUID();
+        TestDatabase database = new TestDatabase();
+        SQLSaveManager<Object> saveManager = new SQLSaveManager<>(new TestPlayerManager(), database, 0);
+        TrackedAttribute attribute = new TrackedAttribute(new TestPlayerManager());
+
+        saveManager.registerAttribute(TrackedAttribute.class);
+        attribute.markDirty();
+        database.fail = true;
+        saveManager.saveData(uuid, attribute);
+
+        assert attribute.isDirty();
+
+        database.fail = false;
+        saveManager.saveData(uuid, attribute);
+
+        assert database.updates.get() == 1;
+        assert !attribute.isDirty();
+    }
+
+    @Test
+    void testFailedBatchIsRequeuedByWriteBehind() {
+        UUID uuid = UUID.randomUUID();
+        TestDatabase database = new TestDatabase();
+        SQLSaveManager<Object> sqlSaveManager = new SQLSaveManager<>(new TestPlayerManager(), database, 0);
+        WriteBehindSaveManager<Object> saveManager = new WriteBehindSaveManager<>(sqlSaveManager,
+                TimeUnit.HOURS.toMillis(1), 100);
+        TrackedAttribute attribute = new TrackedAttribute(new TestPlayerManager());
+
+        saveManager.registerAttribute(TrackedAttribute.class);
+        attribute.kills = 3;
+        attribute.markDirty();
+        database.failWrites = true;
+        saveManager.saveData(uuid, attribute);
+        saveManager.flush();
+
+        assert attribute.isDirty();
+        assert saveManager.getPendingSaves() == 1;
+        assert database.updates.get() == 0;
+
+        database.failWrites = false;
+        saveManager.close();
+
+        assert saveManager.getPendingSaves() == 0;
+        assert database.updates.get() == 1;
+        assert !attribute.isDirty();
+    }
+
+    @Test
+    void testUnknownParameterIsRejected() {
+        SQLSaveManager<Object> saveManager = new SQLSaveManager<>(new TestPlayerManager(), new TestDatabase(), 0);
+
+        try {
+            saveManager.registerAttribute(BrokenAttribute.class);
+            assert false;
+        } catch (IllegalArgumentException e) {
+            assert e.getCause().getMessage().contains("'deaths'");
+        }
+
+        assert saveManager.loadData(UUID.randomUUID()).join().isEmpty();
+    }
+
+    @Queries(
+            value = {},
+            loadQuery = "SELECT kills FROM stats WHERE uuid = :id;",
+            updateQuery = "UPDATE stats SET kills = :kills WHERE uuid = :id;",
+            batchLoadQuery = "SELECT uuid, kills FROM stats WHERE uuid IN (%s);"
+    )
+    public static class TestAttribute implements Attribute<UUID> {
+
+        private int kills;
+        private transient boolean dirty = true;
+
+        public TestAttribute(TestPlayerManager playerManager) {
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId(UUID playerUuid) {
+            return CompletableFuture.completedFuture(playerUuid);
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public boolean isDirty() {
+            return this.dirty;
+        }
+
+        @Override
+        public void markDirty() {
+            this.dirty = true;
+        }
+
+        @Override
+        public void markClean() {
+            this.dirty = false;
+        }
+
+        @Override
+        public void load(UUID id) {
+        }
+
+        @Override
+        public void save(UUID id) {
+        }
+    }
+
+    @TrackChanges
+    @Queries(
+            value = {},
+            loadQuery = "SELECT kills FROM stats WHERE uuid = :id;",
+            updateQuery = "UPDATE stats SET kills = :kills WHERE uuid = :id;"
+    )
+    public static class TrackedAttribute
+            extends PlayerAttribute<Object, EnvyPlayer<Object>, Object, TestPlayerManager> {
+
+        private int kills;
+
+        public TrackedAttribute(TestPlayerManager playerManager) {
+            super(null, playerManager);
+        }
+
+        @Override
+        protected void load() {
+        }
+
+        @Override
+        protected void save() {
+        }
+    }
+
+    @Queries(
+            value = {},
+            loadQuery = "SELECT kills FROM stats WHERE uuid = :id;",
+            updateQuery = "UPDATE stats SET kills = 0 WHERE uuid = :id;",
+            batchLoadQuery = "SELECT uuid, kills FROM stats WHERE uuid IN (%s) AND name NOT LIKE '%bot%';"
+    )
+    public static class PatternAttribute extends TestAttribute {
+
+        public PatternAttribute(TestPlayerManager playerManager) {
+            super(playerManager);
+        }
+    }
+
+    @Queries(
+            value = {},
+            loadQuery = "SELECT kills FROM stats WHERE uuid = :id;",
+            updateQuery = "UPDATE stats SET deaths = :deaths WHERE uuid = :id;"
+    )
+    public static class BrokenAttribute extends TestAttribute {
+
+        public BrokenAttribute(TestPlayerManager playerManager) {
+            super(playerManager);
+        }
+    }
+
+    /**
+     *
+     * A database of a single <code>stats (uuid, kills)</code> table, answering the batch load query
+     *
+     */
+    private static class TestDatabase implements Database {
+
+        private final Map<String, Integer> rows = Maps.newConcurrentMap();
+        private final List<String> queries = Collections.synchronizedList(Lists.newArrayList());
+        private final AtomicInteger updates = new AtomicInteger();
+        private volatile boolean fail = false;
+        private volatile boolean failWrites = false;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (this.fail) {
+                throw new SQLException("Connection refused");
+            }
+
+            return proxy(Connection.class, (method, args) -> {
+                if (method.equals("prepareStatement")) {
+                    this.queries.add((String) args[0]);
+                    return this.prepare();
+                } else if (method.equals("getAutoCommit")) {
+                    return true;
+                }
+
+                return null;
+            });
+        }
+
+        private PreparedStatement prepare() {
+            List<String> ids = Lists.newArrayList();
+
+            return proxy(PreparedStatement.class, (method, args) -> {
+                if (method.equals("setString")) {
+                    ids.add((String) args[1]);
+                } else if (method.equals("executeQuery")) {
+                    List<Object[]> results = Lists.newArrayList();
+
+                    for (String id : ids) {
+                        if (this.rows.containsKey(id)) {
+                            results.add(new Object[] {id, this.rows.get(id)});
+                        }
+                    }
+
+                    return resultSet(results);
+                } else if (method.equals("executeUpdate")) {
+                    this.updates.incrementAndGet();
+                    return 1;
+                } else if (method.equals("executeBatch")) {
+                    if (this.failWrites) {
+                        throw new SQLException("Deadlock found");
+                    }
+
+                    this.updates.addAndGet(ids.size());
+                    return new int[ids.size()];
+                }
+
+                return null;
+            });
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static ResultSet resultSet(List<Object[]> rows) {
+        Iterator<Object[]> iterator = rows.iterator();
+        Object[][] current = new Object[1][];
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (method, args) -> {
+            if (method.equals("getColumnCount")) {
+                return 2;
+            }
+
+            return method.equals("getColumnLabel") ? ((int) args[0] == 1 ? "uuid" : "kills") : null;
+        });
+
+        return proxy(ResultSet.class, (method, args) -> {
+            switch (method) {
+                case "next":
+                    current[0] = iterator.hasNext() ? iterator.next() : null;
+                    return current[0] != null;
+                case "getMetaData":
+                    return metaData;
+                case "getString":
+                    return args[0] instanceof String ? current[0][0] : current[0][(int) args[0] - 1];
+                case "getInt":
+                    return current[0][(int) args[0] - 1];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> A proxy(Class<A> type, Handler handler) {
+        return (A) Proxy.newProxyInstance(SQLSaveManagerTests.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.handle(method.getName(), args));
+    }
+
+    private interface Handler {
+
+        Object handle(String method, Object[] args) throws Throwable;
+
+    }
+
+    public static class TestPlayerManager implements PlayerManager<EnvyPlayer<Object>, Object> {
+
+        @Override
+        public EnvyPlayer<Object> getPlayer(Object player) {
+            return null;
+        }
+
+        @Override
+        public EnvyPlayer<Object> getPlayer(UUID uuid) {
+            return null;
+        }
+
+        @Override
+        public EnvyPlayer<Object> getOnlinePlayer(String username) {
+            return null;
+        }
+
+        @Override
+        public EnvyPlayer<Object> getOnlinePlayerCaseInsensitive(String username) {
+            return null;
+        }
+
+        @Override
+        public List<EnvyPlayer<Object>> getOnlinePlayers() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Attribute<?>> getOfflineAttributes(UUID uuid) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+        }
+
+        @Override
+        public void setSaveManager(SaveManager<Object> saveManager) {
+        }
+
+        @Override
+        public SaveManager<Object> getSaveManager() {
+            return null;
+        }
+
+        @Override
+        public <A extends Attribute<B>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass,
+                                                                             B id) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.envyful.api.player.save.impl;
+
+import com.envyful.api.database.impl.redis.InMemoryRedisStore;
+import com.envyful.api.player.EnvyPlayer;
+import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.player.save.SaveManager;
+import com.google.common.collect.Lists;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TieredSaveManagerTests {
+
+    @Test
+    void testHandoffLoadsFromRedis() {
+        InMemoryRedisStore store = new InMemoryRedisStore();
+        TestSaveManager sql = new TestSaveManager();
+        TieredSaveManager<Object> first = new TieredSaveManager<>(null, sql, store, "test", 60_000, 1_000);
+        TieredSaveManager<Object> second = new TieredSaveManager<>(null, sql, store, "test", 60_000, 1_000);
+        UUID player = UUID.randomUUID();
+        TestAttribute attribute = new TestAttribute();
+
+        first.registerAttribute(TestAttribute.class);
+        second.registerAttribute(TestAttribute.class);
+
+        first.loadData(online(player)).join();
+        assert sql.loads.get() == 1;
+
+        attribute.value = 42;
+        first.saveData(player, attribute);
+        first.release(player);
+
+        List<Attribute<?>> loaded = second.loadData(online(player)).join();
+
+        assert sql.loads.get() == 1;
+        assert loaded.size() == 1;
+        assert ((TestAttribute) loaded.get(0)).value == 42;
+        assert !loaded.get(0).isDirty();
+
+        first.flush();
+        assert first.getPendingWrites() == 0;
+        assert sql.saved.size() == 1;
+    }
+
+    @Test
+    void testLoadWaitsForRelease() {
+        InMemoryRedisStore store = new InMemoryRedisStore();
+        TestSaveManager sql = new TestSaveManager();
+        TieredSaveManager<Object> first = new TieredSaveManager<>(null, sql, store, "test", 60_000, 5_000);
+        TieredSaveManager<Object> second = new TieredSaveManager<>(null, sql, store, "test", 60_000, 5_000);
+        UUID player = UUID.randomUUID();
+        TestAttribute attribute = new TestAttribute();
+
+        first.registerAttribute(TestAttribute.class);
+        second.registerAttribute(TestAttribute.class);
+        first.loadData(online(player)).join();
+
+        CompletableFuture<List<Attribute<?>>> future = second.loadData(online(player));
+
+        attribute.value = 7;
+        first.saveData(player, attribute);
+
+        assert !future.isDone();
+
+        first.release(player);
+
+        List<Attribute<?>> loaded = future.join();
+
+        assert loaded.size() == 1;
+        assert ((TestAttribute) loaded.get(0)).value == 7;
+    }
+
+    @Test
+    void testTakesOverAfterTimeout() {
+        InMemoryRedisStore store = new InMemoryRedisStore();
+        TestSaveManager sql = new TestSaveManager();
+        TieredSaveManager<Object> first = new TieredSaveManager<>(null, sql, store, "test", 60_000, 100);
+        TieredSaveManager<Object> second = new TieredSaveManager<>(null, sql, store, "test", 60_000, 100);
+        UUID player = UUID.randomUUID();
+
+        first.registerAttribute(TestAttribute.class);
+        second.registerAttribute(TestAttribute.class);
+        first.loadData(online(player)).join();
+
+        List<Attribute<?>> loaded = second.loadData(online(player)).join();
+
+        assert sql.loads.get() == 2;
+        assert loaded.size() == 1;
+        assert ((TestAttribute) loaded.get(0)).value == 0;
+
+        first.release(player);
+
+        assert store.get("test:" + player + ":owner") != null;
+    }
+
+    @Test
+    void testOldServerSaveAfterTakeoverIsSkipped() {
+        InMemoryRedisStore store = new InMemoryRedisStore();
+        TestSaveManager sql = new TestSaveManager();
+        TieredSaveManager<Object> first = new TieredSaveManager<>(null, sql, store, "test", 60_000, 100);
+        TieredSaveManager<Object> second = new TieredSaveManager<>(null, sql, store, "test", 60_000, 100);
+        UUID player = UUID.randomUUID();
+        TestAttribute attribute = new TestAttribute();
+
+        first.registerAttribute(TestAttribute.class);
+        second.registerAttribute(TestAttribute.class);
+        first.loadData(online(player)).join();
+        second.loadData(online(player)).join();
+
+        attribute.value = 99;
+        first.saveData(player, attribute);
+        first.flush();
+
+        assert sql.saved.isEmpty();
+        assert store.get("test:" + player + ":" + TestAttribute.class.getName()) == null;
+
+        attribute.value = 5;
+        second.saveData(player, attribute);
+        second.flush();
+
+        assert sql.saved.size() == 1;
+        assert JsonParser.parseString(store.get("test:" + player + ":" + TestAttribute.class.getName()))
+                .getAsJsonObject().get("value").getAsInt() == 5;
+    }
+
+    @Test
+    void testOfflineLookupLeavesTheOwnerAlone() {
+        InMemoryRedisStore store = new InMemoryRedisStore();
+        TestSaveManager sql = new TestSaveManager();
+        TieredSaveManager<Object> first = new TieredSaveManager<>(null, sql, store, "test", 60_000, 100);
+        TieredSaveManager<Object> second = new TieredSaveManager<>(null, sql, store, "test", 60_000, 100);
+        UUID player = UUID.randomUUID();
+        TestAttribute attribute = new TestAttribute();
+
+        first.registerAttribute(TestAttribute.class);
+        second.registerAttribute(TestAttribute.class);
+        first.loadData(online(player)).join();
+
+        attribute.value = 3;
+        first.saveData(player, attribute);
+
+        String owner = store.get("test:" + player + ":owner");
+        List<Attribute<?>> loaded = second.loadData(player).join();
+
+        assert ((TestAttribute) loaded.get(0)).value == 3;
+        assert owner.equals(store.get("test:" + player + ":owner"));
+
+        attribute.value = 4;
+        first.saveData(player, attribute);
+        first.flush();
+
+        assert sql.saved.size() == 2;
+        assert JsonParser.parseString(store.get("test:" + player + ":" + TestAttribute.class.getName()))
+                .getAsJsonObject().get("value").getAsInt() == 4;
+
+        first.release(player);
+
+        assert store.get("test:" + player + ":owner") == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EnvyPlayer<Object> online(UUID uuid) {
+        return (EnvyPlayer<Object>) Proxy.newProxyInstance(TieredSaveManagerTests.class.getClassLoader(),
+                new Class<?>[] {EnvyPlayer.class},
+                (proxy, method, args) -> method.getName().equals("getUuid") ? uuid : null);
+    }
+
+    public static class TestSaveManager implements SaveManager<Object> {
+
+        private final AtomicInteger loads = new AtomicInteger();
+        private final List<Attribute<?>> saved = Collections.synchronizedList(Lists.newArrayList());
+
+        @Override
+        public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+        }
+
+        @Override
+        public void saveData(UUID uuid, Attribute<?> attribute) {
+            this.saved.add(attribute);
+        }
+
+        @Override
+        public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass,
+                                                                               B id) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
+            this.loads.incrementAndGet();
+            return CompletableFuture.completedFuture(Lists.newArrayList(new TestAttribute()));
+        }
+    }
+
+    public static class TestAttribute implements Attribute<UUID> {
+
+        private int value;
+        private transient boolean dirty = true;
+
+        @Override
+        public CompletableFuture<UUID> getId(UUID playerUuid) {
+            return CompletableFuture.completedFuture(playerUuid);
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public boolean isDirty() {
+            return this.dirty;
+        }
+
+        @Override
+        public void markClean() {
+            this.dirty = false;
+        }
+
+        @Override
+        public void load(UUID id) {
+        }
+
+        @Override
+        public void save(UUID id) {
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.envyful.api.player.save.impl;
+
+import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.player.save.SaveManager;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class WriteBehindSaveManagerTests {
+
+    @Test
+    void testRepeatedSavesAreCoalesced() {
+        UUID uuid = UUID.randomUUID();
+        RecordingSaveManager delegate = new RecordingSaveManager();
+        WriteBehindSaveManager<Object> saveManager = new WriteBehindSaveManager<>(delegate,
+                TimeUnit.HOURS.toMillis(1), 100);
+        TestAttribute attribute = new TestAttribute();
+
+        for (int i = 0; i < 10; i++) {
+            saveManager.saveData(uuid, attribute);
+        }
+
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+
+        assert saveManager.getPendingSaves() == 2;
+        assert delegate.batches.isEmpty();
+
+        saveManager.close();
+
+        assert saveManager.getPendingSaves() == 0;
+        assert delegate.batches.size() == 1;
+        assert delegate.batches.get(0).size() == 2;
+        assert delegate.batches.get(0).get(uuid).size() == 1;
+        assert delegate.closed;
+    }
+
+    @Test
+    void testReachingTheLimitFlushes() {
+        RecordingSaveManager delegate = new RecordingSaveManager();
+        WriteBehindSaveManager<Object> saveManager = new WriteBehindSaveManager<>(delegate,
+                TimeUnit.HOURS.toMillis(1), 3);
+
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+
+        assert delegate.batches.isEmpty();
+
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+
+        assert delegate.batches.size() == 1;
+        assert delegate.batches.get(0).size() == 3;
+        assert saveManager.getPendingSaves() == 0;
+
+        saveManager.close();
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        UUID uuid = UUID.randomUUID();
+        RecordingSaveManager delegate = new RecordingSaveManager();
+        WriteBehindSaveManager<Object> saveManager = new WriteBehindSaveManager<>(delegate,
+                TimeUnit.HOURS.toMillis(1), 100);
+        TestAttribute attribute = new TestAttribute();
+
+        saveManager.saveData(uuid, attribute);
+        attribute.dirty = false;
+        delegate.fail = true;
+        saveManager.flush();
+
+        assert attribute.dirty;
+        assert saveManager.getPendingSaves() == 1;
+        assert delegate.batches.isEmpty();
+
+        delegate.fail = false;
+        saveManager.close();
+
+        assert saveManager.getPendingSaves() == 0;
+        assert delegate.batches.size() == 1;
+        assert delegate.batches.get(0).get(uuid).get(0) == attribute;
+    }
+
+    private static class RecordingSaveManager implements SaveManager<Object> {
+
+        private final List<Map<UUID, List<Attribute<?>>>> batches = Lists.newArrayList();
+        private boolean fail = false;
+        private boolean closed = false;
+
+        @Override
+        public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+        }
+
+        @Override
+        public void saveData(UUID uuid, Attribute<?> attribute) {
+        }
+
+        @Override
+        public void saveData(Map<UUID, List<Attribute<?>>> attributes) {
+            if (this.fail) {
+                throw new IllegalStateException("write failed");
+            }
+
+            this.batches.add(attributes);
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+        @Override
+        public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass, B id) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static class TestAttribute implements Attribute<UUID> {
+
+        private boolean dirty = true;
+
+        @Override
+        public CompletableFuture<UUID> getId(UUID playerUuid) {
+            return CompletableFuture.completedFuture(playerUuid);
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void markDirty() {
+            this.dirty = true;
+        }
+
+        @Override
+        public void load(UUID id) {
+        }
+
+        @Override
+        public void save(UUID id) {
+        }
+    }
+}
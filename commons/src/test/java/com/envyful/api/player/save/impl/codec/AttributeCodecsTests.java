@@ -0,0 +1,80 @@
+package com.envyful.api.player.save.impl.codec;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+public class AttributeCodecsTests {
+
+    @Test
+    void testRoundTrip() throws IOException {
+        JsonObject object = this.createObject();
+        Path directory = Files.createTempDirectory("codecs");
+
+        for (AttributeCodec codec : new AttributeCodec[]{AttributeCodecs.JSON, AttributeCodecs.GZIP_JSON, AttributeCodecs.BINARY}) {
+            Path path = directory.resolve(codec.getId() + ".dat");
+            AttributeCodecs.write(path, codec, object);
+            JsonElement read = AttributeCodecs.read(path);
+
+            assert read.getAsJsonObject().get("name").getAsString().equals("Steve");
+            assert read.getAsJsonObject().get("kills").getAsInt() == -42;
+            assert read.getAsJsonObject().get("playtime").getAsLong() == Long.MAX_VALUE;
+            assert read.getAsJsonObject().get("ratio").getAsDouble() == 1.5;
+            assert read.getAsJsonObject().get("online").getAsBoolean();
+            assert read.getAsJsonObject().get("tags").getAsJsonArray().size() == 2;
+            assert read.getAsJsonObject().get("tags").getAsJsonArray().get(1).getAsString().equals("§b");
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assert files.noneMatch(path -> path.toString().endsWith(".tmp"));
+        }
+    }
+
+    @Test
+    void testLegacyJson() throws IOException {
+        Path path = Files.createTempFile("legacy", ".json");
+        Files.write(path, "{\n  \"kills\": 5\n}".getBytes(StandardCharsets.UTF_8));
+
+        assert AttributeCodecs.read(path).getAsJsonObject().get("kills").getAsInt() == 5;
+
+        Files.write(path, new byte[0]);
+
+        assert AttributeCodecs.read(path) == null;
+    }
+
+    @Test
+    void testPlainJson() throws IOException {
+        Path path = Files.createTempDirectory("codecs").resolve("plain.json");
+        AttributeCodecs.writeJson(path, new GsonBuilder().setPrettyPrinting().create(), this.createObject());
+
+        String written = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+
+        assert written.startsWith("{\n  \"name\": \"Steve\"");
+        assert JsonParser.parseString(written).getAsJsonObject().get("kills").getAsInt() == -42;
+        assert AttributeCodecs.read(path).getAsJsonObject().get("tags").getAsJsonArray().size() == 2;
+    }
+
+    private JsonObject createObject() {
+        JsonObject object = new JsonObject();
+        JsonArray tags = new JsonArray();
+
+        tags.add("first");
+        tags.add("§b");
+        object.addProperty("name", "Steve");
+        object.addProperty("kills", -42);
+        object.addProperty("playtime", Long.MAX_VALUE);
+        object.addProperty("ratio", 1.5);
+        object.addProperty("online", true);
+        object.add("tags", tags);
+        return object;
+    }
+}
@@ -0,0 +1,124 @@
+package com.envyful.api.player.save.impl.log;
+
+import com.envyful.api.player.save.impl.codec.AttributeCodecs;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+public class AttributeLogTests {
+
+    @Test
+    void testPutGetDelete() throws IOException {
+        try (AttributeLog log = new AttributeLog(Files.createTempDirectory("log").resolve("data.log"))) {
+            log.put("kills", "a", AttributeCodecs.BINARY, this.value(1));
+            log.put("kills", "a", AttributeCodecs.JSON, this.value(2));
+            log.put("kills", "b", AttributeCodecs.BINARY, this.value(3));
+            log.delete("kills", "b");
+
+            assert log.get("kills", "a").getAsJsonObject().get("value").getAsInt() == 2;
+            assert log.get("kills", "b") == null;
+            assert log.get("deaths", "a") == null;
+            assert log.getKeyCount() == 1;
+        }
+    }
+
+    @Test
+    void testRecoversIndexAndTruncatesTornWrite() throws IOException {
+        Path path = Files.createTempDirectory("log").resolve("data.log");
+
+        try (AttributeLog log = new AttributeLog(path)) {
+            log.put("kills", "a", AttributeCodecs.BINARY, this.value(1));
+            log.put("kills", "b", AttributeCodecs.BINARY, this.value(2));
+        }
+
+        long size = Files.size(path);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 100, 1, 2, 3}));
+        }
+
+        try (AttributeLog log = new AttributeLog(path)) {
+            assert log.get("kills", "a").getAsJsonObject().get("value").getAsInt() == 1;
+            assert log.get("kills", "b").getAsJsonObject().get("value").getAsInt() == 2;
+            assert log.getSize() == size;
+        }
+
+        assert Files.size(path) == size;
+
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            Path backup = files.filter(file -> file.getFileName().toString().startsWith("data.log.corrupt-"))
+                    .findFirst().orElse(null);
+
+            assert backup != null;
+            assert Files.size(backup) == size + 7;
+        }
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        Path path = Files.createTempDirectory("log").resolve("data.log");
+
+        try (AttributeLog log = new AttributeLog(path)) {
+            for (int i = 0; i < 100; i++) {
+                log.put("kills", "a", AttributeCodecs.BINARY, this.value(i));
+            }
+
+            log.put("kills", "b", AttributeCodecs.BINARY, this.value(-1));
+
+            long size = log.getSize();
+
+            assert log.getGarbageRatio() > 0.9;
+            assert log.compactIfNeeded(0.5, 0);
+            assert log.getSize() < size;
+            assert log.getGarbageRatio() == 0;
+            assert log.get("kills", "a").getAsJsonObject().get("value").getAsInt() == 99;
+
+            log.put("kills", "c", AttributeCodecs.BINARY, this.value(5));
+        }
+
+        try (AttributeLog log = new AttributeLog(path)) {
+            assert log.getKeyCount() == 3;
+            assert log.get("kills", "b").getAsJsonObject().get("value").getAsInt() == -1;
+            assert log.get("kills", "c").getAsJsonObject().get("value").getAsInt() == 5;
+        }
+    }
+
+    @Test
+    void testFailedCompactionKeepsTheLogOpen() throws IOException {
+        Path path = Files.createTempDirectory("log").resolve("data.log");
+        AttributeLog log = new AttributeLog(path);
+
+        log.put("kills", "a", AttributeCodecs.BINARY, this.value(1));
+        log.put("kills", "a", AttributeCodecs.BINARY, this.value(2));
+        Files.createDirectory(path.resolveSibling("data.log.compact"));
+
+        try {
+            log.compact();
+            assert false;
+        } catch (IOException ignored) {
+        }
+
+        log.put("kills", "b", AttributeCodecs.BINARY, this.value(3));
+
+        assert log.get("kills", "a").getAsJsonObject().get("value").getAsInt() == 2;
+        assert log.compact();
+        assert log.get("kills", "b").getAsJsonObject().get("value").getAsInt() == 3;
+
+        log.close();
+
+        assert !log.compact();
+    }
+
+    private JsonObject value(int value) {
+        JsonObject object = new JsonObject();
+        object.addProperty("value", value);
+        return object;
+    }
+}
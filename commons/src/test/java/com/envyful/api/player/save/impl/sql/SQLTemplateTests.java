@@ -0,0 +1,63 @@
+package com.envyful.api.player.save.impl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class SQLTemplateTests {
+
+    @Test
+    void testNamedPlaceholders() {
+        SQLTemplate template = SQLTemplate.parse("UPDATE players SET kills = :kills, deaths = :deaths WHERE uuid = :id");
+        List<SQLTemplate.Parameter> parameters = template.getParameters();
+
+        assert template.getSql().equals("UPDATE players SET kills = ?, deaths = ? WHERE uuid = ?");
+        assert parameters.size() == 3;
+        assert parameters.get(0).getName().equals("kills");
+        assert parameters.get(1).getName().equals("deaths");
+        assert parameters.get(2).getName().equals("id");
+    }
+
+    @Test
+    void testIgnoresLiteralsCommentsAndCasts() {
+        SQLTemplate template = SQLTemplate.parse(
+                "SELECT ':skip ?', data::text FROM t /* :nope ? */ WHERE a = :a -- :also ?");
+
+        assert template.getParameters().size() == 1;
+        assert template.getParameters().get(0).getName().equals("a");
+        assert template.getSql().equals("SELECT ':skip ?', data::text FROM t /* :nope ? */ WHERE a = ? -- :also ?");
+    }
+
+    @Test
+    void testInfersComparisonColumns() {
+        SQLTemplate template = SQLTemplate.parse(
+                "UPDATE players SET kill_count=?, p.deaths = ? WHERE `uuid` = ? AND name LIKE ?");
+        List<SQLTemplate.Parameter> parameters = template.getParameters();
+
+        assert parameters.get(0).getColumn().equals("kill_count");
+        assert parameters.get(1).getColumn().equals("deaths");
+        assert parameters.get(2).getColumn().equals("uuid");
+        assert parameters.get(3).getColumn().equals("name");
+    }
+
+    @Test
+    void testInfersInsertColumns() {
+        SQLTemplate template = SQLTemplate.parse("INSERT INTO players (uuid, kills, deaths) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE kills = VALUES(kills), deaths = ?");
+        List<SQLTemplate.Parameter> parameters = template.getParameters();
+
+        assert parameters.size() == 4;
+        assert parameters.get(0).getColumn().equals("uuid");
+        assert parameters.get(1).getColumn().equals("kills");
+        assert parameters.get(2).getColumn().equals("deaths");
+        assert parameters.get(3).getColumn().equals("deaths");
+    }
+
+    @Test
+    void testUnresolvableColumn() {
+        SQLTemplate template = SQLTemplate.parse("UPDATE players SET kills = kills + ? WHERE uuid IN (?)");
+
+        assert template.getParameters().get(0).getColumn() == null;
+        assert template.getParameters().get(1).getColumn() == null;
+    }
+}
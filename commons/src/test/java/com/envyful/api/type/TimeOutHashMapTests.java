@@ -0,0 +1,138 @@
+package com.envyful.api.type;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TimeOutHashMapTests {
+
+    @Test
+    void testExpiredEntriesAreRemoved() {
+        AtomicLong now = new AtomicLong();
+        TimeOutHashMap<String, Integer> map = new TimeOutHashMap<>(100, 0, now::get);
+
+        map.put("a", 1);
+        map.put("b", 2);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+
+        assert map.get("a") == null;
+        map.put("c", 3);
+
+        assert map.size() == 1;
+        assert map.keySet().contains("c");
+        assert map.getExpirations() == 2;
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        TimeOutHashMap<String, Integer> map = new TimeOutHashMap<>(10_000, 2);
+
+        map.put("a", 1);
+        map.put("b", 2);
+        map.get("a");
+        map.put("c", 3);
+
+        assert map.containsKey("a");
+        assert !map.containsKey("b");
+        assert map.getEvictions() == 1;
+    }
+
+    @Test
+    void testComputeIfAbsentLoadsOnce() throws InterruptedException {
+        TimeOutHashMap<String, Integer> map = new TimeOutHashMap<>(10_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread loader = new Thread(() -> map.computeIfAbsent("a", key -> {
+            loads.incrementAndGet();
+            started.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return 1;
+        }));
+
+        loader.start();
+        started.await();
+
+        AtomicReference<Integer> waited = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread waiter = new Thread(() -> waited.set(map.computeIfAbsent("a", key -> loads.incrementAndGet())));
+
+        waiter.setUncaughtExceptionHandler((thread, throwable) -> failure.set(throwable));
+        waiter.start();
+
+        while (waiter.getState() != Thread.State.WAITING && waiter.isAlive()) {
+            Thread.sleep(1);
+        }
+
+        release.countDown();
+        loader.join();
+        waiter.join();
+
+        if (failure.get() != null) {
+            throw new AssertionError("The waiting thread failed", failure.get());
+        }
+
+        assert waited.get() == 1;
+        assert loads.get() == 1;
+        assert map.get("a") == 1;
+        assert map.getHits() >= 1;
+    }
+
+    @Test
+    void testViewsRemoveFromTheMap() {
+        TimeOutHashMap<String, Integer> map = new TimeOutHashMap<>(10_000);
+
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        map.put("d", 4);
+
+        map.keySet().remove("a");
+        map.values().removeIf(value -> value == 2);
+        map.entrySet().remove(Pair.of("c", 100));
+
+        Iterator<Map.Entry<String, Integer>> iterator = map.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey().equals("d")) {
+                iterator.remove();
+            }
+        }
+
+        assert map.size() == 1;
+        assert map.get("c") == 3;
+        assert map.keySet().equals(Collections.singleton("c"));
+
+        map.entrySet().iterator().next().setValue(5);
+
+        assert map.get("c") == 5;
+    }
+
+    @Test
+    void testRecursiveLoadIsRejected() {
+        TimeOutHashMap<String, Integer> map = new TimeOutHashMap<>(10_000);
+
+        try {
+            map.computeIfAbsent("a", key -> map.computeIfAbsent("a", other -> 1));
+            assert false;
+        } catch (IllegalStateException ignored) {
+        }
+
+        assert map.computeIfAbsent("a", key -> map.computeIfAbsent("b", other -> 2) + 1) == 3;
+        assert map.get("b") == 2;
+    }
+}
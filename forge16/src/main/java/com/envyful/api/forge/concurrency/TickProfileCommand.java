@@ -0,0 +1,107 @@
+package com.envyful.api.forge.concurrency;
+
+import com.envyful.api.command.PlatformCommand;
+import com.envyful.api.concurrency.TickProfiler;
+import com.envyful.api.concurrency.TickTaskQueue;
+import com.envyful.api.forge.chat.UtilChatColour;
+import com.envyful.api.forge.command.ForgeCommandFactory;
+import com.envyful.api.forge.command.command.ForgePlatformCommand;
+import com.google.common.collect.Lists;
+import net.minecraft.command.ICommandSource;
+import net.minecraft.util.Util;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Creates the <code>/envyapi profile</code> command for viewing and controlling the {@link TickProfiler}.
+ * It isn't registered automatically, a mod can register it using
+ * {@link ForgeCommandFactory#registerCommand} when commands are registered
+ *
+ */
+public class TickProfileCommand {
+
+    public static final String PERMISSION = "envyapi.command.profile";
+
+    private TickProfileCommand() {
+        throw new UnsupportedOperationException("Static utility");
+    }
+
+    /**
+     *
+     * Creates the command
+     *
+     * @param commandFactory The command factory, used for checking permissions
+     * @return The command
+     */
+    public static PlatformCommand<ICommandSource> create(ForgeCommandFactory commandFactory) {
+        return ForgePlatformCommand.builder()
+                .name("envyapi")
+                .permissionCheck((sender, args) -> commandFactory.hasPermission(sender, PERMISSION))
+                .noPermissionProvider(sender -> Lists.newArrayList("&cYou don't have permission to use this command"))
+                .descriptionProvider((sender, args) -> Lists.newArrayList(
+                        "&e/envyapi profile [on|off|reset|budget <ms>]"))
+                .subCommands(Lists.newArrayList(ForgePlatformCommand.builder()
+                        .name("profile")
+                        .executor((sender, args) -> execute((ICommandSource) sender, (String[]) args))
+                        .build()))
+                .build();
+    }
+
+    private static void execute(ICommandSource sender, String[] args) {
+        TickProfiler profiler = UtilForgeConcurrency.getProfiler();
+        String action = args.length == 0 ? "dump" : args[0].toLowerCase(Locale.ROOT);
+
+        switch (action) {
+            case "on":
+                profiler.setEnabled(true);
+                sendMessage(sender, Lists.newArrayList("&aTick profiling enabled"));
+                break;
+            case "off":
+                profiler.setEnabled(false);
+                sendMessage(sender, Lists.newArrayList("&cTick profiling disabled"));
+                break;
+            case "reset":
+                profiler.reset();
+                sendMessage(sender, Lists.newArrayList("&aTick profile reset"));
+                break;
+            case "budget":
+                setBudget(sender, profiler, args);
+                break;
+            default:
+                TickTaskQueue tasks = UtilForgeConcurrency.getMainThreadTasks();
+                List<String> lines = profiler.dump(10);
+
+                lines.add(String.format("Main thread queue: %d waiting, %d tasks in %.2fms last tick, %d ticks over budget",
+                        tasks.getBacklog(), tasks.getLastTickTasks(), tasks.getLastTickNanos() / 1_000_000.0,
+                        tasks.getOverBudgetTicks()));
+                sendMessage(sender, lines);
+                break;
+        }
+    }
+
+    private static void setBudget(ICommandSource sender, TickProfiler profiler, String[] args) {
+        if (args.length < 2) {
+            sendMessage(sender, Lists.newArrayList("&c/envyapi profile budget <ms>"));
+            return;
+        }
+
+        try {
+            double millis = Double.parseDouble(args[1]);
+
+            profiler.setSourceBudget((long) (millis * TimeUnit.MILLISECONDS.toNanos(1)));
+            sendMessage(sender, Lists.newArrayList(millis <= 0 ? "&aSource throttling disabled" :
+                    "&aSources will be throttled after " + millis + "ms per tick"));
+        } catch (NumberFormatException e) {
+            sendMessage(sender, Lists.newArrayList("&c" + args[1] + " is not a number"));
+        }
+    }
+
+    private static void sendMessage(ICommandSource sender, List<String> lines) {
+        for (String line : lines) {
+            sender.sendMessage(UtilChatColour.colour(line), Util.NIL_UUID);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.envyful.api.forge.player;
 
 import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
 import com.envyful.api.player.PlayerManager;
 import com.envyful.api.player.attribute.Attribute;
 import com.envyful.api.player.attribute.data.PlayerAttributeData;
@@ -126,8 +127,14 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
                     (ServerPlayerEntity) event.getPlayer());
             this.manager.cachedPlayers.put(event.getPlayer().getUUID(), player);
 
-            UtilConcurrency.runAsync(() -> {
+            UtilConcurrency.runAsyncIO(() -> {
                 this.manager.saveManager.loadData(player).whenComplete((attributes, throwable) -> {
+                    if (throwable != null) {
+                        UtilLogger.logger().ifPresent(logger -> logger.error(
+                                "Failed to load the attributes of " + player.getUuid(), throwable));
+                        return;
+                    }
+
                     for (PlayerAttributeData attributeDatum : this.manager.attributeData) {
                         Attribute<?> attribute = this.findAttribute(attributeDatum, attributes);
 
@@ -160,12 +167,14 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
                 return;
             }
 
-            UtilConcurrency.runAsync(() -> {
+            UtilConcurrency.runAsyncIO(() -> {
                 for (Attribute<?> value : player.getAttributes()) {
                     if (value != null) {
                         this.manager.saveManager.saveData(player, value);
                     }
                 }
+
+                this.manager.saveManager.release(player.getUuid());
             });
         }
 
@@ -177,7 +186,7 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
 
             this.lastSave = System.currentTimeMillis();
 
-            UtilConcurrency.runAsync(() -> {
+            UtilConcurrency.runAsyncIO(() -> {
                 for (ForgeEnvyPlayer onlinePlayer : this.manager.getOnlinePlayers()) {
                     for (Attribute<?> value : onlinePlayer.getAttributes()) {
                         if (value != null) {
@@ -203,15 +212,15 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
 
         @SubscribeEvent(priority = EventPriority.HIGHEST)
         public void onPreServerShutdown(FMLServerStoppingEvent event) {
-            UtilConcurrency.runAsync(() -> {
-                for (ForgeEnvyPlayer player : this.manager.cachedPlayers.values()) {
-                    for (Attribute<?> value : player.getAttributes()) {
-                        if (value != null) {
-                            this.manager.saveManager.saveData(player, value);
-                        }
+            for (ForgeEnvyPlayer player : this.manager.cachedPlayers.values()) {
+                for (Attribute<?> value : player.getAttributes()) {
+                    if (value != null) {
+                        this.manager.saveManager.saveData(player, value);
                     }
                 }
-            });
+            }
+
+            this.manager.saveManager.close();
         }
     }
 }
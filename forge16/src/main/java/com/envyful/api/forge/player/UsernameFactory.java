@@ -76,7 +76,7 @@ public class UsernameFactory {
 
         @SubscribeEvent
         public void onServerShuttingDown(FMLServerStoppingEvent event) {
-            UtilConcurrency.runAsync(UsernameFactory::save);
+            UtilConcurrency.runAsyncIO(UsernameFactory::save);
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.envyful.api.forge.concurrency;
 
+import com.envyful.api.concurrency.TickProfiler;
 import com.envyful.api.concurrency.UtilConcurrency;
 
 import java.util.function.Consumer;
@@ -22,15 +23,16 @@ public class ScheduledConsumer<T> implements Consumer<T> {
             if (this.delayTicks == -1) {
                 UtilConcurrency.runAsync(() -> this.handler.accept(t));
             } else {
-                UtilConcurrency.runLater(() -> this.handler.accept(t), 50 * this.delayTicks);
+                UtilForgeConcurrency.runLaterAsync(() -> this.handler.accept(t), (int) this.delayTicks);
             }
             return;
         }
 
         if (this.delayTicks == -1) {
-            UtilForgeConcurrency.runSync(() -> this.handler.accept(t));
+            UtilForgeConcurrency.runSync(() -> this.handler.accept(t), this.handler);
         } else {
-            UtilForgeConcurrency.runLater(() -> this.handler.accept(t), (int) this.delayTicks);
+            UtilForgeConcurrency.runLater(TickProfiler.withSource(() -> this.handler.accept(t), this.handler),
+                    (int) this.delayTicks);
         }
     }
 
@@ -1,5 +1,9 @@
 package com.envyful.api.forge.concurrency;
 
+import com.envyful.api.concurrency.TickProfiler;
+import com.envyful.api.concurrency.TickTaskQueue;
+import com.envyful.api.concurrency.TickWheel;
+import com.envyful.api.concurrency.UtilConcurrency;
 import com.envyful.api.forge.concurrency.listener.ServerTickListener;
 import net.minecraftforge.common.MinecraftForge;
 
@@ -18,6 +22,27 @@ public class UtilForgeConcurrency {
         MinecraftForge.EVENT_BUS.register(TICK_LISTENER);
     }
 
+    /**
+     *
+     * Gets the queue of tasks waiting to be run on the main thread, for changing its per tick budget or
+     * reading how many tasks it runs and how long they take
+     *
+     * @return The main thread task queue
+     */
+    public static TickTaskQueue getMainThreadTasks() {
+        return TICK_LISTENER.getTasks();
+    }
+
+    /**
+     *
+     * Gets the profiler that records how long the main thread tasks take, attributed to where they came from
+     *
+     * @return The tick profiler
+     */
+    public static TickProfiler getProfiler() {
+        return TICK_LISTENER.getProfiler();
+    }
+
     /**
      *
      * Passes runnable task to be run on the main minecraft thread
@@ -28,6 +53,17 @@ public class UtilForgeConcurrency {
         TICK_LISTENER.addTask(runnable);
     }
 
+    /**
+     *
+     * Passes runnable task to be run on the main minecraft thread, attributing the time it takes to the given source
+     * in the {@link TickProfiler} instead of the class that created the runnable
+     *
+     * @param runnable The runnable to be run on the main thread
+     * @param source The source, i.e. the handler the runnable calls
+     */
+    public static void runSync(Runnable runnable, Object source) {
+        TICK_LISTENER.addTask(TickProfiler.withSource(runnable, source));
+    }
 
     /**
      *
@@ -37,17 +73,45 @@ public class UtilForgeConcurrency {
      * @param delay the delay in ticks
      */
     public static void runLater(Runnable runnable, int delay) {
-        TICK_LISTENER.addTask(() -> processRunLater(runnable, delay));
+        scheduleLater(runnable, delay);
     }
 
-    private static void processRunLater(Runnable runnable, int delay) {
-        if (delay >= 0) {
-            int finalDelay = delay - 1;
-            TICK_LISTENER.addTask(() -> processRunLater(runnable, finalDelay));
-            return;
-        }
+    /**
+     *
+     * Passes runnable task to be run on the main minecraft thread {@param delay} ticks later, returning a handle
+     * so that it can be cancelled before it runs
+     *
+     * @param runnable The runnable to be run on the main thread
+     * @param delay the delay in ticks
+     * @return The handle for cancelling the task
+     */
+    public static TickWheel.Task scheduleLater(Runnable runnable, int delay) {
+        return TICK_LISTENER.getWheel().schedule(runnable, delay);
+    }
 
-        TICK_LISTENER.addTask(runnable);
+    /**
+     *
+     * Passes runnable task to be run asynchronously delay ticks later
+     *
+     * @param runnable The runnable to be run off the main thread
+     * @param delay the delay in ticks
+     * @return The handle for cancelling the task
+     */
+    public static TickWheel.Task runLaterAsync(Runnable runnable, int delay) {
+        return TICK_LISTENER.getWheel().schedule(() -> UtilConcurrency.runAsync(runnable), delay);
+    }
+
+    /**
+     *
+     * Runs the task on the main minecraft thread after the delay and then every interval until it's cancelled
+     *
+     * @param runnable The runnable to be run on the main thread
+     * @param delay The delay in ticks before it's first run
+     * @param interval The ticks between each run
+     * @return The handle for cancelling the task
+     */
+    public static TickWheel.Task runRepeating(Runnable runnable, long delay, long interval) {
+        return TICK_LISTENER.getWheel().scheduleRepeating(runnable, delay, interval);
     }
 
     /**
@@ -36,7 +36,7 @@ public class ForgeGuiTickHandler implements TickHandler {
         if (this.async) {
             this.handler.accept(pane);
         } else {
-            UtilForgeConcurrency.runSync(() -> this.handler.accept(pane));
+            UtilForgeConcurrency.runSync(() -> this.handler.accept(pane), this.handler);
         }
     }
 
@@ -1,6 +1,8 @@
 package com.envyful.api.forge.concurrency;
 
-import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.TaskHandle;
+import com.envyful.api.concurrency.TaskRegistry;
+import com.envyful.api.concurrency.TickTaskHandle;
 
 /**
  *
@@ -14,7 +16,9 @@ public class ForgeTaskBuilder {
     private long intervalTicks = 10L;
 
     private Runnable task;
+    private Object owner = null;
     private boolean started = false;
+    private TaskHandle handle;
 
     public ForgeTaskBuilder() {}
 
@@ -69,55 +73,40 @@ public class ForgeTaskBuilder {
 
     /**
      *
-     * Runs the task
+     * Sets the owner the task is registered under in the {@link TaskRegistry}
+     * so it can be cancelled with {@link TaskRegistry#cancel(Object)}
      *
+     * @param owner The owner (i.e. the mod instance)
+     * @return The builder
+     */
+    public ForgeTaskBuilder owner(Object owner) {
+        this.owner = owner;
+        return this;
+    }
+
+    /**
+     *
+     * Runs the task using the server tick timing wheel
+     *
+     * @return The handle for controlling the task
      */
-    public void start() {
+    public TaskHandle start() {
         if (this.task == null) {
             throw new IllegalArgumentException("Task cannot be null");
         }
 
         if (this.started) {
-            return;
+            return this.handle;
         }
 
         this.started = true;
-        RepeatedRunnable runnable = new RepeatedRunnable(this);
-
-        UtilConcurrency.runRepeatingTask(runnable, 50L, 50L);
-    }
 
-    private static final class RepeatedRunnable implements Runnable {
+        TickTaskHandle handle = new TickTaskHandle(this.owner, this.task,
+                UtilForgeConcurrency.TICK_LISTENER.getWheel(), this.async);
 
-        private final ForgeTaskBuilder taskBuilder;
-
-        private int delayTicks = 0;
-        private int ticks = 0;
-        private int lastRunTicks = 0;
-
-        private RepeatedRunnable(ForgeTaskBuilder taskBuilder) {
-            this.taskBuilder = taskBuilder;
-        }
-
-        @Override
-        public void run() {
-            ++this.delayTicks;
-
-            if (this.delayTicks <= this.taskBuilder.delayTicks) {
-                return;
-            }
-
-            ++this.ticks;
-
-            if (this.lastRunTicks == 0 || (this.ticks - this.lastRunTicks) == this.taskBuilder.intervalTicks) {
-                this.lastRunTicks = this.ticks;
-
-                if (this.taskBuilder.async) {
-                    UtilConcurrency.runAsync(() -> this.taskBuilder.task.run());
-                } else {
-                    UtilForgeConcurrency.runSync(this.taskBuilder.task);
-                }
-            }
-        }
+        TaskRegistry.register(handle);
+        handle.reschedule(this.delayTicks + 1, this.intervalTicks);
+        this.handle = handle;
+        return handle;
     }
 }
@@ -1,20 +1,29 @@
 package com.envyful.api.forge.concurrency.listener;
 
+import com.envyful.api.concurrency.TaskRegistry;
+import com.envyful.api.concurrency.TickProfiler;
+import com.envyful.api.concurrency.TickTaskQueue;
+import com.envyful.api.concurrency.TickWheel;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
-import java.util.Iterator;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  *
  * Simple listener class for running tasks on the minecraft thread.
+ * Tasks are run in the order they're added, within the per tick budget of the {@link TickTaskQueue}
  *
  */
 public class ServerTickListener {
 
-    private final Set<Runnable> tasks = ConcurrentHashMap.newKeySet();
+    private final TickProfiler profiler = new TickProfiler();
+    private final TickWheel wheel = new TickWheel();
+    private final TickTaskQueue tasks = new TickTaskQueue();
+
+    public ServerTickListener() {
+        this.wheel.setProfiler(this.profiler);
+        this.tasks.setProfiler(this.profiler);
+    }
 
     @SubscribeEvent
     public void onServerTick(TickEvent.ServerTickEvent event) {
@@ -22,13 +31,14 @@ public class ServerTickListener {
             return;
         }
 
-        Iterator<Runnable> iterator = tasks.iterator();
+        this.profiler.startTick();
+        this.tasks.drain();
+        this.wheel.tick();
+    }
 
-        while (iterator.hasNext()) {
-            Runnable next = iterator.next();
-            next.run();
-            iterator.remove();
-        }
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        TaskRegistry.cancelAll();
     }
 
     public void addTask(Runnable runnable) {
@@ -36,6 +46,30 @@ public class ServerTickListener {
     }
 
     public boolean hasTask(Runnable runnable) {
-        return tasks.contains(runnable);
+        return this.tasks.contains(runnable);
+    }
+
+    /**
+     *
+     * Gets the queue of tasks to be run on the main thread, for its budget and metrics
+     *
+     * @return The task queue
+     */
+    public TickTaskQueue getTasks() {
+        return this.tasks;
+    }
+
+    public TickProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    /**
+     *
+     * Gets the timing wheel used for delayed and repeating tasks, which is advanced once per server tick
+     *
+     * @return The timing wheel
+     */
+    public TickWheel getWheel() {
+        return this.wheel;
     }
 }
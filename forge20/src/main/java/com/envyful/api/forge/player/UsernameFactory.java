@@ -75,7 +75,7 @@ public class UsernameFactory {
 
         @SubscribeEvent
         public void onServerShuttingDown(ServerStoppingEvent event) {
-            UtilConcurrency.runAsync(UsernameFactory::save);
+            UtilConcurrency.runAsyncIO(UsernameFactory::save);
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.envyful.api.spigot.player;
 
 import com.destroystokyo.paper.event.player.PlayerPostRespawnEvent;
+import com.envyful.api.concurrency.TaskRegistry;
 import com.envyful.api.concurrency.UtilConcurrency;
 import com.envyful.api.player.PlayerManager;
 import com.envyful.api.player.attribute.Attribute;
@@ -17,6 +18,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.Plugin;
 
 import java.util.*;
@@ -39,7 +41,7 @@ public class SpigotPlayerManager implements PlayerManager<SpigotEnvyPlayer, Play
     private SaveManager<Player> saveManager = new EmptySaveManager<>(this);
 
     public SpigotPlayerManager(Plugin plugin) {
-        Bukkit.getPluginManager().registerEvents(new PlayerListener(this), plugin);
+        Bukkit.getPluginManager().registerEvents(new PlayerListener(this, plugin), plugin);
     }
 
     @Override
@@ -115,9 +117,11 @@ public class SpigotPlayerManager implements PlayerManager<SpigotEnvyPlayer, Play
     private final class PlayerListener implements Listener {
 
         private final SpigotPlayerManager manager;
+        private final Plugin plugin;
 
-        private PlayerListener(SpigotPlayerManager manager) {
+        private PlayerListener(SpigotPlayerManager manager, Plugin plugin) {
             this.manager = manager;
+            this.plugin = plugin;
         }
 
         @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
@@ -125,7 +129,7 @@ public class SpigotPlayerManager implements PlayerManager<SpigotEnvyPlayer, Play
             SpigotEnvyPlayer player = new SpigotEnvyPlayer(this.manager.saveManager,event.getUniqueId());
             this.manager.cachedPlayers.put(event.getUniqueId(), player);
 
-            UtilConcurrency.runAsync(() -> {
+            UtilConcurrency.runAsyncIO(() -> {
                 this.manager.saveManager.loadData(player).whenComplete((attributes, throwable) -> {
                     if (throwable != null) {
                         throwable.printStackTrace();
@@ -170,8 +174,12 @@ public class SpigotPlayerManager implements PlayerManager<SpigotEnvyPlayer, Play
 
             if (Bukkit.isStopping()) {
                 this.saveData(player);
+                this.manager.saveManager.release(player.getUuid());
             } else {
-                UtilConcurrency.runAsync(() -> this.saveData(player));
+                UtilConcurrency.runAsyncIO(() -> {
+                    this.saveData(player);
+                    this.manager.saveManager.release(player.getUuid());
+                });
             }
         }
 
@@ -183,6 +191,20 @@ public class SpigotPlayerManager implements PlayerManager<SpigotEnvyPlayer, Play
             }
         }
 
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPluginDisable(PluginDisableEvent event) {
+            if (!event.getPlugin().equals(this.plugin)) {
+                return;
+            }
+
+            for (SpigotEnvyPlayer player : this.manager.cachedPlayers.values()) {
+                this.saveData(player);
+            }
+
+            this.manager.saveManager.close();
+            TaskRegistry.cancel(this.plugin);
+        }
+
         @EventHandler(priority = EventPriority.LOWEST)
         public void onPlayerRespawn(PlayerPostRespawnEvent event) {
             UtilConcurrency.runLater(() -> {
@@ -1,6 +1,8 @@
 package com.envyful.api.velocity.player;
 
+import com.envyful.api.concurrency.TaskRegistry;
 import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
 import com.envyful.api.player.PlayerManager;
 import com.envyful.api.player.attribute.Attribute;
 import com.envyful.api.player.attribute.data.PlayerAttributeData;
@@ -12,6 +14,7 @@ import com.velocitypowered.api.event.PostOrder;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.LoginEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 
@@ -37,7 +40,7 @@ public class VelocityPlayerManager implements PlayerManager<VelocityEnvyPlayer,
 
     public VelocityPlayerManager(Object plugin, ProxyServer proxy) {
         this.proxyServer = proxy;
-        proxy.getEventManager().register(plugin, new PlayerListener(this));
+        proxy.getEventManager().register(plugin, new PlayerListener(plugin, this));
     }
 
     @Override
@@ -112,9 +115,11 @@ public class VelocityPlayerManager implements PlayerManager<VelocityEnvyPlayer,
 
     private static final class PlayerListener {
 
+        private final Object plugin;
         private final VelocityPlayerManager manager;
 
-        private PlayerListener(VelocityPlayerManager manager) {
+        private PlayerListener(Object plugin, VelocityPlayerManager manager) {
+            this.plugin = plugin;
             this.manager = manager;
         }
 
@@ -125,8 +130,14 @@ public class VelocityPlayerManager implements PlayerManager<VelocityEnvyPlayer,
             player.setParent(event.getPlayer());
             this.manager.cachedPlayers.put(event.getPlayer().getUniqueId(), player);
 
-            UtilConcurrency.runAsync(() -> {
+            UtilConcurrency.runAsyncIO(() -> {
                 this.manager.saveManager.loadData(player).whenComplete((attributes, throwable) -> {
+                    if (throwable != null) {
+                        UtilLogger.logger().ifPresent(logger -> logger.error(
+                                "Failed to load the attributes of " + player.getUuid(), throwable));
+                        return;
+                    }
+
                     for (PlayerAttributeData attributeDatum : this.manager.attributeData) {
                         Attribute<?> attribute = this.findAttribute(attributeDatum, attributes);
 
@@ -159,6 +170,21 @@ public class VelocityPlayerManager implements PlayerManager<VelocityEnvyPlayer,
                 return;
             }
 
+            this.saveData(player);
+            this.manager.saveManager.release(player.getUuid());
+        }
+
+        @Subscribe(order = PostOrder.LAST)
+        public void onProxyShutdown(ProxyShutdownEvent event) {
+            for (VelocityEnvyPlayer player : this.manager.cachedPlayers.values()) {
+                this.saveData(player);
+            }
+
+            this.manager.saveManager.close();
+            TaskRegistry.cancel(this.plugin);
+        }
+
+        private void saveData(VelocityEnvyPlayer player) {
             for (Attribute<?> value : player.getAttributes()) {
                 if (value != null) {
                     this.manager.saveManager.saveData(player, value);